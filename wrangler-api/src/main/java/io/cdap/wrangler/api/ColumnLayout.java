@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An interned, immutable list of column names with a case insensitive hash index over them.
+ *
+ * <p>Rows having the same columns share a single instance of the layout, so the column names are held
+ * once and the index is built once, instead of once per {@link Row}.</p>
+ */
+final class ColumnLayout {
+  // Upper bound of the number of distinct layouts held by the cache.
+  private static final int MAX_LAYOUTS = 1024;
+  private static final Map<List<String>, ColumnLayout> LAYOUTS = new ConcurrentHashMap<>();
+
+  private final List<String> columns;
+  // Open addressing hash table holding (index + 1) of the first column for each case insensitive name.
+  private final int[] slots;
+  private final int mask;
+
+  private ColumnLayout(List<String> columns) {
+    this.columns = columns;
+    int capacity = Integer.highestOneBit(Math.max(columns.size(), 1) * 2 - 1) << 1;
+    this.slots = new int[capacity];
+    this.mask = capacity - 1;
+    for (int i = 0; i < columns.size(); i++) {
+      String name = columns.get(i);
+      int slot = hash(name) & mask;
+      while (slots[slot] != 0 && !columns.get(slots[slot] - 1).equalsIgnoreCase(name)) {
+        slot = (slot + 1) & mask;
+      }
+      if (slots[slot] == 0) {
+        slots[slot] = i + 1;
+      }
+    }
+  }
+
+  /**
+   * Returns the shared layout for the columns specified.
+   *
+   * @param columns names of the columns.
+   * @return the layout holding an immutable copy of the columns.
+   */
+  static ColumnLayout of(List<String> columns) {
+    ColumnLayout layout = LAYOUTS.get(columns);
+    if (layout != null) {
+      return layout;
+    }
+    layout = new ColumnLayout(new ArrayList<>(columns));
+    if (LAYOUTS.size() >= MAX_LAYOUTS) {
+      LAYOUTS.clear();
+    }
+    ColumnLayout existing = LAYOUTS.putIfAbsent(layout.columns, layout);
+    return existing == null ? layout : existing;
+  }
+
+  /**
+   * @return names of the columns, the list must not be modified.
+   */
+  List<String> getColumns() {
+    return columns;
+  }
+
+  /**
+   * Finds a column index based on the name of the column. Starts the search from firstIdx index.
+   * The col name is case insensitive.
+   *
+   * @param col to be searched within the layout.
+   * @param firstIdx first index to check
+   * @return -1 if not present, else the index at which the column is found.
+   */
+  int find(String col, int firstIdx) {
+    int slot = hash(col) & mask;
+    while (slots[slot] != 0) {
+      int idx = slots[slot] - 1;
+      if (columns.get(idx).equalsIgnoreCase(col)) {
+        if (idx >= firstIdx) {
+          return idx;
+        }
+        // The first column with the name is before firstIdx, look for a duplicate after it.
+        for (int i = firstIdx, size = columns.size(); i < size; i++) {
+          if (col.equalsIgnoreCase(columns.get(i))) {
+            return i;
+          }
+        }
+        return -1;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Computes a hash code that is equal for names that are equal ignoring case, folding each character
+   * the same way {@link String#equalsIgnoreCase(String)} compares them.
+   */
+  private static int hash(String name) {
+    int h = 0;
+    for (int i = 0, length = name.length(); i < length; i++) {
+      h = 31 * h + Character.toLowerCase(Character.toUpperCase(name.charAt(i)));
+    }
+    return h ^ (h >>> 16);
+  }
+}
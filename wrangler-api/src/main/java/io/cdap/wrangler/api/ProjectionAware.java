@@ -0,0 +1,46 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.api;
+
+import io.cdap.wrangler.api.annotations.PublicEvolving;
+
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * A <code>ProjectionAware</code> directive knows exactly which columns of its input {@link Row} it reads, so that
+ * the executor can work out which columns are used by the rest of a recipe.
+ *
+ * <p>Before executing any row, the executor invokes {@link #project(Set)} on the directives of the recipe, from the
+ * last one to the first, with the columns used by the directives that follow. A directive that generates columns,
+ * like <code>parse-as-json</code>, may then skip generating the columns that are never used. The analysis stops at
+ * every directive that does not implement this interface, since it may read any column.</p>
+ */
+@PublicEvolving
+public interface ProjectionAware {
+
+  /**
+   * Informs the directive of the columns of its output used by the rest of the recipe.
+   *
+   * @param columns names of the columns used after this directive, compared case insensitively, or {@code null}
+   *   if any column may be used.
+   * @return names of the columns of the input used by this directive or by the rest of the recipe, or {@code null}
+   *   if any column may be used.
+   */
+  @Nullable
+  Set<String> project(@Nullable Set<String> columns);
+}
@@ -30,12 +30,25 @@ import java.util.Objects;
 public final class Row implements Serializable {
   private static final long serialVersionUID = -7505703059736709602L;
 
+  // Minimum width of the row for lookups of columns by name to go through a hash index.
+  private static final int MIN_INDEXED_WIDTH = 8;
+
   // Name of the columns held by the row.
   private List<String> columns = new ArrayList<>();
 
   // Values held by the row.
   private List<Object> values = new ArrayList<>();
 
+  // Column list exclusively owned by this row. When columns refers to any other list, the list is
+  // shared with other rows and is copied before being modified.
+  private transient List<String> ownColumns = columns;
+
+  // Shared layout of the columns, set once the columns are looked up more than once without being modified.
+  private transient ColumnLayout layout;
+
+  // Number of lookups by name since the columns were last modified.
+  private transient int lookups;
+
   public Row() {
   }
 
@@ -46,7 +59,13 @@ public final class Row implements Serializable {
    */
   public Row(Row row) {
     this.values = new ArrayList<>(row.values);
-    this.columns = new ArrayList<>(row.columns);
+    if (row.layout != null) {
+      this.columns = row.columns;
+      this.layout = row.layout;
+    } else {
+      this.columns = new ArrayList<>(row.columns);
+      this.ownColumns = columns;
+    }
   }
 
   /**
@@ -56,6 +75,7 @@ public final class Row implements Serializable {
    */
   public Row(List<String> columns) {
     this.columns = new ArrayList<>(columns);
+    this.ownColumns = this.columns;
     this.values = new ArrayList<>(columns.size());
   }
 
@@ -67,6 +87,7 @@ public final class Row implements Serializable {
    */
   public Row(String name, Object value) {
     this.columns = new ArrayList<>(1);
+    this.ownColumns = this.columns;
     this.values = new ArrayList<>(1);
     this.columns.add(name);
     this.values.add(value);
@@ -89,7 +110,7 @@ public final class Row implements Serializable {
    * @param name of the column to be set at idx.
    */
   public void setColumn(int idx, String name) {
-    columns.set(idx, name);
+    mutableColumns().set(idx, name);
   }
 
   /**
@@ -136,18 +157,30 @@ public final class Row implements Serializable {
    * @param value to be added to row.
    */
   public Row add(String name, Object value) {
-    columns.add(name);
+    mutableColumns().add(name);
     values.add(value);
     return this;
   }
 
+  /**
+   * Adds values into row, each value named by the name at the same position.
+   *
+   * @param names of the values to be added to row, at least as many as values.
+   * @param values to be added to row.
+   */
+  public Row addAll(List<String> names, List<?> values) {
+    mutableColumns().addAll(names.subList(0, values.size()));
+    this.values.addAll(values);
+    return this;
+  }
+
   /**
    * Removes the column and value at given index.
    *
    * @param idx for which the value and column are removed.
    */
   public Row remove(int idx) {
-    columns.remove(idx);
+    mutableColumns().remove(idx);
     values.remove(idx);
     return this;
   }
@@ -171,6 +204,13 @@ public final class Row implements Serializable {
    * @return -1 if not present, else the index at which the column is found.
    */
   public int find(String col, int firstIdx) {
+    if (layout == null && columns.size() >= MIN_INDEXED_WIDTH && ++lookups > 1) {
+      layout = ColumnLayout.of(columns);
+      columns = layout.getColumns();
+    }
+    if (layout != null) {
+      return layout.find(col, firstIdx);
+    }
     for (int i = firstIdx, columnsSize = columns.size(); i < columnsSize; i++) {
       String name = columns.get(i);
       if (col.equalsIgnoreCase(name)) {
@@ -236,12 +276,25 @@ public final class Row implements Serializable {
       setValue(idx, value);
     } else {
       if (index < columns.size() && index < values.size()) {
-        columns.add(index, name);
+        mutableColumns().add(index, name);
         values.add(index, value);
       }
     }
   }
 
+  /**
+   * Returns the list of columns that can be modified, copying the columns if they are shared with other rows.
+   */
+  private List<String> mutableColumns() {
+    if (columns != ownColumns) {
+      columns = new ArrayList<>(columns);
+      ownColumns = columns;
+    }
+    layout = null;
+    lookups = 0;
+    return columns;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -0,0 +1,46 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.api;
+
+import io.cdap.wrangler.api.annotations.PublicEvolving;
+
+import javax.annotation.Nullable;
+
+/**
+ * A <code>RowMapper</code> is implemented by directives that transform every input {@link Row} into at most
+ * one output {@link Row}.
+ *
+ * <p>The executor applies consecutive row mappers to a single row, one after another, without passing the row
+ * around in lists. Directives that may generate more than one row out of an input row, like
+ * <code>split-to-rows</code> or <code>flatten</code>, must not implement this interface. Implementations must
+ * produce the same result as {@link Executor#execute(Object, ExecutorContext)} invoked with a list holding
+ * only the row.</p>
+ */
+@PublicEvolving
+public interface RowMapper {
+
+  /**
+   * Transforms a single {@link Row}. The row may be modified in place and returned.
+   *
+   * @param row to be transformed.
+   * @param context {@link ExecutorContext} passed to each step.
+   * @return transformed row, or {@code null} if the row is filtered out.
+   */
+  @Nullable
+  Row map(Row row, ExecutorContext context)
+    throws DirectiveExecutionException, ErrorRowException, ReportErrorAndProceed;
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.api;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests {@link Row}.
+ */
+public class RowTest {
+
+  private static Row wideRow(int width) {
+    Row row = new Row();
+    for (int i = 0; i < width; i++) {
+      row.add("Col" + i, i);
+    }
+    return row;
+  }
+
+  @Test
+  public void testIndexedFind() {
+    Row row = wideRow(50);
+    for (int i = 0; i < 50; i++) {
+      Assert.assertEquals(i, row.find("col" + i));
+      Assert.assertEquals(i, row.find("COL" + i));
+    }
+    Assert.assertEquals(-1, row.find("missing"));
+    Assert.assertEquals(-1, row.find("col10", 11));
+    Assert.assertEquals(20, row.find("col20", 20));
+  }
+
+  @Test
+  public void testAddAll() {
+    Row row = wideRow(10);
+    row.find("col1");
+    row.find("col1");
+    List<String> names = Arrays.asList("a", "b", "c");
+    row.addAll(names, Arrays.asList("1", "2"));
+    Assert.assertEquals(12, row.width());
+    Assert.assertEquals("b", row.getColumn(11));
+    Assert.assertEquals("2", row.getValue("B"));
+    Assert.assertEquals(-1, row.find("c"));
+    Assert.assertEquals(Arrays.asList("a", "b", "c"), names);
+  }
+
+  @Test
+  public void testIndexedFindWithDuplicates() {
+    Row row = wideRow(20);
+    row.add("COL5", "dup");
+    Assert.assertEquals(5, row.find("col5"));
+    Assert.assertEquals(5, row.find("col5"));
+    Assert.assertEquals(20, row.find("col5", 6));
+    Assert.assertEquals(-1, row.find("col5", 21));
+  }
+
+  @Test
+  public void testFindAfterModification() {
+    Row row = wideRow(20);
+    Assert.assertEquals(3, row.find("col3"));
+    Assert.assertEquals(3, row.find("col3"));
+    row.remove(0);
+    Assert.assertEquals(2, row.find("col3"));
+    Assert.assertEquals(2, row.find("col3"));
+    row.setColumn(2, "renamed");
+    Assert.assertEquals(-1, row.find("col3"));
+    Assert.assertEquals(2, row.find("RENAMED"));
+    row.add("new", 1);
+    Assert.assertEquals(row.width() - 1, row.find("new"));
+    row.addOrSetAtIndex(0, "first", 1);
+    Assert.assertEquals(0, row.find("first"));
+    Assert.assertEquals(3, row.find("renamed"));
+  }
+
+  @Test
+  public void testSharedLayoutIsCopiedOnWrite() {
+    Row row = wideRow(20);
+    row.find("col1");
+    row.find("col1");
+
+    Row copy = new Row(row);
+    copy.add("extra", 1);
+    copy.setColumn(0, "first");
+
+    Assert.assertEquals(20, row.width());
+    Assert.assertEquals("Col0", row.getColumn(0));
+    Assert.assertEquals(-1, row.find("extra"));
+    Assert.assertEquals(21, copy.width());
+    Assert.assertEquals(20, copy.find("extra"));
+    Assert.assertEquals(0, copy.find("first"));
+  }
+
+  @Test
+  public void testDeserializedRowsDoNotShareModifications() throws Exception {
+    Row first = wideRow(20);
+    first.find("col1");
+    first.find("col1");
+    Row second = new Row(first);
+    List<Row> rows = new ArrayList<>();
+    rows.add(first);
+    rows.add(second);
+
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+      oos.writeObject(rows);
+    }
+    List<Row> read;
+    try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+      read = (List<Row>) ois.readObject();
+    }
+    Assert.assertEquals(rows, read);
+
+    read.get(0).add("extra", 1);
+    Assert.assertEquals(21, read.get(0).width());
+    Assert.assertEquals(20, read.get(1).width());
+    Assert.assertEquals(-1, read.get(1).find("extra"));
+  }
+}
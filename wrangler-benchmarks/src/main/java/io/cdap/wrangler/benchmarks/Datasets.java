@@ -0,0 +1,128 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.benchmarks;
+
+import io.cdap.wrangler.api.Row;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates the datasets used by the benchmarks. The datasets are generated from a fixed seed, so that every run of
+ * a benchmark processes the same data.
+ *
+ * <p>Typed rows have columns named {@code col_0} to {@code col_<width - 1>}, holding in turn a string, an integer
+ * and a double. Text rows have a single column {@code body}, holding the same values as a CSV line or a JSON
+ * object.</p>
+ */
+final class Datasets {
+  private static final long SEED = 42L;
+  private static final String[] WORDS = {
+    "alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf", "hotel", "india", "juliett"
+  };
+
+  private Datasets() {
+    // Avoid creation of this object.
+  }
+
+  /**
+   * Returns rows of typed columns.
+   */
+  static List<Row> rows(int width, int size) {
+    Random random = new Random(SEED);
+    List<Row> rows = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      Row row = new Row();
+      for (int c = 0; c < width; c++) {
+        row.add(column(c), value(random, c));
+      }
+      rows.add(row);
+    }
+    return rows;
+  }
+
+  /**
+   * Returns rows with a column {@code body} holding a CSV line of the given width.
+   */
+  static List<Row> csvRows(int width, int size) {
+    Random random = new Random(SEED);
+    List<Row> rows = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      StringBuilder line = new StringBuilder();
+      for (int c = 0; c < width; c++) {
+        if (c > 0) {
+          line.append(',');
+        }
+        line.append(value(random, c));
+      }
+      rows.add(new Row("body", line.toString()));
+    }
+    return rows;
+  }
+
+  /**
+   * Returns rows with a column {@code body} holding a JSON object with the given number of fields.
+   */
+  static List<Row> jsonRows(int width, int size) {
+    Random random = new Random(SEED);
+    List<Row> rows = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      StringBuilder json = new StringBuilder("{");
+      for (int c = 0; c < width; c++) {
+        if (c > 0) {
+          json.append(',');
+        }
+        Object value = value(random, c);
+        json.append('"').append(column(c)).append("\":");
+        if (value instanceof String) {
+          json.append('"').append(value).append('"');
+        } else {
+          json.append(value);
+        }
+      }
+      rows.add(new Row("body", json.append('}').toString()));
+    }
+    return rows;
+  }
+
+  /**
+   * Returns a copy of the rows, for benchmarks running directives that modify the rows they are given.
+   */
+  static List<Row> copy(List<Row> rows) {
+    List<Row> copy = new ArrayList<>(rows.size());
+    for (Row row : rows) {
+      copy.add(new Row(row));
+    }
+    return copy;
+  }
+
+  static String column(int index) {
+    return "col_" + index;
+  }
+
+  private static Object value(Random random, int column) {
+    switch (column % 3) {
+      case 0:
+        return WORDS[random.nextInt(WORDS.length)];
+      case 1:
+        return random.nextInt(100000);
+      default:
+        return Math.round(random.nextDouble() * 100000) / 100.0d;
+    }
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.benchmarks;
+
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.executor.RecipePipelineExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks individual directives that are commonly found on the hot path of recipes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DirectiveBenchmark {
+
+  @Param({"parse-as-csv", "parse-as-json", "set-column", "split-to-rows", "set-type"})
+  public String directive;
+
+  @Param({"10", "100"})
+  public int width;
+
+  @Param({"1000", "10000"})
+  public int size;
+
+  private RecipePipelineExecutor executor;
+  private List<Row> rows;
+
+  @Setup
+  public void setup() throws Exception {
+    switch (directive) {
+      case "parse-as-csv":
+        rows = Datasets.csvRows(width, size);
+        executor = Recipes.executor("parse-as-csv :body ',' false");
+        break;
+      case "parse-as-json":
+        rows = Datasets.jsonRows(width, size);
+        executor = Recipes.executor("parse-as-json :body 1");
+        break;
+      case "set-column":
+        rows = Datasets.rows(width, size);
+        executor = Recipes.executor("set-column :total col_1 * 2 + col_2");
+        break;
+      case "split-to-rows":
+        rows = Datasets.csvRows(width, size);
+        executor = Recipes.executor("split-to-rows :body ','");
+        break;
+      case "set-type":
+        rows = Datasets.rows(width, size);
+        executor = Recipes.executor("set-type :col_1 string");
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown directive " + directive);
+    }
+  }
+
+  @Benchmark
+  public List<Row> execute() throws Exception {
+    return Recipes.execute(executor, rows);
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.benchmarks;
+
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.executor.RecipePipelineExecutor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link RecipePipelineExecutor} on representative recipes.
+ *
+ * <ul>
+ *   <li>{@code cleanse} parses CSV lines and cleans up the resulting columns, as in the light data transformation
+ *   described in the performance documentation.</li>
+ *   <li>{@code expressions} derives and filters columns of typed rows with JEXL expressions.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class RecipeExecutorBenchmark {
+
+  @Param({"cleanse", "expressions"})
+  public String recipe;
+
+  @Param({"10", "100"})
+  public int width;
+
+  @Param({"1000", "10000"})
+  public int size;
+
+  private RecipePipelineExecutor executor;
+  private List<Row> rows;
+
+  @Setup
+  public void setup() throws Exception {
+    switch (recipe) {
+      case "cleanse":
+        rows = Datasets.csvRows(width, size);
+        executor = Recipes.executor(
+          "parse-as-csv :body ',' false",
+          "drop :body",
+          "fill-null-or-empty :body_1 'N/A'",
+          "uppercase :body_1",
+          "trim :body_4",
+          "mask-number :body_2 'xxx###'",
+          "drop :body_3",
+          "filter-row-if-true body_2 =~ '^9.*'"
+        );
+        break;
+      case "expressions":
+        rows = Datasets.rows(width, size);
+        executor = Recipes.executor(
+          "set-column :total col_1 * 2 + col_2",
+          "set-column :label string:upperCase(col_0) + '-' + col_1",
+          "filter-row-if-true total < 1000",
+          "set-type :col_1 long"
+        );
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown recipe " + recipe);
+    }
+  }
+
+  @Benchmark
+  public List<Row> execute() throws Exception {
+    return Recipes.execute(executor, rows);
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.benchmarks;
+
+import io.cdap.wrangler.api.CompileStatus;
+import io.cdap.wrangler.api.Directive;
+import io.cdap.wrangler.parser.MigrateToV2;
+import io.cdap.wrangler.parser.RecipeCompiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the migration, compilation and parsing of recipes of increasing length.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class RecipeParsingBenchmark {
+  // Directives written with the first version of the grammar, repeated to build recipes of any length.
+  private static final String[] DIRECTIVES = {
+    "uppercase col_%d",
+    "trim col_%d",
+    "fill-null-or-empty col_%d N/A",
+    "set-column col_%d col_%d + 1",
+    "rename col_%d new_col_%d",
+    "filter-row-if-true col_%d == null",
+    "set-type col_%d long",
+    "drop new_col_%d",
+  };
+
+  @Param({"10", "50", "150"})
+  public int directives;
+
+  private String[] recipe;
+  private String migrated;
+
+  @Setup
+  public void setup() throws Exception {
+    List<String> lines = new ArrayList<>(directives);
+    for (int i = 0; i < directives; i++) {
+      lines.add(String.format(DIRECTIVES[i % DIRECTIVES.length], i, i));
+    }
+    recipe = lines.toArray(new String[0]);
+    migrated = new MigrateToV2(recipe).migrate();
+  }
+
+  @Benchmark
+  public String migrate() throws Exception {
+    return new MigrateToV2(recipe).migrate();
+  }
+
+  @Benchmark
+  public CompileStatus compile() throws Exception {
+    return new RecipeCompiler().compile(migrated);
+  }
+
+  @Benchmark
+  public List<Directive> parse() throws Exception {
+    return Recipes.parse(migrated);
+  }
+}
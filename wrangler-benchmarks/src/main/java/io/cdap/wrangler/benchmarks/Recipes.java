@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.benchmarks;
+
+import io.cdap.wrangler.api.Directive;
+import io.cdap.wrangler.api.RecipeParser;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.executor.RecipePipelineExecutor;
+import io.cdap.wrangler.parser.GrammarBasedParser;
+import io.cdap.wrangler.parser.MigrateToV2;
+import io.cdap.wrangler.proto.Contexts;
+import io.cdap.wrangler.registry.CompositeDirectiveRegistry;
+import io.cdap.wrangler.registry.DirectiveRegistry;
+import io.cdap.wrangler.registry.SystemDirectiveRegistry;
+
+import java.util.List;
+
+/**
+ * Helpers to build the recipes run by the benchmarks.
+ */
+final class Recipes {
+  private static final DirectiveRegistry REGISTRY = new CompositeDirectiveRegistry(SystemDirectiveRegistry.INSTANCE);
+
+  private Recipes() {
+    // Avoid creation of this object.
+  }
+
+  /**
+   * Returns a parser for the recipe, which can be written with either version of the grammar.
+   */
+  static RecipeParser parser(String... recipe) throws Exception {
+    return new GrammarBasedParser(Contexts.SYSTEM, new MigrateToV2(recipe).migrate(), REGISTRY);
+  }
+
+  /**
+   * Returns the parsed directives of the recipe.
+   */
+  static List<Directive> parse(String recipe) throws Exception {
+    return new GrammarBasedParser(Contexts.SYSTEM, recipe, REGISTRY).parse();
+  }
+
+  /**
+   * Returns an executor for the recipe, running with a {@link BenchmarkContext}.
+   */
+  static RecipePipelineExecutor executor(String... recipe) throws Exception {
+    return new RecipePipelineExecutor(parser(recipe), new BenchmarkContext());
+  }
+
+  /**
+   * Executes the recipe on a copy of the rows.
+   */
+  static List<Row> execute(RecipePipelineExecutor executor, List<Row> rows) throws Exception {
+    return executor.execute(Datasets.copy(rows));
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.benchmarks;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.utils.RecordConvertor;
+import io.cdap.wrangler.utils.SchemaConverter;
+import io.cdap.wrangler.utils.StructuredToRowTransformer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the conversion of rows to {@link StructuredRecord}s with {@link RecordConvertor}, and back with
+ * {@link StructuredToRowTransformer}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class RecordConversionBenchmark {
+
+  @Param({"10", "100"})
+  public int width;
+
+  @Param({"1000", "10000"})
+  public int size;
+
+  private final RecordConvertor convertor = new RecordConvertor();
+  private List<Row> rows;
+  private List<StructuredRecord> records;
+  private Schema schema;
+
+  @Setup
+  public void setup() throws Exception {
+    rows = Datasets.rows(width, size);
+    schema = new SchemaConverter().toSchema("record", rows.get(0));
+    records = convertor.toStructureRecord(rows, schema);
+  }
+
+  @Benchmark
+  public List<StructuredRecord> toRecords() throws Exception {
+    return convertor.toStructureRecord(rows, schema);
+  }
+
+  @Benchmark
+  public List<Row> toRows() {
+    return toRows(records);
+  }
+
+  @Benchmark
+  public List<Row> roundTrip() throws Exception {
+    return toRows(convertor.toStructureRecord(rows, schema));
+  }
+
+  private static List<Row> toRows(List<StructuredRecord> records) {
+    List<Row> rows = new ArrayList<>(records.size());
+    for (StructuredRecord record : records) {
+      rows.add(StructuredToRowTransformer.transform(record));
+    }
+    return rows;
+  }
+}
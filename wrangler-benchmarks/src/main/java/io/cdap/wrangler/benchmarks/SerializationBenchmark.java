@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.benchmarks;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.wrangler.api.RemoteDirectiveResponse;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.utils.KryoSerializer;
+import io.cdap.wrangler.utils.ObjectSerDe;
+import io.cdap.wrangler.utils.SchemaConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link KryoSerializer} against the Java serialization of {@link ObjectSerDe}, on the responses
+ * returned by remote directive execution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class SerializationBenchmark {
+
+  @Param({"10", "100"})
+  public int width;
+
+  @Param({"1000", "10000"})
+  public int size;
+
+  private final KryoSerializer kryo = new KryoSerializer();
+  private final ObjectSerDe<RemoteDirectiveResponse> serde = new ObjectSerDe<>();
+  private RemoteDirectiveResponse response;
+  private byte[] kryoBytes;
+  private byte[] serdeBytes;
+
+  @Setup
+  public void setup() throws Exception {
+    List<Row> rows = Datasets.rows(width, size);
+    Schema schema = new SchemaConverter().toSchema("record", rows.get(0));
+    response = new RemoteDirectiveResponse(rows, schema);
+    kryoBytes = kryo.fromRemoteDirectiveResponse(response);
+    serdeBytes = serde.toByteArray(response);
+  }
+
+  @Benchmark
+  public byte[] kryoSerialize() {
+    return kryo.fromRemoteDirectiveResponse(response);
+  }
+
+  @Benchmark
+  public RemoteDirectiveResponse kryoDeserialize() {
+    return kryo.toRemoteDirectiveResponse(kryoBytes);
+  }
+
+  @Benchmark
+  public byte[] javaSerialize() throws Exception {
+    return serde.toByteArray(response);
+  }
+
+  @Benchmark
+  public RemoteDirectiveResponse javaDeserialize() throws Exception {
+    return serde.toObject(serdeBytes);
+  }
+}
@@ -37,6 +37,7 @@ import io.cdap.wrangler.expression.EL;
 import io.cdap.wrangler.expression.ELContext;
 import io.cdap.wrangler.expression.ELException;
 import io.cdap.wrangler.expression.ELResult;
+import io.cdap.wrangler.expression.RowELContext;
 
 import java.util.List;
 
@@ -55,6 +56,7 @@ import static io.cdap.wrangler.metrics.JexlCategoryMetricUtils.getJexlCategoryMe
 public class SetTransientVariable implements Directive {
   public static final String NAME = "set-variable";
   private EL el;
+  private RowELContext elContext;
   private String variable;
 
   @Override
@@ -71,6 +73,7 @@ public class SetTransientVariable implements Directive {
     String expression = ((Expression) args.value("condition")).value();
     try {
       el = EL.compile(expression);
+      elContext = new RowELContext(el);
     } catch (ELException e) {
       throw new DirectiveParseException(NAME, e.getMessage(), e);
     }
@@ -85,7 +88,7 @@ public class SetTransientVariable implements Directive {
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     for (Row row : rows) {
       // Move the fields from the row into the context.
-      ELContext ctx = new ELContext(context, el, row);
+      ELContext ctx = elContext.reset(context, row);
 
       // Execution of the script / expression based on the row data
       // mapped into context.
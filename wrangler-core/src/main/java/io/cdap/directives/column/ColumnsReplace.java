@@ -34,8 +34,7 @@ import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.Text;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
-import org.unix4j.Unix4j;
-import org.unix4j.builder.Unix4jCommandBuilder;
+import io.cdap.wrangler.utils.SedScript;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -52,6 +51,7 @@ import java.util.stream.Collectors;
 public class ColumnsReplace implements Directive, Lineage {
   public static final String NAME = "columns-replace";
   private String sed;
+  private SedScript script;
 
   @Override
   public UsageDefinition define() {
@@ -63,6 +63,7 @@ public class ColumnsReplace implements Directive, Lineage {
   @Override
   public void initialize(Arguments args) throws DirectiveParseException {
     sed = ((Text) args.value("sed-expression")).value();
+    script = SedScript.compile(sed);
   }
 
   @Override
@@ -107,7 +108,6 @@ public class ColumnsReplace implements Directive, Lineage {
   }
 
   private String getSedReplacedColumnName(String colName) {
-    Unix4jCommandBuilder builder = Unix4j.echo(colName).sed(sed);
-    return builder.toStringResult();
+    return script.apply(colName);
   }
 }
@@ -27,6 +27,7 @@ import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Optional;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowMapper;
 import io.cdap.wrangler.api.SchemaResolutionContext;
 import io.cdap.wrangler.api.annotations.Categories;
 import io.cdap.wrangler.api.lineage.Lineage;
@@ -45,7 +46,7 @@ import java.util.List;
 @Name(Copy.NAME)
 @Categories(categories = { "column"})
 @Description("Copies values from a source column into a destination column.")
-public class Copy implements Directive, Lineage {
+public class Copy implements Directive, Lineage, RowMapper {
   public static final String NAME = "copy";
   private ColumnName source;
   private ColumnName destination;
@@ -77,32 +78,38 @@ public class Copy implements Directive, Lineage {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     for (Row row : rows) {
-      int sidx = row.find(source.value());
-      if (sidx == -1) {
-        throw new DirectiveExecutionException(NAME, String.format("Column '%s' does not exist.", source.value()));
-      }
+      map(row, context);
+    }
+    return rows;
+  }
 
-      int didx = row.find(destination.value());
-      // If source and destination are same, then it's a nop.
-      if (didx == sidx) {
-        continue;
-      }
+  @Override
+  public Row map(Row row, ExecutorContext context) throws DirectiveExecutionException {
+    int sidx = row.find(source.value());
+    if (sidx == -1) {
+      throw new DirectiveExecutionException(NAME, String.format("Column '%s' does not exist.", source.value()));
+    }
 
-      if (didx == -1) {
-        // if destination column doesn't exist then add it.
-        row.add(destination.value(), row.getValue(sidx));
-      } else {
-        // if destination column exists, and force is set to false, then throw exception, else
-        // overwrite it.
-        if (!force) {
-          throw new DirectiveExecutionException(
-            NAME, String.format("Destination column '%s' already exists in the row. Use 'force' " +
-                                  "option to overwrite the column.", destination.value()));
-        }
-        row.setValue(didx, row.getValue(sidx));
+    int didx = row.find(destination.value());
+    // If source and destination are same, then it's a nop.
+    if (didx == sidx) {
+      return row;
+    }
+
+    if (didx == -1) {
+      // if destination column doesn't exist then add it.
+      row.add(destination.value(), row.getValue(sidx));
+    } else {
+      // if destination column exists, and force is set to false, then throw exception, else
+      // overwrite it.
+      if (!force) {
+        throw new DirectiveExecutionException(
+          NAME, String.format("Destination column '%s' already exists in the row. Use 'force' " +
+                                "option to overwrite the column.", destination.value()));
       }
+      row.setValue(didx, row.getValue(sidx));
     }
-    return rows;
+    return row;
   }
 
   @Override
@@ -24,7 +24,9 @@ import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.ProjectionAware;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowMapper;
 import io.cdap.wrangler.api.annotations.Categories;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Many;
@@ -34,6 +36,8 @@ import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
 
 import java.util.List;
+import java.util.Set;
+import javax.annotation.Nullable;
 
 /**
  * This class <code>Drop</code> implements a directive that will drop
@@ -43,7 +47,7 @@ import java.util.List;
 @Name(Drop.NAME)
 @Categories(categories = { "column"})
 @Description("Drop one or more columns.")
-public class Drop implements Directive, Lineage {
+public class Drop implements Directive, Lineage, RowMapper, ProjectionAware {
   public static final String NAME = "drop";
 
   // Columns to be dropped.
@@ -71,16 +75,28 @@ public class Drop implements Directive, Lineage {
   public List<Row> execute(List<Row> rows, ExecutorContext context)
     throws DirectiveExecutionException {
     for (Row row : rows) {
-      for (String column : columns) {
-        int idx = row.find(column.trim());
-        if (idx != -1) {
-          row.remove(idx);
-        }
-      }
+      map(row, context);
     }
     return rows;
   }
 
+  @Override
+  public Row map(Row row, ExecutorContext context) throws DirectiveExecutionException {
+    for (String column : columns) {
+      int idx = row.find(column.trim());
+      if (idx != -1) {
+        row.remove(idx);
+      }
+    }
+    return row;
+  }
+
+  @Nullable
+  @Override
+  public Set<String> project(@Nullable Set<String> columns) {
+    return columns;
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
@@ -25,7 +25,9 @@ import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Pair;
+import io.cdap.wrangler.api.ProjectionAware;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowMapper;
 import io.cdap.wrangler.api.annotations.Categories;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Mutation;
@@ -36,6 +38,7 @@ import io.cdap.wrangler.api.parser.UsageDefinition;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import javax.annotation.Nullable;
 
 /**
  * This class <code>Keep</code> implements a directive that
@@ -47,7 +50,7 @@ import java.util.Set;
 @Name("keep")
 @Categories(categories = { "column"})
 @Description("Keeps the specified columns and drops all others.")
-public class Keep implements Directive, Lineage {
+public class Keep implements Directive, Lineage, RowMapper, ProjectionAware {
   public static final String NAME = "keep";
   private final Set<String> keep = new HashSet<>();
 
@@ -74,18 +77,30 @@ public class Keep implements Directive, Lineage {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     for (Row row : rows) {
-      int idx = 0;
-      for (Pair<String, Object> v : row.getFields()) {
-        if (!keep.contains(v.getFirst())) {
-          row.remove(idx);
-        } else {
-          ++idx;
-        }
-      }
+      map(row, context);
     }
     return rows;
   }
 
+  @Override
+  public Row map(Row row, ExecutorContext context) throws DirectiveExecutionException {
+    int idx = 0;
+    for (Pair<String, Object> v : row.getFields()) {
+      if (!keep.contains(v.getFirst())) {
+        row.remove(idx);
+      } else {
+        ++idx;
+      }
+    }
+    return row;
+  }
+
+  @Override
+  public Set<String> project(@Nullable Set<String> columns) {
+    // Only the kept columns are used, whatever is used after this directive.
+    return keep;
+  }
+
   @Override
   public Mutation lineage() {
     Mutation.Builder builder = Mutation.builder()
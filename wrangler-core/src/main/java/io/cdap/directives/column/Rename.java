@@ -24,7 +24,9 @@ import io.cdap.wrangler.api.Arguments;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.ProjectionAware;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowMapper;
 import io.cdap.wrangler.api.SchemaResolutionContext;
 import io.cdap.wrangler.api.annotations.Categories;
 import io.cdap.wrangler.api.lineage.Lineage;
@@ -34,8 +36,11 @@ import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
 import io.cdap.wrangler.utils.ColumnConverter;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 /**
  * A directive for renaming columns.
@@ -44,7 +49,7 @@ import java.util.stream.Collectors;
 @Name(Rename.NAME)
 @Categories(categories = { "column"})
 @Description("Renames a column 'source' to 'target'")
-public final class Rename implements Directive, Lineage {
+public final class Rename implements Directive, Lineage, RowMapper, ProjectionAware {
   public static final String NAME = "rename";
   private ColumnName source;
   private ColumnName target;
@@ -73,11 +78,30 @@ public final class Rename implements Directive, Lineage {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     for (Row row : rows) {
-      ColumnConverter.rename(NAME, row, source.value(), target.value());
+      map(row, context);
     }
     return rows;
   }
 
+  @Override
+  public Row map(Row row, ExecutorContext context) throws DirectiveExecutionException {
+    ColumnConverter.rename(NAME, row, source.value(), target.value());
+    return row;
+  }
+
+  @Nullable
+  @Override
+  public Set<String> project(@Nullable Set<String> columns) {
+    if (columns == null) {
+      return null;
+    }
+    Set<String> used = new HashSet<>(columns);
+    used.add(source.value());
+    // Renaming fails if the target column exists
+    used.add(target.value());
+    return used;
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
@@ -29,6 +29,7 @@ import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Optional;
 import io.cdap.wrangler.api.Pair;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowMapper;
 import io.cdap.wrangler.api.SchemaResolutionContext;
 import io.cdap.wrangler.api.annotations.Categories;
 import io.cdap.wrangler.api.lineage.Lineage;
@@ -56,7 +57,7 @@ import java.util.stream.Collectors;
 @Categories(categories = {"column"})
 @Description("Converting data type of a column. Optional arguments scale, precision and "
     + "rounding-mode are used only when type is decimal.")
-public final class SetType implements Directive, Lineage {
+public final class SetType implements Directive, Lineage, RowMapper {
   public static final String NAME = "set-type";
 
   private String col;
@@ -109,11 +110,17 @@ public final class SetType implements Directive, Lineage {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     for (Row row : rows) {
-      ColumnConverter.convertType(NAME, row, col, type, scale, precision, roundingMode);
+      map(row, context);
     }
     return rows;
   }
 
+  @Override
+  public Row map(Row row, ExecutorContext context) throws DirectiveExecutionException {
+    ColumnConverter.convertType(NAME, row, col, type, scale, precision, roundingMode);
+    return row;
+  }
+
   @Override
   public Mutation lineage() {
     return Mutation.builder()
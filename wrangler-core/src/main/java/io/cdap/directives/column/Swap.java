@@ -26,6 +26,7 @@ import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowMapper;
 import io.cdap.wrangler.api.SchemaResolutionContext;
 import io.cdap.wrangler.api.annotations.Categories;
 import io.cdap.wrangler.api.lineage.Lineage;
@@ -45,7 +46,7 @@ import java.util.stream.Collectors;
 @Name(Swap.NAME)
 @Categories(categories = { "column"})
 @Description("Swaps the column names of two columns.")
-public class Swap implements Directive, Lineage {
+public class Swap implements Directive, Lineage, RowMapper {
   public static final String NAME = "swap";
   private String left;
   private String right;
@@ -72,21 +73,27 @@ public class Swap implements Directive, Lineage {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     for (Row row : rows) {
-      int sidx = row.find(left);
-      int didx = row.find(right);
+      map(row, context);
+    }
+    return rows;
+  }
 
-      if (sidx == -1) {
-        throw new DirectiveExecutionException(NAME, String.format("Column '%s' does not exist.", left));
-      }
+  @Override
+  public Row map(Row row, ExecutorContext context) throws DirectiveExecutionException {
+    int sidx = row.find(left);
+    int didx = row.find(right);
 
-      if (didx == -1) {
-        throw new DirectiveExecutionException(NAME, String.format("Column '%s' does not exist.", right));
-      }
+    if (sidx == -1) {
+      throw new DirectiveExecutionException(NAME, String.format("Column '%s' does not exist.", left));
+    }
 
-      row.setColumn(sidx, right);
-      row.setColumn(didx, left);
+    if (didx == -1) {
+      throw new DirectiveExecutionException(NAME, String.format("Column '%s' does not exist.", right));
     }
-    return rows;
+
+    row.setColumn(sidx, right);
+    row.setColumn(didx, left);
+    return row;
   }
 
   @Override
@@ -45,6 +45,8 @@ import org.apache.commons.lang3.StringEscapeUtils;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -65,6 +67,9 @@ public class CsvParser implements Directive, Lineage {
   // CSV format defines the configuration for CSV parser for parsing.
   private CSVFormat format;
 
+  // Tokenizer for the format, reused across rows.
+  private CsvTokenizer tokenizer;
+
   //
   private boolean hasHeader;
 
@@ -72,7 +77,10 @@ public class CsvParser implements Directive, Lineage {
   private boolean checkedHeader = false;
 
   // Header names.
-  private List<String> headers = new ArrayList<>();
+  private List<String> headers = Collections.emptyList();
+
+  // Names of the columns generated when there are no headers, shared by all the rows.
+  private List<String> names = Collections.emptyList();
 
   @Override
   public UsageDefinition define() {
@@ -107,6 +115,7 @@ public class CsvParser implements Directive, Lineage {
       .withAllowMissingColumnNames(true)
       .withIgnoreSurroundingSpaces(true)
       .withRecordSeparator('\n');
+    this.tokenizer = new CsvTokenizer(delimiter);
 
     this.hasHeader = false;
     if (args.contains("header")) {
@@ -140,63 +149,93 @@ public class CsvParser implements Directive, Lineage {
       if (line == null || line.isEmpty()) {
         continue;
       }
-      CSVParser parser = null;
-      try {
-        parser = CSVParser.parse(line, format);
-        List<CSVRecord> csvRecords = parser.getRecords();
-        for (CSVRecord csvRecord : csvRecords) {
-          if (!checkedHeader && hasHeader && isHeader(csvRecord)) {
-            for (int i = 0; i < csvRecord.size(); i++) {
-              headers.add(csvRecord.get(i).trim().replaceAll("\\s+", "_"));
-            }
-            if (rows.size() > 0) {
-              return new ArrayList<>();
-            }
-          } else {
-            toRow(csvRecord, row);
+      List<List<String>> records = parse(line);
+      for (List<String> record : records) {
+        if (!checkedHeader && hasHeader && isHeader(record)) {
+          String[] header = new String[record.size()];
+          for (int i = 0; i < header.length; i++) {
+            header[i] = record.get(i).trim().replaceAll("\\s+", "_");
+          }
+          headers = Arrays.asList(header);
+          if (rows.size() > 0) {
+            return new ArrayList<>();
           }
+        } else {
+          toRow(record, row);
         }
-      } catch (IOException e) {
-        // When there is error parsing data, the data is written to error.
-        throw new ErrorRowException(NAME, e.getMessage(), 1);
       }
     }
     return rows;
   }
 
   /**
-   * Converts a {@link CSVRecord} to {@link Row}.
+   * Splits a line into records, going through the commons-csv parser only when the line is malformed,
+   * so that the error reported is the one of the parser.
+   *
+   * @param line to be split.
+   * @return records of the line, only valid until the next line is parsed.
+   */
+  private List<List<String>> parse(String line) throws ErrorRowException {
+    if (tokenizer.tokenize(line)) {
+      int count = tokenizer.records();
+      if (count == 1) {
+        return Collections.singletonList(tokenizer.record(0));
+      }
+      List<List<String>> records = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        records.add(tokenizer.record(i));
+      }
+      return records;
+    }
+    try (CSVParser parser = CSVParser.parse(line, format)) {
+      List<List<String>> records = new ArrayList<>();
+      for (CSVRecord csvRecord : parser.getRecords()) {
+        List<String> record = new ArrayList<>(csvRecord.size());
+        for (String value : csvRecord) {
+          record.add(value);
+        }
+        records.add(record);
+      }
+      return records;
+    } catch (IOException e) {
+      // When there is error parsing data, the data is written to error.
+      throw new ErrorRowException(NAME, e.getMessage(), 1);
+    }
+  }
+
+  /**
+   * Adds the cells of a record to the {@link Row}, named by the headers if any.
    *
-   * @param record
-   * @return
+   * @param record cells to be added.
+   * @param row to which the cells are added.
    */
-  private void toRow(CSVRecord record, Row row) {
-    int size = headers.size();
-    for (int i = 0; i < record.size(); i++) {
-      if (size > 0) {
-        row.add(headers.get(i), record.get(i));
-      } else {
-        row.add(columnArg.value() + "_" + (i + 1), record.get(i));
+  private void toRow(List<String> record, Row row) {
+    if (!headers.isEmpty()) {
+      row.addAll(headers, record);
+      return;
+    }
+    if (names.size() < record.size()) {
+      String[] generated = new String[record.size()];
+      for (int i = 0; i < generated.length; i++) {
+        generated[i] = columnArg.value() + "_" + (i + 1);
       }
+      names = Arrays.asList(generated);
     }
+    row.addAll(names, record);
   }
 
-  private boolean isHeader(CSVRecord record) {
+  private boolean isHeader(List<String> record) {
     checkedHeader = true;
     Set<String> columns = new HashSet<>();
-    for (int i = 0; i < record.size(); i++) {
-      String value = record.get(i);
-      if (value == null || value.trim().isEmpty()) {
-        return false;
-      }
-      DataType type = TypeInference.getDataType(value);
-      if (type != DataType.STRING) {
+    for (String value : record) {
+      if (value == null || value.trim().isEmpty() || !columns.add(value)) {
         return false;
       }
-      if (columns.contains(value)) {
+    }
+    // Type inference goes through regular expressions, so it is left for when the other checks pass.
+    for (String value : record) {
+      if (TypeInference.getDataType(value) != DataType.STRING) {
         return false;
-      } else {
-        columns.add(value);
       }
     }
     return true;
@@ -0,0 +1,185 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.directives.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Splits text into CSV records and their cells in a single pass, with the same quoting rules as
+ * {@code CSVFormat.DEFAULT} of commons-csv: cells may be enclosed in double quotes, a double quote
+ * within a quoted cell is escaped by doubling it, records end at CR, LF or CRLF and empty lines are skipped.
+ *
+ * <p>The cells and record boundaries are kept in buffers that are reused by every call to
+ * {@link #tokenize(String)}, so the records returned are only valid until the next call.
+ * Malformed text, such as an unterminated quoted cell, is reported but not described; the caller is
+ * expected to go through commons-csv for the error message.</p>
+ */
+final class CsvTokenizer {
+  private static final char QUOTE = '"';
+  private static final char CR = '\r';
+  private static final char LF = '\n';
+
+  private final char delimiter;
+  private final StringBuilder quoted = new StringBuilder();
+  private final List<String> cells = new ArrayList<>();
+  // Index in cells after the last cell of each record.
+  private int[] ends = new int[8];
+  private int records;
+
+  /**
+   * @param delimiter between the cells of a record, which cannot be a line break or a double quote.
+   */
+  CsvTokenizer(char delimiter) {
+    this.delimiter = delimiter;
+  }
+
+  /**
+   * Splits the text into records.
+   *
+   * @param text to be split.
+   * @return false if the text is malformed, in which case no records are available.
+   */
+  boolean tokenize(String text) {
+    cells.clear();
+    records = 0;
+    int length = text.length();
+    int i = 0;
+    boolean afterDelimiter = false;
+    while (true) {
+      if (i >= length) {
+        if (afterDelimiter) {
+          cells.add("");
+          endRecord();
+        }
+        return true;
+      }
+      char c = text.charAt(i);
+      if (c == CR || c == LF) {
+        i = skipLineBreak(text, i);
+        if (afterDelimiter) {
+          cells.add("");
+          endRecord();
+          afterDelimiter = false;
+        }
+        continue;
+      }
+      if (c == delimiter) {
+        cells.add("");
+        afterDelimiter = true;
+        i++;
+        continue;
+      }
+      if (c == QUOTE) {
+        i = readQuoted(text, i + 1);
+        if (i < 0) {
+          cells.clear();
+          records = 0;
+          return false;
+        }
+        afterDelimiter = i > 0 && text.charAt(i - 1) == delimiter;
+        continue;
+      }
+      int start = i;
+      while (i < length && (c = text.charAt(i)) != delimiter && c != CR && c != LF) {
+        i++;
+      }
+      cells.add(text.substring(start, i));
+      if (i >= length) {
+        endRecord();
+        return true;
+      }
+      if (c == delimiter) {
+        afterDelimiter = true;
+        i++;
+      } else {
+        endRecord();
+        afterDelimiter = false;
+        i = skipLineBreak(text, i);
+      }
+    }
+  }
+
+  /**
+   * @return number of records found by the last call to {@link #tokenize(String)}.
+   */
+  int records() {
+    return records;
+  }
+
+  /**
+   * @param record index of the record, less than {@link #records()}.
+   * @return cells of the record, valid until the next call to {@link #tokenize(String)}.
+   */
+  List<String> record(int record) {
+    return cells.subList(record == 0 ? 0 : ends[record - 1], ends[record]);
+  }
+
+  /**
+   * Reads a quoted cell starting after the opening quote, up to and including the delimiter or line break
+   * that follows the closing quote.
+   *
+   * @return index after the cell, or -1 if the cell is malformed.
+   */
+  private int readQuoted(String text, int i) {
+    int length = text.length();
+    quoted.setLength(0);
+    while (true) {
+      if (i >= length) {
+        return -1;
+      }
+      char c = text.charAt(i++);
+      if (c != QUOTE) {
+        quoted.append(c);
+      } else if (i < length && text.charAt(i) == QUOTE) {
+        quoted.append(QUOTE);
+        i++;
+      } else {
+        break;
+      }
+    }
+    cells.add(quoted.toString());
+    while (i < length) {
+      char c = text.charAt(i);
+      if (c == delimiter) {
+        return i + 1;
+      }
+      if (c == CR || c == LF) {
+        endRecord();
+        return skipLineBreak(text, i);
+      }
+      if (!Character.isWhitespace(c)) {
+        return -1;
+      }
+      i++;
+    }
+    endRecord();
+    return i;
+  }
+
+  private static int skipLineBreak(String text, int i) {
+    return text.charAt(i) == CR && i + 1 < text.length() && text.charAt(i + 1) == LF ? i + 2 : i + 1;
+  }
+
+  private void endRecord() {
+    if (records == ends.length) {
+      ends = Arrays.copyOf(ends, records * 2);
+    }
+    ends[records++] = cells.size();
+  }
+}
@@ -18,10 +18,15 @@ package io.cdap.directives.parser;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.JsonSyntaxException;
 import com.google.gson.internal.LazilyParsedNumber;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
 import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
@@ -32,6 +37,8 @@ import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ErrorRowException;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Optional;
+import io.cdap.wrangler.api.Pair;
+import io.cdap.wrangler.api.ProjectionAware;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
 import io.cdap.wrangler.api.lineage.Lineage;
@@ -44,22 +51,31 @@ import io.cdap.wrangler.api.parser.UsageDefinition;
 import io.cdap.wrangler.dq.TypeInference;
 import org.json.JSONException;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
 
 /**
  * This class is a JSON Parser directive with optional argument specifying the depth
  * to which the JSON needs to be parsed.
+ *
+ * <p>When the rest of the recipe only uses some of the flattened columns, JSON objects are streamed and the
+ * fields that are not used are skipped without being materialized.</p>
  */
 @Plugin(type = Directive.TYPE)
 @Name("parse-as-json")
 @Categories(categories = { "parser", "json"})
 @Description("Parses a column as JSON.")
-public class JsParser implements Directive, Lineage {
+public class JsParser implements Directive, Lineage, ProjectionAware {
   public static final String NAME = "parse-as-json";
   // Column within the input row that needs to be parsed as Json
   private String column;
@@ -67,6 +83,10 @@ public class JsParser implements Directive, Lineage {
   // Max depth to which the JSON needs to be parsed.
   private int depth;
 
+  // Flattened columns used by the rest of the recipe, null if all of them may be used.
+  @Nullable
+  private Projection projection;
+
   // JSON parser.
   private static final JsonParser parser = new JsonParser();
 
@@ -88,6 +108,19 @@ public class JsParser implements Directive, Lineage {
     }
   }
 
+  @Nullable
+  @Override
+  public Set<String> project(@Nullable Set<String> columns) {
+    if (columns == null) {
+      projection = null;
+      return null;
+    }
+    projection = new Projection(columns);
+    Set<String> used = new HashSet<>(columns);
+    used.add(column);
+    return used;
+  }
+
   @Override
   public void destroy() {
     // no-op
@@ -111,8 +144,24 @@ public class JsParser implements Directive, Lineage {
         try {
           JsonElement element = null;
           if (value instanceof String) {
-            String document = (String) value;
-            element = parser.parse(document.trim());
+            String document = ((String) value).trim();
+            if (projection != null && depth > 0 && document.startsWith("{")) {
+              List<Pair<String, Object>> fields = readFields(document);
+              if (fields != null) {
+                row.remove(idx);
+                for (Pair<String, Object> field : fields) {
+                  // Objects below the max depth are set like jsonFlatten does.
+                  if (field.getSecond() instanceof JsonObject) {
+                    row.addOrSet(field.getFirst(), field.getSecond());
+                  } else {
+                    row.add(field.getFirst(), field.getSecond());
+                  }
+                }
+                results.add(row);
+                continue;
+              }
+            }
+            element = parser.parse(document);
           } else if (value instanceof JsonObject || value instanceof JsonArray) {
             element = (JsonElement) value;
           } else {
@@ -125,7 +174,7 @@ public class JsParser implements Directive, Lineage {
 
           if (element != null) {
             if (element instanceof JsonObject) {
-              jsonFlatten(element.getAsJsonObject(), column, 1, depth, row);
+              jsonFlatten(element.getAsJsonObject(), column, 1, depth, projection, row);
               results.add(row);
             } else if (element instanceof JsonArray) {
               JsonArray array = element.getAsJsonArray();
@@ -159,6 +208,59 @@ public class JsParser implements Directive, Lineage {
       .build();
   }
 
+  /**
+   * Streams the fields of a JSON object that are used by the rest of the recipe, in the order
+   * {@link #jsonFlatten(JsonObject, String, int, int, Row)} would add them to the row.
+   *
+   * @return fields and their values, or {@code null} if an object has duplicate keys, whose values must be
+   *   resolved by parsing the whole document.
+   */
+  @Nullable
+  private List<Pair<String, Object>> readFields(String document) {
+    JsonReader reader = new JsonReader(new StringReader(document));
+    // Same as JsonParser
+    reader.setLenient(true);
+    try {
+      List<Pair<String, Object>> fields = new ArrayList<>();
+      if (!readFields(reader, column, 1, fields)) {
+        return null;
+      }
+      if (reader.peek() != JsonToken.END_DOCUMENT) {
+        throw new JsonSyntaxException("Did not consume the entire document.");
+      }
+      return fields;
+    } catch (MalformedJsonException | NumberFormatException e) {
+      throw new JsonSyntaxException(e);
+    } catch (IOException e) {
+      throw new JsonIOException(e);
+    }
+  }
+
+  private boolean readFields(JsonReader reader, String field, int depth,
+                             List<Pair<String, Object>> fields) throws IOException {
+    Set<String> keys = new HashSet<>();
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String key = reader.nextName();
+      if (!keys.add(key)) {
+        return false;
+      }
+      String name = field + "_" + key;
+      boolean flattened = reader.peek() == JsonToken.BEGIN_OBJECT && depth < this.depth;
+      if (!projection.isUsed(name, flattened)) {
+        reader.skipValue();
+      } else if (flattened) {
+        if (!readFields(reader, name, depth + 1, fields)) {
+          return false;
+        }
+      } else {
+        fields.add(new Pair<>(name, getValue(parser.parse(reader))));
+      }
+    }
+    reader.endObject();
+    return true;
+  }
+
   /**
    * Recursively flattens JSON until the 'depth' is reached.
    *
@@ -169,6 +271,11 @@ public class JsParser implements Directive, Lineage {
    * @param row to which the flatten fields need to be added.
    */
   public static void jsonFlatten(JsonObject root, String field, int depth, int maxDepth, Row row) {
+    jsonFlatten(root, field, depth, maxDepth, null, row);
+  }
+
+  private static void jsonFlatten(JsonObject root, String field, int depth, int maxDepth,
+                                  @Nullable Projection projection, Row row) {
     if (depth > maxDepth) {
       row.addOrSet(String.format("%s", field), root);
       return;
@@ -179,11 +286,14 @@ public class JsParser implements Directive, Lineage {
       Map.Entry<String, JsonElement> next = elements.next();
       String key = next.getKey();
       JsonElement element = next.getValue();
+      String name = String.format("%s_%s", field, key);
+      if (projection != null && !projection.isUsed(name, element instanceof JsonObject && depth < maxDepth)) {
+        continue;
+      }
       if (element instanceof JsonObject) {
-        jsonFlatten(element.getAsJsonObject(),
-                    String.format("%s_%s", field, key), depth + 1, maxDepth, row);
+        jsonFlatten(element.getAsJsonObject(), name, depth + 1, maxDepth, projection, row);
       } else {
-        row.add(String.format("%s_%s", field, key), getValue(element));
+        row.add(name, getValue(element));
       }
     }
   }
@@ -245,4 +355,33 @@ public class JsParser implements Directive, Lineage {
     }
     return null;
   }
+
+  /**
+   * Names of the flattened columns used by the rest of the recipe, compared case insensitively.
+   */
+  private static final class Projection {
+    private final Set<String> columns = new HashSet<>();
+    // Prefixes of the used columns that end right before an '_', that is the names of the objects they are in.
+    private final Set<String> objects = new HashSet<>();
+
+    Projection(Set<String> used) {
+      for (String column : used) {
+        String name = column.toLowerCase(Locale.ROOT);
+        columns.add(name);
+        for (int idx = name.indexOf('_'); idx >= 0; idx = name.indexOf('_', idx + 1)) {
+          objects.add(name.substring(0, idx));
+        }
+      }
+    }
+
+    /**
+     * @param name of the column of a JSON value
+     * @param flattened true if the value is an object flattened into columns, false if it is a column
+     * @return true if the column or, for a flattened object, any of its columns, is used.
+     */
+    boolean isUsed(String name, boolean flattened) {
+      String key = name.toLowerCase(Locale.ROOT);
+      return flattened ? objects.contains(key) : columns.contains(key);
+    }
+  }
 }
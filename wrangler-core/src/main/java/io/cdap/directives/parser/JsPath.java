@@ -32,6 +32,7 @@ import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.ProjectionAware;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.annotations.Categories;
 import io.cdap.wrangler.api.lineage.Lineage;
@@ -42,7 +43,10 @@ import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import javax.annotation.Nullable;
 
 /**
  * A Json Path Extractor Stage for parsing the {@link Row} provided based on configuration.
@@ -51,12 +55,14 @@ import java.util.List;
 @Name("json-path")
 @Categories(categories = { "parser", "json"})
 @Description("Parses JSON elements using a DSL (a JSON path expression).")
-public class JsPath implements Directive, Lineage {
+public class JsPath implements Directive, Lineage, ProjectionAware {
   public static final String NAME = "json-path";
   private String src;
   private String dest;
   private String path;
   private ParseContext parser;
+  // Path compiled on first use, so that an invalid path fails the execution like it did when read by its text.
+  private JsonPath compiledPath;
 
   public static final Configuration GSON_CONFIGURATION = Configuration
     .builder()
@@ -81,6 +87,19 @@ public class JsPath implements Directive, Lineage {
     this.parser = JsonPath.using(GSON_CONFIGURATION);
   }
 
+  @Nullable
+  @Override
+  public Set<String> project(@Nullable Set<String> columns) {
+    if (columns == null) {
+      return null;
+    }
+    Set<String> used = new HashSet<>(columns);
+    used.add(src);
+    // The destination column is set in place if it exists
+    used.add(dest);
+    return used;
+  }
+
   @Override
   public void destroy() {
     // no-op
@@ -105,7 +124,10 @@ public class JsPath implements Directive, Lineage {
         );
       }
 
-      JsonElement element = parser.parse(value).read(path);
+      if (compiledPath == null) {
+        compiledPath = JsonPath.compile(path);
+      }
+      JsonElement element = parser.parse(value).read(compiledPath);
       Object val = JsParser.getValue(element);
 
       // If destination is already present add it, else set the value.
@@ -130,4 +152,3 @@ public class JsPath implements Directive, Lineage {
       .build();
   }
 }
-
@@ -37,6 +37,7 @@ import io.cdap.wrangler.expression.EL;
 import io.cdap.wrangler.expression.ELContext;
 import io.cdap.wrangler.expression.ELException;
 import io.cdap.wrangler.expression.ELResult;
+import io.cdap.wrangler.expression.RowELContext;
 
 import java.util.List;
 
@@ -53,6 +54,7 @@ public class Fail implements Directive, Lineage {
   public static final String NAME = "fail";
   private String condition;
   private EL el;
+  private RowELContext elContext;
 
   @Override
   public UsageDefinition define() {
@@ -71,6 +73,7 @@ public class Fail implements Directive, Lineage {
     condition = expression.value();
     try {
       el = EL.compile(condition);
+      elContext = new RowELContext(el);
     } catch (ELException e) {
       throw new DirectiveParseException(NAME, e.getMessage(), e);
     }
@@ -86,7 +89,7 @@ public class Fail implements Directive, Lineage {
     throws DirectiveExecutionException {
     for (Row row : rows) {
       // Move the fields from the row into the context.
-      ELContext ctx = new ELContext(context, el, row);
+      ELContext ctx = elContext.reset(context, row);
 
       // Execution of the script / expression based on the row data
       // mapped into context.
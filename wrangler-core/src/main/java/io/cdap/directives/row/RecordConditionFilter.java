@@ -28,6 +28,7 @@ import io.cdap.wrangler.api.EntityCountMetric;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Optional;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowMapper;
 import io.cdap.wrangler.api.annotations.Categories;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Mutation;
@@ -38,6 +39,7 @@ import io.cdap.wrangler.api.parser.UsageDefinition;
 import io.cdap.wrangler.expression.EL;
 import io.cdap.wrangler.expression.ELContext;
 import io.cdap.wrangler.expression.ELException;
+import io.cdap.wrangler.expression.RowELContext;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -57,9 +59,10 @@ import static io.cdap.wrangler.metrics.JexlCategoryMetricUtils.getJexlCategoryMe
 @Name(RecordConditionFilter.NAME)
 @Categories(categories = { "row", "data-quality"})
 @Description("Filters rows based on condition type specified.")
-public class RecordConditionFilter implements Directive, Lineage {
+public class RecordConditionFilter implements Directive, Lineage, RowMapper {
   public static final String NAME = "filter-row";
   private EL el;
+  private RowELContext elContext;
   private boolean isTrue;
 
   @Override
@@ -79,6 +82,7 @@ public class RecordConditionFilter implements Directive, Lineage {
     String condition = ((Expression) args.value("condition")).value();
     try {
       el = EL.compile(condition);
+      elContext = new RowELContext(el);
     } catch (ELException e) {
       throw new DirectiveParseException(NAME, e.getMessage(), e);
     }
@@ -93,29 +97,31 @@ public class RecordConditionFilter implements Directive, Lineage {
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     List<Row> results = new ArrayList<>();
     for (Row row : rows) {
-      // Move the fields from the row into the context.
-      ELContext ctx = new ELContext(context, el, row);
-      if (context != null) {
-        for (String variable : context.getTransientStore().getVariables()) {
-          ctx.set(variable, context.getTransientStore().get(variable));
-        }
+      if (map(row, context) != null) {
+        results.add(row);
       }
-      try {
-        Boolean result = el.execute(ctx).getBoolean();
-        if (!isTrue) {
-          result = !result;
-        }
-        if (result) {
-          continue;
-        }
-      } catch (ELException e) {
-        throw new DirectiveExecutionException(NAME, e.getMessage(), e);
-      }
-      results.add(row);
     }
     return results;
   }
 
+  @Override
+  public Row map(Row row, ExecutorContext context) throws DirectiveExecutionException {
+    // Move the fields from the row into the context.
+    ELContext ctx = elContext.reset(context, row);
+    try {
+      Boolean result = el.execute(ctx).getBoolean();
+      if (!isTrue) {
+        result = !result;
+      }
+      if (result) {
+        return null;
+      }
+    } catch (ELException e) {
+      throw new DirectiveExecutionException(NAME, e.getMessage(), e);
+    }
+    return row;
+  }
+
   @Override
   public Mutation lineage() {
     Mutation.Builder builder = Mutation.builder()
@@ -41,6 +41,7 @@ import io.cdap.wrangler.expression.EL;
 import io.cdap.wrangler.expression.ELContext;
 import io.cdap.wrangler.expression.ELException;
 import io.cdap.wrangler.expression.ELResult;
+import io.cdap.wrangler.expression.RowELContext;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -63,6 +64,7 @@ import static io.cdap.wrangler.metrics.JexlCategoryMetricUtils.getJexlCategoryMe
 public class SendToError implements Directive, Lineage {
   public static final String NAME = "send-to-error";
   private EL el;
+  private RowELContext elContext;
   private String condition;
   private String metric = null;
   private String message = null;
@@ -81,6 +83,7 @@ public class SendToError implements Directive, Lineage {
     condition = ((Expression) args.value("condition")).value();
     try {
       el = EL.compile(condition);
+      elContext = new RowELContext(el);
     } catch (ELException e) {
       throw new DirectiveParseException(
         NAME, String.format(" Invalid condition '%s'.", condition)
@@ -105,14 +108,8 @@ public class SendToError implements Directive, Lineage {
     List<Row> results = new ArrayList<>();
     for (Row row : rows) {
       // Move the fields from the row into the context.
-      ELContext ctx = new ELContext(context, el, row);
+      ELContext ctx = elContext.reset(context, row);
 
-      // Transient variables are added.
-      if (context != null) {
-        for (String variable : context.getTransientStore().getVariables()) {
-          ctx.set(variable, context.getTransientStore().get(variable));
-        }
-      }
 
       // Execution of the script / expression based on the row data
       // mapped into context.
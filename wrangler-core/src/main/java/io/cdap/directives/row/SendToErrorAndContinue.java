@@ -42,6 +42,7 @@ import io.cdap.wrangler.expression.EL;
 import io.cdap.wrangler.expression.ELContext;
 import io.cdap.wrangler.expression.ELException;
 import io.cdap.wrangler.expression.ELResult;
+import io.cdap.wrangler.expression.RowELContext;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -64,6 +65,7 @@ import static io.cdap.wrangler.metrics.JexlCategoryMetricUtils.getJexlCategoryMe
 public class SendToErrorAndContinue implements Directive, Lineage {
   public static final String NAME = "send-to-error-and-continue";
   private EL el;
+  private RowELContext elContext;
   private String condition;
   private String metric = null;
   private String message = null;
@@ -82,6 +84,7 @@ public class SendToErrorAndContinue implements Directive, Lineage {
     condition = ((Expression) args.value("condition")).value();
     try {
       el = EL.compile(condition);
+      elContext = new RowELContext(el);
     } catch (ELException e) {
       throw new DirectiveParseException(
         NAME, String.format("Invalid condition '%s'.", condition), e);
@@ -108,7 +111,7 @@ public class SendToErrorAndContinue implements Directive, Lineage {
     List<Row> results = new ArrayList<>();
     for (Row row : rows) {
       // Move the fields from the row into the context.
-      ELContext ctx = new ELContext(context, el, row);
+      ELContext ctx = elContext.reset(context, row);
 
       // Execution of the script / expression based on the row data
       // mapped into context.
@@ -27,6 +27,7 @@ import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.EntityCountMetric;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowMapper;
 import io.cdap.wrangler.api.annotations.Categories;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Many;
@@ -39,6 +40,7 @@ import io.cdap.wrangler.expression.EL;
 import io.cdap.wrangler.expression.ELContext;
 import io.cdap.wrangler.expression.ELException;
 import io.cdap.wrangler.expression.ELResult;
+import io.cdap.wrangler.expression.RowELContext;
 
 import java.util.List;
 
@@ -60,13 +62,14 @@ import static io.cdap.wrangler.metrics.JexlCategoryMetricUtils.getJexlCategoryMe
 @Name(ColumnExpression.NAME)
 @Categories(categories = { "transform"})
 @Description("Sets a column by evaluating a JEXL expression.")
-public class ColumnExpression implements Directive, Lineage {
+public class ColumnExpression implements Directive, Lineage, RowMapper {
   public static final String NAME = "set-column";
   // Column to which the result of experience is applied to.
   private String column;
   // The actual expression
   private String expression;
   private EL el;
+  private RowELContext elContext;
 
   @Override
   public UsageDefinition define() {
@@ -82,6 +85,7 @@ public class ColumnExpression implements Directive, Lineage {
     this.expression = ((Expression) args.value("expression")).value();
     try {
       el = EL.compile(expression);
+      elContext = new RowELContext(el);
     } catch (ELException e) {
       throw new DirectiveParseException(NAME, e.getMessage(), e);
     }
@@ -95,24 +99,30 @@ public class ColumnExpression implements Directive, Lineage {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     for (Row row : rows) {
-      // Move the fields from the row into the context.
-      ELContext ctx = new ELContext(context, el, row);
+      map(row, context);
+    }
+    return rows;
+  }
+
+  @Override
+  public Row map(Row row, ExecutorContext context) throws DirectiveExecutionException {
+    // Move the fields from the row into the context.
+    ELContext ctx = elContext.reset(context, row);
 
-      // Execution of the script / expression based on the row data
-      // mapped into context.
-      try {
-        ELResult result = el.execute(ctx);
-        int idx = row.find(this.column);
-        if (idx == -1) {
-          row.add(this.column, result.getObject());
-        } else {
-          row.setValue(idx, result.getObject());
-        }
-      } catch (ELException e) {
-        throw new DirectiveExecutionException(NAME, e.getMessage(), e);
+    // Execution of the script / expression based on the row data
+    // mapped into context.
+    try {
+      ELResult result = el.execute(ctx);
+      int idx = row.find(this.column);
+      if (idx == -1) {
+        row.add(this.column, result.getObject());
+      } else {
+        row.setValue(idx, result.getObject());
       }
+    } catch (ELException e) {
+      throw new DirectiveExecutionException(NAME, e.getMessage(), e);
     }
-    return rows;
+    return row;
   }
 
   @Override
@@ -25,6 +25,7 @@ import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowMapper;
 import io.cdap.wrangler.api.annotations.Categories;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Mutation;
@@ -43,7 +44,7 @@ import java.util.List;
 @Name(FillNullOrEmpty.NAME)
 @Categories(categories = { "transform"})
 @Description("Fills a value of a column with a fixed value if it is either null or empty.")
-public class FillNullOrEmpty implements Directive, Lineage {
+public class FillNullOrEmpty implements Directive, Lineage, RowMapper {
   public static final String NAME = "fill-null-or-empty";
   private String column;
   private String value;
@@ -74,27 +75,33 @@ public class FillNullOrEmpty implements Directive, Lineage {
   public List<Row> execute(List<Row> rows, ExecutorContext context)
     throws DirectiveExecutionException {
     for (Row row : rows) {
-      int idx = row.find(column);
-      if (idx == -1) {
-        row.add(column, value);
-        continue;
-      }
-      Object object = row.getValue(idx);
-      if (object == null) {
-        row.setValue(idx, value);
-      } else {
-        if (object instanceof String) {
-          if (((String) object).isEmpty()) {
-            row.setValue(idx, value);
-          }
-        } else if (object instanceof JSONObject) {
-          if (JSONObject.NULL.equals(object)) {
-            row.setValue(idx, value);
-          }
+      map(row, context);
+    }
+    return rows;
+  }
+
+  @Override
+  public Row map(Row row, ExecutorContext context) throws DirectiveExecutionException {
+    int idx = row.find(column);
+    if (idx == -1) {
+      row.add(column, value);
+      return row;
+    }
+    Object object = row.getValue(idx);
+    if (object == null) {
+      row.setValue(idx, value);
+    } else {
+      if (object instanceof String) {
+        if (((String) object).isEmpty()) {
+          row.setValue(idx, value);
+        }
+      } else if (object instanceof JSONObject) {
+        if (JSONObject.NULL.equals(object)) {
+          row.setValue(idx, value);
         }
       }
     }
-    return rows;
+    return row;
   }
 
   @Override
@@ -25,6 +25,7 @@ import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowMapper;
 import io.cdap.wrangler.api.annotations.Categories;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Mutation;
@@ -41,7 +42,7 @@ import java.util.List;
 @Name(LeftTrim.NAME)
 @Categories(categories = { "transform"})
 @Description("Trimming whitespace from left side of a string.")
-public class LeftTrim implements Directive, Lineage {
+public class LeftTrim implements Directive, Lineage, RowMapper {
   public static final String NAME = "ltrim";
   // Columns of the column to be upper-cased
   private String col;
@@ -66,18 +67,24 @@ public class LeftTrim implements Directive, Lineage {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     for (Row row : rows) {
-      int idx = row.find(col);
-      if (idx != -1) {
-        Object object = row.getValue(idx);
-        if (object instanceof String) {
-          if (object != null) {
-            String value = (String) object;
-            row.setValue(idx, Trimmer.ltrim(value));
-          }
+      map(row, context);
+    }
+    return rows;
+  }
+
+  @Override
+  public Row map(Row row, ExecutorContext context) throws DirectiveExecutionException {
+    int idx = row.find(col);
+    if (idx != -1) {
+      Object object = row.getValue(idx);
+      if (object instanceof String) {
+        if (object != null) {
+          String value = (String) object;
+          row.setValue(idx, Trimmer.ltrim(value));
         }
       }
     }
-    return rows;
+    return row;
   }
 
   @Override
@@ -25,6 +25,7 @@ import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowMapper;
 import io.cdap.wrangler.api.annotations.Categories;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Mutation;
@@ -41,7 +42,7 @@ import java.util.List;
 @Name(Lower.NAME)
 @Categories(categories = { "transform"})
 @Description("Changes the column values to lowercase.")
-public class Lower implements Directive, Lineage {
+public class Lower implements Directive, Lineage, RowMapper {
   public static final String NAME = "lowercase";
   // Columns of the column to be lower cased.
   private String column;
@@ -66,18 +67,24 @@ public class Lower implements Directive, Lineage {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     for (Row row : rows) {
-      int idx = row.find(column);
-      if (idx != -1) {
-        Object object = row.getValue(idx);
-        if (object instanceof String) {
-          if (object != null) {
-            String value = (String) object;
-            row.setValue(idx, value.toLowerCase());
-          }
+      map(row, context);
+    }
+    return rows;
+  }
+
+  @Override
+  public Row map(Row row, ExecutorContext context) throws DirectiveExecutionException {
+    int idx = row.find(column);
+    if (idx != -1) {
+      Object object = row.getValue(idx);
+      if (object instanceof String) {
+        if (object != null) {
+          String value = (String) object;
+          row.setValue(idx, value.toLowerCase());
         }
       }
     }
-    return rows;
+    return row;
   }
 
   @Override
@@ -25,6 +25,7 @@ import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowMapper;
 import io.cdap.wrangler.api.annotations.Categories;
 import io.cdap.wrangler.api.lineage.Lineage;
 import io.cdap.wrangler.api.lineage.Mutation;
@@ -42,7 +43,7 @@ import java.util.List;
 @Name(RightTrim.NAME)
 @Categories(categories = { "transform"})
 @Description("Trimming whitespace from right side of a string.")
-public class RightTrim implements Directive, Lineage {
+public class RightTrim implements Directive, Lineage, RowMapper {
   public static final String NAME = "rtrim";
   // Columns of the column to be upper-cased
   private String column;
@@ -67,18 +68,24 @@ public class RightTrim implements Directive, Lineage {
   @Override
   public List<Row> execute(List<Row> rows, ExecutorContext context) throws DirectiveExecutionException {
     for (Row row : rows) {
-      int idx = row.find(column);
-      if (idx != -1) {
-        Object object = row.getValue(idx);
-        if (object instanceof String) {
-          if (object != null) {
-            String value = (String) object;
-            row.setValue(idx, Trimmer.rtrim(value));
-          }
+      map(row, context);
+    }
+    return rows;
+  }
+
+  @Override
+  public Row map(Row row, ExecutorContext context) throws DirectiveExecutionException {
+    int idx = row.find(column);
+    if (idx != -1) {
+      Object object = row.getValue(idx);
+      if (object instanceof String) {
+        if (object != null) {
+          String value = (String) object;
+          row.setValue(idx, Trimmer.rtrim(value));
         }
       }
     }
-    return rows;
+    return row;
   }
 
   @Override
@@ -0,0 +1,425 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.directives.xml;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.internal.LazilyParsedNumber;
+import io.cdap.wrangler.api.Row;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.XML;
+
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Flattens XML documents into columns of a {@link Row} in a single streaming pass.
+ *
+ * <p>The document is read with StAX into a lightweight tree that follows the {@code org.json.XML} conventions
+ * (attributes and child elements become keys, text goes under {@code content}, repeated elements become arrays)
+ * and is then emitted into the row the same way {@code JsParser.jsonFlatten} emits a JSON object. Objects are kept
+ * in hash maps so that the columns come out in the same order as the JSON produced by {@code org.json}. Elements
+ * that are not on one of the projected paths are skipped without being materialized.</p>
+ *
+ * <p>Documents that are not well-formed XML, but that {@code org.json} still accepts (for example documents with
+ * several root elements or HTML entities), are converted with {@code org.json} instead.</p>
+ */
+final class XmlFlattener {
+  private static final String CONTENT = "content";
+  private static final String REPORT_CDATA = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+
+  private final XMLInputFactory factory;
+  private final int maxDepth;
+  private final boolean keepString;
+  private final Projection projection;
+
+  /**
+   * @param maxDepth depth up to which objects are flattened into columns
+   * @param keepString true to keep all values as strings
+   * @param paths '/' separated key paths to materialize, or {@code null} to materialize the whole document
+   */
+  XmlFlattener(int maxDepth, boolean keepString, @Nullable List<String> paths) {
+    this.maxDepth = maxDepth;
+    this.keepString = keepString;
+    this.projection = paths == null ? Projection.ALL : Projection.of(paths);
+    this.factory = XMLInputFactory.newFactory();
+    factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+    factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    if (factory.isPropertySupported(REPORT_CDATA)) {
+      factory.setProperty(REPORT_CDATA, true);
+    }
+  }
+
+  /**
+   * Parses the XML document and adds its fields to the row as columns prefixed with the given column name.
+   *
+   * @param xml document to flatten
+   * @param column name of the column the document was read from
+   * @param row to which the columns are added
+   * @throws org.json.JSONException if the document cannot be parsed
+   */
+  void flatten(String xml, String column, Row row) {
+    Map<String, Object> document;
+    try {
+      document = parse(xml);
+    } catch (XMLStreamException e) {
+      document = toMap(XML.toJSONObject(xml, keepString), projection);
+    }
+    flatten(document, column, 1, row);
+  }
+
+  private void flatten(Map<String, Object> object, String field, int depth, Row row) {
+    if (depth > maxDepth) {
+      row.addOrSet(field, toJson(object));
+      return;
+    }
+    for (Map.Entry<String, Object> entry : object.entrySet()) {
+      String name = field + "_" + entry.getKey();
+      Object value = entry.getValue();
+      if (value instanceof Map) {
+        flatten(asMap(value), name, depth + 1, row);
+      } else if (value instanceof List) {
+        row.add(name, toJson(value));
+      } else {
+        row.add(name, value);
+      }
+    }
+  }
+
+  private Map<String, Object> parse(String xml) throws XMLStreamException {
+    XMLStreamReader reader = factory.createXMLStreamReader(new StringReader(xml));
+    try {
+      Deque<Element> elements = new ArrayDeque<>();
+      Element document = new Element(null, projection);
+      Element current = document;
+      StringBuilder text = new StringBuilder();
+      while (reader.hasNext()) {
+        switch (reader.next()) {
+          case XMLStreamConstants.START_ELEMENT:
+            addText(current, text);
+            String name = qualifiedName(reader.getPrefix(), reader.getLocalName());
+            Projection child = current.projection.child(name);
+            if (child == null) {
+              skipElement(reader);
+              break;
+            }
+            elements.push(current);
+            current = new Element(name, child);
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+              String attribute = qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i));
+              if (current.projection.child(attribute) != null) {
+                String value = reader.getAttributeValue(i);
+                accumulate(current.values, attribute, keepString ? value : toValue(value));
+              }
+            }
+            break;
+          case XMLStreamConstants.END_ELEMENT:
+            addText(current, text);
+            Element parent = elements.pop();
+            accumulate(parent.values, current.name, current.value());
+            current = parent;
+            break;
+          case XMLStreamConstants.CHARACTERS:
+          case XMLStreamConstants.SPACE:
+            if (current != document) {
+              text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+            }
+            break;
+          case XMLStreamConstants.CDATA:
+            addText(current, text);
+            if (reader.getTextLength() > 0 && current.projection.child(CONTENT) != null) {
+              accumulate(current.values, CONTENT, reader.getText());
+            }
+            break;
+          case XMLStreamConstants.ENTITY_REFERENCE:
+            throw new XMLStreamException("Undeclared entity '" + reader.getLocalName() + "'", reader.getLocation());
+          case XMLStreamConstants.COMMENT:
+          case XMLStreamConstants.PROCESSING_INSTRUCTION:
+            // Like org.json, markup ends the current run of text.
+            addText(current, text);
+            break;
+          default:
+            break;
+        }
+      }
+      return document.values;
+    } finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * Adds the pending text as content of the element, trimmed the way org.json trims it.
+   */
+  private void addText(Element element, StringBuilder text) {
+    if (text.length() == 0) {
+      return;
+    }
+    int start = 0;
+    int end = text.length();
+    while (start < end && (text.charAt(start) <= ' ' || Character.isWhitespace(text.charAt(start)))) {
+      start++;
+    }
+    while (end > start && text.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    if (start < end && element.projection.child(CONTENT) != null) {
+      String value = text.substring(start, end);
+      accumulate(element.values, CONTENT, keepString ? value : toValue(value));
+    }
+    text.setLength(0);
+  }
+
+  private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+    int level = 1;
+    while (level > 0) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        level++;
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        level--;
+      }
+    }
+  }
+
+  private static String qualifiedName(@Nullable String prefix, String localName) {
+    return prefix == null || prefix.isEmpty() ? localName : prefix + ":" + localName;
+  }
+
+  /**
+   * Same as {@code JSONObject.accumulate}: a repeated key turns the value into an array.
+   */
+  @SuppressWarnings("unchecked")
+  private static void accumulate(Map<String, Object> values, String key, Object value) {
+    Object existing = values.get(key);
+    if (existing == null) {
+      if (value instanceof List) {
+        List<Object> array = new ArrayList<>();
+        array.add(value);
+        value = array;
+      }
+      values.put(key, value);
+    } else if (existing instanceof List) {
+      ((List<Object>) existing).add(value);
+    } else {
+      List<Object> array = new ArrayList<>();
+      array.add(existing);
+      array.add(value);
+      values.put(key, array);
+    }
+  }
+
+  /**
+   * Converts a string the way {@code XML.stringToValue} does, followed by the conversion the value used to go
+   * through when it was written as JSON and read back by Gson: every integer becomes a {@link Long}, and doubles
+   * with an integral value below 10^7 become a {@link Long} as well.
+   */
+  private static Object toValue(String value) {
+    if (value.isEmpty()) {
+      return value;
+    }
+    if (value.equalsIgnoreCase("true")) {
+      return Boolean.TRUE;
+    }
+    if (value.equalsIgnoreCase("false")) {
+      return Boolean.FALSE;
+    }
+    if (value.equalsIgnoreCase("null")) {
+      return JsonNull.INSTANCE;
+    }
+    char initial = value.charAt(0);
+    if ((initial >= '0' && initial <= '9') || initial == '-') {
+      try {
+        if (value.indexOf('.') > -1 || value.indexOf('e') > -1 || value.indexOf('E') > -1 || "-0".equals(value)) {
+          Double number = Double.valueOf(value);
+          if (!number.isInfinite() && !number.isNaN()) {
+            return toNumber(number);
+          }
+        } else {
+          Long number = Long.valueOf(value);
+          if (value.equals(number.toString())) {
+            return number;
+          }
+        }
+      } catch (NumberFormatException e) {
+        // Not a number, keep it as a string.
+      }
+    }
+    return value;
+  }
+
+  private static Object toNumber(Number number) {
+    if (number instanceof Double || number instanceof Float) {
+      // org.json writes 2.0 as 2, which is then read back as an integer.
+      return number.toString().endsWith(".0") ? (Object) number.longValue() : (Object) number.doubleValue();
+    }
+    return number.longValue();
+  }
+
+  /**
+   * Converts the result of the org.json parser, keeping its key order.
+   */
+  private static Map<String, Object> toMap(JSONObject object, Projection projection) {
+    Map<String, Object> values = new HashMap<>();
+    Iterator<String> keys = object.keys();
+    while (keys.hasNext()) {
+      String key = keys.next();
+      Projection child = projection.child(key);
+      if (child != null) {
+        values.put(key, toValue(object.get(key), child));
+      }
+    }
+    return values;
+  }
+
+  private static Object toValue(Object value, Projection projection) {
+    if (value instanceof JSONObject) {
+      return toMap((JSONObject) value, projection);
+    }
+    if (value instanceof JSONArray) {
+      List<Object> array = new ArrayList<>();
+      for (Object element : (JSONArray) value) {
+        array.add(toValue(element, projection));
+      }
+      return array;
+    }
+    if (value instanceof Number) {
+      return toNumber((Number) value);
+    }
+    if (JSONObject.NULL.equals(value)) {
+      return JsonNull.INSTANCE;
+    }
+    return value;
+  }
+
+  private static JsonElement toJson(Object value) {
+    if (value instanceof Map) {
+      JsonObject object = new JsonObject();
+      for (Map.Entry<String, Object> entry : asMap(value).entrySet()) {
+        object.add(entry.getKey(), toJson(entry.getValue()));
+      }
+      return object;
+    }
+    if (value instanceof List) {
+      JsonArray array = new JsonArray();
+      for (Object element : (List<?>) value) {
+        array.add(toJson(element));
+      }
+      return array;
+    }
+    if (value instanceof Number) {
+      return new JsonPrimitive(new LazilyParsedNumber(value.toString()));
+    }
+    if (value instanceof Boolean) {
+      return new JsonPrimitive((Boolean) value);
+    }
+    if (value instanceof String) {
+      return new JsonPrimitive((String) value);
+    }
+    return JsonNull.INSTANCE;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Object> asMap(Object value) {
+    return (Map<String, Object>) value;
+  }
+
+  /**
+   * An element that is being read, with its attributes, text and child elements.
+   */
+  private static final class Element {
+    private final String name;
+    private final Projection projection;
+    private final Map<String, Object> values = new HashMap<>();
+
+    Element(String name, Projection projection) {
+      this.name = name;
+      this.projection = projection;
+    }
+
+    /**
+     * Returns the value of the element as org.json represents it: an empty string for an empty element, the
+     * content alone for an element with only text, and the object otherwise.
+     */
+    Object value() {
+      if (values.isEmpty()) {
+        return "";
+      }
+      if (values.size() == 1 && values.containsKey(CONTENT)) {
+        return values.get(CONTENT);
+      }
+      return values;
+    }
+  }
+
+  /**
+   * A tree of the key paths to materialize.
+   */
+  private static final class Projection {
+    private static final Projection ALL = new Projection(null);
+
+    // Projections of the keys to materialize, or null if every key is materialized
+    @Nullable
+    private Map<String, Projection> children;
+
+    private Projection(@Nullable Map<String, Projection> children) {
+      this.children = children;
+    }
+
+    static Projection of(List<String> paths) {
+      Projection root = new Projection(new HashMap<>());
+      for (String path : paths) {
+        Projection node = root;
+        for (String key : path.split("/")) {
+          if (node.children == null) {
+            break;
+          }
+          if (!key.isEmpty()) {
+            node = node.children.computeIfAbsent(key, k -> new Projection(new HashMap<>()));
+          }
+        }
+        node.children = null;
+      }
+      return root;
+    }
+
+    /**
+     * Returns the projection of the given key, or {@code null} if the key is not materialized.
+     */
+    @Nullable
+    Projection child(String key) {
+      return children == null ? ALL : children.get(key);
+    }
+  }
+}
@@ -16,13 +16,9 @@
 
 package io.cdap.directives.xml;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
 import io.cdap.cdap.api.annotation.Description;
 import io.cdap.cdap.api.annotation.Name;
 import io.cdap.cdap.api.annotation.Plugin;
-import io.cdap.directives.parser.JsParser;
 import io.cdap.wrangler.api.Arguments;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
@@ -36,12 +32,13 @@ import io.cdap.wrangler.api.lineage.Many;
 import io.cdap.wrangler.api.lineage.Mutation;
 import io.cdap.wrangler.api.parser.ColumnName;
 import io.cdap.wrangler.api.parser.Numeric;
+import io.cdap.wrangler.api.parser.Text;
 import io.cdap.wrangler.api.parser.TokenType;
 import io.cdap.wrangler.api.parser.UsageDefinition;
 import org.apache.commons.lang.StringUtils;
 import org.json.JSONException;
-import org.json.XML;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -54,11 +51,12 @@ import java.util.List;
 public class XmlToJson implements Directive, Lineage {
   public static final String NAME = "parse-xml-to-json";
   public static final String ARG_KEEP_STRING = "keep-string";
+  public static final String ARG_PATHS = "paths";
   // Column within the input row that needs to be parsed as Json
   private String col;
   private int depth;
   private boolean keepString;
-  private final Gson gson = new Gson();
+  private XmlFlattener flattener;
 
   @Override
   public UsageDefinition define() {
@@ -66,6 +64,7 @@ public class XmlToJson implements Directive, Lineage {
     builder.define("column", TokenType.COLUMN_NAME);
     builder.define("depth", TokenType.NUMERIC, Optional.TRUE);
     builder.define(ARG_KEEP_STRING, TokenType.BOOLEAN, Optional.TRUE);
+    builder.define(ARG_PATHS, TokenType.TEXT, Optional.TRUE);
     return builder.build();
   }
 
@@ -83,6 +82,20 @@ public class XmlToJson implements Directive, Lineage {
       this.keepString = Boolean.parseBoolean(args.value(ARG_KEEP_STRING).value().toString());
     }
 
+    // Comma separated list of '/' separated paths to materialize, everything else in the document is skipped.
+    List<String> paths = null;
+    if (args.contains(ARG_PATHS)) {
+      paths = new ArrayList<>();
+      for (String path : ((Text) args.value(ARG_PATHS)).value().split(",")) {
+        if (!path.trim().isEmpty()) {
+          paths.add(path.trim());
+        }
+      }
+      if (paths.isEmpty()) {
+        throw new DirectiveParseException(NAME, "At least one path must be specified to parse.");
+      }
+    }
+    this.flattener = new XmlFlattener(depth, keepString, paths);
   }
 
   @Override
@@ -103,9 +116,7 @@ public class XmlToJson implements Directive, Lineage {
 
         try {
           if (object instanceof String) {
-            JsonObject element = gson.fromJson(XML.toJSONObject((String) object, this.keepString).toString(),
-                                               JsonElement.class).getAsJsonObject();
-            JsParser.jsonFlatten(element, col, 1, depth, row);
+            flattener.flatten((String) object, col, row);
             row.remove(idx);
           } else {
             throw new DirectiveExecutionException(
@@ -19,9 +19,18 @@ package io.cdap.wrangler.codec;
 import io.cdap.wrangler.api.Row;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericEnumSymbol;
+import org.apache.avro.generic.GenericFixed;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.io.DatumReader;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * This class {@link AbstractAvroDecoder} is implementation of {@link Decoder} interface using type {@link Row}.
  * All implementations of AVRO decoder should extend from this class.
@@ -33,9 +42,17 @@ public abstract class AbstractAvroDecoder implements Decoder<Row> {
   // Reader for reading data based on the schema.
   private final DatumReader<GenericRecord> reader;
 
+  // Names of the top level fields, indexed by the position of the field in the schema.
+  private final String[] names;
+
   protected AbstractAvroDecoder(Schema schema) {
     this.schema = schema;
     this.reader = new GenericDatumReader<>(this.schema);
+    List<Schema.Field> fields = schema.getFields();
+    this.names = new String[fields.size()];
+    for (Schema.Field field : fields) {
+      names[field.pos()] = field.name();
+    }
   }
 
   protected Schema getSchema() {
@@ -45,4 +62,66 @@ public abstract class AbstractAvroDecoder implements Decoder<Row> {
   protected DatumReader<GenericRecord> getReader() {
     return reader;
   }
+
+  /**
+   * Converts a record read with the schema of this decoder into a {@link Row}, with one column per field.
+   *
+   * Records are reused across reads, along with the strings, arrays and maps they hold, so everything
+   * is copied out of the record: nested records are converted into {@link Row}, arrays into {@link List},
+   * maps into {@link Map} keyed by string, enums into their symbol and fixed values into byte arrays.
+   *
+   * @param record read from the input.
+   * @return {@link Row} holding the values of the record.
+   */
+  protected Row toRow(GenericRecord record) {
+    Row row = new Row();
+    for (int i = 0; i < names.length; i++) {
+      row.add(names[i], toValue(record.get(i)));
+    }
+    return row;
+  }
+
+  private static Object toValue(Object object) {
+    if (object == null || object instanceof String || object instanceof Number || object instanceof Boolean) {
+      return object;
+    }
+    if (object instanceof CharSequence || object instanceof GenericEnumSymbol) {
+      return object.toString();
+    }
+    if (object instanceof GenericRecord) {
+      GenericRecord record = (GenericRecord) object;
+      Row row = new Row();
+      for (Schema.Field field : record.getSchema().getFields()) {
+        row.add(field.name(), toValue(record.get(field.pos())));
+      }
+      return row;
+    }
+    if (object instanceof List) {
+      List<?> list = (List<?>) object;
+      List<Object> values = new ArrayList<>(list.size());
+      for (Object value : list) {
+        values.add(toValue(value));
+      }
+      return values;
+    }
+    if (object instanceof Map) {
+      Map<?, ?> map = (Map<?, ?>) object;
+      Map<String, Object> values = new LinkedHashMap<>(Math.max(16, (int) (map.size() / .75f) + 1));
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        values.put(entry.getKey().toString(), toValue(entry.getValue()));
+      }
+      return values;
+    }
+    if (object instanceof ByteBuffer) {
+      ByteBuffer buffer = ((ByteBuffer) object).duplicate();
+      byte[] bytes = new byte[buffer.remaining()];
+      buffer.get(bytes);
+      return ByteBuffer.wrap(bytes);
+    }
+    if (object instanceof GenericFixed) {
+      byte[] bytes = ((GenericFixed) object).bytes();
+      return Arrays.copyOf(bytes, bytes.length);
+    }
+    return object;
+  }
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.executor;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.wrangler.api.ErrorRecord;
+
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Result of executing a recipe on a single input row of a batch executed by
+ * {@link RecipePipelineExecutor#executeBatch(List, io.cdap.cdap.api.data.schema.Schema)}.
+ */
+public final class BatchResult {
+  private final List<StructuredRecord> records;
+  private final List<ErrorRecord> errors;
+  private final Exception failure;
+
+  BatchResult(List<StructuredRecord> records, List<ErrorRecord> errors, @Nullable Exception failure) {
+    this.records = records;
+    this.errors = errors;
+    this.failure = failure;
+  }
+
+  /**
+   * @return records generated from the input row.
+   */
+  public List<StructuredRecord> getRecords() {
+    return records;
+  }
+
+  /**
+   * @return rows that errored out while processing the input row.
+   */
+  public List<ErrorRecord> getErrors() {
+    return errors;
+  }
+
+  /**
+   * @return the failure that aborted the processing of the input row, {@code null} if there was none.
+   */
+  @Nullable
+  public Exception getFailure() {
+    return failure;
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.executor;
+
+/**
+ * Statistics of the executions of a single directive of a recipe, collected by a {@link RecipePipelineExecutor}
+ * that has profiling enabled.
+ *
+ * <p>The rows, errors and row counts cover every row executed, while the time only covers the sampled rows.
+ * {@link #getEstimatedNanos()} scales that time to all the rows handed to the directive.</p>
+ */
+public final class DirectiveProfile {
+  private final int index;
+  private final String name;
+  private long nanos;
+  private long rowsIn;
+  private long sampledRowsIn;
+  private long rowsOut;
+  private long errors;
+
+  DirectiveProfile(int index, String name) {
+    this.index = index;
+    this.name = name;
+  }
+
+  private DirectiveProfile(DirectiveProfile profile) {
+    this.index = profile.index;
+    this.name = profile.name;
+    this.nanos = profile.nanos;
+    this.rowsIn = profile.rowsIn;
+    this.sampledRowsIn = profile.sampledRowsIn;
+    this.rowsOut = profile.rowsOut;
+    this.errors = profile.errors;
+  }
+
+  /**
+   * @return index of the directive in the recipe, starting at 1.
+   */
+  public int getIndex() {
+    return index;
+  }
+
+  /**
+   * @return name of the directive.
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return time spent executing the directive on the sampled rows, in nanoseconds.
+   */
+  public long getNanos() {
+    return nanos;
+  }
+
+  /**
+   * @return estimated time spent executing the directive on all the rows, in nanoseconds.
+   */
+  public long getEstimatedNanos() {
+    return scale(nanos, rowsIn, sampledRowsIn);
+  }
+
+  /**
+   * @return number of rows handed to the directive.
+   */
+  public long getRowsIn() {
+    return rowsIn;
+  }
+
+  /**
+   * @return number of sampled rows handed to the directive.
+   */
+  public long getSampledRowsIn() {
+    return sampledRowsIn;
+  }
+
+  /**
+   * @return number of rows generated by the directive.
+   */
+  public long getRowsOut() {
+    return rowsOut;
+  }
+
+  /**
+   * @return number of rows that errored out in the directive.
+   */
+  public long getErrors() {
+    return errors;
+  }
+
+  DirectiveProfile copy() {
+    return new DirectiveProfile(this);
+  }
+
+  void addRowsIn(int rows, boolean sampled) {
+    rowsIn += rows;
+    if (sampled) {
+      sampledRowsIn += rows;
+    }
+  }
+
+  void completed(int rows, long elapsed) {
+    rowsOut += rows;
+    nanos += elapsed;
+  }
+
+  void failed(long elapsed) {
+    errors++;
+    nanos += elapsed;
+  }
+
+  /**
+   * Scales the time spent on the sampled rows to all the rows.
+   */
+  static long scale(long nanos, long rows, long sampledRows) {
+    return sampledRows == 0 ? 0L : Math.round((double) nanos * rows / sampledRows);
+  }
+}
@@ -16,20 +16,25 @@
 
 package io.cdap.wrangler.executor;
 
+import com.google.common.collect.ImmutableMap;
 import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.cdap.api.metrics.Metrics;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveExecutionException;
 import io.cdap.wrangler.api.ErrorRecord;
 import io.cdap.wrangler.api.ErrorRowException;
 import io.cdap.wrangler.api.Executor;
 import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.ProjectionAware;
 import io.cdap.wrangler.api.RecipeException;
 import io.cdap.wrangler.api.RecipeParser;
 import io.cdap.wrangler.api.RecipePipeline;
 import io.cdap.wrangler.api.ReportErrorAndProceed;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.RowMapper;
 import io.cdap.wrangler.api.TransientVariableScope;
+import io.cdap.wrangler.metrics.Constants;
 import io.cdap.wrangler.schema.DirectiveOutputSchemaGenerator;
 import io.cdap.wrangler.schema.DirectiveSchemaResolutionContext;
 import io.cdap.wrangler.schema.TransientStoreKeys;
@@ -40,7 +45,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 import javax.annotation.Nullable;
 
 /**
@@ -50,18 +58,79 @@ public final class RecipePipelineExecutor implements RecipePipeline<Row, Structu
 
   private static final Logger LOG = LoggerFactory.getLogger(RecipePipelineExecutor.class);
 
+  /**
+   * Interval between two timed rows that keeps the overhead of profiling low on most recipes.
+   */
+  public static final int DEFAULT_PROFILE_SAMPLE_INTERVAL = 16;
+
+  static final String DIRECTIVE_TIME_METRIC = "directive.time";
+  static final String DIRECTIVE_ROWS_IN_METRIC = "directive.rows.in";
+  static final String DIRECTIVE_ROWS_OUT_METRIC = "directive.rows.out";
+  static final String DIRECTIVE_ERRORS_METRIC = "directive.errors";
+
   private final ErrorRecordCollector collector = new ErrorRecordCollector();
   private final RecordConvertor convertor = new RecordConvertor();
   private final SchemaConverter generator = new SchemaConverter();
   private final RecipeParser recipeParser;
   private final ExecutorContext context;
+  // Single row list reused for passing a row to directives that operate on lists.
+  private final List<Row> window = new ArrayList<>(1);
   private List<Directive> directives;
+  // Directives that transform a row into at most one row, null for the directives that don't.
+  private RowMapper[] mappers;
+  // Interval between two timed rows, 0 if profiling is disabled.
+  private int sampleInterval;
+  // Statistics of each directive, null until the directives are parsed with profiling enabled.
+  private DirectiveProfile[] profiles;
+  // Statistics of each directive as of the last time they were emitted as metrics.
+  private DirectiveProfile[] emitted;
+  // Statistics of each directive as of the last time their time was emitted, which needs sampled rows.
+  private DirectiveProfile[] emittedTime;
+  private Metrics[] directiveMetrics;
+  private long profiledRows;
+  private long sampledRows;
+  private long emittedSampledRows;
 
   public RecipePipelineExecutor(RecipeParser recipeParser, @Nullable ExecutorContext context) {
     this.context = context;
     this.recipeParser = recipeParser;
   }
 
+  /**
+   * Enables the collection of the statistics of each directive: the number of rows in and out, the number of
+   * errors and the time spent in the directive. Counts are collected for every row, while only one in every
+   * {@code sampleInterval} rows is timed. The statistics are emitted as metrics of the {@link ExecutorContext},
+   * tagged with the index and name of the directive, and can be retrieved with {@link #getProfile()}.
+   *
+   * @param sampleInterval interval between two timed rows, 1 to time every row.
+   */
+  public void enableProfiling(int sampleInterval) {
+    if (sampleInterval < 1) {
+      throw new IllegalArgumentException("Profile sample interval must be at least 1, got " + sampleInterval);
+    }
+    this.sampleInterval = sampleInterval;
+    if (directives != null && profiles == null) {
+      initProfiles();
+    }
+  }
+
+  /**
+   * @return the statistics of the directives executed so far, {@code null} if profiling is not enabled.
+   */
+  @Nullable
+  public RecipeProfile getProfile() {
+    if (sampleInterval == 0) {
+      return null;
+    }
+    List<DirectiveProfile> directiveProfiles = new ArrayList<>();
+    if (profiles != null) {
+      for (DirectiveProfile profile : profiles) {
+        directiveProfiles.add(profile.copy());
+      }
+    }
+    return new RecipeProfile(sampleInterval, profiledRows, sampledRows, directiveProfiles);
+  }
+
   /**
    * Invokes each directives destroy method to perform any cleanup required by each individual directive.
    */
@@ -70,6 +139,9 @@ public final class RecipePipelineExecutor implements RecipePipeline<Row, Structu
     if (directives == null) {
       return;
     }
+    if (profiles != null && emittedSampledRows != sampledRows) {
+      emitProfileMetrics();
+    }
     for (Directive directive : directives) {
       try {
         directive.destroy();
@@ -104,10 +176,7 @@ public final class RecipePipelineExecutor implements RecipePipeline<Row, Structu
   @Override
   public List<Row> execute(List<Row> rows) throws RecipeException {
     List<Directive> directives = getDirectives();
-    List<String> messages = new ArrayList<>();
     List<Row> results = new ArrayList<>();
-    int i = 0;
-    int directiveIndex = 0;
     // Initialize schema with input schema from TransientStore if running in service env (design-time) / testing env
     boolean schemaManagementEnabled = context != null && context.isSchemaManagementEnabled();
     Schema inputSchema = schemaManagementEnabled ?
@@ -120,53 +189,60 @@ public final class RecipePipelineExecutor implements RecipePipeline<Row, Structu
       }
     }
 
-    try {
-      collector.reset();
-      while (i < rows.size()) {
-        messages.clear();
-        // Resets the scope of local variable.
-        if (context != null) {
-          context.getTransientStore().reset(TransientVariableScope.LOCAL);
-        }
-
-        List<Row> cumulativeRows = rows.subList(i, i + 1);
-        directiveIndex = 0;
-        try {
-          for (Executor<List<Row>, List<Row>> directive : directives) {
-            try {
-              directiveIndex++;
-              cumulativeRows = directive.execute(cumulativeRows, context);
-              if (cumulativeRows.size() < 1) {
-                break;
-              }
-              if (schemaManagementEnabled && inputSchema != null) {
-                outputSchemaGenerators.get(directiveIndex - 1).addNewOutputFields(cumulativeRows);
-              }
-            } catch (ReportErrorAndProceed e) {
-              messages.add(String.format("%s (ecode: %d)", e.getMessage(), e.getCode()));
-              collector
-                .add(new ErrorRecord(rows.subList(i, i + 1).get(0), String.join(",", messages), e.getCode(), true));
-              cumulativeRows = new ArrayList<>();
-              break;
-            }
-          }
-          results.addAll(cumulativeRows);
-        } catch (ErrorRowException e) {
-          messages.add(String.format("%s", e.getMessage()));
-          collector
-            .add(new ErrorRecord(rows.subList(i, i + 1).get(0), String.join(",", messages), e.getCode(),
-              e.isShownInWrangler()));
-        }
-        ++i;
-      }
-    } catch (DirectiveExecutionException e) {
-      throw new RecipeException(e.getMessage(), e, i, directiveIndex);
+    collector.reset();
+    for (int i = 0; i < rows.size(); i++) {
+      results.addAll(execute(rows.get(i), i, directives, outputSchemaGenerators));
     }
     // Schema generation
     if (schemaManagementEnabled && inputSchema != null) {
       context.getTransientStore().set(TransientVariableScope.GLOBAL, TransientStoreKeys.OUTPUT_SCHEMA,
                                         getOutputSchema(inputSchema, outputSchemaGenerators));
     }
+    if (profiles != null && emittedSampledRows != sampledRows) {
+      emitProfileMetrics();
+    }
+    return results;
+  }
+
+  /**
+   * Executes the pipeline on a batch of input rows. Each row is isolated exactly as if it was executed on its
+   * own: transient variables are reset before the row is processed, and a failure of a directive on a row is
+   * reported in the result of that row instead of aborting the rest of the batch.
+   *
+   * @param rows batch of input rows.
+   * @param schema Schema to which the output should be mapped.
+   * @return one {@link BatchResult} for each input row, in the order of the input.
+   */
+  public List<BatchResult> executeBatch(List<Row> rows, Schema schema) throws RecipeException {
+    List<Directive> directives = getDirectives();
+    List<BatchResult> results = new ArrayList<>(rows.size());
+
+    collector.reset();
+    for (int i = 0; i < rows.size(); i++) {
+      if (context != null) {
+        context.getTransientStore().reset(TransientVariableScope.GLOBAL);
+      }
+      int errorStart = collector.size();
+      List<StructuredRecord> records = Collections.emptyList();
+      Exception failure = null;
+      try {
+        List<Row> output = execute(rows.get(i), i, directives, Collections.emptyList());
+        if (!output.isEmpty()) {
+          records = convertor.toStructureRecord(output, schema);
+        }
+      } catch (RecipeException e) {
+        failure = e;
+      } catch (RecordConvertorException e) {
+        failure = new RecipeException("Problem converting into output record. Reason : " + e.getMessage(), e);
+      }
+      List<ErrorRecord> errors = collector.size() == errorStart ? Collections.emptyList() :
+        new ArrayList<>(collector.get().subList(errorStart, collector.size()));
+      results.add(new BatchResult(records, errors, failure));
+    }
+    // Metrics are emitted only once new rows were timed, to not emit them for every small batch
+    if (profiles != null && emittedSampledRows != sampledRows) {
+      emitProfileMetrics();
+    }
     return results;
   }
 
@@ -180,13 +256,206 @@ public final class RecipePipelineExecutor implements RecipePipeline<Row, Structu
     return collector.get();
   }
 
+  /**
+   * Executes all the directives on a single input row.
+   *
+   * <p>Until the row fans out into multiple rows, it is handed directly to the directives that are
+   * {@link RowMapper}s, and is wrapped into a list only for the directives that operate on lists.</p>
+   *
+   * @param row to be executed.
+   * @param rowIndex index of the row in the input being executed.
+   * @param directives directives of the recipe.
+   * @param outputSchemaGenerators output schema generators of each directive, empty if schema management is off.
+   * @return rows generated from the input row, empty if the row was filtered or errored out. The list
+   *   returned is only valid until the next row is executed.
+   */
+  private List<Row> execute(Row row, int rowIndex, List<Directive> directives,
+                            List<DirectiveOutputSchemaGenerator> outputSchemaGenerators) throws RecipeException {
+    // Resets the scope of local variable.
+    if (context != null) {
+      context.getTransientStore().reset(TransientVariableScope.LOCAL);
+    }
+
+    // Output schema generation needs to look at the rows generated by every directive.
+    boolean fuse = outputSchemaGenerators.isEmpty();
+    Row current = row;
+    List<Row> cumulativeRows = null;
+    int directiveIndex = 0;
+    // Statistics of the directive being executed, only tracked if profiling is enabled.
+    DirectiveProfile profile = null;
+    boolean timed = false;
+    long start = 0;
+    if (profiles != null) {
+      timed = profiledRows++ % sampleInterval == 0;
+      if (timed) {
+        sampledRows++;
+      }
+    }
+    try {
+      for (Executor<List<Row>, List<Row>> directive : directives) {
+        try {
+          RowMapper mapper = mappers[directiveIndex];
+          if (profiles != null) {
+            profile = profiles[directiveIndex];
+            profile.addRowsIn(current != null ? 1 : cumulativeRows.size(), timed);
+            if (timed) {
+              start = System.nanoTime();
+            }
+          }
+          directiveIndex++;
+          if (fuse && current != null && mapper != null) {
+            current = mapper.map(current, context);
+            if (profile != null) {
+              profile.completed(current == null ? 0 : 1, timed ? System.nanoTime() - start : 0L);
+            }
+            if (current == null) {
+              return Collections.emptyList();
+            }
+            continue;
+          }
+          if (current != null) {
+            window.clear();
+            window.add(current);
+            cumulativeRows = window;
+            current = null;
+          }
+          cumulativeRows = directive.execute(cumulativeRows, context);
+          if (profile != null) {
+            profile.completed(cumulativeRows.size(), timed ? System.nanoTime() - start : 0L);
+          }
+          if (cumulativeRows.size() < 1) {
+            return Collections.emptyList();
+          }
+          if (!outputSchemaGenerators.isEmpty()) {
+            outputSchemaGenerators.get(directiveIndex - 1).addNewOutputFields(cumulativeRows);
+          }
+          if (fuse && cumulativeRows.size() == 1) {
+            current = cumulativeRows.get(0);
+          }
+        } catch (ReportErrorAndProceed e) {
+          if (profile != null) {
+            profile.failed(timed ? System.nanoTime() - start : 0L);
+          }
+          collector.add(new ErrorRecord(row, String.format("%s (ecode: %d)", e.getMessage(), e.getCode()),
+                                        e.getCode(), true));
+          return Collections.emptyList();
+        }
+      }
+    } catch (ErrorRowException e) {
+      if (profile != null) {
+        profile.failed(timed ? System.nanoTime() - start : 0L);
+      }
+      collector.add(new ErrorRecord(row, String.format("%s", e.getMessage()), e.getCode(), e.isShownInWrangler()));
+      return Collections.emptyList();
+    } catch (DirectiveExecutionException e) {
+      if (profile != null) {
+        profile.failed(timed ? System.nanoTime() - start : 0L);
+      }
+      throw new RecipeException(e.getMessage(), e, rowIndex, directiveIndex);
+    }
+    if (current != null) {
+      window.clear();
+      window.add(current);
+      return window;
+    }
+    return cumulativeRows;
+  }
+
   private List<Directive> getDirectives() throws RecipeException {
     if (directives == null) {
       this.directives = recipeParser.parse();
+      pushDownProjections(directives);
+      this.mappers = new RowMapper[directives.size()];
+      for (int i = 0; i < directives.size(); i++) {
+        if (directives.get(i) instanceof RowMapper) {
+          mappers[i] = (RowMapper) directives.get(i);
+        }
+      }
+      if (sampleInterval > 0) {
+        initProfiles();
+      }
     }
     return directives;
   }
 
+  /**
+   * Informs the {@link ProjectionAware} directives of the columns used by the rest of the recipe, from the last
+   * directive to the first. The columns used are only known after a directive like <code>keep</code>, up to the
+   * first directive that does not tell which columns it uses.
+   */
+  private static void pushDownProjections(List<Directive> directives) {
+    Set<String> used = null;
+    for (int i = directives.size() - 1; i >= 0; i--) {
+      Directive directive = directives.get(i);
+      if (!(directive instanceof ProjectionAware)) {
+        used = null;
+        continue;
+      }
+      Set<String> columns = ((ProjectionAware) directive).project(used == null ? null :
+                                                                    Collections.unmodifiableSet(used));
+      if (columns == null) {
+        used = null;
+      } else {
+        used = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        used.addAll(columns);
+      }
+    }
+  }
+
+  private void initProfiles() {
+    profiles = new DirectiveProfile[directives.size()];
+    emitted = new DirectiveProfile[directives.size()];
+    emittedTime = new DirectiveProfile[directives.size()];
+    for (int i = 0; i < directives.size(); i++) {
+      profiles[i] = new DirectiveProfile(i + 1, directives.get(i).define().getDirectiveName());
+      emitted[i] = profiles[i].copy();
+      emittedTime[i] = emitted[i];
+    }
+  }
+
+  /**
+   * Emits the statistics collected since the last emission as metrics tagged with the index and name of each
+   * directive. The time spent on the sampled rows is scaled to all the rows handed to the directive since the
+   * time was last emitted.
+   */
+  private void emitProfileMetrics() {
+    emittedSampledRows = sampledRows;
+    Metrics metrics = context == null ? null : context.getMetrics();
+    if (metrics == null) {
+      return;
+    }
+    if (directiveMetrics == null) {
+      directiveMetrics = new Metrics[profiles.length];
+      for (int i = 0; i < profiles.length; i++) {
+        directiveMetrics[i] = metrics.child(ImmutableMap.of(
+          Constants.Tags.DIRECTIVE_INDEX, String.valueOf(profiles[i].getIndex()),
+          Constants.Tags.DIRECTIVE_NAME, profiles[i].getName()));
+      }
+    }
+    for (int i = 0; i < profiles.length; i++) {
+      Metrics child = directiveMetrics[i];
+      DirectiveProfile current = profiles[i];
+      DirectiveProfile last = emitted[i];
+      if (child == null || current.getRowsIn() == last.getRowsIn()) {
+        continue;
+      }
+      DirectiveProfile lastTime = emittedTime[i];
+      if (current.getSampledRowsIn() != lastTime.getSampledRowsIn()) {
+        child.countLong(DIRECTIVE_TIME_METRIC,
+                        DirectiveProfile.scale(current.getNanos() - lastTime.getNanos(),
+                                               current.getRowsIn() - lastTime.getRowsIn(),
+                                               current.getSampledRowsIn() - lastTime.getSampledRowsIn()));
+        emittedTime[i] = current.copy();
+      }
+      child.countLong(DIRECTIVE_ROWS_IN_METRIC, current.getRowsIn() - last.getRowsIn());
+      child.countLong(DIRECTIVE_ROWS_OUT_METRIC, current.getRowsOut() - last.getRowsOut());
+      if (current.getErrors() != last.getErrors()) {
+        child.countLong(DIRECTIVE_ERRORS_METRIC, current.getErrors() - last.getErrors());
+      }
+      emitted[i] = current.copy();
+    }
+  }
+
   private Schema getOutputSchema(Schema inputSchema, List<DirectiveOutputSchemaGenerator> outputSchemaGenerators)
     throws RecipeException {
     Schema schema = inputSchema;
@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.executor;
+
+import java.util.List;
+
+/**
+ * Profile of the executions of a recipe by a {@link RecipePipelineExecutor}, made of the statistics of each
+ * of its directives.
+ *
+ * <p>Only one in every {@link #getSampleInterval()} rows is timed, the time of the directives over all the rows
+ * can be estimated by scaling the time of the sampled rows by {@link #getRows()} / {@link #getSampledRows()}.</p>
+ */
+public final class RecipeProfile {
+  private final int sampleInterval;
+  private final long rows;
+  private final long sampledRows;
+  private final List<DirectiveProfile> directives;
+
+  RecipeProfile(int sampleInterval, long rows, long sampledRows, List<DirectiveProfile> directives) {
+    this.sampleInterval = sampleInterval;
+    this.rows = rows;
+    this.sampledRows = sampledRows;
+    this.directives = directives;
+  }
+
+  /**
+   * @return interval between two rows that are timed.
+   */
+  public int getSampleInterval() {
+    return sampleInterval;
+  }
+
+  /**
+   * @return number of input rows executed.
+   */
+  public long getRows() {
+    return rows;
+  }
+
+  /**
+   * @return number of input rows that were timed.
+   */
+  public long getSampledRows() {
+    return sampledRows;
+  }
+
+  /**
+   * @return statistics of each directive, in the order of the recipe.
+   */
+  public List<DirectiveProfile> getDirectives() {
+    return directives;
+  }
+}
@@ -18,6 +18,9 @@ package io.cdap.wrangler.expression;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import io.cdap.cdap.api.common.Bytes;
 import io.cdap.functions.DDL;
 import io.cdap.functions.DataQuality;
@@ -35,6 +38,7 @@ import org.apache.commons.jexl3.JexlEngine;
 import org.apache.commons.jexl3.JexlException;
 import org.apache.commons.jexl3.JexlInfo;
 import org.apache.commons.jexl3.JexlScript;
+import org.apache.commons.jexl3.introspection.JexlUberspect;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.apache.commons.logging.Log;
@@ -46,16 +50,33 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
 
 /**
  * This class <code>EL</code> is a Expression Language Handler.
  */
 public final class EL {
 
+  // Maximum number of compiled scripts cached for each engine.
+  private static final int MAX_CACHED_SCRIPTS = 1024;
+  // Maximum number of distinct sets of functions for which engines are shared.
+  private static final int MAX_SHARED_ENGINES = 16;
+  private static final ELRegistration DEFAULT_REGISTRATION = new DefaultFunctions();
+  // Engines shared by all the scripts compiled with the same functions.
+  private static final Map<Map<String, Object>, Engine> ENGINES = new ConcurrentHashMap<>();
+  // Engines shared by all the scripts compiled with the same functions while expressions are sandboxed.
+  private static final Map<Map<String, Object>, Engine> SANDBOXED_ENGINES = new ConcurrentHashMap<>();
+  private static final Log NULL_LOGGER = new NullLogger();
+
   private static volatile boolean used;
+  private static volatile boolean sandboxed;
 
   private final Set<String> variables;
   private final JexlScript script;
+  // Compiled form of the script, null if the script uses constructs that are only supported by the interpreter.
+  @Nullable
+  private final ExpressionCompiler.Evaluator compiled;
 
   /**
    * Returns {@code true} if this class has been used to execute JEXL script.
@@ -64,15 +85,26 @@ public final class EL {
     return used;
   }
 
+  /**
+   * Sets whether the expressions compiled afterwards are restricted by {@link SandboxedUberspect} from reaching
+   * classes that could affect the process beyond the expression, such as classloaders, reflection or threads.
+   * Sandboxing is disabled by default, and is enabled by the service for processes that are reused across the
+   * executions of recipes.
+   */
+  public static void setSandboxed(boolean sandboxed) {
+    EL.sandboxed = sandboxed;
+  }
+
   /**
    * Same as calling {@link #compile(ELRegistration, String)} using {@link DefaultFunctions}.
    */
   public static EL compile(String expression) throws ELException {
-    return compile(new DefaultFunctions(), expression);
+    return compile(DEFAULT_REGISTRATION, expression);
   }
 
   /**
-   * Compiles the given expressions and return an {@link EL} for script execution.
+   * Compiles the given expressions and return an {@link EL} for script execution. The engine is shared by
+   * all the expressions compiled with the same functions, and compiled expressions are cached by their text.
    *
    * @param registration extra objects available for the script to use
    * @param expression the JEXL expresion
@@ -81,23 +113,75 @@ public final class EL {
    */
   public static EL compile(ELRegistration registration, String expression) throws ELException {
     used = true;
-    JexlEngine engine = new JexlBuilder()
-      .namespaces(registration.functions())
-      .silent(false)
-      .cache(1024)
-      .strict(true)
-      .logger(new NullLogger())
-      .create();
+    Map<String, Object> functions = registration.functions();
+    boolean sandboxed = EL.sandboxed;
+    Map<Map<String, Object>, Engine> engines = sandboxed ? SANDBOXED_ENGINES : ENGINES;
+    Engine engine = engines.get(functions);
+    if (engine == null) {
+      if (engines.size() >= MAX_SHARED_ENGINES || !isShareable(functions)) {
+        return compile(new Engine(functions, sandboxed), expression);
+      }
+      engine = engines.computeIfAbsent(functions, f -> new Engine(f, sandboxed));
+    }
+    EL el = engine.scripts.getIfPresent(expression);
+    if (el == null) {
+      el = compile(engine, expression);
+      engine.scripts.put(expression, el);
+    }
+    return el;
+  }
 
+  /**
+   * Returns {@code true} if all the given functions are loaded by the classloader of this class or one of its
+   * parents. Engines for functions loaded by other classloaders, such as the ones of user defined directives, are not
+   * shared so that they do not keep those classloaders from being released.
+   */
+  private static boolean isShareable(Map<String, Object> functions) {
+    ClassLoader classLoader = EL.class.getClassLoader();
+    for (Object function : functions.values()) {
+      if (function == null || function instanceof String) {
+        continue;
+      }
+      Class<?> cls = function instanceof Class ? (Class<?>) function : function.getClass();
+      ClassLoader functionClassLoader = cls.getClassLoader();
+      if (functionClassLoader == null) {
+        continue;
+      }
+      ClassLoader parent = classLoader;
+      while (parent != null && parent != functionClassLoader) {
+        parent = parent.getParent();
+      }
+      if (parent == null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the statistics of the cache of compiled expressions, aggregated across all the engines.
+   */
+  public static CacheStats getCacheStats() {
+    CacheStats stats = new CacheStats(0, 0, 0, 0, 0, 0);
+    for (Engine engine : ENGINES.values()) {
+      stats = stats.plus(engine.scripts.stats());
+    }
+    for (Engine engine : SANDBOXED_ENGINES.values()) {
+      stats = stats.plus(engine.scripts.stats());
+    }
+    return stats;
+  }
+
+  private static EL compile(Engine engine, String expression) throws ELException {
     try {
       Set<String> variables = new HashSet<>();
-      JexlScript script = engine.createScript(expression);
+      JexlScript script = engine.jexl.createScript(expression);
       Set<List<String>> varSet = script.getVariables();
       for (List<String> vars : varSet) {
         variables.add(Joiner.on(".").join(vars));
       }
 
-      return new EL(script, variables);
+      return new EL(script, variables, ExpressionCompiler.compile(engine.jexl, engine.functions, expression));
     } catch (JexlException e) {
       // JexlException.getMessage() uses 'io.cdap.wrangler.expression.EL' class name in the error message.
       // So instead use info object to get information about error message and create custom error message.
@@ -114,8 +198,9 @@ public final class EL {
 
   }
 
-  private EL(JexlScript script, Set<String> variables) {
+  private EL(JexlScript script, Set<String> variables, @Nullable ExpressionCompiler.Evaluator compiled) {
     this.script = script;
+    this.compiled = compiled;
     this.variables = Collections.unmodifiableSet(variables);
   }
 
@@ -127,12 +212,40 @@ public final class EL {
     return script.getParsedText();
   }
 
+  /**
+   * Returns {@code true} if the script is evaluated in its compiled form rather than by the interpreter.
+   */
+  boolean isCompiled() {
+    return compiled != null;
+  }
+
   public ELResult execute(ELContext context) throws ELException {
+    return execute(context, true);
+  }
+
+  /**
+   * Executes the script with the interpreter only, regardless of whether it is compiled.
+   */
+  ELResult interpret(ELContext context) throws ELException {
+    return execute(context, false);
+  }
+
+  private ELResult execute(ELContext context, boolean useCompiled) throws ELException {
     try {
       // Null the missing fields
-      for (String variable : variables) {
-        if (!context.has(variable)) {
-          context.add(variable, null);
+      if (!context.hasAllVariables()) {
+        for (String variable : variables) {
+          if (!context.has(variable)) {
+            context.add(variable, null);
+          }
+        }
+      }
+      if (useCompiled && compiled != null) {
+        try {
+          return new ELResult(compiled.evaluate(context));
+        } catch (Exception e) {
+          // Either a case the compiled form does not handle or an error, which the interpreter reproduces
+          // with the usual exception and message.
         }
       }
       Object value = script.execute(context);
@@ -161,12 +274,51 @@ public final class EL {
     }
   }
 
+  /**
+   * JEXL engine created for a set of functions, along with the scripts it compiled.
+   */
+  private static final class Engine {
+    private final Map<String, Object> functions;
+    private final JexlEngine jexl;
+    private final Cache<String, EL> scripts;
+
+    Engine(Map<String, Object> functions, boolean sandboxed) {
+      this.functions = functions;
+      JexlBuilder builder = new JexlBuilder();
+      if (sandboxed) {
+        JexlUberspect uberspect = new JexlBuilder()
+          .strategy(JexlUberspect.JEXL_STRATEGY)
+          .logger(NULL_LOGGER)
+          .create()
+          .getUberspect();
+        builder.uberspect(new SandboxedUberspect(uberspect, functions));
+      }
+      this.jexl = builder
+        .namespaces(functions)
+        .silent(false)
+        .cache(1024)
+        .strict(true)
+        .logger(NULL_LOGGER)
+        .create();
+      this.scripts = CacheBuilder.newBuilder()
+        .maximumSize(MAX_CACHED_SCRIPTS)
+        .recordStats()
+        .build();
+    }
+  }
+
   /**
    * @return List of registered functions.
    */
   public static final class DefaultFunctions implements ELRegistration {
+    private static final Map<String, Object> FUNCTIONS = Collections.unmodifiableMap(create());
+
     @Override
     public Map<String, Object> functions() {
+      return FUNCTIONS;
+    }
+
+    private static Map<String, Object> create() {
       Map<String, Object> functions = new HashMap<>();
       functions.put(null, Global.class);
       functions.put("datetime", DateAndTime.class);
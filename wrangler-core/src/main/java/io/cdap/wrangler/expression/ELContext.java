@@ -165,4 +165,12 @@ public class ELContext implements JexlContext {
   public boolean has(String name) {
     return values.containsKey(name);
   }
+
+  /**
+   * @return {@code true} if every variable of the expression evaluated is known to the context, so that
+   *   missing variables don't need to be defined before the evaluation.
+   */
+  boolean hasAllVariables() {
+    return false;
+  }
 }
@@ -0,0 +1,472 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.expression;
+
+import org.apache.commons.jexl3.JexlArithmetic;
+import org.apache.commons.jexl3.JexlContext;
+import org.apache.commons.jexl3.JexlEngine;
+import org.apache.commons.jexl3.JexlInfo;
+import org.apache.commons.jexl3.introspection.JexlMethod;
+import org.apache.commons.jexl3.introspection.JexlUberspect;
+import org.apache.commons.jexl3.parser.ASTAddNode;
+import org.apache.commons.jexl3.parser.ASTAndNode;
+import org.apache.commons.jexl3.parser.ASTArguments;
+import org.apache.commons.jexl3.parser.ASTDivNode;
+import org.apache.commons.jexl3.parser.ASTEQNode;
+import org.apache.commons.jexl3.parser.ASTFalseNode;
+import org.apache.commons.jexl3.parser.ASTFunctionNode;
+import org.apache.commons.jexl3.parser.ASTGENode;
+import org.apache.commons.jexl3.parser.ASTGTNode;
+import org.apache.commons.jexl3.parser.ASTIdentifier;
+import org.apache.commons.jexl3.parser.ASTIdentifierAccess;
+import org.apache.commons.jexl3.parser.ASTJexlScript;
+import org.apache.commons.jexl3.parser.ASTLENode;
+import org.apache.commons.jexl3.parser.ASTLTNode;
+import org.apache.commons.jexl3.parser.ASTMethodNode;
+import org.apache.commons.jexl3.parser.ASTModNode;
+import org.apache.commons.jexl3.parser.ASTMulNode;
+import org.apache.commons.jexl3.parser.ASTNENode;
+import org.apache.commons.jexl3.parser.ASTNotNode;
+import org.apache.commons.jexl3.parser.ASTNullLiteral;
+import org.apache.commons.jexl3.parser.ASTNumberLiteral;
+import org.apache.commons.jexl3.parser.ASTOrNode;
+import org.apache.commons.jexl3.parser.ASTReference;
+import org.apache.commons.jexl3.parser.ASTReferenceExpression;
+import org.apache.commons.jexl3.parser.ASTStringLiteral;
+import org.apache.commons.jexl3.parser.ASTSubNode;
+import org.apache.commons.jexl3.parser.ASTTernaryNode;
+import org.apache.commons.jexl3.parser.ASTTrueNode;
+import org.apache.commons.jexl3.parser.ASTUnaryMinusNode;
+import org.apache.commons.jexl3.parser.JexlNode;
+import org.apache.commons.jexl3.parser.Parser;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Compiles the subset of JEXL used by directives into a tree of {@link Evaluator}s that runs without going
+ * through the JEXL interpreter.
+ *
+ * <p>The subset covers literals, variables (including dotted column names), arithmetic, comparisons, logical
+ * operators, the ternary operator, namespace functions and method calls. The operators are evaluated with the
+ * {@link JexlArithmetic} of the engine and the functions are resolved through its {@link JexlUberspect}, so that the
+ * results are the same as the ones of the interpreter. Expressions using any other construct are not compiled.</p>
+ *
+ * <p>An {@link Evaluator} throws as soon as it meets a case it does not handle the same way as the interpreter,
+ * such as an undefined variable or a function that cannot be resolved from the arguments. The caller is expected to
+ * evaluate the expression again with the interpreter in that case.</p>
+ */
+final class ExpressionCompiler {
+
+  /**
+   * Evaluates a compiled expression.
+   */
+  interface Evaluator {
+    Object evaluate(JexlContext context) throws Exception;
+  }
+
+  private final JexlArithmetic arithmetic;
+  private final JexlUberspect uberspect;
+  private final Map<String, Object> namespaces;
+
+  private ExpressionCompiler(JexlEngine jexl, Map<String, Object> namespaces) {
+    this.arithmetic = jexl.getArithmetic();
+    this.uberspect = jexl.getUberspect();
+    this.namespaces = namespaces;
+  }
+
+  /**
+   * Compiles the given expression.
+   *
+   * @param jexl the engine the expression was created with
+   * @param namespaces the function namespaces registered with the engine
+   * @param expression the JEXL expression, which must be valid
+   * @return an {@link Evaluator} for the expression, or {@code null} if the expression uses constructs that are
+   *   not supported
+   */
+  @Nullable
+  static Evaluator compile(JexlEngine jexl, Map<String, Object> namespaces, String expression) {
+    // Operator overloads defined by a custom arithmetic are only applied by the interpreter.
+    if (jexl.getUberspect().getArithmetic(jexl.getArithmetic()) != null) {
+      return null;
+    }
+    ASTJexlScript script;
+    try {
+      script = new Parser(new StringReader(";")).parse(new JexlInfo("EL", 1, 1), expression, null, false, false);
+    } catch (RuntimeException e) {
+      return null;
+    }
+    if (script.jjtGetNumChildren() != 1) {
+      return null;
+    }
+    return new ExpressionCompiler(jexl, namespaces).compile(script.jjtGetChild(0));
+  }
+
+  @Nullable
+  private Evaluator compile(JexlNode node) {
+    if (node instanceof ASTNumberLiteral) {
+      Number value = ((ASTNumberLiteral) node).getLiteral();
+      return context -> value;
+    }
+    if (node instanceof ASTStringLiteral) {
+      String value = ((ASTStringLiteral) node).getLiteral();
+      return context -> value;
+    }
+    if (node instanceof ASTTrueNode) {
+      return context -> Boolean.TRUE;
+    }
+    if (node instanceof ASTFalseNode) {
+      return context -> Boolean.FALSE;
+    }
+    if (node instanceof ASTNullLiteral) {
+      return context -> null;
+    }
+    if (node instanceof ASTIdentifier) {
+      return compileIdentifier((ASTIdentifier) node);
+    }
+    if (node instanceof ASTReferenceExpression) {
+      return node.jjtGetNumChildren() == 1 ? compile(node.jjtGetChild(0)) : null;
+    }
+    if (node instanceof ASTReference) {
+      return compileReference(node);
+    }
+    if (node instanceof ASTFunctionNode) {
+      return compileFunction(node);
+    }
+    if (node instanceof ASTUnaryMinusNode) {
+      return compileNegate(node);
+    }
+    if (node instanceof ASTNotNode) {
+      Evaluator operand = compile(node.jjtGetChild(0));
+      return operand == null ? null : context -> arithmetic.not(operand.evaluate(context));
+    }
+    if (node instanceof ASTAndNode) {
+      return compileLogical(node, false);
+    }
+    if (node instanceof ASTOrNode) {
+      return compileLogical(node, true);
+    }
+    if (node instanceof ASTTernaryNode) {
+      return compileTernary(node);
+    }
+    if (node.jjtGetNumChildren() != 2) {
+      return null;
+    }
+    Evaluator left = compile(node.jjtGetChild(0));
+    Evaluator right = compile(node.jjtGetChild(1));
+    if (left == null || right == null) {
+      return null;
+    }
+    if (node instanceof ASTAddNode) {
+      return context -> arithmetic.add(left.evaluate(context), right.evaluate(context));
+    }
+    if (node instanceof ASTSubNode) {
+      return context -> arithmetic.subtract(left.evaluate(context), right.evaluate(context));
+    }
+    if (node instanceof ASTMulNode) {
+      return context -> arithmetic.multiply(left.evaluate(context), right.evaluate(context));
+    }
+    if (node instanceof ASTDivNode) {
+      return context -> arithmetic.divide(left.evaluate(context), right.evaluate(context));
+    }
+    if (node instanceof ASTModNode) {
+      return context -> arithmetic.mod(left.evaluate(context), right.evaluate(context));
+    }
+    if (node instanceof ASTEQNode) {
+      return context -> arithmetic.equals(left.evaluate(context), right.evaluate(context));
+    }
+    if (node instanceof ASTNENode) {
+      return context -> !arithmetic.equals(left.evaluate(context), right.evaluate(context));
+    }
+    if (node instanceof ASTLTNode) {
+      return context -> arithmetic.lessThan(left.evaluate(context), right.evaluate(context));
+    }
+    if (node instanceof ASTLENode) {
+      return context -> arithmetic.lessThanOrEqual(left.evaluate(context), right.evaluate(context));
+    }
+    if (node instanceof ASTGTNode) {
+      return context -> arithmetic.greaterThan(left.evaluate(context), right.evaluate(context));
+    }
+    if (node instanceof ASTGENode) {
+      return context -> arithmetic.greaterThanOrEqual(left.evaluate(context), right.evaluate(context));
+    }
+    return null;
+  }
+
+  @Nullable
+  private Evaluator compileIdentifier(ASTIdentifier node) {
+    // Identifiers with a symbol are local variables or parameters of the script.
+    if (node.getSymbol() >= 0) {
+      return null;
+    }
+    String name = node.getName();
+    return context -> {
+      Object value = context.get(name);
+      if (value == null && !context.has(name)) {
+        throw new UnsupportedOperationException("Undefined variable " + name);
+      }
+      return value;
+    };
+  }
+
+  /**
+   * Compiles a reference, which is either a dotted variable name such as {@code a.b.c} or a chain of method calls.
+   */
+  @Nullable
+  private Evaluator compileReference(JexlNode node) {
+    int count = node.jjtGetNumChildren();
+    if (count == 1) {
+      return compile(node.jjtGetChild(0));
+    }
+    JexlNode first = node.jjtGetChild(0);
+    if (first instanceof ASTIdentifier && ((ASTIdentifier) first).getSymbol() < 0
+      && node.jjtGetChild(1) instanceof ASTIdentifierAccess) {
+      return compileDottedName(node);
+    }
+
+    Evaluator target = compile(first);
+    if (target == null) {
+      return null;
+    }
+    for (int i = 1; i < count; i++) {
+      JexlNode child = node.jjtGetChild(i);
+      if (!(child instanceof ASTMethodNode) || child.jjtGetNumChildren() != 2
+        || !(child.jjtGetChild(0) instanceof ASTIdentifierAccess)) {
+        return null;
+      }
+      Evaluator[] arguments = compileArguments(child.jjtGetChild(1));
+      if (arguments == null) {
+        return null;
+      }
+      Evaluator object = target;
+      CallSite call = new CallSite(((ASTIdentifierAccess) child.jjtGetChild(0)).getName());
+      target = context -> {
+        Object value = object.evaluate(context);
+        if (value == null) {
+          throw new UnsupportedOperationException("Method " + call.name + " called on null");
+        }
+        return call.invoke(value, evaluate(arguments, context));
+      };
+    }
+    return target;
+  }
+
+  /**
+   * Compiles a dotted variable name. Such names are resolved by looking up each prefix of the name in turn, and
+   * only a value of the whole name is handled here.
+   */
+  @Nullable
+  private Evaluator compileDottedName(JexlNode node) {
+    int count = node.jjtGetNumChildren();
+    String[] prefixes = new String[count];
+    StringBuilder name = new StringBuilder(((ASTIdentifier) node.jjtGetChild(0)).getName());
+    prefixes[0] = name.toString();
+    for (int i = 1; i < count; i++) {
+      JexlNode child = node.jjtGetChild(i);
+      if (!(child instanceof ASTIdentifierAccess)) {
+        return null;
+      }
+      prefixes[i] = name.append('.').append(((ASTIdentifierAccess) child).getName()).toString();
+    }
+    String fullName = prefixes[count - 1];
+    return context -> {
+      for (int i = 0; i < count - 1; i++) {
+        if (context.get(prefixes[i]) != null) {
+          throw new UnsupportedOperationException("Property access on " + prefixes[i]);
+        }
+      }
+      // The interpreter reports a null value of a dotted name as an undefined variable.
+      Object value = context.get(fullName);
+      if (value == null) {
+        throw new UnsupportedOperationException("Undefined variable " + fullName);
+      }
+      return value;
+    };
+  }
+
+  @Nullable
+  private Evaluator compileFunction(JexlNode node) {
+    int count = node.jjtGetNumChildren();
+    if (count != 2 && count != 3) {
+      return null;
+    }
+    for (int i = 0; i < count - 1; i++) {
+      if (!(node.jjtGetChild(i) instanceof ASTIdentifier)) {
+        return null;
+      }
+    }
+    String prefix = count == 3 ? ((ASTIdentifier) node.jjtGetChild(0)).getName() : null;
+    Object namespace = namespaces.get(prefix);
+    // Namespaces given by name, and namespaces that are instantiated with the context, are left to the interpreter.
+    if (namespace == null || namespace instanceof String || namespace instanceof JexlContext.NamespaceFunctor
+      || (namespace instanceof Class && uberspect.getConstructor(namespace, new ELContext()) != null)) {
+      return null;
+    }
+    Evaluator[] arguments = compileArguments(node.jjtGetChild(count - 1));
+    if (arguments == null) {
+      return null;
+    }
+    CallSite call = new CallSite(((ASTIdentifier) node.jjtGetChild(count - 2)).getName());
+    return context -> call.invoke(namespace, evaluate(arguments, context));
+  }
+
+  @Nullable
+  private Evaluator[] compileArguments(JexlNode node) {
+    if (!(node instanceof ASTArguments)) {
+      return null;
+    }
+    Evaluator[] arguments = new Evaluator[node.jjtGetNumChildren()];
+    for (int i = 0; i < arguments.length; i++) {
+      arguments[i] = compile(node.jjtGetChild(i));
+      if (arguments[i] == null) {
+        return null;
+      }
+    }
+    return arguments;
+  }
+
+  @Nullable
+  private Evaluator compileNegate(JexlNode node) {
+    JexlNode child = node.jjtGetChild(0);
+    Evaluator operand = compile(child);
+    if (operand == null) {
+      return null;
+    }
+    if (!(child instanceof ASTNumberLiteral)) {
+      return context -> arithmetic.negate(operand.evaluate(context));
+    }
+    // Same as the interpreter, a negated literal keeps the type of the literal.
+    Class<?> type = ((ASTNumberLiteral) child).getLiteralClass();
+    return context -> {
+      Object value = arithmetic.negate(operand.evaluate(context));
+      return value instanceof Number ? arithmetic.narrowNumber((Number) value, type) : value;
+    };
+  }
+
+  @Nullable
+  private Evaluator compileLogical(JexlNode node, boolean or) {
+    Evaluator left = compile(node.jjtGetChild(0));
+    Evaluator right = compile(node.jjtGetChild(1));
+    if (left == null || right == null) {
+      return null;
+    }
+    if (or) {
+      return context -> arithmetic.toBoolean(left.evaluate(context)) || arithmetic.toBoolean(right.evaluate(context));
+    }
+    return context -> arithmetic.toBoolean(left.evaluate(context)) && arithmetic.toBoolean(right.evaluate(context));
+  }
+
+  @Nullable
+  private Evaluator compileTernary(JexlNode node) {
+    List<Evaluator> operands = new ArrayList<>();
+    for (int i = 0; i < node.jjtGetNumChildren(); i++) {
+      Evaluator operand = compile(node.jjtGetChild(i));
+      if (operand == null) {
+        return null;
+      }
+      operands.add(operand);
+    }
+    Evaluator condition = operands.get(0);
+    if (operands.size() == 2) {
+      // Elvis operator, a ?: b
+      Evaluator otherwise = operands.get(1);
+      return context -> {
+        Object value = condition.evaluate(context);
+        return value != null && arithmetic.toBoolean(value) ? value : otherwise.evaluate(context);
+      };
+    }
+    Evaluator then = operands.get(1);
+    Evaluator otherwise = operands.get(2);
+    return context -> {
+      Object value = condition.evaluate(context);
+      return value != null && arithmetic.toBoolean(value) ? then.evaluate(context) : otherwise.evaluate(context);
+    };
+  }
+
+  private static Object[] evaluate(Evaluator[] arguments, JexlContext context) throws Exception {
+    Object[] values = new Object[arguments.length];
+    for (int i = 0; i < arguments.length; i++) {
+      values[i] = arguments[i].evaluate(context);
+    }
+    return values;
+  }
+
+  /**
+   * A function or method call, which keeps the method resolved for the last types of the arguments.
+   */
+  private final class CallSite {
+    private final String name;
+    private volatile Target target;
+
+    CallSite(String name) {
+      this.name = name;
+    }
+
+    Object invoke(Object object, Object[] arguments) throws Exception {
+      Target target = this.target;
+      if (target == null || !target.matches(object, arguments)) {
+        JexlMethod method = uberspect.getMethod(object, name, arguments);
+        if (method == null) {
+          throw new UnsupportedOperationException("Unresolved method " + name);
+        }
+        target = new Target(object, arguments, method);
+        if (method.isCacheable()) {
+          this.target = target;
+        }
+      }
+      return target.method.invoke(object, arguments);
+    }
+  }
+
+  /**
+   * A method resolved for a given type of object and types of arguments.
+   */
+  private static final class Target {
+    private final Object type;
+    private final Class<?>[] argumentTypes;
+    private final JexlMethod method;
+
+    Target(Object object, Object[] arguments, JexlMethod method) {
+      this.type = typeOf(object);
+      this.argumentTypes = new Class<?>[arguments.length];
+      for (int i = 0; i < arguments.length; i++) {
+        argumentTypes[i] = arguments[i] == null ? null : arguments[i].getClass();
+      }
+      this.method = method;
+    }
+
+    boolean matches(Object object, Object[] arguments) {
+      if (type != typeOf(object) || argumentTypes.length != arguments.length) {
+        return false;
+      }
+      for (int i = 0; i < arguments.length; i++) {
+        if (argumentTypes[i] != (arguments[i] == null ? null : arguments[i].getClass())) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    // Static functions are resolved on the class itself rather than on the type of the object.
+    private static Object typeOf(Object object) {
+      return object instanceof Class ? object : object.getClass();
+    }
+  }
+}
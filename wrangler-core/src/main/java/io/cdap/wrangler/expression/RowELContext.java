@@ -0,0 +1,125 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.expression;
+
+import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.Row;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * A reusable {@link ELContext} bound to the variables of an {@link EL}, that resolves variables directly
+ * from the {@link Row} being evaluated instead of copying them into a map.
+ *
+ * <p>The context is created once per expression and is pointed at each row with {@link #reset(ExecutorContext, Row)}.
+ * Variables resolve the same way as with {@link ELContext#ELContext(ExecutorContext, EL, Row)}: 'this' and
+ * 'ctx' take precedence over transient variables, which take precedence over the columns of the row.</p>
+ */
+public final class RowELContext extends ELContext {
+  private static final String THIS = "this";
+  private static final String CTX = "ctx";
+
+  private final Set<String> variables;
+  // Variables assigned by the script itself, reset for every row.
+  private final Map<String, Object> assigned = new HashMap<>();
+
+  private ExecutorContext context;
+  private Row row;
+  private Context ctx;
+  private Set<String> transientVariables;
+
+  public RowELContext(EL el) {
+    this.variables = el.variables();
+  }
+
+  /**
+   * Points the context at the row specified, discarding everything resolved for the previous row.
+   *
+   * @param context of the execution, can be null.
+   * @param row the row for 'this' and the columns referenced by the expression.
+   * @return 'this' context.
+   */
+  public RowELContext reset(@Nullable ExecutorContext context, Row row) {
+    this.context = context;
+    this.row = row;
+    this.ctx = null;
+    this.transientVariables = null;
+    if (!assigned.isEmpty()) {
+      assigned.clear();
+    }
+    return this;
+  }
+
+  @Override
+  public Object get(String name) {
+    if (!assigned.isEmpty() && assigned.containsKey(name)) {
+      return assigned.get(name);
+    }
+    if (THIS.equals(name)) {
+      return row;
+    }
+    if (context != null) {
+      if (CTX.equals(name)) {
+        if (ctx == null) {
+          ctx = new Context(context.getEnvironment().name(), context.getContextName());
+        }
+        return ctx;
+      }
+      if (getTransientVariables().contains(name)) {
+        return context.getTransientStore().get(name);
+      }
+    }
+    if (variables.contains(name)) {
+      return row.getValue(name);
+    }
+    return null;
+  }
+
+  @Override
+  public void set(String name, Object value) {
+    assigned.put(name, value);
+  }
+
+  @Override
+  public ELContext add(String name, Object value) {
+    assigned.put(name, value);
+    return this;
+  }
+
+  @Override
+  public boolean has(String name) {
+    if (assigned.containsKey(name) || THIS.equals(name) || variables.contains(name)) {
+      return true;
+    }
+    return context != null && (CTX.equals(name) || getTransientVariables().contains(name));
+  }
+
+  @Override
+  boolean hasAllVariables() {
+    return true;
+  }
+
+  private Set<String> getTransientVariables() {
+    if (transientVariables == null) {
+      transientVariables = context.getTransientStore().getVariables();
+    }
+    return transientVariables;
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.expression;
+
+import com.google.common.collect.ImmutableSet;
+import org.apache.commons.jexl3.JexlArithmetic;
+import org.apache.commons.jexl3.JexlOperator;
+import org.apache.commons.jexl3.introspection.JexlMethod;
+import org.apache.commons.jexl3.introspection.JexlPropertyGet;
+import org.apache.commons.jexl3.introspection.JexlPropertySet;
+import org.apache.commons.jexl3.introspection.JexlUberspect;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@link JexlUberspect} that restricts what the scripts can reach to the values they are given and the functions
+ * registered with the engine.
+ *
+ * <p>Scripts cannot go through reflection, class loaders, threads, processes or the JVM runtime, and can only
+ * create instances of the function namespaces and of a few value types. Scripts therefore cannot change any state
+ * outside of the values they are evaluated on, which allows the processes executing them to be reused.</p>
+ */
+final class SandboxedUberspect implements JexlUberspect {
+
+  // Types none of whose members are accessible, including through their subclasses.
+  private static final Set<Class<?>> DENIED_TYPES = ImmutableSet.of(
+    Class.class, ClassLoader.class, Thread.class, ThreadGroup.class, Runtime.class, System.class, Process.class,
+    ProcessBuilder.class
+  );
+  // Names of the types denied like the ones above, which are referred to by name as they are deprecated for removal
+  // in recent Java versions.
+  private static final Set<String> DENIED_TYPE_NAMES = ImmutableSet.of("java.lang.SecurityManager");
+  // Packages none of whose classes are accessible.
+  private static final Set<String> DENIED_PACKAGES = ImmutableSet.of(
+    "java.lang.invoke.", "java.lang.reflect.", "java.io.", "java.net.", "java.nio.channels.", "java.nio.file.", "sun.",
+    "com.sun."
+  );
+  // Methods giving access to classes, which can be reached on any object or through the namespaces.
+  private static final Set<String> DENIED_METHODS = ImmutableSet.of(
+    "getClass", "forName", "getClassLoader", "newInstance", "getMethod", "getMethods", "getDeclaredMethod",
+    "getDeclaredMethods", "getConstructor", "getConstructors", "getDeclaredConstructor", "getDeclaredConstructors",
+    "getField", "getFields", "getDeclaredField", "getDeclaredFields"
+  );
+  // Value types that can be created by the scripts, in addition to the function namespaces.
+  private static final Set<String> CONSTRUCTIBLE_TYPES = ImmutableSet.of(
+    String.class.getName(), StringBuilder.class.getName(), Boolean.class.getName(), Byte.class.getName(),
+    Short.class.getName(), Integer.class.getName(), Long.class.getName(), Float.class.getName(),
+    Double.class.getName(), BigInteger.class.getName(), BigDecimal.class.getName(), ArrayList.class.getName(),
+    HashMap.class.getName(), LinkedHashMap.class.getName(), HashSet.class.getName()
+  );
+  private static final String CLASS_PROPERTY = "class";
+
+  private final JexlUberspect uberspect;
+  private final Set<String> constructibleTypes;
+
+  /**
+   * Creates a sandbox around the given {@link JexlUberspect}.
+   *
+   * @param uberspect the uberspect resolving the members that are allowed
+   * @param namespaces the function namespaces registered with the engine, whose classes can be instantiated
+   */
+  SandboxedUberspect(JexlUberspect uberspect, Map<String, Object> namespaces) {
+    this.uberspect = uberspect;
+    Set<String> constructibleTypes = new HashSet<>(CONSTRUCTIBLE_TYPES);
+    for (Object namespace : namespaces.values()) {
+      if (namespace instanceof Class) {
+        constructibleTypes.add(((Class<?>) namespace).getName());
+      } else if (namespace instanceof String) {
+        constructibleTypes.add((String) namespace);
+      }
+    }
+    this.constructibleTypes = constructibleTypes;
+  }
+
+  @Override
+  public List<PropertyResolver> getResolvers(JexlOperator op, Object obj) {
+    return uberspect.getResolvers(op, obj);
+  }
+
+  @Override
+  public void setClassLoader(ClassLoader loader) {
+    uberspect.setClassLoader(loader);
+  }
+
+  @Override
+  public int getVersion() {
+    return uberspect.getVersion();
+  }
+
+  @Override
+  public JexlMethod getConstructor(Object ctorHandle, Object... args) {
+    String className = ctorHandle instanceof Class ? ((Class<?>) ctorHandle).getName() : String.valueOf(ctorHandle);
+    return constructibleTypes.contains(className) ? uberspect.getConstructor(ctorHandle, args) : null;
+  }
+
+  @Override
+  public JexlMethod getMethod(Object obj, String method, Object... args) {
+    if (DENIED_METHODS.contains(method) || isDenied(obj)) {
+      return null;
+    }
+    return uberspect.getMethod(obj, method, args);
+  }
+
+  @Override
+  public JexlPropertyGet getPropertyGet(Object obj, Object identifier) {
+    return isDenied(obj, identifier) ? null : uberspect.getPropertyGet(obj, identifier);
+  }
+
+  @Override
+  public JexlPropertyGet getPropertyGet(List<PropertyResolver> resolvers, Object obj, Object identifier) {
+    return isDenied(obj, identifier) ? null : uberspect.getPropertyGet(resolvers, obj, identifier);
+  }
+
+  @Override
+  public JexlPropertySet getPropertySet(Object obj, Object identifier, Object arg) {
+    return isDenied(obj, identifier) ? null : uberspect.getPropertySet(obj, identifier, arg);
+  }
+
+  @Override
+  public JexlPropertySet getPropertySet(List<PropertyResolver> resolvers, Object obj, Object identifier, Object arg) {
+    return isDenied(obj, identifier) ? null : uberspect.getPropertySet(resolvers, obj, identifier, arg);
+  }
+
+  @Override
+  public Iterator<?> getIterator(Object obj) {
+    return isDenied(obj) ? null : uberspect.getIterator(obj);
+  }
+
+  @Override
+  public JexlArithmetic.Uberspect getArithmetic(JexlArithmetic arithmetic) {
+    return uberspect.getArithmetic(arithmetic);
+  }
+
+  /**
+   * Returns {@code true} if the given property of the object cannot be accessed. The class of an object is only
+   * accessible as an entry of a map.
+   */
+  private static boolean isDenied(Object obj, Object identifier) {
+    return (CLASS_PROPERTY.equals(identifier) && !(obj instanceof Map)) || isDenied(obj);
+  }
+
+  /**
+   * Returns {@code true} if no member of the given object can be accessed. The static members of the function
+   * namespaces are accessed through their {@link Class}, in which case the class itself is checked.
+   */
+  private static boolean isDenied(Object obj) {
+    if (obj == null) {
+      return false;
+    }
+    Class<?> cls = obj instanceof Class ? (Class<?>) obj : obj.getClass();
+    for (Class<?> type : DENIED_TYPES) {
+      if (type.isAssignableFrom(cls)) {
+        return true;
+      }
+    }
+    for (Class<?> type = cls; type != null; type = type.getSuperclass()) {
+      if (DENIED_TYPE_NAMES.contains(type.getName())) {
+        return true;
+      }
+    }
+    String name = cls.getName();
+    for (String pkg : DENIED_PACKAGES) {
+      if (name.startsWith(pkg)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
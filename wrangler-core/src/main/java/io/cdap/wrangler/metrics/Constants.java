@@ -26,6 +26,9 @@ public class Constants {
   public static final class Tags {
     public static final String APP_ENTITY_TYPE = "aet";
     public static final String APP_ENTITY_TYPE_NAME = "tpe";
+    // Tags of the metrics of each directive of a recipe
+    public static final String DIRECTIVE_INDEX = "dix";
+    public static final String DIRECTIVE_NAME = "dnm";
   }
 
   private Constants() {
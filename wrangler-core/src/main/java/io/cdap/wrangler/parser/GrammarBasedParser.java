@@ -25,6 +25,7 @@ import io.cdap.wrangler.api.DirectiveNotFoundException;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.RecipeException;
 import io.cdap.wrangler.api.RecipeParser;
+import io.cdap.wrangler.api.TokenGroup;
 import io.cdap.wrangler.api.parser.UsageDefinition;
 import io.cdap.wrangler.registry.DirectiveInfo;
 import io.cdap.wrangler.registry.DirectiveRegistry;
@@ -74,23 +75,7 @@ public class GrammarBasedParser implements RecipeParser {
 
       new GrammarWalker(new RecipeCompiler(), context).walk(recipe, (command, tokenGroup) -> {
         directiveIndex.getAndIncrement();
-        DirectiveInfo info = registry.get(namespace, command);
-        if (info == null) {
-          throw new DirectiveNotFoundException(
-            String.format("Directive '%s' not found in system and user scope. Check the name of directive.", command)
-          );
-        }
-
-        try {
-          Directive directive = info.instance();
-          UsageDefinition definition = directive.define();
-          Arguments arguments = new MapArguments(definition, tokenGroup);
-          directive.initialize(arguments);
-          result.add(directive);
-
-        } catch (IllegalAccessException | InstantiationException e) {
-          throw new DirectiveLoadException(e.getMessage(), e);
-        }
+        result.add(createDirective(registry, namespace, command, tokenGroup));
       });
 
       return result;
@@ -100,4 +85,28 @@ public class GrammarBasedParser implements RecipeParser {
       throw new RecipeException(e.getMessage(), e);
     }
   }
+
+  /**
+   * Creates and initializes the directive of a command of a recipe.
+   */
+  static Directive createDirective(DirectiveRegistry registry, String namespace, String command,
+                                   TokenGroup tokenGroup) throws DirectiveParseException, DirectiveLoadException,
+    DirectiveNotFoundException {
+    DirectiveInfo info = registry.get(namespace, command);
+    if (info == null) {
+      throw new DirectiveNotFoundException(
+        String.format("Directive '%s' not found in system and user scope. Check the name of directive.", command)
+      );
+    }
+
+    try {
+      Directive directive = info.instance();
+      UsageDefinition definition = directive.define();
+      Arguments arguments = new MapArguments(definition, tokenGroup);
+      directive.initialize(arguments);
+      return directive;
+    } catch (IllegalAccessException | InstantiationException e) {
+      throw new DirectiveLoadException(e.getMessage(), e);
+    }
+  }
 }
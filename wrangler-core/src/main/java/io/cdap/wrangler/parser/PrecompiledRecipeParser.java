@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.parser;
+
+import io.cdap.wrangler.api.Directive;
+import io.cdap.wrangler.api.DirectiveLoadException;
+import io.cdap.wrangler.api.DirectiveNotFoundException;
+import io.cdap.wrangler.api.DirectiveParseException;
+import io.cdap.wrangler.api.Pair;
+import io.cdap.wrangler.api.RecipeException;
+import io.cdap.wrangler.api.RecipeParser;
+import io.cdap.wrangler.api.TokenGroup;
+import io.cdap.wrangler.registry.DirectiveRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link RecipeParser} that instantiates directives from a recipe that has already been compiled.
+ * It skips the compilation done by {@link GrammarBasedParser}, but still creates and initializes new
+ * instances of the directives on every call to {@link #parse()}, as directives hold state of the execution.
+ */
+public class PrecompiledRecipeParser implements RecipeParser {
+  private final String namespace;
+  private final List<Pair<String, TokenGroup>> symbols;
+  private final DirectiveRegistry registry;
+
+  /**
+   * @param namespace namespace to look up the directives in
+   * @param symbols name of the directive and the tokens of its arguments, for each directive of the recipe
+   * @param registry registry of the directives
+   */
+  public PrecompiledRecipeParser(String namespace, List<Pair<String, TokenGroup>> symbols,
+                                 DirectiveRegistry registry) {
+    this.namespace = namespace;
+    this.symbols = symbols;
+    this.registry = registry;
+  }
+
+  @Override
+  public List<Directive> parse() throws RecipeException {
+    int directiveIndex = 0;
+    try {
+      List<Directive> result = new ArrayList<>(symbols.size());
+      for (Pair<String, TokenGroup> symbol : symbols) {
+        directiveIndex++;
+        result.add(GrammarBasedParser.createDirective(registry, namespace, symbol.getFirst(), symbol.getSecond()));
+      }
+      return result;
+    } catch (DirectiveLoadException | DirectiveNotFoundException | DirectiveParseException e) {
+      throw new RecipeException(e.getMessage(), e, directiveIndex);
+    } catch (Exception e) {
+      throw new RecipeException(e.getMessage(), e);
+    }
+  }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.registry;
+
+import io.cdap.cdap.api.artifact.ArtifactId;
+import io.cdap.cdap.api.artifact.ArtifactInfo;
+import io.cdap.cdap.api.artifact.ArtifactManager;
+import io.cdap.cdap.api.artifact.ArtifactVersion;
+import io.cdap.cdap.api.artifact.CloseableClassLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import javax.annotation.Nullable;
+
+/**
+ * A cache of the classloaders of the artifacts containing user defined directives, which allows the executions of
+ * the directives of an artifact in the same process to share the classes of the artifact.
+ *
+ * <p>Classloaders are acquired for the duration of an execution through a {@link Lease}. The least recently used
+ * classloaders that are not leased are closed once more than the maximum number of artifacts are cached.
+ * Classloaders are cached by namespace so that the classes of an artifact are never shared across namespaces.</p>
+ *
+ * <p>Classloaders are cached by the {@link ArtifactInfo} of the artifact as listed by the {@link ArtifactManager},
+ * so that an artifact deployed again with the same id but other classes or properties gets a new classloader. The
+ * artifacts of a namespace are listed again only when an artifact is not found in the last listing or once the
+ * listing is older than the deployment TTL, so a deployment is picked up at most that long after it happens. The
+ * classloader of the previous deployment is closed once it is no longer leased.</p>
+ *
+ * <p>Classes of the artifacts can keep static state across the executions sharing their classloader. Artifacts
+ * declare that their directives keep no such state with the {@link #STATELESS_PROPERTY} property, which
+ * {@link Lease#isStateless()} reports.</p>
+ */
+public final class ArtifactClassLoaderCache {
+  private static final Logger LOG = LoggerFactory.getLogger(ArtifactClassLoaderCache.class);
+
+  /**
+   * Property of the artifacts whose directives keep no state across executions, when set to {@code true}.
+   */
+  public static final String STATELESS_PROPERTY = "wrangler.directives.stateless";
+
+  private final int maxArtifacts;
+  private final long deploymentTtlNanos;
+  private final LongSupplier ticker;
+  private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, Listing> listings = new HashMap<>();
+
+  /**
+   * Creates a cache of the classloaders of at most the given number of artifacts that are not in use.
+   *
+   * @param maxArtifacts the maximum number of artifacts whose classloader is cached when not in use
+   * @param deploymentTtl the time for which the artifacts listed in a namespace are not listed again
+   * @param unit the unit of the deployment TTL
+   */
+  public ArtifactClassLoaderCache(int maxArtifacts, long deploymentTtl, TimeUnit unit) {
+    this(maxArtifacts, deploymentTtl, unit, System::nanoTime);
+  }
+
+  ArtifactClassLoaderCache(int maxArtifacts, long deploymentTtl, TimeUnit unit, LongSupplier ticker) {
+    this.maxArtifacts = maxArtifacts;
+    this.deploymentTtlNanos = unit.toNanos(deploymentTtl);
+    this.ticker = ticker;
+  }
+
+  /**
+   * Acquires the classloader of an artifact, creating it if it is not cached. The classloader stays open until the
+   * returned lease is closed.
+   *
+   * @param artifactManager the manager to create the classloader with
+   * @param namespace the namespace of the artifact
+   * @param artifactId the artifact
+   * @param parent the parent of the classloader of the artifact
+   * @return the lease of the classloader
+   * @throws IOException if the artifact is not found or the classloader could not be created
+   */
+  public Lease acquire(ArtifactManager artifactManager, String namespace, ArtifactId artifactId,
+                       ClassLoader parent) throws IOException {
+    ArtifactInfo artifact = getArtifact(artifactManager, namespace, artifactId);
+    if (artifact == null) {
+      throw new IOException("Artifact " + artifactId + " not found in namespace " + namespace);
+    }
+    return acquire(artifactManager, new Key(namespace, artifactId, artifact), parent);
+  }
+
+  /**
+   * Returns the artifact of the given id from the last listing of the namespace, listing the artifacts of the
+   * namespace again if the artifact is not found in it or if it expired.
+   */
+  @Nullable
+  private ArtifactInfo getArtifact(ArtifactManager artifactManager, String namespace,
+                                   ArtifactId artifactId) throws IOException {
+    Listing listing;
+    synchronized (this) {
+      listing = listings.get(namespace);
+    }
+    if (listing == null || ticker.getAsLong() - listing.time >= deploymentTtlNanos
+      || !listing.artifacts.containsKey(artifactId)) {
+      // List outside of the lock, as it is a remote call
+      listing = new Listing(ticker.getAsLong(), artifactManager.listArtifacts(namespace));
+      synchronized (this) {
+        listings.put(namespace, listing);
+      }
+    }
+    return listing.artifacts.get(artifactId);
+  }
+
+  private synchronized Lease acquire(ArtifactManager artifactManager, Key key, ClassLoader parent)
+    throws IOException {
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      removeDeployments(key);
+      entry = new Entry(artifactManager.createClassLoader(key.namespace, key.artifact, parent),
+                        Boolean.parseBoolean(key.artifact.getProperties().get(STATELESS_PROPERTY)));
+      entries.put(key, entry);
+    }
+    entry.leases++;
+    evict();
+    return new Lease(entry);
+  }
+
+  /**
+   * Returns the number of artifacts whose classloader is cached.
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  private synchronized void release(Entry entry) {
+    entry.leases--;
+    evict();
+  }
+
+  /**
+   * Closes the classloaders of the other deployments of the artifact of the given key that are not leased.
+   */
+  private void removeDeployments(Key key) {
+    Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Key, Entry> next = iterator.next();
+      if (next.getKey().isDeploymentOf(key) && next.getValue().leases == 0) {
+        iterator.remove();
+        close(next.getValue());
+      }
+    }
+  }
+
+  /**
+   * Closes the least recently used classloaders that are not leased until at most the maximum number of artifacts are
+   * cached.
+   */
+  private void evict() {
+    Iterator<Entry> iterator = entries.values().iterator();
+    while (entries.size() > maxArtifacts && iterator.hasNext()) {
+      Entry entry = iterator.next();
+      if (entry.leases == 0) {
+        iterator.remove();
+        close(entry);
+      }
+    }
+  }
+
+  private static void close(Entry entry) {
+    try {
+      entry.classLoader.close();
+    } catch (IOException e) {
+      LOG.warn("Failed to close the classloader of an artifact", e);
+    }
+  }
+
+  /**
+   * The use of the classloader of an artifact, which must be closed once the classes of the artifact are no longer
+   * used.
+   */
+  public final class Lease implements Closeable {
+    private final Entry entry;
+    private boolean closed;
+
+    private Lease(Entry entry) {
+      this.entry = entry;
+    }
+
+    public ClassLoader getClassLoader() {
+      return entry.classLoader;
+    }
+
+    /**
+     * Returns {@code true} if the artifact declares that its directives keep no state across executions.
+     */
+    public boolean isStateless() {
+      return entry.stateless;
+    }
+
+    @Override
+    public void close() {
+      if (!closed) {
+        closed = true;
+        release(entry);
+      }
+    }
+  }
+
+  private static final class Key {
+    private final String namespace;
+    private final ArtifactId artifactId;
+    private final ArtifactInfo artifact;
+
+    Key(String namespace, ArtifactId artifactId, ArtifactInfo artifact) {
+      this.namespace = namespace;
+      this.artifactId = artifactId;
+      this.artifact = artifact;
+    }
+
+    /**
+     * Returns {@code true} if this key is for another deployment of the artifact of the given key.
+     */
+    boolean isDeploymentOf(Key key) {
+      return namespace.equals(key.namespace) && artifactId.equals(key.artifactId) && !artifact.equals(key.artifact);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return namespace.equals(key.namespace) && artifact.equals(key.artifact);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(namespace, artifact);
+    }
+  }
+
+  /**
+   * The artifacts of a namespace as listed at some time.
+   */
+  private static final class Listing {
+    private final long time;
+    private final Map<ArtifactId, ArtifactInfo> artifacts = new HashMap<>();
+
+    Listing(long time, List<ArtifactInfo> artifacts) {
+      this.time = time;
+      for (ArtifactInfo info : artifacts) {
+        this.artifacts.put(new ArtifactId(info.getName(), new ArtifactVersion(info.getVersion()), info.getScope()),
+                           info);
+      }
+    }
+  }
+
+  private static final class Entry {
+    private final CloseableClassLoader classLoader;
+    private final boolean stateless;
+    private int leases;
+
+    Entry(CloseableClassLoader classLoader, boolean stateless) {
+      this.classLoader = classLoader;
+      this.stateless = stateless;
+    }
+  }
+}
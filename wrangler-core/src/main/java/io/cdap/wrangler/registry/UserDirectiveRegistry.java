@@ -33,6 +33,7 @@ import io.cdap.cdap.etl.api.StageContext;
 import io.cdap.cdap.etl.api.Transform;
 import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.DirectiveLoadException;
+import io.cdap.wrangler.parser.DirectiveClass;
 import io.cdap.wrangler.utils.ArtifactSummaryComparator;
 
 import java.io.IOException;
@@ -74,10 +75,12 @@ public final class UserDirectiveRegistry implements DirectiveRegistry {
   private static final String WRANGLER_PLUGIN = "Wrangler";
   private final Map<String, Map<String, DirectiveInfo>> registry = new ConcurrentSkipListMap<>();
   private final List<CloseableClassLoader> classLoaders = new ArrayList<>();
+  private final List<ArtifactClassLoaderCache.Lease> leases = new ArrayList<>();
   private StageContext context;
   private HttpServiceContext manager;
   private ArtifactSummary wranglerArtifact;
   private SystemAppTaskContext systemAppTaskContext;
+  private ArtifactClassLoaderCache classLoaderCache;
 
   /**
    * This constructor should be used when initializing the registry from <tt>Service</tt>.
@@ -103,6 +106,18 @@ public final class UserDirectiveRegistry implements DirectiveRegistry {
     this.systemAppTaskContext = systemAppTaskContext;
   }
 
+  /**
+   * This constructor is used when creating from remote task, with the directives of known artifacts loaded through
+   * the given cache of classloaders. The classloaders are held until the registry is closed.
+   *
+   * @param systemAppTaskContext {@link SystemAppTaskContext}
+   * @param classLoaderCache the cache of the classloaders of the artifacts shared by the tasks
+   */
+  public UserDirectiveRegistry(SystemAppTaskContext systemAppTaskContext, ArtifactClassLoaderCache classLoaderCache) {
+    this.systemAppTaskContext = systemAppTaskContext;
+    this.classLoaderCache = classLoaderCache;
+  }
+
   /**
    * This constructor is used when constructing this object in the context of <tt>Transform</tt>.
    *
@@ -160,6 +175,50 @@ public final class UserDirectiveRegistry implements DirectiveRegistry {
     }
   }
 
+  /**
+   * Returns the information about a user defined directive whose class and artifact are known. The class is loaded
+   * from the artifact through the cache of classloaders if the registry has one, otherwise this is the same as
+   * calling {@link #get(String, String)}.
+   *
+   * @param namespace the namespace of the artifact of the directive
+   * @param directiveClass the class of the directive
+   * @return an instance of {@link DirectiveInfo}
+   */
+  public DirectiveInfo get(String namespace, DirectiveClass directiveClass) throws DirectiveLoadException {
+    ArtifactId artifactId = directiveClass.getArtifactId();
+    ArtifactManager artifactManager = getArtifactManager();
+    if (classLoaderCache == null || artifactId == null || artifactManager == null) {
+      return get(namespace, directiveClass.getName());
+    }
+
+    try {
+      ArtifactClassLoaderCache.Lease lease = classLoaderCache.acquire(artifactManager, namespace, artifactId,
+                                                                      getClass().getClassLoader());
+      leases.add(lease);
+      Class<?> cls = lease.getClassLoader().loadClass(directiveClass.getClassName());
+      if (!Directive.class.isAssignableFrom(cls)) {
+        throw new DirectiveLoadException("Plugin class " + directiveClass.getClassName() + " does not implement the "
+                                           + Directive.class.getName() + " interface");
+      }
+      return DirectiveInfo.fromUser((Class<? extends Directive>) cls, artifactId);
+    } catch (IllegalAccessException | InstantiationException | IOException | ClassNotFoundException e) {
+      throw new DirectiveLoadException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Returns {@code true} if directives were loaded through the cache of classloaders from artifacts that do not
+   * declare their directives stateless, in which case the classes of the artifacts can keep state across executions.
+   */
+  public boolean hasStatefulDirectives() {
+    for (ArtifactClassLoaderCache.Lease lease : leases) {
+      if (!lease.isStateless()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Nullable
   private Class<? extends Directive> getDirective(String namespace, String name) throws IOException {
     if (context != null) {
@@ -269,6 +328,9 @@ public final class UserDirectiveRegistry implements DirectiveRegistry {
    */
   @Override
   public void close() throws IOException {
+    for (ArtifactClassLoaderCache.Lease lease : leases) {
+      lease.close();
+    }
     for (CloseableClassLoader classLoader : classLoaders) {
       classLoader.close();
     }
@@ -16,70 +16,67 @@
 
 package io.cdap.wrangler.statistics;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.cdap.wrangler.api.Row;
 import io.dataapps.chlorine.finder.FinderEngine;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Basic class to compute summary from a list of rows
+ *
+ * The rows are split in partitions that are aggregated in parallel on a {@link ForkJoinPool}, and the metrics of
+ * the partitions are merged. By default the partitions are aggregated on a pool dedicated to statistics, with at
+ * most half of the processors, as finding the types of the values is slow. The types found in the short values are
+ * cached in a bounded cache for the duration of the aggregation, as the same values tend to repeat across the rows
+ * of a sample.
  */
 public class BasicStatistics implements Statistics {
-  // default time out be 10s
-  private static final long TIME_OUT_MILLIS = 10000;
+  // Maximum number of cells aggregated by a single task before its rows are split.
+  private static final int MAX_CELLS_PER_TASK = 8192;
+  // Maximum number of values whose types are cached during an aggregation, and maximum length of these values.
+  private static final int MAX_CACHED_FINDS = 4096;
+  private static final int MAX_CACHED_VALUE_LENGTH = 256;
+  private static final ForkJoinPool POOL = new ForkJoinPool(
+    Math.max(1, Runtime.getRuntime().availableProcessors() / 2), pool -> {
+      ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+      thread.setName("column-statistics-" + thread.getPoolIndex());
+      return thread;
+    }, null, false);
   private final FinderEngine engine;
+  private final ForkJoinPool pool;
 
   public BasicStatistics() throws Exception {
-    engine = new FinderEngine("wrangler-finder.xml", true, false);
+    this(POOL);
+  }
+
+  public BasicStatistics(ForkJoinPool pool) throws Exception {
+    this.engine = new FinderEngine("wrangler-finder.xml", true, false);
+    this.pool = pool;
   }
 
   @Override
   public Row aggregate(List<Row> rows) {
-    ColumnMetric types = new ColumnMetric();
-    ColumnMetric stats = new ColumnMetric();
-
-    long startTime = System.currentTimeMillis();
-    Double count = new Double(0);
-    for (Row row : rows) {
-      ++count;
-      for (int i = 0; i < row.width(); ++i) {
-        String column = row.getColumn(i);
-        Object object = row.getValue(i);
-
-        if (object == null) {
-          stats.increment(column, "null");
-        } else {
-          stats.increment(column, "non-null");
-        }
-
-        if (object instanceof String) {
-          String value = ((String) object);
-          if (value.isEmpty()) {
-            stats.increment(column, "empty");
-          } else {
-            // this call is very expensive for string > 2000 characters, took seconds to return
-            Map<String, List<String>> finds = engine.findWithType(value);
-            for (String find : finds.keySet()) {
-              types.increment(column, find);
-            }
-            // TODO: this is a workaround for CDAP-18262, to proper fix we should revisit this computation logic
-            if (System.currentTimeMillis() - startTime > TIME_OUT_MILLIS) {
-              break;
-            }
-          }
-        }
-      }
-    }
+    Double count = (double) rows.size();
+    Cache<String, Collection<String>> finds = CacheBuilder.newBuilder().maximumSize(MAX_CACHED_FINDS).build();
+    Partition partition = pool.invoke(new AggregateTask(rows, 0, rows.size(), finds));
 
     Row rowTypes = new Row();
-    for (String column : types.getColumns()) {
-      rowTypes.add(column, types.percentage(column, count));
+    for (String column : partition.types.getColumns()) {
+      rowTypes.add(column, partition.types.percentage(column, count));
     }
 
     Row rowStats = new Row();
-    for (String column : stats.getColumns()) {
-      rowStats.add(column, stats.percentage(column, count));
+    for (String column : partition.stats.getColumns()) {
+      rowStats.add(column, partition.stats.percentage(column, count));
     }
 
     Row row = new Row();
@@ -89,4 +86,87 @@ public class BasicStatistics implements Statistics {
 
     return row;
   }
+
+  /**
+   * Metrics of a partition of the rows.
+   */
+  private static final class Partition {
+    private final ColumnMetric types = new ColumnMetric();
+    private final ColumnMetric stats = new ColumnMetric();
+
+    private Partition merge(Partition other) {
+      types.merge(other.types);
+      stats.merge(other.stats);
+      return this;
+    }
+  }
+
+  /**
+   * Aggregates the rows in the range [from, to), splitting the range in two while it holds too many cells.
+   */
+  private final class AggregateTask extends RecursiveTask<Partition> {
+    private final List<Row> rows;
+    private final int from;
+    private final int to;
+    private final Cache<String, Collection<String>> finds;
+
+    AggregateTask(List<Row> rows, int from, int to, Cache<String, Collection<String>> finds) {
+      this.rows = rows;
+      this.from = from;
+      this.to = to;
+      this.finds = finds;
+    }
+
+    @Override
+    protected Partition compute() {
+      if (to - from > 1 && (long) (to - from) * rows.get(from).width() > MAX_CELLS_PER_TASK) {
+        int mid = (from + to) >>> 1;
+        AggregateTask left = new AggregateTask(rows, from, mid, finds);
+        left.fork();
+        Partition right = new AggregateTask(rows, mid, to, finds).compute();
+        return left.join().merge(right);
+      }
+
+      Partition partition = new Partition();
+      for (int r = from; r < to; r++) {
+        Row row = rows.get(r);
+        for (int i = 0; i < row.width(); ++i) {
+          String column = row.getColumn(i);
+          Object object = row.getValue(i);
+
+          if (object == null) {
+            partition.stats.increment(column, "null");
+          } else {
+            partition.stats.increment(column, "non-null");
+          }
+
+          if (object instanceof String) {
+            String value = ((String) object);
+            if (value.isEmpty()) {
+              partition.stats.increment(column, "empty");
+            } else {
+              for (String find : find(value)) {
+                partition.types.increment(column, find);
+              }
+            }
+          }
+        }
+      }
+      return partition;
+    }
+
+    private Collection<String> find(String value) {
+      boolean cached = value.length() <= MAX_CACHED_VALUE_LENGTH;
+      Collection<String> types = cached ? finds.getIfPresent(value) : null;
+      if (types == null) {
+        // this call is expensive, hence the results of the values that may repeat are shared by all the tasks
+        Map<String, List<String>> found = engine.findWithType(value);
+        types = found.isEmpty() ? Collections.emptyList() : new ArrayList<>(found.keySet());
+        if (cached) {
+          finds.put(value, types);
+        }
+      }
+      return types;
+    }
+  }
 }
@@ -65,6 +65,22 @@ public final class ColumnMetric {
     measures.put(column, metric);
   }
 
+  /**
+   * Merges the measures of another instance into this instance. Measures tracked by both are added up.
+   *
+   * @param other metric to be merged into this instance.
+   */
+  public void merge(ColumnMetric other) {
+    for (Map.Entry<String, Measurements> entry : other.measures.entrySet()) {
+      Measurements metric = measures.get(entry.getKey());
+      if (metric == null) {
+        metric = new Measurements();
+        measures.put(entry.getKey(), metric);
+      }
+      metric.merge(entry.getValue());
+    }
+  }
+
   /**
    * @return Set of columns tracked.
    */
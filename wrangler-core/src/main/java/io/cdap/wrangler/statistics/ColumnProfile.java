@@ -0,0 +1,223 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.statistics;
+
+import io.cdap.wrangler.api.Pair;
+import io.cdap.wrangler.statistics.sketch.HyperLogLog;
+import io.cdap.wrangler.statistics.sketch.QuantileSketch;
+import io.cdap.wrangler.statistics.sketch.SpaceSaving;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Profile of the values of a column, built in one pass over the values with sketches of bounded size.
+ *
+ * The profile tracks the number of null and empty values, the estimated number of distinct values, the most
+ * frequent values, a histogram of the length of the values and the quantiles of the numeric values. Values are
+ * compared by their string representation, and strings that can be parsed as numbers are counted as numeric.
+ * Profiles of the same column built on different partitions of the data can be merged.
+ */
+public final class ColumnProfile implements Serializable {
+  private static final long serialVersionUID = -3416335279934263406L;
+  private static final int DISTINCT_PRECISION = 12;
+  private static final int QUANTILE_CAPACITY = 256;
+  private static final int TOP_CAPACITY = 64;
+  // Bucket i of the length histogram counts the values with a length in [2^(i-1), 2^i), bucket 0 empty values.
+  private static final int LENGTH_BUCKETS = 32;
+
+  private final HyperLogLog distinct = new HyperLogLog(DISTINCT_PRECISION);
+  private final QuantileSketch numerics = new QuantileSketch(QUANTILE_CAPACITY);
+  private final SpaceSaving top = new SpaceSaving(TOP_CAPACITY);
+  private final long[] lengths = new long[LENGTH_BUCKETS];
+  private long count;
+  private long nulls;
+  private long empties;
+  private int minLength = Integer.MAX_VALUE;
+  private int maxLength;
+
+  /**
+   * Adds a value of the column to the profile.
+   *
+   * @param value to be added, may be null.
+   */
+  public void update(Object value) {
+    count++;
+    if (value == null) {
+      nulls++;
+      return;
+    }
+
+    String string = value instanceof String ? (String) value : String.valueOf(value);
+    if (string.isEmpty()) {
+      empties++;
+    }
+    distinct.add(string);
+    top.add(string);
+
+    int length = string.length();
+    lengths[Math.min(32 - Integer.numberOfLeadingZeros(length), LENGTH_BUCKETS - 1)]++;
+    minLength = Math.min(minLength, length);
+    maxLength = Math.max(maxLength, length);
+
+    if (value instanceof Number) {
+      numerics.add(((Number) value).doubleValue());
+    } else if (value instanceof String && isNumeric(string)) {
+      try {
+        numerics.add(Double.parseDouble(string));
+      } catch (NumberFormatException e) {
+        // not a number
+      }
+    }
+  }
+
+  /**
+   * Merges the profile of the same column from another partition into this profile.
+   *
+   * @param other profile to be merged.
+   * @return this profile.
+   */
+  public ColumnProfile merge(ColumnProfile other) {
+    distinct.merge(other.distinct);
+    numerics.merge(other.numerics);
+    top.merge(other.top);
+    for (int i = 0; i < LENGTH_BUCKETS; i++) {
+      lengths[i] += other.lengths[i];
+    }
+    count += other.count;
+    nulls += other.nulls;
+    empties += other.empties;
+    minLength = Math.min(minLength, other.minLength);
+    maxLength = Math.max(maxLength, other.maxLength);
+    return this;
+  }
+
+  /**
+   * @return number of values, including null values.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * @return number of null values.
+   */
+  public long getNullCount() {
+    return nulls;
+  }
+
+  /**
+   * @return number of empty values.
+   */
+  public long getEmptyCount() {
+    return empties;
+  }
+
+  /**
+   * @return estimated number of distinct non-null values.
+   */
+  public long getDistinctCount() {
+    return distinct.cardinality();
+  }
+
+  /**
+   * @return number of numeric values.
+   */
+  public long getNumericCount() {
+    return numerics.getCount();
+  }
+
+  /**
+   * @return smallest numeric value, or NaN if there is no numeric value.
+   */
+  public double getMin() {
+    return numerics.getMin();
+  }
+
+  /**
+   * @return largest numeric value, or NaN if there is no numeric value.
+   */
+  public double getMax() {
+    return numerics.getMax();
+  }
+
+  /**
+   * Estimates quantiles of the numeric values.
+   *
+   * @param fractions fractions between 0 and 1 of the quantiles to estimate.
+   * @return estimated quantiles, NaN if there is no numeric value.
+   */
+  public double[] getQuantiles(double... fractions) {
+    return numerics.getQuantiles(fractions);
+  }
+
+  /**
+   * Returns the most frequent values with their estimated counts.
+   *
+   * @param limit maximum number of values to return.
+   * @return values in decreasing order of count.
+   */
+  public List<Pair<String, Long>> getTopValues(int limit) {
+    return top.getTop(limit);
+  }
+
+  /**
+   * @return length of the shortest non-null value, or 0 if there is no such value.
+   */
+  public int getMinLength() {
+    return minLength == Integer.MAX_VALUE ? 0 : minLength;
+  }
+
+  /**
+   * @return length of the longest non-null value.
+   */
+  public int getMaxLength() {
+    return maxLength;
+  }
+
+  /**
+   * Returns the histogram of the length of the non-null values. The bucket 0 counts the empty values and the
+   * bucket i > 0 counts the values with a length between 2^(i-1) inclusive and 2^i exclusive.
+   *
+   * @return number of values in each bucket, up to the last non-empty bucket.
+   */
+  public long[] getLengthHistogram() {
+    int last = LENGTH_BUCKETS - 1;
+    while (last >= 0 && lengths[last] == 0) {
+      last--;
+    }
+    return Arrays.copyOf(lengths, last + 1);
+  }
+
+  /**
+   * Checks the characters of the string before parsing it, so that most strings are rejected without an exception.
+   */
+  private static boolean isNumeric(String string) {
+    int length = string.length();
+    if (length == 0 || length > 64) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      char c = string.charAt(i);
+      if (!(c >= '0' && c <= '9') && c != '.' && c != '-' && c != '+' && c != 'e' && c != 'E') {
+        return false;
+      }
+    }
+    return true;
+  }
+}
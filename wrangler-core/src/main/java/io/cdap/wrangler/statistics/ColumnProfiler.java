@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.statistics;
+
+import io.cdap.wrangler.api.Row;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds a {@link ColumnProfile} for each column of a stream of rows, in one pass and in memory bounded by the
+ * number of columns. Profilers built over different partitions of the data can be merged, so that the rows can
+ * be profiled in parallel.
+ */
+public final class ColumnProfiler implements Serializable {
+  private static final long serialVersionUID = 1808040512467640125L;
+
+  // Profiles in the order the columns are first seen.
+  private final Map<String, ColumnProfile> profiles = new LinkedHashMap<>();
+
+  /**
+   * Profiles a list of rows.
+   *
+   * @param rows to be profiled.
+   * @return the profiler holding the profiles of the columns of the rows.
+   */
+  public static ColumnProfiler profile(List<Row> rows) {
+    ColumnProfiler profiler = new ColumnProfiler();
+    for (Row row : rows) {
+      profiler.update(row);
+    }
+    return profiler;
+  }
+
+  /**
+   * Adds the values of a row to the profiles of its columns.
+   *
+   * @param row to be added.
+   */
+  public void update(Row row) {
+    for (int i = 0; i < row.width(); i++) {
+      update(row.getColumn(i), row.getValue(i));
+    }
+  }
+
+  /**
+   * Adds a value to the profile of a column.
+   *
+   * @param column name of the column.
+   * @param value to be added, may be null.
+   */
+  public void update(String column, Object value) {
+    ColumnProfile profile = profiles.get(column);
+    if (profile == null) {
+      profile = new ColumnProfile();
+      profiles.put(column, profile);
+    }
+    profile.update(value);
+  }
+
+  /**
+   * Merges the profiles of another profiler into this profiler. The other profiler should not be updated after
+   * being merged, as its profiles may be shared with this profiler.
+   *
+   * @param other profiler to be merged.
+   * @return this profiler.
+   */
+  public ColumnProfiler merge(ColumnProfiler other) {
+    for (Map.Entry<String, ColumnProfile> entry : other.profiles.entrySet()) {
+      ColumnProfile profile = profiles.get(entry.getKey());
+      if (profile == null) {
+        profiles.put(entry.getKey(), entry.getValue());
+      } else {
+        profile.merge(entry.getValue());
+      }
+    }
+    return this;
+  }
+
+  /**
+   * @return profiles of the columns, in the order the columns were first seen.
+   */
+  public Map<String, ColumnProfile> getProfiles() {
+    return Collections.unmodifiableMap(profiles);
+  }
+}
@@ -51,6 +51,14 @@ public final class Measurements {
       ++value;
     }
 
+    /**
+     * Adds to the value associated with {@link MutableDouble}
+     * @param delta to be added.
+     */
+    public void add(double delta) {
+      value += delta;
+    }
+
     /**
      * @return value stored.
      */
@@ -83,6 +91,22 @@ public final class Measurements {
     metrics.put(name, new MutableDouble(value));
   }
 
+  /**
+   * Adds the measures of another instance to the measures of this instance.
+   *
+   * @param other measurements to be merged into this instance.
+   */
+  public void merge(Measurements other) {
+    for (Map.Entry<String, MutableDouble> entry : other.metrics.entrySet()) {
+      MutableDouble value = metrics.get(entry.getKey());
+      if (value != null) {
+        value.add(entry.getValue().get());
+      } else {
+        metrics.put(entry.getKey(), new MutableDouble(entry.getValue().get()));
+      }
+    }
+  }
+
   /**
    * Computes percentages for each of the measures managed by this instance.
    *
@@ -0,0 +1,119 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.statistics.sketch;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.io.Serializable;
+
+/**
+ * A HyperLogLog sketch estimating the number of distinct values added to it. The sketch uses 2^precision
+ * registers of one byte each, and has a standard error of about 1.04 / sqrt(2^precision). Sketches with the
+ * same precision can be merged, the result being the same as if all the values had been added to one sketch.
+ */
+public final class HyperLogLog implements Serializable {
+  private static final long serialVersionUID = 4113545384366421657L;
+  private static final HashFunction HASH = Hashing.murmur3_128();
+
+  private final int precision;
+  private final byte[] registers;
+
+  /**
+   * Creates a sketch.
+   *
+   * @param precision number of bits of the hash used to select a register, between 4 and 18.
+   */
+  public HyperLogLog(int precision) {
+    Preconditions.checkArgument(precision >= 4 && precision <= 18, "precision should be between 4 and 18.");
+    this.precision = precision;
+    this.registers = new byte[1 << precision];
+  }
+
+  /**
+   * Adds a value to the sketch.
+   *
+   * @param value to be added.
+   */
+  public void add(String value) {
+    addHash(HASH.hashUnencodedChars(value).asLong());
+  }
+
+  /**
+   * Adds the 64 bit hash of a value to the sketch.
+   *
+   * @param hash of the value to be added.
+   */
+  public void addHash(long hash) {
+    int index = (int) (hash >>> (64 - precision));
+    // Position of the first set bit of the remaining bits, bounded by the number of remaining bits.
+    int rank = Math.min(Long.numberOfLeadingZeros(hash << precision), 64 - precision) + 1;
+    if (rank > registers[index]) {
+      registers[index] = (byte) rank;
+    }
+  }
+
+  /**
+   * Merges another sketch into this sketch.
+   *
+   * @param other sketch to be merged, with the same precision as this sketch.
+   */
+  public void merge(HyperLogLog other) {
+    Preconditions.checkArgument(precision == other.precision, "Cannot merge sketches of different precisions.");
+    for (int i = 0; i < registers.length; i++) {
+      if (other.registers[i] > registers[i]) {
+        registers[i] = other.registers[i];
+      }
+    }
+  }
+
+  /**
+   * @return estimated number of distinct values added to the sketch.
+   */
+  public long cardinality() {
+    int m = registers.length;
+    double sum = 0;
+    int zeros = 0;
+    for (byte register : registers) {
+      sum += 1.0 / (1L << register);
+      if (register == 0) {
+        zeros++;
+      }
+    }
+
+    double estimate = alpha(m) * m * m / sum;
+    if (estimate <= 2.5 * m && zeros > 0) {
+      // Linear counting is more accurate for small cardinalities.
+      estimate = m * Math.log((double) m / zeros);
+    }
+    return Math.round(estimate);
+  }
+
+  private static double alpha(int m) {
+    switch (m) {
+      case 16:
+        return 0.673;
+      case 32:
+        return 0.697;
+      case 64:
+        return 0.709;
+      default:
+        return 0.7213 / (1 + 1.079 / m);
+    }
+  }
+}
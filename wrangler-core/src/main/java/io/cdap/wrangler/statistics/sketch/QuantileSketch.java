@@ -0,0 +1,251 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.statistics.sketch;
+
+import com.google.common.base.Preconditions;
+import io.cdap.wrangler.sampling.XORShiftRNG;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A KLL sketch estimating the quantiles of a stream of numbers in bounded memory.
+ *
+ * Values are kept in a hierarchy of compactors, a value at level l standing for 2^l values of the stream. The
+ * highest level has the given capacity and the capacity of each level below is 2/3 of the capacity of the level
+ * above, down to a minimum of 2. When the sketch holds as many values as the capacities of all its levels, the
+ * lowest level that is full is compacted: its values are sorted and every other value, starting at a random
+ * offset, is promoted to the next level, the other values being discarded. The sketch therefore holds
+ * O(capacity) values regardless of the number of values added. Sketches with the same capacity can be merged by
+ * appending the values of each level of one sketch to the same level of the other, and compacting again.
+ */
+public final class QuantileSketch implements Serializable {
+  private static final long serialVersionUID = -2790337407434185373L;
+  private static final double DECAY = 2.0 / 3.0;
+  private static final int MIN_LEVEL_CAPACITY = 2;
+
+  private final int capacity;
+  private final Random random;
+  private double[][] levels;
+  private int[] sizes;
+  private int retained;
+  private long count;
+  private double min = Double.NaN;
+  private double max = Double.NaN;
+
+  /**
+   * Creates a sketch.
+   *
+   * @param capacity number of values held by the highest level, must be at least 2.
+   */
+  public QuantileSketch(int capacity) {
+    Preconditions.checkArgument(capacity >= MIN_LEVEL_CAPACITY, "capacity should be at least 2.");
+    this.capacity = capacity;
+    this.random = new XORShiftRNG(capacity);
+    this.levels = new double[][] { new double[capacity] };
+    this.sizes = new int[1];
+  }
+
+  /**
+   * Adds a value to the sketch.
+   *
+   * @param value to be added, NaN values are ignored.
+   */
+  public void add(double value) {
+    if (Double.isNaN(value)) {
+      return;
+    }
+    if (count == 0) {
+      min = value;
+      max = value;
+    } else {
+      min = Math.min(min, value);
+      max = Math.max(max, value);
+    }
+    count++;
+    append(0, value);
+    compress();
+  }
+
+  /**
+   * Merges another sketch into this sketch.
+   *
+   * @param other sketch to be merged, with the same capacity as this sketch.
+   */
+  public void merge(QuantileSketch other) {
+    Preconditions.checkArgument(capacity == other.capacity, "Cannot merge sketches of different capacities.");
+    if (other.count == 0) {
+      return;
+    }
+    min = count == 0 ? other.min : Math.min(min, other.min);
+    max = count == 0 ? other.max : Math.max(max, other.max);
+    count += other.count;
+    for (int level = 0; level < other.sizes.length; level++) {
+      for (int i = 0; i < other.sizes[level]; i++) {
+        append(level, other.levels[level][i]);
+      }
+    }
+    compress();
+  }
+
+  /**
+   * @return number of values added to the sketch.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * @return smallest value added to the sketch, or NaN if the sketch is empty.
+   */
+  public double getMin() {
+    return min;
+  }
+
+  /**
+   * @return largest value added to the sketch, or NaN if the sketch is empty.
+   */
+  public double getMax() {
+    return max;
+  }
+
+  /**
+   * @return number of values held by the sketch.
+   */
+  int getRetained() {
+    return retained;
+  }
+
+  /**
+   * Estimates the quantiles of the values added to the sketch.
+   *
+   * @param fractions fractions between 0 and 1 of the quantiles to estimate, 0.5 being the median.
+   * @return estimated quantiles in the order of the fractions, or NaN values if the sketch is empty.
+   */
+  public double[] getQuantiles(double... fractions) {
+    double[] quantiles = new double[fractions.length];
+    if (count == 0) {
+      Arrays.fill(quantiles, Double.NaN);
+      return quantiles;
+    }
+
+    double[] values = new double[retained];
+    long[] weights = new long[retained];
+    int n = 0;
+    for (int level = 0; level < sizes.length; level++) {
+      for (int i = 0; i < sizes[level]; i++) {
+        values[n] = levels[level][i];
+        weights[n++] = 1L << level;
+      }
+    }
+    sortByValue(values, weights);
+
+    long total = 0;
+    for (long weight : weights) {
+      total += weight;
+    }
+    for (int q = 0; q < fractions.length; q++) {
+      if (fractions[q] <= 0) {
+        quantiles[q] = min;
+      } else if (fractions[q] >= 1) {
+        quantiles[q] = max;
+      } else {
+        double rank = fractions[q] * total;
+        long cumulative = 0;
+        int i = 0;
+        while (i < n - 1 && cumulative + weights[i] < rank) {
+          cumulative += weights[i++];
+        }
+        quantiles[q] = values[i];
+      }
+    }
+    return quantiles;
+  }
+
+  /**
+   * Returns the capacity of a level, which decreases geometrically from the highest level.
+   */
+  private int capacity(int level) {
+    int depth = sizes.length - 1 - level;
+    return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(capacity * Math.pow(DECAY, depth)));
+  }
+
+  private void append(int level, double value) {
+    if (level == sizes.length) {
+      levels = Arrays.copyOf(levels, level + 1);
+      levels[level] = new double[capacity];
+      sizes = Arrays.copyOf(sizes, level + 1);
+    }
+    if (sizes[level] == levels[level].length) {
+      levels[level] = Arrays.copyOf(levels[level], 2 * sizes[level]);
+    }
+    levels[level][sizes[level]++] = value;
+    retained++;
+  }
+
+  /**
+   * Compacts the lowest full levels until the sketch holds fewer values than the capacities of its levels.
+   */
+  private void compress() {
+    while (retained >= totalCapacity()) {
+      int level = 0;
+      while (sizes[level] < capacity(level)) {
+        level++;
+      }
+      compact(level);
+    }
+  }
+
+  private int totalCapacity() {
+    int total = 0;
+    for (int level = 0; level < sizes.length; level++) {
+      total += capacity(level);
+    }
+    return total;
+  }
+
+  private void compact(int level) {
+    double[] values = levels[level];
+    int size = sizes[level];
+    // With an odd number of values, the first one stays at this level so that an even number is compacted.
+    int from = size % 2;
+    Arrays.sort(values, from, size);
+    sizes[level] = from;
+    retained -= size - from;
+    // Promoting values only appends to higher levels, so the values of this level are not overwritten.
+    for (int i = from + (random.nextBoolean() ? 1 : 0); i < size; i += 2) {
+      append(level + 1, values[i]);
+    }
+  }
+
+  private static void sortByValue(double[] values, long[] weights) {
+    Integer[] order = new Integer[values.length];
+    for (int i = 0; i < order.length; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+    double[] sortedValues = new double[values.length];
+    long[] sortedWeights = new long[weights.length];
+    for (int i = 0; i < order.length; i++) {
+      sortedValues[i] = values[order[i]];
+      sortedWeights[i] = weights[order[i]];
+    }
+    System.arraycopy(sortedValues, 0, values, 0, values.length);
+    System.arraycopy(sortedWeights, 0, weights, 0, weights.length);
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.statistics.sketch;
+
+import com.google.common.base.Preconditions;
+import io.cdap.wrangler.api.Pair;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * A Space-Saving sketch tracking the most frequent values of a stream with a fixed number of counters.
+ *
+ * When a value that is not tracked is added and all the counters are used, the counter with the smallest count
+ * is given to the new value, which inherits its count. Counts are therefore over-estimated by at most the
+ * smallest count, and any value occurring more than n / capacity times out of n values is tracked. Sketches are
+ * merged by adding up the counts of each value, a value missing from a full sketch being counted with the
+ * smallest count of that sketch. Counters are also kept ordered by count, so that adding a value takes
+ * O(log(capacity)) time.
+ */
+public final class SpaceSaving implements Serializable {
+  private static final long serialVersionUID = 6460216002226262838L;
+
+  private final int capacity;
+  private final Map<String, Counter> counters;
+  // Same counters as above, ordered by increasing count.
+  private final TreeSet<Counter> byCount;
+
+  /**
+   * Creates a sketch.
+   *
+   * @param capacity number of values tracked, must be positive.
+   */
+  public SpaceSaving(int capacity) {
+    Preconditions.checkArgument(capacity > 0, "capacity should be positive.");
+    this.capacity = capacity;
+    this.counters = new HashMap<>();
+    this.byCount = new TreeSet<>();
+  }
+
+  /**
+   * Adds a value to the sketch.
+   *
+   * @param value to be added.
+   */
+  public void add(String value) {
+    Counter counter = counters.get(value);
+    if (counter != null) {
+      byCount.remove(counter);
+      put(value, counter.count + 1);
+      return;
+    }
+    long count = 1;
+    if (counters.size() >= capacity) {
+      Counter evicted = byCount.pollFirst();
+      counters.remove(evicted.value);
+      count += evicted.count;
+    }
+    put(value, count);
+  }
+
+  /**
+   * Merges another sketch into this sketch.
+   *
+   * @param other sketch to be merged.
+   */
+  public void merge(SpaceSaving other) {
+    long min = counters.size() < capacity ? 0 : byCount.first().count;
+    long otherMin = other.counters.size() < other.capacity ? 0 : other.byCount.first().count;
+    Set<String> values = new HashSet<>(counters.keySet());
+    values.addAll(other.counters.keySet());
+
+    Map<String, Long> merged = new HashMap<>();
+    for (String value : values) {
+      merged.put(value, getCount(value, min) + other.getCount(value, otherMin));
+    }
+    counters.clear();
+    byCount.clear();
+    for (Pair<String, Long> entry : sort(merged, capacity)) {
+      put(entry.getFirst(), entry.getSecond());
+    }
+  }
+
+  /**
+   * Returns the most frequent values, with their estimated counts.
+   *
+   * @param limit maximum number of values returned.
+   * @return values in decreasing order of count.
+   */
+  public List<Pair<String, Long>> getTop(int limit) {
+    List<Pair<String, Long>> top = new ArrayList<>(Math.min(limit, byCount.size()));
+    for (Counter counter : byCount.descendingSet()) {
+      if (top.size() >= limit) {
+        break;
+      }
+      top.add(new Pair<>(counter.value, counter.count));
+    }
+    return top;
+  }
+
+  private long getCount(String value, long defaultCount) {
+    Counter counter = counters.get(value);
+    return counter == null ? defaultCount : counter.count;
+  }
+
+  private void put(String value, long count) {
+    Counter counter = new Counter(value, count);
+    counters.put(value, counter);
+    byCount.add(counter);
+  }
+
+  private static List<Pair<String, Long>> sort(Map<String, Long> counts, int limit) {
+    List<Pair<String, Long>> entries = new ArrayList<>(counts.size());
+    for (Map.Entry<String, Long> entry : counts.entrySet()) {
+      entries.add(new Pair<>(entry.getKey(), entry.getValue()));
+    }
+    entries.sort((a, b) -> {
+      int compare = Long.compare(b.getSecond(), a.getSecond());
+      return compare != 0 ? compare : a.getFirst().compareTo(b.getFirst());
+    });
+    return entries.size() > limit ? new ArrayList<>(entries.subList(0, limit)) : entries;
+  }
+
+  /**
+   * The count of a value, ordered by increasing count and then by decreasing value, so that the values of equal
+   * counts are listed in increasing order from the most frequent.
+   */
+  private static final class Counter implements Comparable<Counter>, Serializable {
+    private static final long serialVersionUID = -1771926398547125154L;
+
+    private final String value;
+    private final long count;
+
+    Counter(String value, long count) {
+      this.value = value;
+      this.count = count;
+    }
+
+    @Override
+    public int compareTo(Counter other) {
+      int compare = Long.compare(count, other.count);
+      return compare != 0 ? compare : other.value.compareTo(value);
+    }
+  }
+}
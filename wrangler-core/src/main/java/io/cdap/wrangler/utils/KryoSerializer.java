@@ -16,44 +16,58 @@
 package io.cdap.wrangler.utils;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
 import com.esotericsoftware.kryo.Serializer;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
-import com.esotericsoftware.kryo.serializers.JavaSerializer;
-import com.google.gson.Gson;
+import com.esotericsoftware.kryo.pool.KryoPool;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import com.google.gson.internal.LazilyParsedNumber;
 import io.cdap.cdap.api.data.schema.Schema;
 import io.cdap.wrangler.api.RemoteDirectiveResponse;
 import io.cdap.wrangler.api.Row;
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
  * A helper class with allows Serialization and Deserialization using Kryo
  * We should register all schema classes present in {@link SchemaConverter}
  * and {@link RemoteDirectiveResponse}
+ *
+ * Kryo instances are expensive to create and not thread safe, hence they are shared by all the serializers
+ * through a pool. Responses are written into a per thread buffer that is reused across calls.
  **/
 public class KryoSerializer {
 
-  private final Kryo kryo;
-  private static final Gson GSON = new Gson();
+  // Initial size of the per thread output buffer.
+  private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+  // Output buffers larger than this are not kept around once the response has been written.
+  private static final int MAX_RETAINED_BUFFER_SIZE = 16 * 1024 * 1024;
+
+  private static final KryoPool POOL = new KryoPool.Builder(KryoSerializer::createKryo).softReferences().build();
+  private static final ThreadLocal<Output> OUTPUT = ThreadLocal.withInitial(() -> new Output(INITIAL_BUFFER_SIZE, -1));
 
-  public KryoSerializer() {
-    kryo = new Kryo();
+  private static Kryo createKryo() {
+    Kryo kryo = new Kryo();
     // Register all classes from RemoteDirectiveResponse
     kryo.register(RemoteDirectiveResponse.class);
-    // Schema does not have no-arg constructor but implements Serializable
-    kryo.register(Schema.class, new JavaSerializer());
+    // Schema does not have no-arg constructor, it is written as its json representation
+    kryo.register(Schema.class, new SchemaSerializer());
     // Register all classes from SchemaConverter
     kryo.register(Row.class);
     kryo.register(ArrayList.class);
@@ -61,40 +75,145 @@ public class KryoSerializer {
     kryo.register(LocalTime.class);
     kryo.register(ZonedDateTime.class);
     kryo.register(Map.class);
-    kryo.register(JsonNull.class);
-    // JsonPrimitive does not have no-arg constructor hence we need a
-    // custom serializer as it is not serializable by JavaSerializer
-    kryo.register(JsonPrimitive.class, new JsonSerializer());
-    kryo.register(JsonArray.class);
-    kryo.register(JsonObject.class);
+    // Json elements do not have no-arg constructors, they are written structurally by a custom serializer
+    JsonSerializer jsonSerializer = new JsonSerializer();
+    kryo.register(JsonNull.class, jsonSerializer);
+    kryo.register(JsonPrimitive.class, jsonSerializer);
+    kryo.register(JsonArray.class, jsonSerializer);
+    kryo.register(JsonObject.class, jsonSerializer);
     // Support deprecated util.date classes
     kryo.register(Date.class);
     kryo.register(java.sql.Date.class);
     kryo.register(Time.class);
     kryo.register(Timestamp.class);
+    // Other types commonly held by rows
+    kryo.register(LocalDateTime.class);
+    kryo.register(BigDecimal.class);
+    kryo.register(HashMap.class);
+    kryo.register(LinkedHashMap.class);
+    return kryo;
   }
 
   public byte[] fromRemoteDirectiveResponse(RemoteDirectiveResponse response) {
-    Output output = new Output(1024, -1);
-    kryo.writeClassAndObject(output, response);
-    return output.getBuffer();
+    Output output = OUTPUT.get();
+    try {
+      return POOL.run(kryo -> {
+        kryo.writeClassAndObject(output, response);
+        return output.toBytes();
+      });
+    } finally {
+      output.clear();
+      if (output.getBuffer().length > MAX_RETAINED_BUFFER_SIZE) {
+        OUTPUT.remove();
+      }
+    }
   }
 
   public RemoteDirectiveResponse toRemoteDirectiveResponse(byte[] bytes) {
     Input input = new Input(bytes);
-    return (RemoteDirectiveResponse) kryo.readClassAndObject(input);
+    return POOL.run(kryo -> (RemoteDirectiveResponse) kryo.readClassAndObject(input));
   }
 
+  /**
+   * Writes a {@link Schema} as its json representation, which is much more compact than its java serialized form.
+   */
+  static class SchemaSerializer extends Serializer<Schema> {
+
+    @Override
+    public void write(Kryo kryo, Output output, Schema schema) {
+      output.writeString(schema.toString());
+    }
+
+    @Override
+    public Schema read(Kryo kryo, Input input, Class<Schema> type) {
+      try {
+        return Schema.parseJson(input.readString());
+      } catch (IOException e) {
+        throw new KryoException("Failed to read schema", e);
+      }
+    }
+  }
+
+  /**
+   * Writes a {@link JsonElement} tree node by node, without going through its string representation.
+   */
   static class JsonSerializer extends Serializer<JsonElement> {
+    private static final byte NULL = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte NUMBER = 3;
+    private static final byte STRING = 4;
+    private static final byte ARRAY = 5;
+    private static final byte OBJECT = 6;
 
     @Override
-    public void write(Kryo kryo, Output output, JsonElement object) {
-      output.writeString(GSON.toJson(object));
+    public void write(Kryo kryo, Output output, JsonElement element) {
+      if (element.isJsonNull()) {
+        output.writeByte(NULL);
+      } else if (element.isJsonArray()) {
+        JsonArray array = element.getAsJsonArray();
+        output.writeByte(ARRAY);
+        output.writeInt(array.size(), true);
+        for (JsonElement child : array) {
+          write(kryo, output, child);
+        }
+      } else if (element.isJsonObject()) {
+        JsonObject object = element.getAsJsonObject();
+        output.writeByte(OBJECT);
+        output.writeInt(object.entrySet().size(), true);
+        for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+          output.writeString(entry.getKey());
+          write(kryo, output, entry.getValue());
+        }
+      } else {
+        JsonPrimitive primitive = element.getAsJsonPrimitive();
+        if (primitive.isBoolean()) {
+          output.writeByte(primitive.getAsBoolean() ? TRUE : FALSE);
+        } else if (primitive.isNumber()) {
+          output.writeByte(NUMBER);
+          output.writeString(primitive.getAsNumber().toString());
+        } else {
+          output.writeByte(STRING);
+          output.writeString(primitive.getAsString());
+        }
+      }
     }
 
     @Override
     public JsonElement read(Kryo kryo, Input input, Class<JsonElement> type) {
-      return GSON.fromJson(input.readString(), type);
+      return read(input);
+    }
+
+    private JsonElement read(Input input) {
+      byte tag = input.readByte();
+      switch (tag) {
+        case NULL:
+          return JsonNull.INSTANCE;
+        case TRUE:
+          return new JsonPrimitive(true);
+        case FALSE:
+          return new JsonPrimitive(false);
+        case NUMBER:
+          // Same representation as the numbers parsed by gson
+          return new JsonPrimitive(new LazilyParsedNumber(input.readString()));
+        case STRING:
+          return new JsonPrimitive(input.readString());
+        case ARRAY:
+          JsonArray array = new JsonArray();
+          for (int i = input.readInt(true); i > 0; i--) {
+            array.add(read(input));
+          }
+          return array;
+        case OBJECT:
+          JsonObject object = new JsonObject();
+          for (int i = input.readInt(true); i > 0; i--) {
+            String key = input.readString();
+            object.add(key, read(input));
+          }
+          return object;
+        default:
+          throw new KryoException("Unknown json element type " + tag);
+      }
     }
   }
 }
@@ -0,0 +1,445 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.utils;
+
+import org.unix4j.Unix4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A sed script compiled once and applied to many values, with the same results as running the value through
+ * {@code Unix4j.echo(value).sed(script)}.
+ *
+ * The substitute ({@code s/regex/replacement/flags}) and translate ({@code y/source/dest/}) commands are executed
+ * directly with a precompiled {@link Pattern} or character map. Other commands, and values that Unix4j would parse as
+ * echo options or variables, are still handed to Unix4j. Like Unix4j, errors in the script are only reported when the
+ * script is applied.
+ *
+ * Instances are not thread safe.
+ */
+public final class SedScript {
+  private static final char SUBSTITUTE = 's';
+  private static final char TRANSLATE = 'y';
+
+  private final String script;
+  private final Command command;
+
+  private SedScript(String script, Command command) {
+    this.script = script;
+    this.command = command;
+  }
+
+  /**
+   * Compiles a sed script.
+   *
+   * @param script the sed script
+   * @return the compiled script
+   */
+  public static SedScript compile(String script) {
+    Command command;
+    try {
+      int start = findStartTrimWhitespace(script, 0);
+      if (start >= script.length()) {
+        throw new IllegalArgumentException("command missing or invalid in sed script: " + script);
+      }
+      switch (script.charAt(start)) {
+        case SUBSTITUTE:
+          command = Substitute.parse(script, start);
+          break;
+        case TRANSLATE:
+          command = Translate.parse(script, start);
+          break;
+        default:
+          command = value -> Unix4j.echo(value).sed(script).toStringResult();
+      }
+    } catch (IllegalArgumentException e) {
+      command = value -> {
+        throw e;
+      };
+    }
+    return new SedScript(script, command);
+  }
+
+  /**
+   * Applies the script to a value.
+   *
+   * @param value the value to transform
+   * @return the transformed value
+   * @throws IllegalArgumentException if the script is invalid
+   * @throws IndexOutOfBoundsException if the replacement refers to a group that is not in the regex
+   */
+  public String apply(String value) {
+    // Unix4j parses the echoed value as an argument, so values starting with '-' or '$' are turned into echo
+    // options or variables. They keep going through Unix4j to get the same results.
+    if (!value.isEmpty() && (value.charAt(0) == '-' || value.charAt(0) == '$')) {
+      return Unix4j.echo(value).sed(script).toStringResult();
+    }
+    return command.apply(value);
+  }
+
+  @Override
+  public String toString() {
+    return script;
+  }
+
+  /**
+   * A compiled sed command.
+   */
+  private interface Command {
+    String apply(String value);
+  }
+
+  /**
+   * The substitute command, with the same parsing rules and matching loop as the Unix4j sed substitute processor.
+   */
+  private static final class Substitute implements Command {
+    private final Pattern regex;
+    private final Replacement replacement;
+    private final int occurrence;
+    private final boolean global;
+    private final StringBuilder buffer = new StringBuilder();
+    private Matcher matcher;
+
+    private Substitute(Pattern regex, Replacement replacement, int occurrence, boolean global) {
+      this.regex = regex;
+      this.replacement = replacement;
+      this.occurrence = occurrence;
+      this.global = global;
+    }
+
+    static Substitute parse(String script, int start) {
+      int regexEnd = indexOfNextDelimiter(script, start + 1);
+      int replacementEnd = indexOfNextDelimiter(script, regexEnd);
+      if (regexEnd < 0 || replacementEnd < 0) {
+        throw new IllegalArgumentException("invalid script for sed substitute command: " + script);
+      }
+
+      int flagsStart = replacementEnd + 1;
+      int flagsEnd = findWhitespace(script, flagsStart);
+      if (flagsEnd < findEndTrimWhitespace(script)) {
+        throw new IllegalArgumentException(
+          "extra non-whitespace characters found after substitute command in sed script: " + script);
+      }
+      boolean global = false;
+      boolean ignoreCase = false;
+      int occurrence = 0;
+      // g, p and I flags are read backwards from the end, whatever is left before them is the occurrence
+      int idx = flagsEnd - 1;
+      for (; idx >= flagsStart; idx--) {
+        char flag = script.charAt(idx);
+        if (flag == 'g') {
+          global = true;
+        } else if (flag == 'I') {
+          ignoreCase = true;
+        } else if (flag != 'p') {
+          break;
+        }
+      }
+      if (idx >= flagsStart) {
+        try {
+          occurrence = Integer.parseInt(script.substring(flagsStart, idx + 1));
+        } catch (NumberFormatException e) {
+          throw new IllegalArgumentException("invalid substitute flags in sed script: " + script, e);
+        }
+        if (occurrence <= 0) {
+          throw new IllegalArgumentException("invalid occurrence index " + occurrence + " in sed script: " + script);
+        }
+      }
+
+      String regex = script.substring(start + 2, regexEnd);
+      Pattern pattern = ignoreCase ? Pattern.compile(regex, Pattern.CASE_INSENSITIVE) : Pattern.compile(regex);
+      Replacement replacement = new Replacement(script.substring(regexEnd + 1, replacementEnd),
+                                                pattern.matcher("").groupCount());
+      return new Substitute(pattern, replacement, occurrence, global);
+    }
+
+    @Override
+    public String apply(String value) {
+      Matcher matcher = this.matcher == null ? (this.matcher = regex.matcher(value)) : this.matcher.reset(value);
+      if (!matcher.find()) {
+        return value;
+      }
+
+      buffer.setLength(0);
+      int position = 0;
+      boolean found = true;
+      if (occurrence > 0) {
+        for (int count = 1; found && count < occurrence; count++) {
+          found = matcher.find();
+        }
+        if (found) {
+          position = replace(matcher, value, position);
+          found = global && matcher.find();
+        }
+      }
+      while (found) {
+        position = replace(matcher, value, position);
+        found = global && matcher.find();
+      }
+      return buffer.append(value, position, value.length()).toString();
+    }
+
+    private int replace(Matcher matcher, String value, int position) {
+      buffer.append(value, position, matcher.start());
+      replacement.appendTo(buffer, matcher, value);
+      return matcher.end();
+    }
+  }
+
+  /**
+   * A replacement string, parsed once with the rules of {@link Matcher#appendReplacement}: '\' escapes the next
+   * character, {@code $n} refers to a numbered group and {@code ${name}} to a named group. An invalid replacement fails
+   * when it is first used, just like {@link Matcher#appendReplacement}.
+   */
+  private static final class Replacement {
+    private final List<Object> parts = new ArrayList<>();
+    private RuntimeException error;
+
+    Replacement(String replacement, int groupCount) {
+      try {
+        parse(replacement, groupCount);
+      } catch (RuntimeException e) {
+        error = e;
+      }
+    }
+
+    private void parse(String replacement, int groupCount) {
+      StringBuilder literal = new StringBuilder();
+      int cursor = 0;
+      while (cursor < replacement.length()) {
+        char next = replacement.charAt(cursor);
+        if (next == '\\') {
+          cursor++;
+          if (cursor == replacement.length()) {
+            throw new IllegalArgumentException("character to be escaped is missing");
+          }
+          literal.append(replacement.charAt(cursor++));
+        } else if (next == '$') {
+          cursor++;
+          if (cursor == replacement.length()) {
+            throw new IllegalArgumentException("Illegal group reference: group index is missing");
+          }
+          if (literal.length() > 0) {
+            parts.add(literal.toString());
+            literal.setLength(0);
+          }
+          next = replacement.charAt(cursor);
+          if (next == '{') {
+            cursor++;
+            int nameStart = cursor;
+            while (cursor < replacement.length() && isAsciiLetterOrDigit(replacement.charAt(cursor))) {
+              cursor++;
+            }
+            String name = replacement.substring(nameStart, cursor);
+            if (name.isEmpty()) {
+              throw new IllegalArgumentException("named capturing group has 0 length name");
+            }
+            if (cursor == replacement.length() || replacement.charAt(cursor) != '}') {
+              throw new IllegalArgumentException("named capturing group is missing trailing '}'");
+            }
+            if (name.charAt(0) >= '0' && name.charAt(0) <= '9') {
+              throw new IllegalArgumentException("capturing group name {" + name + "} starts with digit character");
+            }
+            cursor++;
+            parts.add(new NamedGroup(name));
+          } else {
+            int group = next - '0';
+            if (group < 0 || group > 9) {
+              throw new IllegalArgumentException("Illegal group reference");
+            }
+            cursor++;
+            // takes the longest group number that exists in the regex
+            while (cursor < replacement.length()) {
+              int digit = replacement.charAt(cursor) - '0';
+              if (digit < 0 || digit > 9 || group * 10 + digit > groupCount) {
+                break;
+              }
+              group = group * 10 + digit;
+              cursor++;
+            }
+            if (group > groupCount) {
+              throw new IndexOutOfBoundsException("No group " + group);
+            }
+            parts.add(group);
+          }
+        } else {
+          literal.append(next);
+          cursor++;
+        }
+      }
+      if (literal.length() > 0) {
+        parts.add(literal.toString());
+      }
+    }
+
+    void appendTo(StringBuilder buffer, Matcher matcher, String value) {
+      if (error != null) {
+        throw error;
+      }
+      for (Object part : parts) {
+        if (part instanceof String) {
+          buffer.append((String) part);
+        } else if (part instanceof Integer) {
+          int group = (Integer) part;
+          if (matcher.start(group) != -1) {
+            buffer.append(value, matcher.start(group), matcher.end(group));
+          }
+        } else {
+          String name = ((NamedGroup) part).name;
+          int start;
+          try {
+            start = matcher.start(name);
+          } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("No group with name {" + name + "}");
+          }
+          if (start != -1) {
+            buffer.append(value, start, matcher.end(name));
+          }
+        }
+      }
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+      return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+  }
+
+  /**
+   * Reference to a named group in a replacement.
+   */
+  private static final class NamedGroup {
+    private final String name;
+
+    NamedGroup(String name) {
+      this.name = name;
+    }
+  }
+
+  /**
+   * The translate command, mapping each character of the source to the character at the same position in the
+   * destination. Extra characters in the longer of the two are ignored, as in Unix4j.
+   */
+  private static final class Translate implements Command {
+    private final char[] latin = new char[256];
+    private final Map<Character, Character> others = new HashMap<>();
+    private final StringBuilder buffer = new StringBuilder();
+
+    static Translate parse(String script, int start) {
+      int sourceEnd = indexOfNextDelimiter(script, start + 1);
+      int destEnd = indexOfNextDelimiter(script, sourceEnd);
+      if (sourceEnd < 0 || destEnd < 0) {
+        throw new IllegalArgumentException("invalid script for sed translate command: " + script);
+      }
+      if (destEnd + 1 < findEndTrimWhitespace(script)) {
+        throw new IllegalArgumentException(
+          "non-whitespace characters found after translate command in sed script: " + script);
+      }
+      String source = script.substring(start + 2, sourceEnd);
+      String dest = script.substring(sourceEnd + 1, destEnd);
+      Translate translate = new Translate();
+      for (int i = 0; i < Math.min(source.length(), dest.length()); i++) {
+        char from = source.charAt(i);
+        char to = dest.charAt(i);
+        if (to == 0) {
+          throw new IllegalArgumentException("cannot map to zero character");
+        }
+        if (from < translate.latin.length) {
+          translate.latin[from] = to;
+        } else {
+          translate.others.put(from, to);
+        }
+      }
+      return translate;
+    }
+
+    @Override
+    public String apply(String value) {
+      buffer.setLength(0);
+      boolean changed = false;
+      for (int i = 0; i < value.length(); i++) {
+        char c = value.charAt(i);
+        char mapped = map(c);
+        changed |= mapped != 0;
+        buffer.append(mapped == 0 ? c : mapped);
+      }
+      return changed ? buffer.toString() : value;
+    }
+
+    private char map(char c) {
+      if (c < latin.length) {
+        return latin[c];
+      }
+      Character mapped = others.get(c);
+      return mapped == null ? 0 : mapped;
+    }
+  }
+
+  /**
+   * Returns the index of the next occurrence of the delimiter at the given index that is not escaped with a '\', or -1.
+   */
+  private static int indexOfNextDelimiter(String script, int delimiterIndex) {
+    if (delimiterIndex < 0 || delimiterIndex >= script.length()) {
+      return -1;
+    }
+    char delimiter = script.charAt(delimiterIndex);
+    if (delimiter == '\\') {
+      throw new IllegalArgumentException("invalid delimiter '\\' in sed script: " + script);
+    }
+    int idx = delimiterIndex;
+    do {
+      idx = script.indexOf(delimiter, idx + 1);
+    } while (idx >= 0 && isEscaped(script, idx));
+    return idx;
+  }
+
+  private static boolean isEscaped(String script, int idx) {
+    int backslashes = 0;
+    for (int i = idx - 1; i >= 0 && script.charAt(i) == '\\'; i--) {
+      backslashes++;
+    }
+    return backslashes % 2 == 1;
+  }
+
+  private static int findStartTrimWhitespace(String script, int start) {
+    int idx = start;
+    while (idx < script.length() && Character.isWhitespace(script.charAt(idx))) {
+      idx++;
+    }
+    return idx;
+  }
+
+  private static int findWhitespace(String script, int start) {
+    int idx = start;
+    while (idx < script.length() && !Character.isWhitespace(script.charAt(idx))) {
+      idx++;
+    }
+    return idx;
+  }
+
+  private static int findEndTrimWhitespace(String script) {
+    int idx = script.length();
+    while (idx > 0 && Character.isWhitespace(script.charAt(idx - 1))) {
+      idx--;
+    }
+    return idx;
+  }
+}
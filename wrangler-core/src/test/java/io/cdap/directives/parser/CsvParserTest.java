@@ -17,6 +17,7 @@
 package io.cdap.directives.parser;
 
 import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.Pair;
 import io.cdap.wrangler.api.Row;
 import org.junit.Assert;
 import org.junit.Test;
@@ -142,4 +143,27 @@ public class CsvParserTest {
     Assert.assertEquals("0033445566", rows.get(0).getValue("student_id"));
     Assert.assertEquals("0044333433", rows.get(1).getValue("student_id"));
   }
+
+  @Test
+  public void testMultipleRecordsAndErrors() throws Exception {
+    String[] directives = new String[] { "parse-as-csv body , false" };
+
+    List<Row> rows = Arrays.asList(
+      new Row("body", "a,\"b,c\"\r\n\nd,\"e\"\"f\""),
+      new Row("body", "a,\"b"),
+      new Row("body", "g,h,i")
+    );
+
+    Pair<List<Row>, List<Row>> result = TestingRig.executeWithErrors(directives, rows);
+    rows = result.getFirst();
+    Assert.assertEquals(2, rows.size());
+    Assert.assertEquals(1, result.getSecond().size());
+    Assert.assertEquals(Arrays.asList("body", "body_1", "body_2", "body_1", "body_2"),
+                        Arrays.asList(rows.get(0).getColumn(0), rows.get(0).getColumn(1), rows.get(0).getColumn(2),
+                                      rows.get(0).getColumn(3), rows.get(0).getColumn(4)));
+    Assert.assertEquals("b,c", rows.get(0).getValue(2));
+    Assert.assertEquals("e\"f", rows.get(0).getValue(4));
+    Assert.assertEquals(4, rows.get(1).width());
+    Assert.assertEquals("i", rows.get(1).getValue("body_3"));
+  }
 }
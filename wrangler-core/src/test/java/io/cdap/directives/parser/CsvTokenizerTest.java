@@ -0,0 +1,94 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.directives.parser;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests {@link CsvTokenizer} against the commons-csv parser it replaces.
+ */
+public class CsvTokenizerTest {
+
+  @Test
+  public void testRecords() {
+    CsvTokenizer tokenizer = new CsvTokenizer(',');
+    Assert.assertTrue(tokenizer.tokenize("a,\"b,\"\"c\"\"\" ,\n\r\n\"d\ne\",f\r\ng,"));
+    Assert.assertEquals(3, tokenizer.records());
+    Assert.assertEquals(Arrays.asList("a", "b,\"c\"", ""), tokenizer.record(0));
+    Assert.assertEquals(Arrays.asList("d\ne", "f"), tokenizer.record(1));
+    Assert.assertEquals(Arrays.asList("g", ""), tokenizer.record(2));
+
+    Assert.assertTrue(tokenizer.tokenize("\n\n"));
+    Assert.assertEquals(0, tokenizer.records());
+    Assert.assertFalse(tokenizer.tokenize("a,\"b"));
+    Assert.assertFalse(tokenizer.tokenize("\"a\"b"));
+  }
+
+  @Test
+  public void testSameAsCommonsCsv() throws Exception {
+    Random random = new Random(42L);
+    char[] alphabet = {'a', 'b', ' ', ',', ';', '\t', '"', '"', '\r', '\n'};
+    for (char delimiter : new char[] {',', ';', '\t', ' '}) {
+      CSVFormat format = CSVFormat.DEFAULT.withDelimiter(delimiter);
+      CsvTokenizer tokenizer = new CsvTokenizer(delimiter);
+      for (int i = 0; i < 5000; i++) {
+        char[] text = new char[random.nextInt(20)];
+        for (int j = 0; j < text.length; j++) {
+          text[j] = alphabet[random.nextInt(alphabet.length)];
+        }
+        String line = new String(text);
+        List<List<String>> expected = parse(line, format);
+        if (expected == null) {
+          Assert.assertFalse(line, tokenizer.tokenize(line));
+          continue;
+        }
+        Assert.assertTrue(line, tokenizer.tokenize(line));
+        List<List<String>> actual = new ArrayList<>();
+        for (int j = 0; j < tokenizer.records(); j++) {
+          actual.add(new ArrayList<>(tokenizer.record(j)));
+        }
+        Assert.assertEquals(line, expected, actual);
+      }
+    }
+  }
+
+  private static List<List<String>> parse(String line, CSVFormat format) {
+    try (CSVParser parser = CSVParser.parse(line, format)) {
+      List<List<String>> records = new ArrayList<>();
+      for (CSVRecord record : parser.getRecords()) {
+        List<String> values = new ArrayList<>();
+        for (String value : record) {
+          values.add(value);
+        }
+        records.add(values);
+      }
+      return records;
+    } catch (IOException e) {
+      return null;
+    }
+  }
+}
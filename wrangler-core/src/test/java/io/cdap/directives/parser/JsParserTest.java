@@ -16,13 +16,20 @@
 
 package io.cdap.directives.parser;
 
+import com.google.gson.JsonParser;
 import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.Directive;
 import io.cdap.wrangler.api.Row;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
 
 /**
  * Tests {@link JsParser}
@@ -267,4 +274,104 @@ public class JsParserTest {
     Assert.assertNotEquals(rows.get(0).find("body6_name_first_n"), -1);
     Assert.assertNotEquals(rows.get(0).find("body6_name_first_m"), -1);
   }
+
+  @Test
+  public void testProjectedColumns() throws Exception {
+    List<Directive> directives = TestingRig.parse(new String[] { "parse-as-json :body 2" }).parse();
+    JsParser parser = (JsParser) directives.get(0);
+    Set<String> used = parser.project(new LinkedHashSet<>(Arrays.asList("BODY_A_B", "body_c", "other")));
+    Assert.assertEquals(new LinkedHashSet<>(Arrays.asList("BODY_A_B", "body_c", "other", "body")), used);
+
+    Row row = new Row("other", 1).add("body", "{\"a\":{\"b\":{\"x\":1},\"c\":2},\"c\":[1,2],\"d\":true,\"e\":{}}");
+    List<Row> rows = parser.execute(new ArrayList<>(Collections.singletonList(row)), null);
+    Assert.assertEquals(1, rows.size());
+    Assert.assertEquals(3, rows.get(0).width());
+    Assert.assertEquals(1, rows.get(0).getValue("other"));
+    Assert.assertEquals("{\"x\":1}", rows.get(0).getValue("body_a_b").toString());
+    Assert.assertEquals("[1,2]", rows.get(0).getValue("body_c").toString());
+  }
+
+  @Test
+  public void testProjectionKeepsResults() throws Exception {
+    Random random = new Random(42L);
+    for (int i = 0; i < 300; i++) {
+      String document = randomObject(random, 0);
+      int depth = 1 + random.nextInt(3);
+      String parse = String.format("parse-as-json :body %d", depth);
+      List<Row> all = TestingRig.execute(new String[] { parse }, Collections.singletonList(new Row("body", document)));
+
+      // Keeps some of the columns, in a different case or as prefixes for some of them
+      List<String> keep = new ArrayList<>(Collections.singletonList(":id"));
+      for (int j = 0; j < all.get(0).width(); j++) {
+        String column = all.get(0).getColumn(j);
+        if (random.nextInt(3) == 0) {
+          keep.add(":" + (random.nextBoolean() ? column : column.toUpperCase()));
+        } else if (random.nextInt(4) == 0 && column.lastIndexOf('_') > 4) {
+          keep.add(":" + column.substring(0, column.lastIndexOf('_')));
+        }
+      }
+      String keepColumns = "keep " + String.join(",", keep);
+
+      // The projection is pushed down to parse-as-json through rename, drop and json-path, but not set-column.
+      String[] projected = new String[] {
+        parse, "rename :id :ident", "json-path :ident :json '$'", "drop :ident", keepColumns
+      };
+      String[] notProjected = new String[] {
+        parse, "set-column :unused 1", "rename :id :ident", "json-path :ident :json '$'", "drop :ident", keepColumns
+      };
+      for (boolean parsed : new boolean[] { false, true }) {
+        Row row = new Row("id", "7").add("body", parsed ? new JsonParser().parse(document) : document);
+        Row expected = new Row("id", "7").add("body", parsed ? new JsonParser().parse(document) : document);
+        List<Row> actual = TestingRig.execute(projected, Collections.singletonList(row));
+        List<Row> expectedRows = TestingRig.execute(notProjected, Collections.singletonList(expected));
+        Assert.assertEquals(1, actual.size());
+        Assert.assertEquals(document, toString(expectedRows.get(0)), toString(actual.get(0)));
+      }
+    }
+  }
+
+  private static String randomObject(Random random, int level) {
+    String[] keys = { "a", "b", "c", "d_e", "A", "x_1" };
+    StringBuilder object = new StringBuilder("{");
+    for (int i = random.nextInt(level < 3 ? 6 : 3); i > 0; i--) {
+      object.append('"').append(keys[random.nextInt(keys.length)]).append("\":");
+      switch (random.nextInt(level < 3 ? 9 : 7)) {
+        case 0:
+          object.append(random.nextInt(1000) - 500);
+          break;
+        case 1:
+          object.append(random.nextBoolean() ? "1.5" : "2e3");
+          break;
+        case 2:
+          object.append("\"text\\\"").append(i).append('"');
+          break;
+        case 3:
+          object.append(random.nextBoolean() ? "true" : "null");
+          break;
+        case 4:
+          object.append("[1,{\"a\":[]},\"s\"]");
+          break;
+        case 5:
+          object.append("{}");
+          break;
+        case 6:
+          object.append("\"\"");
+          break;
+        default:
+          object.append(randomObject(random, level + 1));
+      }
+      object.append(i > 1 ? "," : "");
+    }
+    return object.append('}').toString();
+  }
+
+  private static String toString(Row row) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < row.width(); i++) {
+      Object value = row.getValue(i);
+      builder.append(row.getColumn(i)).append('=').append(value)
+        .append(" (").append(value == null ? null : value.getClass().getSimpleName()).append(") ");
+    }
+    return builder.toString();
+  }
 }
@@ -83,4 +83,27 @@ public class JsPathTest {
     Assert.assertEquals(1, rows.size());
     Assert.assertEquals(8, rows.get(0).getValue("s6"));
   }
+
+  @Test
+  public void testPathsOnManyRows() throws Exception {
+    String[] directives = new String[] {
+      "parse-as-json :body 1",
+      "json-path :body_name :first '$.first'",
+      "json-path :body_name :last '$.last'",
+      "json-path :body_name :body_name '$.last'",
+      "keep :first,:last,:body_name"
+    };
+    List<Row> rows = Arrays.asList(
+      new Row("body", "{\"name\":{\"first\":\"Root\",\"last\":\"Joltie\"},\"age\":22}"),
+      new Row("body", "{\"name\":{\"first\":\"Jane\",\"last\":\"Doe\"},\"age\":31}")
+    );
+
+    rows = TestingRig.execute(directives, rows);
+    Assert.assertEquals(2, rows.size());
+    Assert.assertEquals("Root", rows.get(0).getValue("first"));
+    Assert.assertEquals("Joltie", rows.get(0).getValue("body_name"));
+    Assert.assertEquals("Jane", rows.get(1).getValue("first"));
+    Assert.assertEquals("Doe", rows.get(1).getValue("last"));
+    Assert.assertEquals(3, rows.get(1).width());
+  }
 }
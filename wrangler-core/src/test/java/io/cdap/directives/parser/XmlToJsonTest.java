@@ -16,14 +16,21 @@
 
 package io.cdap.directives.parser;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import io.cdap.directives.xml.XmlToJson;
 import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.RecipeException;
 import io.cdap.wrangler.api.Row;
+import org.json.XML;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 /**
  * Tests {@link XmlToJson}
@@ -51,4 +58,159 @@ public class XmlToJsonTest {
     Assert.assertEquals("{\"tagid\":3.03246306303E19}", rows.get(0).getValue("body_2_Data").toString());
     Assert.assertEquals("{\"tagid\":\"303246306303E8\"}", rows.get(0).getValue("body_3_Data").toString());
   }
+
+  private static final String[] NAMES = { "a", "b", "c", "p:d", "e-f", "g.h", "content" };
+  private static final String[] ATTRIBUTES = { "x", "y", "p:z", "xmlns:p", "id" };
+  private static final String[] VALUES = {
+    "1", "-2", "3.5", "2.0", "1e3", "007", "-0", "0.0", "true", "FALSE", "null", "text", "  padded  ", "",
+    "12345678901234567890", "1.0E7", "123456789", "1.5f", "-1e999", "a&amp;b", "&lt;tag&gt;", "&#65;BC", "0x1F"
+  };
+
+  @Test
+  public void testSameOutputAsJsonConversion() throws Exception {
+    List<String> documents = new ArrayList<>(Arrays.asList(
+      "<a/>",
+      "<a></a>",
+      "<a>  </a>",
+      "<a x=\"1\"/>",
+      "<a x=\"1\">text</a>",
+      "<a>1<b/>2</a>",
+      "<a>1<!-- comment -->2<?pi data?>3</a>",
+      "<a><![CDATA[5]]></a>",
+      "<a>x<![CDATA[ y ]]>z<![CDATA[]]></a>",
+      "<a><b>1</b><c>2</c><b>3</b></a>",
+      "<a><b>x<!---->y</b><b>z</b></a>",
+      "<a><content>1</content>2<content>3</content></a>",
+      "<p:a xmlns:p=\"urn:p\" xmlns=\"urn:d\" p:x=\"true\"><p:b>null</p:b></p:a>",
+      "<?xml version=\"1.0\"?><!DOCTYPE a><!-- c --><a>  \u2003 v \n</a>",
+      "<Data><tagid>303246306303E8</tagid><n>2.50</n><m>-0</m><o>007</o></Data>"
+    ));
+    Random random = new Random(42L);
+    for (int i = 0; i < 500; i++) {
+      StringBuilder document = new StringBuilder();
+      if (random.nextBoolean()) {
+        document.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+      }
+      appendElement(random, document, 0);
+      documents.add(document.toString());
+    }
+
+    for (int depth : new int[] { 0, 1, 2, 100 }) {
+      for (boolean keepString : new boolean[] { false, true }) {
+        List<Row> rows = new ArrayList<>();
+        for (String document : documents) {
+          rows.add(new Row("body", document));
+        }
+        rows = TestingRig.execute(new String[] {
+          String.format("parse-xml-to-json :body %d %s", depth, keepString)
+        }, rows);
+
+        Assert.assertEquals(documents.size(), rows.size());
+        for (int i = 0; i < documents.size(); i++) {
+          assertSameRow(documents.get(i), expected(documents.get(i), depth, keepString), rows.get(i));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testDocumentsOnlyAcceptedByJsonConversion() throws Exception {
+    String[] documents = new String[] {
+      "<a>1</a><b>2</b>",
+      "<a>&nbsp;x</a>",
+      "<a x=1 y=\"2\">3</a>",
+      "<!DOCTYPE a [<!ENTITY e \"E\">]><a>&e;</a>"
+    };
+    for (String document : documents) {
+      List<Row> rows = TestingRig.execute(new String[] { "parse-xml-to-json :body" },
+                                          Arrays.asList(new Row("body", document)));
+      assertSameRow(document, expected(document, Integer.MAX_VALUE, false), rows.get(0));
+    }
+  }
+
+  @Test(expected = RecipeException.class)
+  public void testInvalidDocument() throws Exception {
+    TestingRig.execute(new String[] { "parse-xml-to-json :body" }, Arrays.asList(new Row("body", "<a><b></a>")));
+  }
+
+  @Test
+  public void testProjection() throws Exception {
+    String document = "<doc id=\"7\"><title lang=\"en\">Report</title><author><name>Ann</name><age>30</age></author>" +
+      "<items><item>1</item><item>2</item></items><skipped><x>1</x></skipped></doc>";
+    List<Row> rows = TestingRig.execute(new String[] {
+      "parse-xml-to-json :body 100 false 'doc/title, doc/author/name,doc/items/item'",
+      "parse-xml-to-json :body2 1 false 'doc/title'"
+    }, Arrays.asList(new Row("body", document).add("body2", document + "<extra/>")));
+
+    Row row = rows.get(0);
+    Assert.assertEquals(Arrays.asList("body_doc_author_name", "body_doc_title_lang", "body_doc_title_content",
+                                      "body_doc_items_item", "body2_doc"),
+                        columns(row));
+    Assert.assertEquals("Ann", row.getValue("body_doc_author_name"));
+    Assert.assertEquals("en", row.getValue("body_doc_title_lang"));
+    Assert.assertEquals("Report", row.getValue("body_doc_title_content"));
+    Assert.assertEquals("[1,2]", row.getValue("body_doc_items_item").toString());
+    Assert.assertEquals("{\"title\":{\"lang\":\"en\",\"content\":\"Report\"}}", row.getValue("body2_doc").toString());
+  }
+
+  private static void appendElement(Random random, StringBuilder document, int level) {
+    String name = NAMES[random.nextInt(NAMES.length - (level == 0 ? 1 : 0))];
+    document.append('<').append(name);
+    for (int i = random.nextInt(3); i > 0; i--) {
+      document.append(' ').append(ATTRIBUTES[random.nextInt(ATTRIBUTES.length)]).append(i)
+        .append("=\"").append(VALUES[random.nextInt(VALUES.length)]).append('"');
+    }
+    if (random.nextInt(5) == 0) {
+      document.append("/>");
+      return;
+    }
+    document.append('>');
+    for (int i = random.nextInt(level < 4 ? 5 : 2); i > 0; i--) {
+      switch (random.nextInt(level < 4 ? 7 : 4)) {
+        case 0:
+          document.append("<![CDATA[").append(random.nextBoolean() ? "x < y" : "42").append("]]>");
+          break;
+        case 1:
+          document.append(random.nextBoolean() ? "<!-- comment -->" : "<?pi data?>");
+          break;
+        case 2:
+        case 3:
+          document.append(random.nextBoolean() ? "\n  " : "").append(VALUES[random.nextInt(VALUES.length)]);
+          break;
+        default:
+          appendElement(random, document, level + 1);
+      }
+    }
+    document.append("</").append(name).append('>');
+  }
+
+  /**
+   * Flattens the document the way the directive did before it streamed the XML.
+   */
+  private static Row expected(String document, int depth, boolean keepString) {
+    Row row = new Row("body", document);
+    JsonObject element = new Gson().fromJson(XML.toJSONObject(document, keepString).toString(),
+                                             JsonElement.class).getAsJsonObject();
+    JsParser.jsonFlatten(element, "body", 1, depth, row);
+    row.remove(0);
+    return row;
+  }
+
+  private static void assertSameRow(String document, Row expected, Row actual) {
+    Assert.assertEquals(document, columns(expected), columns(actual));
+    for (int i = 0; i < expected.width(); i++) {
+      Object value = expected.getValue(i);
+      String message = document + " " + expected.getColumn(i);
+      Assert.assertEquals(message, value.getClass(), actual.getValue(i).getClass());
+      Assert.assertEquals(message, value.toString(), actual.getValue(i).toString());
+    }
+  }
+
+  private static List<String> columns(Row row) {
+    List<String> columns = new ArrayList<>();
+    for (int i = 0; i < row.width(); i++) {
+      columns.add(row.getColumn(i));
+    }
+    return columns;
+  }
 }
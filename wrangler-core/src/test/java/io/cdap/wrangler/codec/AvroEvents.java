@@ -0,0 +1,99 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.codec;
+
+import io.cdap.wrangler.api.Row;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.Assert;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records with nested values of all the Avro types, shared by the tests of the Avro decoders.
+ */
+final class AvroEvents {
+
+  static final Schema SCHEMA = new Schema.Parser().parse(
+    "{\"type\": \"record\", \"name\": \"Event\", \"fields\": [\n" +
+    "  {\"name\": \"id\", \"type\": \"long\"},\n" +
+    "  {\"name\": \"tags\", \"type\": {\"type\": \"array\", \"items\": \"string\"}},\n" +
+    "  {\"name\": \"attrs\", \"type\": {\"type\": \"map\", \"values\": \"string\"}},\n" +
+    "  {\"name\": \"user\", \"type\": {\"type\": \"record\", \"name\": \"User\", \"fields\": [\n" +
+    "    {\"name\": \"name\", \"type\": \"string\"},\n" +
+    "    {\"name\": \"age\", \"type\": [\"null\", \"int\"]}]}},\n" +
+    "  {\"name\": \"kind\", \"type\": {\"type\": \"enum\", \"name\": \"Kind\", \"symbols\": [\"A\", \"B\"]}},\n" +
+    "  {\"name\": \"hash\", \"type\": {\"type\": \"fixed\", \"name\": \"Hash\", \"size\": 2}},\n" +
+    "  {\"name\": \"payload\", \"type\": \"bytes\"}\n" +
+    "]}");
+
+  /**
+   * Encodes records of the {@link #SCHEMA} in a message.
+   */
+  interface MessageEncoder {
+    byte[] encode(GenericRecord... records) throws Exception;
+  }
+
+  private AvroEvents() {
+  }
+
+  /**
+   * Checks that a decoder reusing its records across messages returns the values of each message.
+   */
+  static void assertDecodedAcrossMessages(Decoder<Row> decoder, MessageEncoder encoder) throws Exception {
+    List<Row> first = decoder.decode(encoder.encode(event(1, "root", "a", "A", 1)));
+    List<Row> second = decoder.decode(encoder.encode(event(2, "ben", "b", "B", 2), event(3, "joe", "c", "A", 3)));
+
+    Assert.assertEquals(1, first.size());
+    Assert.assertEquals(2, second.size());
+    assertEvent(first.get(0), 1, "root", "a", "A", 1);
+    assertEvent(second.get(0), 2, "ben", "b", "B", 2);
+    assertEvent(second.get(1), 3, "joe", "c", "A", 3);
+  }
+
+  private static GenericRecord event(long id, String name, String tag, String kind, int b) {
+    GenericRecord user = new GenericData.Record(SCHEMA.getField("user").schema());
+    user.put("name", name);
+    user.put("age", b == 1 ? null : b * 10);
+    GenericRecord event = new GenericData.Record(SCHEMA);
+    event.put("id", id);
+    event.put("tags", Arrays.asList(tag, tag + tag));
+    event.put("attrs", Collections.singletonMap("k", tag));
+    event.put("user", user);
+    event.put("kind", new GenericData.EnumSymbol(SCHEMA.getField("kind").schema(), kind));
+    event.put("hash", new GenericData.Fixed(SCHEMA.getField("hash").schema(), new byte[] {(byte) b, (byte) b}));
+    event.put("payload", ByteBuffer.wrap(new byte[] {(byte) b}));
+    return event;
+  }
+
+  private static void assertEvent(Row row, long id, String name, String tag, String kind, int b) {
+    Assert.assertEquals(id, row.getValue("id"));
+    Assert.assertEquals(Arrays.asList(tag, tag + tag), row.getValue("tags"));
+    Assert.assertEquals(Collections.singletonMap("k", tag), (Map<?, ?>) row.getValue("attrs"));
+    Row user = (Row) row.getValue("user");
+    Assert.assertEquals(name, user.getValue("name"));
+    Assert.assertEquals(b == 1 ? null : b * 10, user.getValue("age"));
+    Assert.assertEquals(kind, row.getValue("kind"));
+    Assert.assertArrayEquals(new byte[] {(byte) b, (byte) b}, (byte[]) row.getValue("hash"));
+    Assert.assertEquals(ByteBuffer.wrap(new byte[] {(byte) b}), row.getValue("payload"));
+  }
+}
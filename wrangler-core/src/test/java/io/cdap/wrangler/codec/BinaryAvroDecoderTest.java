@@ -81,4 +81,21 @@ public class BinaryAvroDecoderTest {
     Assert.assertEquals("Root", rows.get(0).getValue("name"));
     Assert.assertEquals("Ben", rows.get(1).getValue("name"));
   }
+
+  @Test
+  public void testNestedValuesAcrossMessages() throws Exception {
+    AvroEvents.assertDecodedAcrossMessages(new BinaryAvroDecoder(AvroEvents.SCHEMA),
+                                           records -> encode(AvroEvents.SCHEMA, records));
+  }
+
+  private static byte[] encode(Schema schema, GenericRecord... records) throws Exception {
+    DatumWriter<GenericRecord> datumWriter = new GenericDatumWriter<>(schema);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryEncoder encoder = EncoderFactory.get().binaryEncoder(out, null);
+    for (GenericRecord record : records) {
+      datumWriter.write(record, encoder);
+    }
+    encoder.flush();
+    return out.toByteArray();
+  }
 }
@@ -82,4 +82,20 @@ public class JsonAvroDecoderTest {
     Assert.assertEquals("Ben", rows.get(1).getValue("name"));
   }
 
+  @Test
+  public void testNestedValuesAcrossMessages() throws Exception {
+    AvroEvents.assertDecodedAcrossMessages(new JsonAvroDecoder(AvroEvents.SCHEMA),
+                                           records -> encode(AvroEvents.SCHEMA, records));
+  }
+
+  private static byte[] encode(Schema schema, GenericRecord... records) throws Exception {
+    DatumWriter<GenericRecord> datumWriter = new GenericDatumWriter<>(schema);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    JsonEncoder encoder = EncoderFactory.get().jsonEncoder(schema, out);
+    for (GenericRecord record : records) {
+      datumWriter.write(record, encoder);
+    }
+    encoder.flush();
+    return out.toByteArray();
+  }
 }
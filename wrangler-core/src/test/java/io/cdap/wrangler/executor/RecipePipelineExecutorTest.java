@@ -18,13 +18,24 @@ package io.cdap.wrangler.executor;
 
 import io.cdap.cdap.api.data.format.StructuredRecord;
 import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.cdap.api.metrics.Metrics;
+import io.cdap.wrangler.TestingPipelineContext;
 import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.RecipeException;
 import io.cdap.wrangler.api.RecipePipeline;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.metrics.Constants;
 import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Tests {@link RecipePipelineExecutor}.
@@ -96,4 +107,224 @@ public class RecipePipelineExecutorTest {
     Assert.assertEquals(1481666448L, record.<Long>get("timestamp").longValue());
     Assert.assertEquals(186.66f, record.get("weight"), 0.0001f);
   }
+
+  @Test
+  public void testBatchExecution() throws Exception {
+    String[] commands = new String[] {
+      "split-to-rows body ,",
+      "send-to-error exp:{ body == 'bad' }",
+    };
+    Schema schema = Schema.recordOf(
+      "output",
+      Schema.Field.of("body", Schema.of(Schema.Type.INT))
+    );
+
+    RecipePipelineExecutor pipeline = (RecipePipelineExecutor) TestingRig.execute(commands);
+    List<BatchResult> results = pipeline.executeBatch(Arrays.asList(
+      new Row("body", "1,2"),
+      new Row("body", "bad"),
+      new Row("body", "x"),
+      new Row("body", "3")
+    ), schema);
+
+    Assert.assertEquals(4, results.size());
+
+    // Fan-out of the first row is kept together and in order.
+    Assert.assertEquals(2, results.get(0).getRecords().size());
+    Assert.assertEquals(1, (int) results.get(0).getRecords().get(0).get("body"));
+    Assert.assertEquals(2, (int) results.get(0).getRecords().get(1).get("body"));
+    Assert.assertTrue(results.get(0).getErrors().isEmpty());
+    Assert.assertNull(results.get(0).getFailure());
+
+    // Error is attributed to the second row only.
+    Assert.assertTrue(results.get(1).getRecords().isEmpty());
+    Assert.assertEquals(1, results.get(1).getErrors().size());
+    Assert.assertEquals("bad", results.get(1).getErrors().get(0).getRow().getValue("body"));
+
+    // Conversion failure of the third row does not abort the rest of the batch.
+    Assert.assertNotNull(results.get(2).getFailure());
+    Assert.assertTrue(results.get(2).getRecords().isEmpty());
+
+    Assert.assertEquals(3, (int) results.get(3).getRecords().get(0).get("body"));
+    Assert.assertNull(results.get(3).getFailure());
+    Assert.assertEquals(1, pipeline.errors().size());
+  }
+
+  @Test
+  public void testRowMappersAroundFanOut() throws Exception {
+    String[] commands = new String[] {
+      "lowercase body",
+      "rename body value",
+      "split-to-rows value ,",
+      "uppercase value",
+      "filter-row-if-true value == 'B'",
+      "set-column length value.length()",
+    };
+
+    List<Row> rows = TestingRig.execute(commands, Arrays.asList(
+      new Row("body", "A,B,CC"),
+      new Row("body", "B"),
+      new Row("body", "DDD")
+    ));
+
+    Assert.assertEquals(3, rows.size());
+    Assert.assertEquals("A", rows.get(0).getValue("value"));
+    Assert.assertEquals(1, rows.get(0).getValue("length"));
+    Assert.assertEquals("CC", rows.get(1).getValue("value"));
+    Assert.assertEquals(2, rows.get(1).getValue("length"));
+    Assert.assertEquals("DDD", rows.get(2).getValue("value"));
+    Assert.assertEquals(3, rows.get(2).getValue("length"));
+  }
+
+  @Test
+  public void testProfile() throws Exception {
+    String[] commands = new String[] {
+      "lowercase body",
+      "split-to-rows body ,",
+      "send-to-error exp:{ body == 'bad' }",
+      "filter-row-if-true body == 'b'",
+      "uppercase body",
+    };
+    RecipePipelineExecutor pipeline = (RecipePipelineExecutor) TestingRig.execute(commands);
+    Assert.assertNull(pipeline.getProfile());
+    pipeline.enableProfiling(1);
+
+    List<Row> rows = pipeline.execute(Arrays.asList(
+      new Row("body", "A,B,C"),
+      new Row("body", "BAD"),
+      new Row("body", "D")
+    ));
+    Assert.assertEquals(3, rows.size());
+
+    RecipeProfile profile = pipeline.getProfile();
+    Assert.assertNotNull(profile);
+    Assert.assertEquals(3, profile.getRows());
+    Assert.assertEquals(3, profile.getSampledRows());
+
+    List<DirectiveProfile> directives = profile.getDirectives();
+    Assert.assertEquals(5, directives.size());
+    long[][] expected = {
+      // rows in, rows out, errors
+      {3, 3, 0},
+      {3, 5, 0},
+      {5, 4, 1},
+      {4, 3, 0},
+      {3, 3, 0},
+    };
+    for (int i = 0; i < expected.length; i++) {
+      DirectiveProfile directive = directives.get(i);
+      Assert.assertEquals(i + 1, directive.getIndex());
+      Assert.assertEquals(expected[i][0], directive.getRowsIn());
+      Assert.assertEquals(expected[i][1], directive.getRowsOut());
+      Assert.assertEquals(expected[i][2], directive.getErrors());
+      Assert.assertTrue(directive.getNanos() > 0);
+    }
+    Assert.assertEquals("split-to-rows", directives.get(1).getName());
+  }
+
+  @Test
+  public void testProfileSampling() throws Exception {
+    RecipePipelineExecutor pipeline = (RecipePipelineExecutor) TestingRig.execute(new String[] {"uppercase body"});
+    pipeline.enableProfiling(4);
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      rows.add(new Row("body", "row" + i));
+    }
+    pipeline.execute(rows);
+
+    RecipeProfile profile = pipeline.getProfile();
+    Assert.assertEquals(10, profile.getRows());
+    Assert.assertEquals(3, profile.getSampledRows());
+    Assert.assertEquals(10, profile.getDirectives().get(0).getRowsIn());
+    Assert.assertEquals(10, profile.getDirectives().get(0).getRowsOut());
+    DirectiveProfile directive = profile.getDirectives().get(0);
+    Assert.assertEquals(3, directive.getSampledRowsIn());
+    Assert.assertEquals(Math.round(directive.getNanos() * 10 / 3.0), directive.getEstimatedNanos());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testProfileMetricsScaleSampledTime() throws Exception {
+    TestingPipelineContext context = new TestingPipelineContext();
+    Metrics child = Mockito.mock(Metrics.class);
+    Mockito.when(context.getMetrics().child(Mockito.anyMap())).thenReturn(child);
+
+    RecipePipelineExecutor pipeline = new RecipePipelineExecutor(TestingRig.parse(new String[] {
+      "uppercase body"
+    }), context);
+    pipeline.enableProfiling(4);
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      rows.add(new Row("body", "row" + i));
+    }
+    pipeline.execute(rows);
+
+    ArgumentCaptor<Long> time = ArgumentCaptor.forClass(Long.class);
+    Mockito.verify(child).countLong(Mockito.eq(RecipePipelineExecutor.DIRECTIVE_TIME_METRIC), time.capture());
+    Assert.assertEquals(pipeline.getProfile().getDirectives().get(0).getEstimatedNanos(), (long) time.getValue());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testProfileMetrics() throws Exception {
+    TestingPipelineContext context = new TestingPipelineContext();
+    Metrics child = Mockito.mock(Metrics.class);
+    Mockito.when(context.getMetrics().child(Mockito.anyMap())).thenReturn(child);
+
+    RecipePipelineExecutor pipeline = new RecipePipelineExecutor(TestingRig.parse(new String[] {
+      "split-to-rows body ,"
+    }), context);
+    pipeline.enableProfiling(1);
+    pipeline.execute(Arrays.asList(new Row("body", "a,b"), new Row("body", "c")));
+
+    Map<String, String> tags = new HashMap<>();
+    tags.put(Constants.Tags.DIRECTIVE_INDEX, "1");
+    tags.put(Constants.Tags.DIRECTIVE_NAME, "split-to-rows");
+    Mockito.verify(context.getMetrics()).child(tags);
+    Mockito.verify(child).countLong(RecipePipelineExecutor.DIRECTIVE_ROWS_IN_METRIC, 2L);
+    Mockito.verify(child).countLong(RecipePipelineExecutor.DIRECTIVE_ROWS_OUT_METRIC, 3L);
+    Mockito.verify(child).countLong(Mockito.eq(RecipePipelineExecutor.DIRECTIVE_TIME_METRIC), Mockito.anyLong());
+    Mockito.verify(child, Mockito.never()).countLong(Mockito.eq(RecipePipelineExecutor.DIRECTIVE_ERRORS_METRIC),
+                                                     Mockito.anyLong());
+
+    // Nothing new to emit
+    pipeline.close();
+    Mockito.verify(child, Mockito.times(3)).countLong(Mockito.anyString(), Mockito.anyLong());
+  }
+
+  @Test
+  public void testProjectionKeepsResults() throws Exception {
+    String[][] recipes = new String[][] {
+      // Fails as the target of the rename exists
+      { "parse-as-json :body 1", "rename :body_a :body_b", "keep :body_c" },
+      // Sets the destination of json-path in place
+      { "parse-as-json :body 1", "json-path :body_a :body_b '$'", "keep :body_b,:body_c" }
+    };
+    for (String[] recipe : recipes) {
+      // set-column does not tell which columns it uses, so the projection is not pushed down to parse-as-json
+      List<String> notProjected = new ArrayList<>(Arrays.asList(recipe));
+      notProjected.add(1, "set-column :unused 1");
+      Assert.assertEquals(executeProjection(notProjected.toArray(new String[0])), executeProjection(recipe));
+    }
+    Assert.assertTrue(executeProjection(recipes[0]).contains("Column 'body_b' already exists"));
+  }
+
+  /**
+   * Returns the columns and values of the rows produced by a recipe, or the error it fails with.
+   */
+  private static String executeProjection(String[] recipe) throws Exception {
+    try {
+      Row input = new Row("body", "{\"a\":1,\"b\":2,\"c\":3}");
+      List<Row> rows = TestingRig.execute(recipe, Collections.singletonList(input));
+      StringBuilder result = new StringBuilder();
+      for (Row row : rows) {
+        for (int i = 0; i < row.width(); i++) {
+          result.append(row.getColumn(i)).append('=').append(row.getValue(i)).append(';');
+        }
+      }
+      return result.toString();
+    } catch (RecipeException e) {
+      return e.getMessage();
+    }
+  }
 }
@@ -35,7 +35,7 @@ public class ELTest {
     EL el = EL.compile("a + b");
     ELResult execute = el.execute(new ELContext().add("a", 1).add("b", 2));
     Assert.assertNotNull(execute);
-    Assert.assertEquals(new Integer(3), execute.getInteger());
+    Assert.assertEquals(Integer.valueOf(3), execute.getInteger());
     Assert.assertTrue(el.variables().contains("a"));
     Assert.assertFalse(el.variables().contains("c"));
   }
@@ -194,4 +194,82 @@ public class ELTest {
     execute = el.execute(new ELContext().add("a", d1).add("b", d2));
     Assert.assertEquals(d1, execute.getObject());
   }
+
+  @Test
+  public void testCompiledScriptsAreCached() throws Exception {
+    String expression = "cached_a * 2 + cached_b";
+    long hits = EL.getCacheStats().hitCount();
+    long misses = EL.getCacheStats().missCount();
+
+    EL first = EL.compile(expression);
+    EL second = EL.compile(expression);
+    Assert.assertSame(first, second);
+    Assert.assertEquals(misses + 1, EL.getCacheStats().missCount());
+    Assert.assertEquals(hits + 1, EL.getCacheStats().hitCount());
+
+    ELResult result = second.execute(new ELContext().add("cached_a", 2).add("cached_b", 1));
+    Assert.assertEquals(Integer.valueOf(5), result.getInteger());
+  }
+
+  @Test
+  public void testInvalidScriptIsNotCached() throws Exception {
+    for (int i = 0; i < 2; i++) {
+      try {
+        EL.compile("a +* b");
+        Assert.fail("Expected compilation to fail");
+      } catch (ELException e) {
+        // expected
+      }
+    }
+  }
+
+  @Test
+  public void testNotSandboxedByDefault() throws Exception {
+    ELContext context = new ELContext().add("a", "value");
+    Assert.assertEquals(String.class, EL.compile("a.getClass()").execute(context).getObject());
+    Assert.assertEquals(String.class, EL.compile("a.class").execute(context).getObject());
+  }
+
+  @Test
+  public void testSandbox() throws Exception {
+    EL.setSandboxed(true);
+    try {
+      verifySandbox();
+    } finally {
+      EL.setSandboxed(false);
+    }
+  }
+
+  private static void verifySandbox() throws Exception {
+    String[] denied = new String[] {
+      "a.getClass()",
+      "a.class",
+      "math:forName('java.lang.Runtime')",
+      "new('java.lang.ProcessBuilder', a)",
+      "new('java.lang.Thread')"
+    };
+    for (String expression : denied) {
+      try {
+        EL.compile(expression).execute(new ELContext().add("a", "value"));
+        Assert.fail("Expected expression to be denied: " + expression);
+      } catch (ELException e) {
+        // expected
+      }
+    }
+    try {
+      EL.compile("a.getSecurityContext()").execute(new ELContext().add("a", new SecurityManager() { }));
+      Assert.fail("Expected security managers to be denied");
+    } catch (ELException e) {
+      // expected
+    }
+
+    Map<String, Object> map = new HashMap<>();
+    map.put("class", "value");
+    Assert.assertEquals("value", EL.compile("map['class']").execute(new ELContext().add("map", map)).getObject());
+    Assert.assertEquals(new BigDecimal("1.5"),
+                        EL.compile("new('java.math.BigDecimal', a)").execute(new ELContext().add("a", "1.5"))
+                          .getObject());
+    Assert.assertEquals("VALUE", EL.compile("a.toUpperCase()").execute(new ELContext().add("a", "value")).getObject());
+    Assert.assertEquals(2, EL.compile("math:max(a, 2)").execute(new ELContext().add("a", 1)).getObject());
+  }
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.expression;
+
+import io.cdap.wrangler.api.Row;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests {@link ExpressionCompiler} by comparing the results of compiled expressions with the ones of the interpreter.
+ */
+public class ExpressionCompilerTest {
+
+  private static final List<String> COMPILED = Arrays.asList(
+    "a + b", "a - b * c", "a / b", "a % b", "(a + b) * c", "-a", "-1", "-2.5", "a + 'x'", "s + a",
+    "a == b", "a != b", "a < b", "a <= b", "a > b", "a >= b", "a == null", "s == 'abc'",
+    "a > 1 && b < 10", "a > 1 || c", "!c", "c ? a : b", "s ?: 'default'", "missing ?: 'default'",
+    "math:max(a, b)", "math:abs(a)", "math:pow(a, 2)", "string:upperCase(s)", "string:substring(s, 1, 3)",
+    "toDouble(s)", "concat(s, 'x')", "coalesce(missing, s)", "number:AsInteger(a)", "dq:isEmail(s)",
+    "s.toUpperCase()", "s.length() > 2", "s.substring(1).length()", "this.width()", "body.name",
+    "body.name == 'x'", "missing", "missing + 1", "body.missing", "strlen(s) + a"
+  );
+
+  private static final List<Row> ROWS = Arrays.asList(
+    row(1, 2, true, "abc"),
+    row(10L, 3.5d, false, "12.5"),
+    row("5", "7", true, "a@b.com"),
+    row(new BigDecimal("1.25"), 4, false, ""),
+    row(null, 1, null, null),
+    row(7, 0, true, "xyz")
+  );
+
+  @Test
+  public void testSupportedExpressionsAreCompiled() throws Exception {
+    for (String expression : COMPILED) {
+      Assert.assertTrue(expression, EL.compile(expression).isCompiled());
+    }
+  }
+
+  @Test
+  public void testUnsupportedExpressionsAreInterpreted() throws Exception {
+    List<String> expressions = Arrays.asList("s =~ 'a.*'", "var x = a; x + 1", "a; b", "body['name']",
+                                             "size(s)", "empty(s)", "a.b = 1", "[a, b]");
+    for (String expression : expressions) {
+      EL el = EL.compile(expression);
+      Assert.assertFalse(expression, el.isCompiled());
+    }
+    EL el = EL.compile("s =~ 'a.*'");
+    Assert.assertEquals(true, el.execute(new ELContext().add("s", "abc")).getObject());
+  }
+
+  @Test
+  public void testSameResultsAsInterpreter() throws Exception {
+    for (String expression : COMPILED) {
+      EL el = EL.compile(expression);
+      for (Row row : ROWS) {
+        assertSameResult(el, row);
+      }
+    }
+  }
+
+  @Test
+  public void testFunctionResolvedForArgumentTypes() throws Exception {
+    EL el = EL.compile("math:max(a, b)");
+    Assert.assertEquals(3, el.execute(new ELContext().add("a", 1).add("b", 3)).getObject());
+    Assert.assertEquals(3.5d, el.execute(new ELContext().add("a", 1.5d).add("b", 3.5d)).getObject());
+    Assert.assertEquals(4L, el.execute(new ELContext().add("a", 4L).add("b", 3L)).getObject());
+  }
+
+  @Test(expected = ELException.class)
+  public void testUndefinedVariableFails() throws Exception {
+    EL.compile("a + undefined").execute(new ELContext().add("a", 1));
+  }
+
+  private static void assertSameResult(EL el, Row row) {
+    StringBuilder message = new StringBuilder(el.getScriptParsedText()).append(" on");
+    for (int i = 0; i < row.width(); i++) {
+      message.append(' ').append(row.getColumn(i)).append('=').append(row.getValue(i));
+    }
+    assertSameResult(message.toString(), el, row);
+  }
+
+  private static void assertSameResult(String message, EL el, Row row) {
+    Object expected;
+    try {
+      expected = el.interpret(new ELContext(null, el, row)).getObject();
+    } catch (ELException e) {
+      assertFails(message, e, el, new ELContext(null, el, row));
+      assertFails(message, e, el, new RowELContext(el).reset(null, row));
+      return;
+    }
+    try {
+      Assert.assertEquals(message, expected, el.execute(new ELContext(null, el, row)).getObject());
+      Assert.assertEquals(message, expected, el.execute(new RowELContext(el).reset(null, row)).getObject());
+      if (expected != null) {
+        Assert.assertSame(message, expected.getClass(),
+                          el.execute(new RowELContext(el).reset(null, row)).getObject().getClass());
+      }
+    } catch (ELException e) {
+      throw new AssertionError(message, e);
+    }
+  }
+
+  private static void assertFails(String message, ELException expected, EL el, ELContext context) {
+    try {
+      el.execute(context);
+      Assert.fail(message + " expected to fail with " + expected.getMessage());
+    } catch (ELException e) {
+      Assert.assertEquals(message, expected.getMessage(), e.getMessage());
+    }
+  }
+
+  private static Row row(Object a, Object b, Object c, Object s) {
+    return new Row("a", a).add("b", b).add("c", c).add("s", s).add("body.name", "x");
+  }
+}
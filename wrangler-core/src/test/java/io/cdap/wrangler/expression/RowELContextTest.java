@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.expression;
+
+import io.cdap.wrangler.TestingPipelineContext;
+import io.cdap.wrangler.api.ExecutorContext;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.TransientVariableScope;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link RowELContext}.
+ */
+public class RowELContextTest {
+
+  @Test
+  public void testReuseAcrossRows() throws Exception {
+    EL el = EL.compile("a + b");
+    RowELContext ctx = new RowELContext(el);
+
+    Assert.assertEquals(Integer.valueOf(3), el.execute(ctx.reset(null, new Row("a", 1).add("b", 2))).getInteger());
+    Assert.assertEquals(Integer.valueOf(30), el.execute(ctx.reset(null, new Row("b", 20).add("a", 10))).getInteger());
+  }
+
+  @Test
+  public void testMissingColumnIsNull() throws Exception {
+    EL el = EL.compile("a == null");
+    RowELContext ctx = new RowELContext(el);
+    Assert.assertTrue(el.execute(ctx.reset(null, new Row("b", 1))).getBoolean());
+    Assert.assertFalse(el.execute(ctx.reset(null, new Row("a", 1))).getBoolean());
+  }
+
+  @Test
+  public void testAssignmentsDoNotLeakAcrossRows() throws Exception {
+    EL el = EL.compile("if (a > 1) { x = 'big'; } x");
+    RowELContext ctx = new RowELContext(el);
+    Assert.assertEquals("big", el.execute(ctx.reset(null, new Row("a", 2).add("x", "small"))).getObject());
+    Assert.assertEquals("small", el.execute(ctx.reset(null, new Row("a", 1).add("x", "small"))).getObject());
+  }
+
+  @Test
+  public void testPrecedence() throws Exception {
+    ExecutorContext context = new TestingPipelineContext();
+    context.getTransientStore().set(TransientVariableScope.GLOBAL, "a", 100);
+
+    EL el = EL.compile("a + this.width() + (ctx.name == null ? 0 : 1)");
+    RowELContext ctx = new RowELContext(el);
+    Row row = new Row("a", 1).add("b", 2);
+
+    // Transient variables take precedence over columns, same as ELContext.
+    Object expected = el.execute(new ELContext(context, el, row)).getObject();
+    Assert.assertEquals(expected, el.execute(ctx.reset(context, row)).getObject());
+    Assert.assertEquals(103, el.execute(ctx.reset(context, row)).getObject());
+
+    EL withoutContext = EL.compile("a + this.width()");
+    Assert.assertEquals(3, withoutContext.execute(new RowELContext(withoutContext).reset(null, row)).getObject());
+  }
+}
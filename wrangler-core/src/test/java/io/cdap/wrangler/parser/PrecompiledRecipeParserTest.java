@@ -0,0 +1,77 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.parser;
+
+import io.cdap.wrangler.api.Directive;
+import io.cdap.wrangler.api.DirectiveConfig;
+import io.cdap.wrangler.api.Pair;
+import io.cdap.wrangler.api.RecipeException;
+import io.cdap.wrangler.api.RecipeParser;
+import io.cdap.wrangler.api.TokenGroup;
+import io.cdap.wrangler.proto.Contexts;
+import io.cdap.wrangler.registry.SystemDirectiveRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests {@link PrecompiledRecipeParser}
+ */
+public class PrecompiledRecipeParserTest {
+
+  @Test
+  public void testParse() throws Exception {
+    List<Pair<String, TokenGroup>> symbols = compile(
+      "rename :col1 :col2;",
+      "parse-as-csv :body ',' true;"
+    );
+
+    RecipeParser parser = new PrecompiledRecipeParser(Contexts.SYSTEM, symbols, SystemDirectiveRegistry.INSTANCE);
+    List<Directive> first = parser.parse();
+    List<Directive> second = parser.parse();
+    Assert.assertEquals(2, first.size());
+    Assert.assertEquals(2, second.size());
+    for (int i = 0; i < first.size(); i++) {
+      Assert.assertEquals(first.get(i).getClass(), second.get(i).getClass());
+      Assert.assertNotSame(first.get(i), second.get(i));
+    }
+  }
+
+  @Test
+  public void testUnknownDirective() throws Exception {
+    List<Pair<String, TokenGroup>> symbols = compile(
+      "rename :col1 :col2;",
+      "unknown-directive :col2;"
+    );
+
+    try {
+      new PrecompiledRecipeParser(Contexts.SYSTEM, symbols, SystemDirectiveRegistry.INSTANCE).parse();
+      Assert.fail("Expected the unknown directive to fail the parse");
+    } catch (RecipeException e) {
+      Assert.assertEquals(2, e.getDirectiveIndex());
+    }
+  }
+
+  private static List<Pair<String, TokenGroup>> compile(String... recipe) throws Exception {
+    List<Pair<String, TokenGroup>> symbols = new ArrayList<>();
+    new GrammarWalker(new RecipeCompiler(), new ConfigDirectiveContext(DirectiveConfig.EMPTY))
+      .walk(String.join("\n", recipe), (command, tokenGroup) -> symbols.add(new Pair<>(command, tokenGroup)));
+    return symbols;
+  }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.registry;
+
+import io.cdap.cdap.api.artifact.ArtifactClasses;
+import io.cdap.cdap.api.artifact.ArtifactId;
+import io.cdap.cdap.api.artifact.ArtifactInfo;
+import io.cdap.cdap.api.artifact.ArtifactManager;
+import io.cdap.cdap.api.artifact.ArtifactScope;
+import io.cdap.cdap.api.artifact.ArtifactVersion;
+import io.cdap.cdap.api.artifact.CloseableClassLoader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests {@link ArtifactClassLoaderCache}.
+ */
+public class ArtifactClassLoaderCacheTest {
+
+  private static final ArtifactId ARTIFACT1 = new ArtifactId("udd1", new ArtifactVersion("1.0.0"), ArtifactScope.USER);
+  private static final ArtifactId ARTIFACT2 = new ArtifactId("udd2", new ArtifactVersion("1.0.0"), ArtifactScope.USER);
+  private static final ArtifactId ARTIFACT3 = new ArtifactId("udd3", new ArtifactVersion("1.0.0"), ArtifactScope.USER);
+
+  @Test
+  public void testClassLoadersAreShared() throws Exception {
+    TestArtifactManager manager = new TestArtifactManager();
+    ArtifactClassLoaderCache cache = new ArtifactClassLoaderCache(2, 1, TimeUnit.MINUTES);
+
+    ArtifactClassLoaderCache.Lease first = cache.acquire(manager, "ns", ARTIFACT1, getClass().getClassLoader());
+    ArtifactClassLoaderCache.Lease second = cache.acquire(manager, "ns", ARTIFACT1, getClass().getClassLoader());
+    Assert.assertSame(first.getClassLoader(), second.getClassLoader());
+
+    // Classloaders are not shared across namespaces
+    ArtifactClassLoaderCache.Lease other = cache.acquire(manager, "other", ARTIFACT1, getClass().getClassLoader());
+    Assert.assertNotSame(first.getClassLoader(), other.getClassLoader());
+    Assert.assertEquals(2, manager.created.size());
+
+    first.close();
+    second.close();
+    other.close();
+    Assert.assertTrue(manager.closed.isEmpty());
+    Assert.assertEquals(2, cache.size());
+  }
+
+  @Test
+  public void testLeastRecentlyUsedAreClosed() throws Exception {
+    TestArtifactManager manager = new TestArtifactManager();
+    ArtifactClassLoaderCache cache = new ArtifactClassLoaderCache(2, 1, TimeUnit.MINUTES);
+
+    cache.acquire(manager, "ns", ARTIFACT1, getClass().getClassLoader()).close();
+    cache.acquire(manager, "ns", ARTIFACT2, getClass().getClassLoader()).close();
+    cache.acquire(manager, "ns", ARTIFACT1, getClass().getClassLoader()).close();
+    cache.acquire(manager, "ns", ARTIFACT3, getClass().getClassLoader()).close();
+
+    Assert.assertEquals(2, cache.size());
+    Assert.assertEquals(1, manager.closed.size());
+    Assert.assertTrue(manager.closed.contains(manager.created.get(1)));
+  }
+
+  @Test
+  public void testLeasedAreNotClosed() throws Exception {
+    TestArtifactManager manager = new TestArtifactManager();
+    ArtifactClassLoaderCache cache = new ArtifactClassLoaderCache(1, 1, TimeUnit.MINUTES);
+
+    ArtifactClassLoaderCache.Lease first = cache.acquire(manager, "ns", ARTIFACT1, getClass().getClassLoader());
+    ArtifactClassLoaderCache.Lease second = cache.acquire(manager, "ns", ARTIFACT2, getClass().getClassLoader());
+    Assert.assertEquals(2, cache.size());
+    Assert.assertTrue(manager.closed.isEmpty());
+
+    second.close();
+    Assert.assertEquals(1, cache.size());
+    Assert.assertTrue(manager.closed.contains(second.getClassLoader()));
+
+    // Closing a lease more than once has no effect
+    first.close();
+    first.close();
+    Assert.assertEquals(1, cache.size());
+    Assert.assertFalse(manager.closed.contains(first.getClassLoader()));
+  }
+
+  @Test
+  public void testArtifactsAreListedOnMissOrExpiry() throws Exception {
+    TestArtifactManager manager = new TestArtifactManager();
+    AtomicLong time = new AtomicLong();
+    ArtifactClassLoaderCache cache = new ArtifactClassLoaderCache(2, 10, TimeUnit.NANOSECONDS, time::get);
+
+    cache.acquire(manager, "ns", ARTIFACT1, getClass().getClassLoader()).close();
+    cache.acquire(manager, "ns", ARTIFACT1, getClass().getClassLoader()).close();
+    cache.acquire(manager, "ns", ARTIFACT2, getClass().getClassLoader()).close();
+    Assert.assertEquals(1, manager.listings);
+
+    // Artifacts missing from the listing are listed again
+    ArtifactId artifact4 = new ArtifactId("udd4", new ArtifactVersion("1.0.0"), ArtifactScope.USER);
+    manager.deploy(artifact4, Collections.emptyMap());
+    cache.acquire(manager, "ns", artifact4, getClass().getClassLoader()).close();
+    Assert.assertEquals(2, manager.listings);
+
+    // Namespaces are listed separately
+    cache.acquire(manager, "other", ARTIFACT1, getClass().getClassLoader()).close();
+    Assert.assertEquals(3, manager.listings);
+
+    time.set(10);
+    cache.acquire(manager, "ns", ARTIFACT1, getClass().getClassLoader()).close();
+    Assert.assertEquals(4, manager.listings);
+  }
+
+  @Test
+  public void testRedeployedArtifactsGetNewClassLoaders() throws Exception {
+    TestArtifactManager manager = new TestArtifactManager();
+    AtomicLong time = new AtomicLong();
+    ArtifactClassLoaderCache cache = new ArtifactClassLoaderCache(2, 10, TimeUnit.NANOSECONDS, time::get);
+
+    ArtifactClassLoaderCache.Lease first = cache.acquire(manager, "ns", ARTIFACT1, getClass().getClassLoader());
+    manager.deploy(ARTIFACT1, Collections.singletonMap("deployment", "2"));
+
+    // The deployment is picked up once the listing expires
+    try (ArtifactClassLoaderCache.Lease lease = cache.acquire(manager, "ns", ARTIFACT1, getClass().getClassLoader())) {
+      Assert.assertSame(first.getClassLoader(), lease.getClassLoader());
+    }
+    time.addAndGet(10);
+    ArtifactClassLoaderCache.Lease second = cache.acquire(manager, "ns", ARTIFACT1, getClass().getClassLoader());
+    Assert.assertNotSame(first.getClassLoader(), second.getClassLoader());
+
+    // The classloader of the previous deployment is closed once it is released and another deployment is acquired
+    first.close();
+    second.close();
+    Assert.assertTrue(manager.closed.isEmpty());
+    manager.deploy(ARTIFACT1, Collections.singletonMap("deployment", "3"));
+    time.addAndGet(10);
+    cache.acquire(manager, "ns", ARTIFACT1, getClass().getClassLoader()).close();
+    Assert.assertEquals(1, cache.size());
+    Assert.assertTrue(manager.closed.contains(first.getClassLoader()));
+    Assert.assertTrue(manager.closed.contains(second.getClassLoader()));
+  }
+
+  @Test
+  public void testStatelessArtifacts() throws Exception {
+    TestArtifactManager manager = new TestArtifactManager();
+    manager.deploy(ARTIFACT2, Collections.singletonMap(ArtifactClassLoaderCache.STATELESS_PROPERTY, "true"));
+    ArtifactClassLoaderCache cache = new ArtifactClassLoaderCache(2, 1, TimeUnit.MINUTES);
+
+    try (ArtifactClassLoaderCache.Lease lease = cache.acquire(manager, "ns", ARTIFACT1, getClass().getClassLoader())) {
+      Assert.assertFalse(lease.isStateless());
+    }
+    try (ArtifactClassLoaderCache.Lease lease = cache.acquire(manager, "ns", ARTIFACT2, getClass().getClassLoader())) {
+      Assert.assertTrue(lease.isStateless());
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testMissingArtifact() throws Exception {
+    ArtifactId missing = new ArtifactId("udd4", new ArtifactVersion("1.0.0"), ArtifactScope.USER);
+    ArtifactClassLoaderCache cache = new ArtifactClassLoaderCache(2, 1, TimeUnit.MINUTES);
+    cache.acquire(new TestArtifactManager(), "ns", missing, getClass().getClassLoader());
+  }
+
+  /**
+   * An {@link ArtifactManager} creating empty classloaders and recording the ones created and closed.
+   */
+  private static final class TestArtifactManager implements ArtifactManager {
+    private final List<ClassLoader> created = new ArrayList<>();
+    private final Set<ClassLoader> closed = new HashSet<>();
+    private final Map<ArtifactId, ArtifactInfo> artifacts = new HashMap<>();
+    private int listings;
+
+    TestArtifactManager() {
+      for (ArtifactId artifactId : new ArtifactId[] { ARTIFACT1, ARTIFACT2, ARTIFACT3 }) {
+        deploy(artifactId, Collections.emptyMap());
+      }
+    }
+
+    void deploy(ArtifactId artifactId, Map<String, String> properties) {
+      artifacts.put(artifactId, new ArtifactInfo(artifactId, ArtifactClasses.builder().build(), properties));
+    }
+
+    @Override
+    public List<ArtifactInfo> listArtifacts() {
+      return new ArrayList<>(artifacts.values());
+    }
+
+    @Override
+    public List<ArtifactInfo> listArtifacts(String namespace) {
+      listings++;
+      return new ArrayList<>(artifacts.values());
+    }
+
+    @Override
+    public CloseableClassLoader createClassLoader(ArtifactInfo artifactInfo, ClassLoader parentClassLoader) {
+      return createClassLoader(null, artifactInfo, parentClassLoader);
+    }
+
+    @Override
+    public CloseableClassLoader createClassLoader(String namespace, ArtifactInfo artifactInfo,
+                                                  ClassLoader parentClassLoader) {
+      CloseableClassLoader[] classLoader = new CloseableClassLoader[1];
+      classLoader[0] = new CloseableClassLoader(parentClassLoader, () -> closed.add(classLoader[0]));
+      created.add(classLoader[0]);
+      return classLoader[0];
+    }
+  }
+}
@@ -17,13 +17,18 @@
 package io.cdap.wrangler.statistics;
 
 import io.cdap.wrangler.TestingRig;
+import io.cdap.wrangler.api.Pair;
 import io.cdap.wrangler.api.Row;
 import io.dataapps.chlorine.finder.FinderEngine;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Tests {@link BasicStatistics}
@@ -66,5 +71,43 @@ public class BasicStatisticsTest {
     Assert.assertEquals(7, stats.width());
     Assert.assertEquals(7, types.width());
   }
-}
 
+  @Test
+  public void testWideSampleIsComplete() throws Exception {
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      Row row = new Row();
+      for (int c = 0; c < 400; c++) {
+        row.add("col" + c, c % 2 == 0 ? "650-897-" + (1000 + i % 10) : (i % 5 == 0 ? null : ""));
+      }
+      rows.add(row);
+    }
+
+    Row summary = new BasicStatistics(new ForkJoinPool(4)).aggregate(rows);
+    Assert.assertEquals(500.0, summary.getValue("total"));
+
+    Row stats = (Row) summary.getValue("stats");
+    Row types = (Row) summary.getValue("types");
+    Assert.assertEquals(400, stats.width());
+    Assert.assertEquals(200, types.width());
+    for (int c = 0; c < 400; c++) {
+      Map<String, Double> columnStats = toMap(stats.getValue("col" + c));
+      if (c % 2 == 0) {
+        Assert.assertEquals(1.0, columnStats.get("non-null"), 0.0001);
+        Assert.assertEquals(1.0, toMap(types.getValue("col" + c)).get("US Phone#Formatted"), 0.0001);
+      } else {
+        Assert.assertEquals(0.2, columnStats.get("null"), 0.0001);
+        Assert.assertEquals(0.8, columnStats.get("empty"), 0.0001);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<String, Double> toMap(Object value) {
+    Map<String, Double> map = new HashMap<>();
+    for (Pair<String, Double> pair : (List<Pair<String, Double>>) value) {
+      map.put(pair.getFirst(), pair.getSecond());
+    }
+    return map;
+  }
+}
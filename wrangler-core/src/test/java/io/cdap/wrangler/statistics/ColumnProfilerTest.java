@@ -0,0 +1,100 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.statistics;
+
+import io.cdap.wrangler.api.Row;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests {@link ColumnProfiler}
+ */
+public class ColumnProfilerTest {
+
+  private static List<Row> createRows(int from, int to) {
+    List<Row> rows = new ArrayList<>();
+    for (int i = from; i < to; i++) {
+      Row row = new Row();
+      row.add("id", i);
+      row.add("code", i % 3 == 0 ? null : "code-" + (i % 4));
+      row.add("amount", String.valueOf(i % 100));
+      row.add("comment", i % 10 == 0 ? "" : "comment");
+      rows.add(row);
+    }
+    return rows;
+  }
+
+  @Test
+  public void testProfile() {
+    ColumnProfiler profiler = ColumnProfiler.profile(createRows(0, 1200));
+    Assert.assertArrayEquals(new String[] { "id", "code", "amount", "comment" },
+                             profiler.getProfiles().keySet().toArray(new String[0]));
+
+    ColumnProfile id = profiler.getProfiles().get("id");
+    Assert.assertEquals(1200, id.getCount());
+    Assert.assertEquals(1200, id.getNumericCount());
+    Assert.assertEquals(1200, id.getDistinctCount(), 1200 * 0.05);
+    Assert.assertEquals(0.0, id.getMin(), 0.0);
+    Assert.assertEquals(1199.0, id.getMax(), 0.0);
+    Assert.assertEquals(1, id.getMinLength());
+    Assert.assertEquals(4, id.getMaxLength());
+
+    ColumnProfile code = profiler.getProfiles().get("code");
+    Assert.assertEquals(400, code.getNullCount());
+    Assert.assertEquals(4, code.getDistinctCount());
+    Assert.assertEquals(0, code.getNumericCount());
+    Assert.assertEquals(4, code.getTopValues(10).size());
+    Assert.assertEquals(200L, (long) code.getTopValues(1).get(0).getSecond());
+    // All the values have a length of 6, counted in the bucket [4, 8).
+    Assert.assertArrayEquals(new long[] { 0, 0, 0, 800 }, code.getLengthHistogram());
+
+    ColumnProfile amount = profiler.getProfiles().get("amount");
+    Assert.assertEquals(1200, amount.getNumericCount());
+    Assert.assertEquals(100, amount.getDistinctCount(), 2);
+    Assert.assertEquals(49.5, amount.getQuantiles(0.5)[0], 2.0);
+
+    ColumnProfile comment = profiler.getProfiles().get("comment");
+    Assert.assertEquals(120, comment.getEmptyCount());
+    Assert.assertEquals(0, comment.getMinLength());
+    Assert.assertEquals(120L, comment.getLengthHistogram()[0]);
+  }
+
+  @Test
+  public void testMergePartitions() {
+    ColumnProfiler merged = ColumnProfiler.profile(createRows(0, 500))
+      .merge(ColumnProfiler.profile(createRows(500, 1200)));
+    ColumnProfiler whole = ColumnProfiler.profile(createRows(0, 1200));
+
+    for (String column : whole.getProfiles().keySet()) {
+      ColumnProfile expected = whole.getProfiles().get(column);
+      ColumnProfile actual = merged.getProfiles().get(column);
+      Assert.assertEquals(expected.getCount(), actual.getCount());
+      Assert.assertEquals(expected.getNullCount(), actual.getNullCount());
+      Assert.assertEquals(expected.getEmptyCount(), actual.getEmptyCount());
+      Assert.assertEquals(expected.getDistinctCount(), actual.getDistinctCount());
+      Assert.assertEquals(expected.getNumericCount(), actual.getNumericCount());
+      Assert.assertEquals(expected.getMin(), actual.getMin(), 0.0);
+      Assert.assertEquals(expected.getMax(), actual.getMax(), 0.0);
+      Assert.assertEquals(expected.getMinLength(), actual.getMinLength());
+      Assert.assertEquals(expected.getMaxLength(), actual.getMaxLength());
+      Assert.assertArrayEquals(expected.getLengthHistogram(), actual.getLengthHistogram());
+    }
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.statistics.sketch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link HyperLogLog}
+ */
+public class HyperLogLogTest {
+
+  @Test
+  public void testCardinality() {
+    HyperLogLog sketch = new HyperLogLog(12);
+    Assert.assertEquals(0, sketch.cardinality());
+    for (int i = 0; i < 100000; i++) {
+      sketch.add("value-" + (i % 20000));
+    }
+    // The standard error is 1.6% with 4096 registers.
+    Assert.assertEquals(20000, sketch.cardinality(), 20000 * 0.05);
+  }
+
+  @Test
+  public void testSmallCardinality() {
+    HyperLogLog sketch = new HyperLogLog(12);
+    for (int i = 0; i < 1000; i++) {
+      sketch.add("value-" + (i % 10));
+    }
+    Assert.assertEquals(10, sketch.cardinality());
+  }
+
+  @Test
+  public void testMerge() {
+    HyperLogLog first = new HyperLogLog(14);
+    HyperLogLog second = new HyperLogLog(14);
+    for (int i = 0; i < 50000; i++) {
+      first.add("value-" + i);
+      second.add("value-" + (i + 25000));
+    }
+    first.merge(second);
+    Assert.assertEquals(75000, first.cardinality(), 75000 * 0.03);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMergeDifferentPrecisions() {
+    new HyperLogLog(10).merge(new HyperLogLog(12));
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.statistics.sketch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests {@link QuantileSketch}
+ */
+public class QuantileSketchTest {
+
+  @Test
+  public void testEmpty() {
+    QuantileSketch sketch = new QuantileSketch(64);
+    Assert.assertEquals(0, sketch.getCount());
+    Assert.assertTrue(Double.isNaN(sketch.getMin()));
+    Assert.assertTrue(Double.isNaN(sketch.getQuantiles(0.5)[0]));
+  }
+
+  @Test
+  public void testQuantiles() {
+    List<Double> values = new ArrayList<>();
+    for (int i = 0; i < 100000; i++) {
+      values.add((double) i);
+    }
+    Collections.shuffle(values, new Random(1));
+
+    QuantileSketch sketch = new QuantileSketch(256);
+    for (double value : values) {
+      sketch.add(value);
+    }
+    Assert.assertEquals(100000, sketch.getCount());
+    Assert.assertEquals(0.0, sketch.getMin(), 0.0);
+    Assert.assertEquals(99999.0, sketch.getMax(), 0.0);
+
+    double[] quantiles = sketch.getQuantiles(0, 0.25, 0.5, 0.99, 1);
+    Assert.assertEquals(0.0, quantiles[0], 0.0);
+    Assert.assertEquals(25000, quantiles[1], 100000 * 0.02);
+    Assert.assertEquals(50000, quantiles[2], 100000 * 0.02);
+    Assert.assertEquals(99000, quantiles[3], 100000 * 0.02);
+    Assert.assertEquals(99999.0, quantiles[4], 0.0);
+  }
+
+  @Test
+  public void testRetainedValuesAreBounded() {
+    QuantileSketch sketch = new QuantileSketch(200);
+    Random random = new Random(1);
+    for (int i = 0; i < 1000000; i++) {
+      sketch.add(random.nextDouble());
+    }
+    // Level capacities decrease geometrically, so the sketch holds at most about 3 times the capacity.
+    Assert.assertTrue(sketch.getRetained() < 3 * 200 + 2 * 64);
+    Assert.assertEquals(0.5, sketch.getQuantiles(0.5)[0], 0.02);
+  }
+
+  @Test
+  public void testMerge() {
+    QuantileSketch first = new QuantileSketch(128);
+    QuantileSketch second = new QuantileSketch(128);
+    for (int i = 0; i < 50000; i++) {
+      first.add(i);
+      second.add(50000 + i);
+    }
+    first.merge(second);
+    Assert.assertEquals(100000, first.getCount());
+    Assert.assertEquals(99999.0, first.getMax(), 0.0);
+    Assert.assertEquals(50000, first.getQuantiles(0.5)[0], 100000 * 0.03);
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.statistics.sketch;
+
+import io.cdap.wrangler.api.Pair;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Tests {@link SpaceSaving}
+ */
+public class SpaceSavingTest {
+
+  @Test
+  public void testTopValues() {
+    SpaceSaving sketch = new SpaceSaving(16);
+    for (int i = 0; i < 10000; i++) {
+      // Frequent values interleaved with a long tail of unique values.
+      sketch.add(i % 2 == 0 ? "frequent-" + (i % 6) : "unique-" + i);
+    }
+
+    List<Pair<String, Long>> top = sketch.getTop(3);
+    Assert.assertEquals(3, top.size());
+    Assert.assertEquals("frequent-0", top.get(0).getFirst());
+    Assert.assertEquals("frequent-2", top.get(1).getFirst());
+    Assert.assertEquals("frequent-4", top.get(2).getFirst());
+    // Counts are over-estimated by at most n / capacity.
+    for (Pair<String, Long> entry : top) {
+      Assert.assertTrue(entry.getSecond() >= 1666 && entry.getSecond() <= 1667 + 10000 / 16);
+    }
+  }
+
+  @Test
+  public void testMerge() {
+    SpaceSaving first = new SpaceSaving(8);
+    SpaceSaving second = new SpaceSaving(8);
+    for (int i = 0; i < 100; i++) {
+      first.add("a");
+      second.add("b");
+      second.add("b");
+    }
+    first.add("c");
+    first.merge(second);
+
+    List<Pair<String, Long>> top = first.getTop(10);
+    Assert.assertEquals(3, top.size());
+    Assert.assertEquals("b", top.get(0).getFirst());
+    Assert.assertEquals(200L, (long) top.get(0).getSecond());
+    Assert.assertEquals(100L, (long) top.get(1).getSecond());
+    Assert.assertEquals(1L, (long) top.get(2).getSecond());
+  }
+}
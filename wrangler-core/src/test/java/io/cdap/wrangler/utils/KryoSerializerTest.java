@@ -16,7 +16,11 @@
 package io.cdap.wrangler.utils;
 
 import com.google.common.collect.Lists;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
 import io.cdap.cdap.api.data.schema.Schema;
 import io.cdap.wrangler.TestingRig;
 import io.cdap.wrangler.api.RecipePipeline;
@@ -38,6 +42,9 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class KryoSerializerTest {
 
@@ -143,4 +150,71 @@ public class KryoSerializerTest {
     Assert.assertArrayEquals(expectedRows.toArray(), response.getRows().toArray());
     Assert.assertEquals(expectedSchema, response.getOutputSchema());
   }
+
+  @Test
+  public void testSerializedBytesAreTrimmed() throws Exception {
+    KryoSerializer serializer = new KryoSerializer();
+    byte[] small = serializer.fromRemoteDirectiveResponse(
+        new RemoteDirectiveResponse(Collections.singletonList(new Row("id", 1)), null));
+    Assert.assertTrue(small.length < 64);
+
+    // Writing a large response does not affect the responses written afterwards on the same thread
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < 10000; i++) {
+      rows.add(new Row("id", i).add("name", "name" + i));
+    }
+    byte[] large = serializer.fromRemoteDirectiveResponse(new RemoteDirectiveResponse(rows, null));
+    Assert.assertEquals(rows, serializer.toRemoteDirectiveResponse(large).getRows());
+    Assert.assertArrayEquals(small, serializer.fromRemoteDirectiveResponse(
+        new RemoteDirectiveResponse(Collections.singletonList(new Row("id", 1)), null)));
+  }
+
+  @Test
+  public void testJsonElements() throws Exception {
+    JsonObject object = new JsonParser().parse(JsonTestData.COMPLEX_1).getAsJsonObject();
+    object.add("null", JsonNull.INSTANCE);
+    object.addProperty("integer", 10);
+    object.addProperty("double", 1.5d);
+    object.addProperty("boolean", false);
+    JsonArray array = new JsonArray();
+    array.add(object);
+    array.add(new JsonPrimitive("value"));
+
+    Row testRow = new Row();
+    testRow.add("object", object);
+    testRow.add("array", array);
+    testRow.add("primitive", new JsonPrimitive(123456789012L));
+    testRow.add("null", JsonNull.INSTANCE);
+    List<Row> expectedRows = Collections.singletonList(testRow);
+
+    KryoSerializer serializer = new KryoSerializer();
+    List<Row> gotRows = serializer.toRemoteDirectiveResponse(
+        serializer.fromRemoteDirectiveResponse(new RemoteDirectiveResponse(expectedRows, null))).getRows();
+    Assert.assertEquals(expectedRows, gotRows);
+  }
+
+  @Test
+  public void testConcurrentSerialization() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Boolean>> futures = new ArrayList<>();
+      for (int i = 0; i < 32; i++) {
+        int id = i;
+        futures.add(executor.submit(() -> {
+          List<Row> rows = new ArrayList<>();
+          for (int j = 0; j < 100; j++) {
+            rows.add(new Row("id", id).add("value", j));
+          }
+          KryoSerializer serializer = new KryoSerializer();
+          byte[] bytes = serializer.fromRemoteDirectiveResponse(new RemoteDirectiveResponse(rows, null));
+          return rows.equals(serializer.toRemoteDirectiveResponse(bytes).getRows());
+        }));
+      }
+      for (Future<Boolean> future : futures) {
+        Assert.assertTrue(future.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
 }
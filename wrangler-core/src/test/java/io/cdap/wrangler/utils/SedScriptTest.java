@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.unix4j.Unix4j;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tests {@link SedScript} against the results of Unix4j sed.
+ */
+public class SedScriptTest {
+  private static final List<String> VALUES = Arrays.asList(
+    "", " ", "hello world", "HELLO World", "ooooo", "abc", "abc abc", "a/b/c", "a\\b", "a|b", "1 Main St.",
+    "123 N. Main Street, Apt #4", "a\nb\no", "a\n", "a\r\nb", "\t x \t", "-n", "-x", "--", "$x", "${x}", "a $b",
+    "{a}", "éèü", "a\u0000b", "😀x", "(555) 555-1234"
+  );
+
+  private static final List<String> SCRIPTS = Arrays.asList(
+    "s/o/0/", "s/o/0/g", "s/o/0/2", "s/o/0/2g", "s/o/0/3p", "s/O/0/Ig", "s/O/0/ig", "s/o/0/p", "  s/o/0/g  ",
+    "s/o/0/g x", "s/o/0/g\tI", "s/^/x/", "s/$/x/g", "s/a*/x/g", "s/x*/-/g", "s/(b)/[$1]/", "s/(b)/[\\1]/",
+    "s/b/&&/", "s/\\//|/", "s|b|/|", "s b x ", "sxbxyx", "s/b/$/", "s/b/", "s", "s/(/x/", "s/b/c/0", "s/b/c/-1",
+    "s/b/c/+2", "s/b/x/g2", "s/\\\\/x/", "s/a/\\n/", "s/b/\\\\/", "s/b/\\/", "s/(?<n>b)/${n}/", "s/(b)/${1}/",
+    "s/b/x${y}/", "s/b/[${}]/", "s/b/[${a]/", "s/(b)/$1$1/", "s/(b)/$10/", "s/(a)(b)(c)(d)(e)(f)(g)(h)(i)(j)/$10$11/",
+    "s/(x)?b/[$1]/", "s/b/$2/", "s/[[:alpha:]]/x/g", "s/\\s+/ /g", "s/\\bSt\\./Street/I", "s/\\d{3}/###/g",
+    "s/\\\"//g", "s\\a\\b\\", "s/b/c/1g", "s/b/c/12", "y/abc/xyz/", "y/ab/xyz/", "y/abc/xy/", "y/a\\/b/x\\/y/",
+    "y/a\\bc/xyzw/", "y/abc/xyz/g", "y/abc/xyz/ x", "y/aa/xy/", "y/abc/x\u0000z/", " y/abc/xyz/ ", "y/abc/",
+    "y/é/e/", "/b/d", "/b/p", "/x/d", "q", "", "   ", "$y", "-s/b/x/", "--script"
+  );
+
+  @Test
+  public void testSameResultsAsUnix4j() {
+    for (String script : SCRIPTS) {
+      SedScript sed = SedScript.compile(script);
+      for (String value : VALUES) {
+        Assert.assertEquals(String.format("script '%s' on value '%s'", script, value),
+                            unix4j(script, value), apply(sed, value));
+      }
+    }
+  }
+
+  @Test
+  public void testRandomScripts() {
+    String[] regexes = {"a", "b+", "[ab]", "a*", "^a", "b$", "(a)(b)?", "(?<n>a)", "\\.", ".", "A", "x|b", "()"};
+    String[] replacements = {"", "x", "&", "$0", "$1", "$2", "${n}", "\\$", "\\\\", "[$1$0]", "$", "\\"};
+    String[] flags = {"", "g", "I", "gI", "2", "2g", "3", "p", "0", "x", " ", "g "};
+    String[] delimiters = {"/", "|", ",", "a"};
+    String chars = "aAb.x /|,\\$-";
+    Random random = new Random(42L);
+    for (int i = 0; i < 2000; i++) {
+      String delimiter = delimiters[random.nextInt(delimiters.length)];
+      String script;
+      if (random.nextInt(5) == 0) {
+        script = "y" + delimiter + randomString(random, chars, 4) + delimiter + randomString(random, chars, 4) +
+          delimiter;
+      } else {
+        script = "s" + delimiter + regexes[random.nextInt(regexes.length)] + delimiter +
+          replacements[random.nextInt(replacements.length)] + delimiter + flags[random.nextInt(flags.length)];
+      }
+      SedScript sed = SedScript.compile(script);
+      for (int j = 0; j < 10; j++) {
+        String value = randomString(random, chars, 8);
+        Assert.assertEquals(String.format("script '%s' on value '%s'", script, value),
+                            unix4j(script, value), apply(sed, value));
+      }
+    }
+  }
+
+  @Test
+  public void testErrorsAreReportedWhenApplied() {
+    SedScript sed = SedScript.compile("s/(/x/");
+    try {
+      sed.apply("abc");
+      Assert.fail("Expected the invalid regex to fail");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+
+    // invalid replacements only fail once something is replaced
+    sed = SedScript.compile("s/b/$/");
+    Assert.assertEquals("xyz", sed.apply("xyz"));
+    try {
+      sed.apply("abc");
+      Assert.fail("Expected the invalid replacement to fail");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  private static String randomString(Random random, String chars, int maxLength) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = random.nextInt(maxLength + 1); i > 0; i--) {
+      builder.append(chars.charAt(random.nextInt(chars.length())));
+    }
+    return builder.toString();
+  }
+
+  private static String unix4j(String script, String value) {
+    try {
+      return "=" + Unix4j.echo(value).sed(script).toStringResult();
+    } catch (Exception e) {
+      return "!" + e.getClass().getName();
+    }
+  }
+
+  private static String apply(SedScript sed, String value) {
+    try {
+      return "=" + sed.apply(value);
+    } catch (Exception e) {
+      return "!" + e.getClass().getName();
+    }
+  }
+}
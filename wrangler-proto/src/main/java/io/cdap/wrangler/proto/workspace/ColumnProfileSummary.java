@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.proto.workspace;
+
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Profile of the values of a column of a workspace, estimated with sketches in one pass over the rows.
+ */
+public class ColumnProfileSummary {
+  private final long count;
+  private final long nulls;
+  private final long empties;
+  private final long distinct;
+  private final long numerics;
+  private final Double min;
+  private final Double p25;
+  private final Double median;
+  private final Double p75;
+  private final Double max;
+  private final int minLength;
+  private final int maxLength;
+  private final long[] lengthHistogram;
+  // Most frequent values, in decreasing order of count.
+  private final Map<String, Long> topValues;
+
+  public ColumnProfileSummary(long count, long nulls, long empties, long distinct, long numerics,
+                              @Nullable Double min, @Nullable Double p25, @Nullable Double median,
+                              @Nullable Double p75, @Nullable Double max, int minLength, int maxLength,
+                              long[] lengthHistogram, Map<String, Long> topValues) {
+    this.count = count;
+    this.nulls = nulls;
+    this.empties = empties;
+    this.distinct = distinct;
+    this.numerics = numerics;
+    this.min = min;
+    this.p25 = p25;
+    this.median = median;
+    this.p75 = p75;
+    this.max = max;
+    this.minLength = minLength;
+    this.maxLength = maxLength;
+    this.lengthHistogram = lengthHistogram;
+    this.topValues = topValues;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getDistinct() {
+    return distinct;
+  }
+
+  @Nullable
+  public Double getMedian() {
+    return median;
+  }
+
+  public Map<String, Long> getTopValues() {
+    return topValues;
+  }
+}
@@ -0,0 +1,637 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.proto.workspace;
+
+import io.cdap.wrangler.api.Row;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Binary encoding of the sample rows of a workspace.
+ *
+ * <p>Rows are encoded column by column: the names of the columns of each distinct layout of the rows are written
+ * once, followed by the values of each column of the rows sharing the layout. Strings, including the names of the
+ * columns, are written once in a dictionary and referenced by their index. Encoded samples larger than
+ * {@link #COMPRESSION_THRESHOLD} bytes are compressed.</p>
+ *
+ * <p>Values of types that have no dedicated encoding are written with Java serialization. Samples written with
+ * Java serialization of the whole list of rows, by earlier versions, are still decoded. Rows that are missing
+ * values for some of their columns are also written that way, as they cannot be encoded column by column.</p>
+ *
+ * <p>Strings are written in UTF-8, except for the strings holding unpaired surrogates, which cannot be encoded
+ * in UTF-8 and are written as UTF-16 code units instead.</p>
+ */
+public final class SampleCodec {
+
+  private static final byte[] MAGIC = { 'W', 'R', 'S' };
+  private static final byte VERSION = 2;
+  // Version that writes all the strings in UTF-8, replacing unpaired surrogates.
+  private static final byte UTF8_VERSION = 1;
+  private static final byte UNCOMPRESSED = 0;
+  private static final byte DEFLATED = 1;
+  private static final int COMPRESSION_THRESHOLD = 4096;
+  // Java serialization stream magic, written at the start of legacy samples
+  private static final int JAVA_SERIALIZATION_MAGIC = 0xACED;
+
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte INTEGER = 2;
+  private static final byte LONG = 3;
+  private static final byte DOUBLE = 4;
+  private static final byte FLOAT = 5;
+  private static final byte TRUE = 6;
+  private static final byte FALSE = 7;
+  private static final byte BYTES = 8;
+  private static final byte BIG_DECIMAL = 9;
+  private static final byte LOCAL_DATE = 10;
+  private static final byte LOCAL_TIME = 11;
+  private static final byte LOCAL_DATE_TIME = 12;
+  private static final byte ZONED_DATE_TIME = 13;
+  private static final byte ARRAY_LIST = 14;
+  private static final byte HASH_MAP = 15;
+  private static final byte LINKED_HASH_MAP = 16;
+  private static final byte ROW = 17;
+  private static final byte SHORT = 18;
+  private static final byte SERIALIZED = 19;
+
+  private SampleCodec() {
+  }
+
+  /**
+   * Encodes the rows.
+   *
+   * @throws IOException if a value of the rows cannot be encoded
+   */
+  public static byte[] encode(List<Row> rows) throws IOException {
+    Encoder encoder = new Encoder();
+
+    // Layout of the columns of each row, the values of the rows are grouped by layout.
+    Map<List<String>, Integer> layoutIndexes = new HashMap<>();
+    List<List<String>> layouts = new ArrayList<>();
+    List<List<Row>> layoutRows = new ArrayList<>();
+    int[] rowLayouts = new int[rows.size()];
+    List<String> previous = null;
+    int previousIndex = -1;
+    for (int i = 0; i < rows.size(); i++) {
+      Row row = rows.get(i);
+      if (!hasAllValues(row)) {
+        // Rows created with the names of their columns only have no value for their columns
+        return serialize(rows);
+      }
+      List<String> columns = new ArrayList<>(row.width());
+      for (int c = 0; c < row.width(); c++) {
+        columns.add(row.getColumn(c));
+      }
+      int index;
+      if (columns.equals(previous)) {
+        index = previousIndex;
+      } else {
+        index = layoutIndexes.computeIfAbsent(columns, key -> {
+          layouts.add(key);
+          layoutRows.add(new ArrayList<>());
+          return layouts.size() - 1;
+        });
+        previous = columns;
+        previousIndex = index;
+      }
+      rowLayouts[i] = index;
+      layoutRows.get(index).add(row);
+    }
+
+    DataOutputStream body = encoder.body;
+    writeVarInt(body, layouts.size());
+    for (List<String> layout : layouts) {
+      writeVarInt(body, layout.size());
+      for (String column : layout) {
+        writeVarInt(body, encoder.stringIndex(column));
+      }
+    }
+    writeVarInt(body, rows.size());
+    for (int layout : rowLayouts) {
+      writeVarInt(body, layout);
+    }
+    for (int layout = 0; layout < layouts.size(); layout++) {
+      int width = layouts.get(layout).size();
+      for (int column = 0; column < width; column++) {
+        for (Row row : layoutRows.get(layout)) {
+          encoder.writeValue(row.getValue(column));
+        }
+      }
+    }
+    return encoder.finish();
+  }
+
+  private static boolean hasAllValues(Row row) {
+    try {
+      if (row.width() > 0) {
+        row.getValue(row.width() - 1);
+      }
+      return true;
+    } catch (IndexOutOfBoundsException e) {
+      return false;
+    }
+  }
+
+  private static byte[] serialize(List<Row> rows) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(rows);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Decodes rows encoded by {@link #encode(List)}, or serialized as a list with Java serialization.
+   *
+   * @throws IOException if the rows cannot be decoded
+   */
+  @SuppressWarnings("unchecked")
+  public static List<Row> decode(byte[] bytes) throws IOException {
+    if (isLegacy(bytes)) {
+      try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+        return (List<Row>) in.readObject();
+      } catch (ClassNotFoundException e) {
+        throw new IOException("Unable to decode the sample: " + e.getMessage(), e);
+      }
+    }
+    if (bytes.length < MAGIC.length + 2 || !Arrays.equals(MAGIC, Arrays.copyOf(bytes, MAGIC.length))) {
+      throw new IOException("Unable to decode the sample, it is not in a known format");
+    }
+    byte version = bytes[MAGIC.length];
+    if (version != VERSION && version != UTF8_VERSION) {
+      throw new IOException("Unable to decode the sample, version " + version + " is not supported");
+    }
+    int offset = MAGIC.length + 2;
+    InputStream payload = new ByteArrayInputStream(bytes, offset, bytes.length - offset);
+    if (bytes[MAGIC.length + 1] == DEFLATED) {
+      payload = new InflaterInputStream(payload);
+    }
+    DataInputStream in = new DataInputStream(payload);
+    try {
+      return decode(in, version);
+    } catch (RuntimeException e) {
+      // Malformed input can lead to invalid sizes or indexes anywhere in the sample
+      throw new IOException("Unable to decode the sample, it is malformed: " + e.getMessage(), e);
+    }
+  }
+
+  private static List<Row> decode(DataInputStream in, byte version) throws IOException {
+    String[] strings = new String[readSize(in)];
+    for (int i = 0; i < strings.length; i++) {
+      strings[i] = version == UTF8_VERSION ? readString(in) : readDictionaryString(in);
+    }
+    Decoder decoder = new Decoder(in, strings);
+
+    String[][] layouts = new String[readSize(in)][];
+    for (int i = 0; i < layouts.length; i++) {
+      layouts[i] = new String[readSize(in)];
+      for (int c = 0; c < layouts[i].length; c++) {
+        layouts[i][c] = decoder.readString();
+      }
+    }
+    int[] rowLayouts = new int[readSize(in)];
+    int[] layoutCounts = new int[layouts.length];
+    for (int i = 0; i < rowLayouts.length; i++) {
+      rowLayouts[i] = readIndex(in, layouts.length);
+      layoutCounts[rowLayouts[i]]++;
+    }
+
+    // Values of each column of each layout, in the order of the rows of the layout
+    Object[][][] values = new Object[layouts.length][][];
+    for (int layout = 0; layout < layouts.length; layout++) {
+      values[layout] = new Object[layouts[layout].length][];
+      for (int column = 0; column < layouts[layout].length; column++) {
+        Object[] columnValues = new Object[layoutCounts[layout]];
+        for (int i = 0; i < columnValues.length; i++) {
+          columnValues[i] = decoder.readValue();
+        }
+        values[layout][column] = columnValues;
+      }
+    }
+
+    List<Row> rows = new ArrayList<>(rowLayouts.length);
+    int[] positions = new int[layouts.length];
+    for (int layout : rowLayouts) {
+      String[] columns = layouts[layout];
+      int position = positions[layout]++;
+      Row row = new Row();
+      for (int column = 0; column < columns.length; column++) {
+        row.add(columns[column], values[layout][column][position]);
+      }
+      rows.add(row);
+    }
+    return rows;
+  }
+
+  /**
+   * @return whether the rows were serialized with Java serialization by earlier versions
+   */
+  public static boolean isLegacy(byte[] bytes) {
+    return bytes.length >= 2 && ((bytes[0] & 0xFF) << 8 | (bytes[1] & 0xFF)) == JAVA_SERIALIZATION_MAGIC;
+  }
+
+  /**
+   * Writes the values and collects the dictionary of the strings they contain.
+   */
+  private static final class Encoder {
+    private final Map<String, Integer> stringIndexes = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private final ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+    private final DataOutputStream body = new DataOutputStream(bodyBytes);
+
+    int stringIndex(String value) {
+      Integer index = stringIndexes.get(value);
+      if (index == null) {
+        index = strings.size();
+        stringIndexes.put(value, index);
+        strings.add(value);
+      }
+      return index;
+    }
+
+    void writeValue(Object value) throws IOException {
+      if (value == null) {
+        body.writeByte(NULL);
+        return;
+      }
+      Class<?> cls = value.getClass();
+      if (cls == String.class) {
+        body.writeByte(STRING);
+        writeVarInt(body, stringIndex((String) value));
+      } else if (cls == Integer.class) {
+        body.writeByte(INTEGER);
+        writeVarLong(body, zigZag((Integer) value));
+      } else if (cls == Long.class) {
+        body.writeByte(LONG);
+        writeVarLong(body, zigZag((Long) value));
+      } else if (cls == Double.class) {
+        body.writeByte(DOUBLE);
+        body.writeDouble((Double) value);
+      } else if (cls == Float.class) {
+        body.writeByte(FLOAT);
+        body.writeFloat((Float) value);
+      } else if (cls == Boolean.class) {
+        body.writeByte((Boolean) value ? TRUE : FALSE);
+      } else if (cls == Short.class) {
+        body.writeByte(SHORT);
+        body.writeShort((Short) value);
+      } else if (cls == byte[].class) {
+        body.writeByte(BYTES);
+        writeBytes(body, (byte[]) value);
+      } else if (cls == BigDecimal.class) {
+        BigDecimal decimal = (BigDecimal) value;
+        body.writeByte(BIG_DECIMAL);
+        writeVarLong(body, zigZag(decimal.scale()));
+        writeBytes(body, decimal.unscaledValue().toByteArray());
+      } else if (cls == LocalDate.class) {
+        body.writeByte(LOCAL_DATE);
+        writeVarLong(body, zigZag(((LocalDate) value).toEpochDay()));
+      } else if (cls == LocalTime.class) {
+        body.writeByte(LOCAL_TIME);
+        writeVarLong(body, ((LocalTime) value).toNanoOfDay());
+      } else if (cls == LocalDateTime.class) {
+        body.writeByte(LOCAL_DATE_TIME);
+        writeLocalDateTime((LocalDateTime) value);
+      } else if (cls == ZonedDateTime.class) {
+        ZonedDateTime dateTime = (ZonedDateTime) value;
+        body.writeByte(ZONED_DATE_TIME);
+        writeLocalDateTime(dateTime.toLocalDateTime());
+        writeVarLong(body, zigZag(dateTime.getOffset().getTotalSeconds()));
+        writeVarInt(body, stringIndex(dateTime.getZone().getId()));
+      } else if (cls == ArrayList.class) {
+        List<?> list = (List<?>) value;
+        body.writeByte(ARRAY_LIST);
+        writeVarInt(body, list.size());
+        for (Object element : list) {
+          writeValue(element);
+        }
+      } else if (cls == HashMap.class || cls == LinkedHashMap.class) {
+        Map<?, ?> map = (Map<?, ?>) value;
+        body.writeByte(cls == HashMap.class ? HASH_MAP : LINKED_HASH_MAP);
+        writeVarInt(body, map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+          writeValue(entry.getKey());
+          writeValue(entry.getValue());
+        }
+      } else if (cls == Row.class && hasAllValues((Row) value)) {
+        Row row = (Row) value;
+        body.writeByte(ROW);
+        writeVarInt(body, row.width());
+        for (int i = 0; i < row.width(); i++) {
+          writeVarInt(body, stringIndex(row.getColumn(i)));
+          writeValue(row.getValue(i));
+        }
+      } else if (value instanceof Serializable) {
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(serialized)) {
+          out.writeObject(value);
+        }
+        body.writeByte(SERIALIZED);
+        writeBytes(body, serialized.toByteArray());
+      } else {
+        throw new IOException("Unable to encode value of type " + cls.getName() + " in the sample");
+      }
+    }
+
+    private void writeLocalDateTime(LocalDateTime dateTime) throws IOException {
+      writeVarLong(body, zigZag(dateTime.toLocalDate().toEpochDay()));
+      writeVarLong(body, dateTime.toLocalTime().toNanoOfDay());
+    }
+
+    byte[] finish() throws IOException {
+      ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream(bodyBytes.size() + strings.size() * 8 + 8);
+      DataOutputStream payload = new DataOutputStream(payloadBytes);
+      writeVarInt(payload, strings.size());
+      for (String string : strings) {
+        writeDictionaryString(payload, string);
+      }
+      bodyBytes.writeTo(payload);
+      payload.flush();
+
+      ByteArrayOutputStream result = new ByteArrayOutputStream(payloadBytes.size() + MAGIC.length + 2);
+      result.write(MAGIC);
+      result.write(VERSION);
+      if (payloadBytes.size() > COMPRESSION_THRESHOLD) {
+        result.write(DEFLATED);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(result, deflater)) {
+          payloadBytes.writeTo(out);
+        } finally {
+          deflater.end();
+        }
+      } else {
+        result.write(UNCOMPRESSED);
+        payloadBytes.writeTo(result);
+      }
+      return result.toByteArray();
+    }
+  }
+
+  /**
+   * Reads the values written by the {@link Encoder}.
+   */
+  private static final class Decoder {
+    private final DataInputStream in;
+    private final String[] strings;
+
+    Decoder(DataInputStream in, String[] strings) {
+      this.in = in;
+      this.strings = strings;
+    }
+
+    Object readValue() throws IOException {
+      byte type = in.readByte();
+      switch (type) {
+        case NULL:
+          return null;
+        case STRING:
+          return readString();
+        case INTEGER:
+          return (int) unZigZag(readVarLong(in));
+        case LONG:
+          return unZigZag(readVarLong(in));
+        case DOUBLE:
+          return in.readDouble();
+        case FLOAT:
+          return in.readFloat();
+        case TRUE:
+          return Boolean.TRUE;
+        case FALSE:
+          return Boolean.FALSE;
+        case SHORT:
+          return in.readShort();
+        case BYTES:
+          return readBytes(in);
+        case BIG_DECIMAL: {
+          int scale = (int) unZigZag(readVarLong(in));
+          return new BigDecimal(new BigInteger(readBytes(in)), scale);
+        }
+        case LOCAL_DATE:
+          return LocalDate.ofEpochDay(unZigZag(readVarLong(in)));
+        case LOCAL_TIME:
+          return LocalTime.ofNanoOfDay(readVarLong(in));
+        case LOCAL_DATE_TIME:
+          return readLocalDateTime();
+        case ZONED_DATE_TIME: {
+          LocalDateTime dateTime = readLocalDateTime();
+          ZoneOffset offset = ZoneOffset.ofTotalSeconds((int) unZigZag(readVarLong(in)));
+          ZoneId zone = ZoneId.of(readString());
+          return ZonedDateTime.ofLocal(dateTime, zone, offset);
+        }
+        case ARRAY_LIST: {
+          int size = readSize(in);
+          List<Object> list = new ArrayList<>(size);
+          for (int i = 0; i < size; i++) {
+            list.add(readValue());
+          }
+          return list;
+        }
+        case HASH_MAP:
+        case LINKED_HASH_MAP: {
+          int size = readSize(in);
+          Map<Object, Object> map = type == HASH_MAP ? new HashMap<>() : new LinkedHashMap<>();
+          for (int i = 0; i < size; i++) {
+            Object key = readValue();
+            map.put(key, readValue());
+          }
+          return map;
+        }
+        case ROW: {
+          int width = readSize(in);
+          Row row = new Row();
+          for (int i = 0; i < width; i++) {
+            String column = readString();
+            row.add(column, readValue());
+          }
+          return row;
+        }
+        case SERIALIZED:
+          return readSerialized();
+        default:
+          throw new IOException("Unable to decode the sample, unknown value type " + type);
+      }
+    }
+
+    /**
+     * Reads a reference to a string of the dictionary.
+     */
+    String readString() throws IOException {
+      return strings[readIndex(in, strings.length)];
+    }
+
+    private Object readSerialized() throws IOException {
+      try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(readBytes(in)))) {
+        return objectIn.readObject();
+      } catch (ClassNotFoundException e) {
+        throw new IOException("Unable to decode a value of the sample: " + e.getMessage(), e);
+      }
+    }
+
+    private LocalDateTime readLocalDateTime() throws IOException {
+      LocalDate date = LocalDate.ofEpochDay(unZigZag(readVarLong(in)));
+      return LocalDateTime.of(date, LocalTime.ofNanoOfDay(readVarLong(in)));
+    }
+  }
+
+  private static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+    writeVarLong(out, value & 0xFFFFFFFFL);
+  }
+
+  private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      out.writeByte((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    out.writeByte((int) value);
+  }
+
+  private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+    writeVarInt(out, bytes.length);
+    out.write(bytes);
+  }
+
+  private static int readVarInt(DataInputStream in) throws IOException {
+    return (int) readVarLong(in);
+  }
+
+  private static long readVarLong(DataInputStream in) throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = in.readByte();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Unable to decode the sample, malformed variable length number");
+  }
+
+  /**
+   * Reads the number of elements of an array, list, map or row.
+   */
+  private static int readSize(DataInputStream in) throws IOException {
+    int size = readVarInt(in);
+    if (size < 0) {
+      throw new IOException("Unable to decode the sample, negative size " + size);
+    }
+    return size;
+  }
+
+  /**
+   * Reads an index in a table of the given size.
+   */
+  private static int readIndex(DataInputStream in, int size) throws IOException {
+    int index = readVarInt(in);
+    if (index < 0 || index >= size) {
+      throw new IOException("Unable to decode the sample, index " + index + " is out of bounds");
+    }
+    return index;
+  }
+
+  private static byte[] readBytes(DataInputStream in) throws IOException {
+    int length = readVarInt(in);
+    if (length < 0) {
+      throw new EOFException("Unable to decode the sample, negative length " + length);
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return bytes;
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    return new String(readBytes(in), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Writes a string of the dictionary, in UTF-8 unless it holds unpaired surrogates. The length is written with
+   * the lowest bit set for strings written as UTF-16 code units.
+   */
+  private static void writeDictionaryString(DataOutputStream out, String string) throws IOException {
+    if (isWellFormed(string)) {
+      byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+      writeVarInt(out, bytes.length << 1);
+      out.write(bytes);
+      return;
+    }
+    writeVarInt(out, string.length() << 1 | 1);
+    out.writeChars(string);
+  }
+
+  private static String readDictionaryString(DataInputStream in) throws IOException {
+    int header = readSize(in);
+    int length = header >>> 1;
+    if ((header & 1) == 0) {
+      byte[] bytes = new byte[length];
+      in.readFully(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+    char[] chars = new char[length];
+    for (int i = 0; i < length; i++) {
+      chars[i] = in.readChar();
+    }
+    return new String(chars);
+  }
+
+  private static boolean isWellFormed(String string) {
+    for (int i = 0; i < string.length(); i++) {
+      char c = string.charAt(i);
+      if (Character.isHighSurrogate(c)) {
+        if (++i == string.length() || !Character.isLowSurrogate(string.charAt(i))) {
+          return false;
+        }
+      } else if (Character.isLowSurrogate(c)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -17,6 +17,7 @@
 package io.cdap.wrangler.proto.workspace;
 
 import java.util.Map;
+import javax.annotation.Nullable;
 
 /**
  * Result of validating a workspace.
@@ -24,10 +25,24 @@ import java.util.Map;
 public class WorkspaceValidationResult {
   private final Map<String, ColumnStatistics> statistics;
   private final Map<String, ColumnValidationResult> validation;
+  // Profiles of the columns, only computed when summarizing a workspace.
+  private final Map<String, ColumnProfileSummary> profiles;
 
   public WorkspaceValidationResult(Map<String, ColumnValidationResult> validation,
                                    Map<String, ColumnStatistics> statistics) {
+    this(validation, statistics, null);
+  }
+
+  public WorkspaceValidationResult(Map<String, ColumnValidationResult> validation,
+                                   Map<String, ColumnStatistics> statistics,
+                                   @Nullable Map<String, ColumnProfileSummary> profiles) {
     this.validation = validation;
     this.statistics = statistics;
+    this.profiles = profiles;
+  }
+
+  @Nullable
+  public Map<String, ColumnProfileSummary> getProfiles() {
+    return profiles;
   }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.proto.workspace.v2;
+
+/**
+ * Statistics of a directive in the profile of an execution
+ */
+public class DirectiveExecutionProfile {
+  private final int index;
+  private final String directive;
+  private final long nanos;
+  private final long rowsIn;
+  private final long rowsOut;
+  private final long errors;
+
+  public DirectiveExecutionProfile(int index, String directive, long nanos, long rowsIn, long rowsOut, long errors) {
+    this.index = index;
+    this.directive = directive;
+    this.nanos = nanos;
+    this.rowsIn = rowsIn;
+    this.rowsOut = rowsOut;
+    this.errors = errors;
+  }
+
+  public int getIndex() {
+    return index;
+  }
+
+  public String getDirective() {
+    return directive;
+  }
+
+  public long getNanos() {
+    return nanos;
+  }
+
+  public long getRowsIn() {
+    return rowsIn;
+  }
+
+  public long getRowsOut() {
+    return rowsOut;
+  }
+
+  public long getErrors() {
+    return errors;
+  }
+}
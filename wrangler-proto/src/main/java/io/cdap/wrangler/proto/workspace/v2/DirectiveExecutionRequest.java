@@ -26,10 +26,16 @@ import java.util.List;
 public class DirectiveExecutionRequest {
   private final List<String> directives;
   private final int limit;
+  private final Boolean profile;
 
   public DirectiveExecutionRequest(List<String> directives, int limit) {
+    this(directives, limit, false);
+  }
+
+  public DirectiveExecutionRequest(List<String> directives, int limit, boolean profile) {
     this.directives = directives;
     this.limit = limit;
+    this.profile = profile;
   }
 
   public int getLimit() {
@@ -39,4 +45,11 @@ public class DirectiveExecutionRequest {
   public List<String> getDirectives() {
     return directives == null ? Collections.emptyList() : directives;
   }
+
+  /**
+   * @return whether the statistics of each directive should be returned with the execution response.
+   */
+  public boolean isProfile() {
+    return profile != null && profile;
+  }
 }
@@ -22,6 +22,7 @@ import io.cdap.wrangler.proto.workspace.WorkspaceValidationResult;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import javax.annotation.Nullable;
 
 /**
  * V2 version of execution response
@@ -30,13 +31,20 @@ public class DirectiveExecutionResponse extends ServiceResponse<Map<String, Obje
   private final Set<String> headers;
   private final Map<String, String> types;
   private final WorkspaceValidationResult summary;
+  private final ExecutionProfile profile;
 
   public DirectiveExecutionResponse(List<Map<String, Object>> values, Set<String> headers, Map<String, String> types,
                                     WorkspaceValidationResult summary) {
+    this(values, headers, types, summary, null);
+  }
+
+  public DirectiveExecutionResponse(List<Map<String, Object>> values, Set<String> headers, Map<String, String> types,
+                                    WorkspaceValidationResult summary, @Nullable ExecutionProfile profile) {
     super(values);
     this.headers = headers;
     this.types = types;
     this.summary = summary;
+    this.profile = profile;
   }
 
   public Set<String> getHeaders() {
@@ -50,4 +58,12 @@ public class DirectiveExecutionResponse extends ServiceResponse<Map<String, Obje
   public WorkspaceValidationResult getSummary() {
     return summary;
   }
+
+  /**
+   * @return statistics of each directive of the execution, {@code null} if profiling was not requested.
+   */
+  @Nullable
+  public ExecutionProfile getProfile() {
+    return profile;
+  }
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.proto.workspace.v2;
+
+import java.util.List;
+
+/**
+ * Profile of the directives of an execution. Only one in every sampleInterval rows is timed.
+ */
+public class ExecutionProfile {
+  private final int sampleInterval;
+  private final long rows;
+  private final long sampledRows;
+  private final List<DirectiveExecutionProfile> directives;
+
+  public ExecutionProfile(int sampleInterval, long rows, long sampledRows,
+                          List<DirectiveExecutionProfile> directives) {
+    this.sampleInterval = sampleInterval;
+    this.rows = rows;
+    this.sampledRows = sampledRows;
+    this.directives = directives;
+  }
+
+  public int getSampleInterval() {
+    return sampleInterval;
+  }
+
+  public long getRows() {
+    return rows;
+  }
+
+  public long getSampledRows() {
+    return sampledRows;
+  }
+
+  public List<DirectiveExecutionProfile> getDirectives() {
+    return directives;
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.proto.workspace.v2;
+
+import io.cdap.wrangler.proto.workspace.ColumnStatistics;
+
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Aggregates of a streaming execution over all the rows executed so far
+ */
+public class ExecutionProgress {
+  private final long rowsIn;
+  private final long rowsOut;
+  private final long errors;
+  private final Map<String, ColumnStatistics> statistics;
+  private final boolean done;
+  private final String failure;
+
+  public ExecutionProgress(long rowsIn, long rowsOut, long errors, Map<String, ColumnStatistics> statistics,
+                           boolean done, @Nullable String failure) {
+    this.rowsIn = rowsIn;
+    this.rowsOut = rowsOut;
+    this.errors = errors;
+    this.statistics = statistics;
+    this.done = done;
+    this.failure = failure;
+  }
+
+  public long getRowsIn() {
+    return rowsIn;
+  }
+
+  public long getRowsOut() {
+    return rowsOut;
+  }
+
+  public long getErrors() {
+    return errors;
+  }
+
+  public Map<String, ColumnStatistics> getStatistics() {
+    return statistics;
+  }
+
+  public boolean isDone() {
+    return done;
+  }
+
+  /**
+   * @return the reason the execution was aborted, {@code null} if it was not.
+   */
+  @Nullable
+  public String getFailure() {
+    return failure;
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.proto.workspace.v2;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Request to stream the execution of directives over the rows of the source of a workspace
+ */
+public class StreamingExecutionRequest {
+  private static final int DEFAULT_LIMIT = 1000;
+  private static final int DEFAULT_ROWS = 1000000;
+  private static final int DEFAULT_CHUNK_SIZE = 1000;
+
+  private final List<String> directives;
+  private final Integer limit;
+  private final Integer rows;
+  private final Integer chunkSize;
+
+  public StreamingExecutionRequest(List<String> directives, int limit, int rows, int chunkSize) {
+    this.directives = directives;
+    this.limit = limit;
+    this.rows = rows;
+    this.chunkSize = chunkSize;
+  }
+
+  public List<String> getDirectives() {
+    return directives == null ? Collections.emptyList() : directives;
+  }
+
+  /**
+   * @return maximum number of rows returned in the first page of the execution.
+   */
+  public int getLimit() {
+    return limit == null || limit <= 0 ? DEFAULT_LIMIT : limit;
+  }
+
+  /**
+   * @return maximum number of rows read from the source of the workspace.
+   */
+  public int getRows() {
+    return rows == null || rows <= 0 ? DEFAULT_ROWS : rows;
+  }
+
+  /**
+   * @return number of rows executed at a time.
+   */
+  public int getChunkSize() {
+    return chunkSize == null || chunkSize <= 0 ? DEFAULT_CHUNK_SIZE : chunkSize;
+  }
+}
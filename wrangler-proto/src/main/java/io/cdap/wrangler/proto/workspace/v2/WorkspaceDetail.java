@@ -18,13 +18,11 @@
 package io.cdap.wrangler.proto.workspace.v2;
 
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.proto.workspace.SampleCodec;
 
-import java.io.ByteArrayOutputStream;
-import java.io.ObjectOutput;
-import java.io.ObjectOutputStream;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import javax.annotation.Nullable;
 
 /**
  * Full information about the workspace, including sample data
@@ -32,23 +30,23 @@ import java.util.Objects;
 public class WorkspaceDetail {
   private final Workspace workspace;
   private final List<Row> sample;
-  private final byte[] sampleAsBytes;
+  private byte[] sampleAsBytes;
+  private final String sampleVersion;
 
   public WorkspaceDetail(Workspace workspace, List<Row> sample) {
-    this.workspace = workspace;
-    this.sample = sample;
-    this.sampleAsBytes = convertToBytes(sample);
+    this(workspace, sample, null, null);
   }
 
-  private byte[] convertToBytes(List<Row> sample) {
-    try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
-         ObjectOutput out = new ObjectOutputStream(bos)) {
-      out.writeObject(sample);
-      out.flush();
-      return bos.toByteArray();
-    } catch (Exception e) {
-      throw new RuntimeException("Error getting bytes from sample", e);
-    }
+  /**
+   * @param sampleAsBytes the encoded sample if it is already known, {@code null} to encode it when needed
+   * @param sampleVersion the version of the stored sample, {@code null} if the sample is not stored
+   */
+  public WorkspaceDetail(Workspace workspace, List<Row> sample, @Nullable byte[] sampleAsBytes,
+                         @Nullable String sampleVersion) {
+    this.workspace = workspace;
+    this.sample = sample;
+    this.sampleAsBytes = sampleAsBytes;
+    this.sampleVersion = sampleVersion;
   }
 
   public Workspace getWorkspace() {
@@ -59,7 +57,26 @@ public class WorkspaceDetail {
     return sample;
   }
 
+  /**
+   * @return the version of the stored sample, which changes whenever the sample is replaced, or {@code null} if the
+   *         sample is not stored
+   */
+  @Nullable
+  public String getSampleVersion() {
+    return sampleVersion;
+  }
+
+  /**
+   * @return the sample encoded with the {@link SampleCodec}
+   */
   public byte[] getSampleAsBytes() {
+    if (sampleAsBytes == null) {
+      try {
+        sampleAsBytes = SampleCodec.encode(sample);
+      } catch (Exception e) {
+        throw new RuntimeException("Error getting bytes from sample", e);
+      }
+    }
     return sampleAsBytes;
   }
 
@@ -75,12 +92,11 @@ public class WorkspaceDetail {
 
     WorkspaceDetail detail = (WorkspaceDetail) o;
     return Objects.equals(workspace, detail.workspace) &&
-      Objects.equals(sample, detail.sample) &&
-      Arrays.equals(sampleAsBytes, detail.sampleAsBytes);
+      Objects.equals(sample, detail.sample);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(workspace, sample, sampleAsBytes);
+    return Objects.hash(workspace, sample);
   }
 }
@@ -0,0 +1,206 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.proto.workspace;
+
+import io.cdap.wrangler.api.Row;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests for {@link SampleCodec}.
+ */
+public class SampleCodecTest {
+
+  @Test
+  public void testTypes() throws Exception {
+    Map<String, Object> map = new HashMap<>();
+    map.put("a", 1L);
+    map.put("b", null);
+    Map<String, Object> linkedMap = new LinkedHashMap<>();
+    linkedMap.put("z", "last");
+    linkedMap.put("a", Collections.singletonMap("nested", 1));
+
+    Row row = new Row();
+    row.add("string", "value");
+    row.add("empty", "");
+    row.add("null", null);
+    row.add("int", -42);
+    row.add("long", Long.MIN_VALUE);
+    row.add("short", (short) 7);
+    row.add("double", 1.5d);
+    row.add("float", -2.25f);
+    row.add("true", true);
+    row.add("false", false);
+    row.add("bytes", new byte[] { 1, 2, 3 });
+    row.add("decimal", new BigDecimal("-12345678901234567890.123"));
+    row.add("date", LocalDate.of(2024, 2, 29));
+    row.add("time", LocalTime.of(23, 59, 59, 999_999_999));
+    row.add("datetime", LocalDateTime.of(1969, 12, 31, 1, 2, 3));
+    row.add("timestamp", ZonedDateTime.of(2024, 10, 27, 2, 30, 0, 0, ZoneId.of("Europe/Paris")));
+    row.add("list", new ArrayList<>(Arrays.asList(1, "two", null)));
+    row.add("map", map);
+    row.add("linked", linkedMap);
+    row.add("record", new Row("inner", "value").add("other", 3));
+    row.add("serialized", new Timestamp(1000L));
+
+    List<Row> decoded = SampleCodec.decode(SampleCodec.encode(Collections.singletonList(row)));
+    Assert.assertEquals(1, decoded.size());
+    Row actual = decoded.get(0);
+    Assert.assertEquals(row.width(), actual.width());
+    for (int i = 0; i < row.width(); i++) {
+      Assert.assertEquals(row.getColumn(i), actual.getColumn(i));
+      Object expected = row.getValue(i);
+      if (expected instanceof byte[]) {
+        Assert.assertArrayEquals((byte[]) expected, (byte[]) actual.getValue(i));
+      } else {
+        Assert.assertEquals(expected, actual.getValue(i));
+        Assert.assertEquals(expected == null ? null : expected.getClass(),
+                            actual.getValue(i) == null ? null : actual.getValue(i).getClass());
+      }
+    }
+    Assert.assertEquals(new ArrayList<>(linkedMap.keySet()),
+                        new ArrayList<>(((Map<?, ?>) actual.getValue("linked")).keySet()));
+  }
+
+  @Test
+  public void testLayouts() throws Exception {
+    List<Row> rows = new ArrayList<>();
+    rows.add(new Row("a", 1).add("b", "x"));
+    rows.add(new Row("c", "y"));
+    rows.add(new Row("a", 2).add("b", "x"));
+    rows.add(new Row());
+    rows.add(new Row("c", null).add("c", "duplicate"));
+    rows.add(new Row("a", 3).add("b", "z"));
+
+    Assert.assertEquals(rows, SampleCodec.decode(SampleCodec.encode(rows)));
+    Assert.assertEquals(Collections.emptyList(), SampleCodec.decode(SampleCodec.encode(Collections.emptyList())));
+  }
+
+  @Test
+  public void testCompression() throws Exception {
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < 10000; i++) {
+      rows.add(new Row("id", i).add("name", "name" + (i % 100)).add("body", "line " + i + ",some,value,"));
+    }
+    byte[] encoded = SampleCodec.encode(rows);
+    Assert.assertEquals(rows, SampleCodec.decode(encoded));
+    Assert.assertTrue(encoded.length * 4 < serialize(rows).length);
+  }
+
+  @Test
+  public void testLegacy() throws Exception {
+    List<Row> rows = new ArrayList<>();
+    rows.add(new Row("body", "a,b,c"));
+    rows.add(new Row("body", "d,e,f"));
+    byte[] legacy = serialize(rows);
+
+    Assert.assertTrue(SampleCodec.isLegacy(legacy));
+    Assert.assertFalse(SampleCodec.isLegacy(SampleCodec.encode(rows)));
+    Assert.assertEquals(rows, SampleCodec.decode(legacy));
+  }
+
+  @Test
+  public void testRowsWithoutValues() throws Exception {
+    List<Row> rows = new ArrayList<>();
+    rows.add(new Row("body", "value"));
+    rows.add(new Row(Arrays.asList("k1", "k2")));
+    Assert.assertEquals(rows, SampleCodec.decode(SampleCodec.encode(rows)));
+  }
+
+  @Test
+  public void testNestedRowsWithoutValues() throws Exception {
+    List<Row> rows = Collections.singletonList(new Row("record", new Row(Arrays.asList("k1", "k2"))));
+    Assert.assertEquals(rows, SampleCodec.decode(SampleCodec.encode(rows)));
+  }
+
+  @Test
+  public void testUnpairedSurrogates() throws Exception {
+    List<Row> rows = new ArrayList<>();
+    rows.add(new Row("high\uD800", "a\uD83D").add("low", "\uDE00b"));
+    rows.add(new Row("high\uD800", "\uD83D\uDE00").add("low", "\uDE00\uD83D"));
+    Assert.assertEquals(rows, SampleCodec.decode(SampleCodec.encode(rows)));
+  }
+
+  @Test
+  public void testUtf8Version() throws Exception {
+    byte[] bytes = { 'W', 'R', 'S', 1, 0, 1, 3, 'c', (byte) 0xC3, (byte) 0xA9, 1, 1, 0, 1, 0, 1, 0 };
+    Assert.assertEquals(Collections.singletonList(new Row("c\u00E9", "c\u00E9")), SampleCodec.decode(bytes));
+  }
+
+  @Test
+  public void testTruncated() throws Exception {
+    List<Row> rows = new ArrayList<>();
+    List<Object> list = new ArrayList<>(Arrays.asList(1, 2));
+    rows.add(new Row("a", 1).add("record", new Row("inner", "value").add("list", list)));
+    rows.add(new Row("a", 2).add("record", new Row("inner", "other").add("list", new ArrayList<>())));
+    byte[] encoded = SampleCodec.encode(rows);
+    for (int length = 0; length < encoded.length; length++) {
+      try {
+        SampleCodec.decode(Arrays.copyOf(encoded, length));
+        Assert.fail("Decoded a sample truncated to " + length + " bytes");
+      } catch (IOException e) {
+        // expected
+      }
+    }
+  }
+
+  @Test
+  public void testCorruptNestedRow() throws Exception {
+    byte[] encoded = SampleCodec.encode(Collections.singletonList(new Row("record", new Row("inner", "value"))));
+    // The nested row refers to the string at index 1 for the name of its column
+    int index = encoded.length - 3;
+    Assert.assertEquals(1, encoded[index]);
+    encoded[index] = 9;
+    try {
+      SampleCodec.decode(encoded);
+      Assert.fail("Decoded a sample with a string index out of bounds");
+    } catch (IOException e) {
+      // expected
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testUnknownFormat() throws Exception {
+    SampleCodec.decode(new byte[] { 1, 2, 3, 4, 5 });
+  }
+
+  private static byte[] serialize(List<Row> rows) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(rows);
+    }
+    return bytes.toByteArray();
+  }
+}
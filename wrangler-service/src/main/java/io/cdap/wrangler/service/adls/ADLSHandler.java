@@ -51,6 +51,7 @@ import io.cdap.wrangler.proto.adls.FileQueryDetails;
 import io.cdap.wrangler.proto.connection.Connection;
 import io.cdap.wrangler.proto.connection.ConnectionMeta;
 import io.cdap.wrangler.proto.connection.ConnectionType;
+import io.cdap.wrangler.proto.workspace.SampleCodec;
 import io.cdap.wrangler.sampling.Bernoulli;
 import io.cdap.wrangler.sampling.Poisson;
 import io.cdap.wrangler.sampling.Reservoir;
@@ -58,7 +59,6 @@ import io.cdap.wrangler.service.FileTypeDetector;
 import io.cdap.wrangler.service.common.AbstractWranglerHandler;
 import io.cdap.wrangler.service.common.Format;
 import io.cdap.wrangler.service.explorer.BoundedLineInputStream;
-import io.cdap.wrangler.utils.ObjectSerDe;
 import io.cdap.wrangler.utils.ReferenceNames;
 
 import java.io.BufferedInputStream;
@@ -325,8 +325,7 @@ public class ADLSHandler extends AbstractWranglerHandler {
         }
 
         // Write rows to workspace.
-        ObjectSerDe<List<Row>> serDe = new ObjectSerDe<>();
-        byte[] data = serDe.toByteArray(rows);
+        byte[] data = SampleCodec.encode(rows);
         ws.updateWorkspaceData(namespacedWorkspaceId, DataType.RECORDS, data);
       });
 
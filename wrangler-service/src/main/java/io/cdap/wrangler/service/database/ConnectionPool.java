@@ -0,0 +1,267 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.database;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+
+/**
+ * A pool of JDBC connections, keyed by the connection they are made for. This avoids loading the driver and
+ * connecting to the database for every request made on a connection.
+ *
+ * <p>Connections are created by the factory loaded the first time a key is used, or when the properties of the
+ * connection change. Connections that stay idle for longer than the idle timeout are closed, which is checked every
+ * time the pool is used and periodically by a daemon thread while the pool holds idle connections. Connections are
+ * returned to the pool only if the execution using them succeeded.</p>
+ */
+final class ConnectionPool implements AutoCloseable {
+  private static final Logger LOG = LoggerFactory.getLogger(ConnectionPool.class);
+  private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+  /**
+   * Creates connections to a database.
+   */
+  interface ConnectionFactory {
+    Connection connect() throws SQLException;
+  }
+
+  /**
+   * Loads the factory of the connections of a key.
+   */
+  interface ConnectionFactoryLoader {
+    ConnectionFactory load() throws Exception;
+  }
+
+  private final int maxIdleConnections;
+  private final long idleTimeoutMillis;
+  private final Map<String, Entry> entries = new HashMap<>();
+  // Closes the idle connections periodically, started when a connection is first returned to the pool.
+  private ScheduledExecutorService evictor;
+
+  /**
+   * Creates a pool.
+   *
+   * @param maxIdleConnections the maximum number of idle connections kept for each key
+   * @param idleTimeoutMillis the time after which idle connections are closed
+   */
+  ConnectionPool(int maxIdleConnections, long idleTimeoutMillis) {
+    this.maxIdleConnections = maxIdleConnections;
+    this.idleTimeoutMillis = idleTimeoutMillis;
+  }
+
+  /**
+   * Executes with a connection of the pool.
+   *
+   * @param key the key of the connections, such as the id of the connection they are made for
+   * @param properties the properties the connections are created with. The connections of the key are created
+   *                   again when they change.
+   * @param loader the loader of the factory of the connections, called if the pool has no factory for the key and
+   *               properties
+   * @param executor the executor to call with the connection
+   */
+  void execute(String key, Object properties, ConnectionFactoryLoader loader,
+               DatabaseHandler.Executor executor) throws Exception {
+    Entry entry;
+    Connection connection;
+    synchronized (this) {
+      closeIdle(System.currentTimeMillis());
+      entry = entries.get(key);
+      if (entry != null && !entry.properties.equals(properties)) {
+        entries.remove(key);
+        close(entry.removeIdle(Long.MAX_VALUE));
+        entry = null;
+      }
+      connection = entry == null ? null : entry.borrow();
+    }
+    if (entry == null) {
+      entry = new Entry(properties, loader.load());
+      synchronized (this) {
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+          close(previous.removeIdle(Long.MAX_VALUE));
+        }
+      }
+    }
+    if (connection != null && !isValid(connection)) {
+      close(connection);
+      connection = null;
+    }
+    if (connection == null) {
+      connection = entry.factory.connect();
+    }
+
+    boolean succeeded = false;
+    try {
+      executor.execute(connection);
+      succeeded = true;
+    } finally {
+      if (!succeeded || !release(key, entry, connection)) {
+        close(connection);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of idle connections of a key.
+   */
+  synchronized int getIdleCount(String key) {
+    Entry entry = entries.get(key);
+    return entry == null ? 0 : entry.idle.size();
+  }
+
+  /**
+   * Returns a connection to the pool, returning {@code false} if it is not kept.
+   */
+  private synchronized boolean release(String key, Entry entry, Connection connection) {
+    if (entries.get(key) != entry || entry.idle.size() >= maxIdleConnections) {
+      return false;
+    }
+    entry.lastUsed = System.currentTimeMillis();
+    entry.idle.addLast(new IdleConnection(connection, entry.lastUsed));
+    if (evictor == null) {
+      evictor = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setDaemon(true).setNameFormat("jdbc-connection-evictor-%d").build());
+      evictor.scheduleWithFixedDelay(this::evict, idleTimeoutMillis, idleTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+    return true;
+  }
+
+  /**
+   * Closes all the idle connections and stops the thread closing them periodically. The pool can still be used
+   * afterwards, creating connections again.
+   */
+  @Override
+  public synchronized void close() {
+    for (Entry entry : entries.values()) {
+      close(entry.removeIdle(Long.MAX_VALUE));
+    }
+    entries.clear();
+    if (evictor != null) {
+      evictor.shutdownNow();
+      evictor = null;
+    }
+  }
+
+  private synchronized void evict() {
+    try {
+      closeIdle(System.currentTimeMillis());
+    } catch (RuntimeException e) {
+      // Keep the periodic eviction scheduled
+      LOG.warn("Failed to close idle JDBC connections", e);
+    }
+  }
+
+  /**
+   * Closes the connections that have been idle for longer than the idle timeout, and removes the keys that have no
+   * connection left.
+   */
+  private void closeIdle(long now) {
+    long idleSince = now - idleTimeoutMillis;
+    Iterator<Entry> iterator = entries.values().iterator();
+    while (iterator.hasNext()) {
+      Entry entry = iterator.next();
+      close(entry.removeIdle(idleSince));
+      if (entry.idle.isEmpty() && entry.lastUsed < idleSince) {
+        iterator.remove();
+      }
+    }
+  }
+
+  private static boolean isValid(Connection connection) {
+    try {
+      return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
+  private static void close(List<Connection> connections) {
+    for (Connection connection : connections) {
+      close(connection);
+    }
+  }
+
+  private static void close(Connection connection) {
+    try {
+      connection.close();
+    } catch (SQLException e) {
+      LOG.debug("Failed to close JDBC connection", e);
+    }
+  }
+
+  /**
+   * The factory and idle connections of a key.
+   */
+  private static final class Entry {
+    private final Object properties;
+    private final ConnectionFactory factory;
+    // Idle connections, the most recently returned last
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+    private long lastUsed = System.currentTimeMillis();
+
+    Entry(Object properties, ConnectionFactory factory) {
+      this.properties = properties;
+      this.factory = factory;
+    }
+
+    /**
+     * Returns the most recently used idle connection, or {@code null} if there is none.
+     */
+    @Nullable
+    Connection borrow() {
+      lastUsed = System.currentTimeMillis();
+      IdleConnection connection = idle.pollLast();
+      return connection == null ? null : connection.connection;
+    }
+
+    /**
+     * Removes the connections that have been idle since before the given time.
+     */
+    List<Connection> removeIdle(long idleSince) {
+      List<Connection> removed = new ArrayList<>();
+      while (!idle.isEmpty() && idle.peekFirst().since < idleSince) {
+        removed.add(idle.pollFirst().connection);
+      }
+      return removed;
+    }
+  }
+
+  private static final class IdleConnection {
+    private final Connection connection;
+    private final long since;
+
+    IdleConnection(Connection connection, long since) {
+      this.connection = connection;
+      this.since = since;
+    }
+  }
+}
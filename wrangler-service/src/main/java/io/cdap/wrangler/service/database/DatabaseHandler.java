@@ -48,9 +48,9 @@ import io.cdap.wrangler.proto.connection.ConnectionType;
 import io.cdap.wrangler.proto.db.AllowedDriverInfo;
 import io.cdap.wrangler.proto.db.DBSpec;
 import io.cdap.wrangler.proto.db.JDBCDriverInfo;
+import io.cdap.wrangler.proto.workspace.SampleCodec;
 import io.cdap.wrangler.service.common.AbstractWranglerHandler;
 import io.cdap.wrangler.service.macro.ServiceMacroEvaluator;
-import io.cdap.wrangler.utils.ObjectSerDe;
 import io.cdap.wrangler.utils.ReferenceNames;
 import org.apache.commons.lang3.text.StrLookup;
 import org.apache.commons.lang3.text.StrSubstitutor;
@@ -76,11 +76,14 @@ import java.sql.Timestamp;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
@@ -98,6 +101,17 @@ public class DatabaseHandler extends AbstractWranglerHandler {
   private static final Logger LOG = LoggerFactory.getLogger(DatabaseHandler.class);
   private static final List<String> MACRO_FIELDS = ImmutableList.of("username", "password");
   private static final String JDBC = "jdbc";
+  // Maximum number of rows fetched from the database in a single round trip when reading a table.
+  private static final int MAX_FETCH_SIZE = 1000;
+  // Prefixes of the names of the databases whose queries are limited with the LIMIT clause.
+  private static final List<String> LIMIT_DATABASES = ImmutableList.of(
+    "mysql", "mariadb", "postgresql", "redshift", "apache hive", "hdb", "hsql", "h2", "sqlite", "vertica", "netezza",
+    "snowflake");
+  // Prefixes of the names of the databases whose queries are limited with the TOP clause.
+  private static final List<String> TOP_DATABASES = ImmutableList.of(
+    "microsoft sql server", "adaptive server", "teradata");
+  // Connections to the databases of the connections, shared by all the instances of the handler.
+  private static final ConnectionPool CONNECTION_POOL = new ConnectionPool(2, TimeUnit.MINUTES.toMillis(5));
   private final Map<String, ServiceMacroEvaluator> macroEvaluators = new HashMap<>();
 
   static final class DriverInfo {
@@ -157,6 +171,15 @@ public class DatabaseHandler extends AbstractWranglerHandler {
     loadDrivers(is, drivers);
   }
 
+  /**
+   * Closes the pooled connections, which would otherwise keep the JDBC drivers and their classloaders.
+   */
+  @Override
+  public void destroy() {
+    super.destroy();
+    CONNECTION_POOL.close();
+  }
+
   @VisibleForTesting
   static void loadDrivers(InputStream is, Map<String, DriverInfo> drivers) throws IOException {
     try (BufferedReader br = new BufferedReader(new InputStreamReader(is))) {
@@ -363,7 +386,7 @@ public class DatabaseHandler extends AbstractWranglerHandler {
     respond(request, responder, namespace, ns -> {
       List<Name> values = new ArrayList<>();
       Connection conn = getConnection(new NamespacedId(ns, id));
-      loadAndExecute(ns, conn, connection -> {
+      loadAndExecute(ns, id, conn, connection -> {
         String product = connection.getMetaData().getDatabaseProductName().toLowerCase();
         ResultSet resultSet;
         if (product.equalsIgnoreCase("oracle")) {
@@ -417,9 +440,10 @@ public class DatabaseHandler extends AbstractWranglerHandler {
       AtomicReference<ConnectionSample> sampleRef = new AtomicReference<>();
       Connection conn = getConnection(new NamespacedId(ns, id));
 
-      loadAndExecute(ns, conn, connection -> {
-        try (Statement statement = connection.createStatement();
-          ResultSet result = statement.executeQuery(String.format("select * from %s", table))) {
+      loadAndExecute(ns, id, conn, connection -> {
+        String product = connection.getMetaData().getDatabaseProductName();
+        try (Statement statement = createSampleStatement(connection, lines);
+          ResultSet result = statement.executeQuery(getSampleQuery(product, table, lines))) {
           List<Row> rows = getRows(lines, result);
 
           Map<String, String> properties = new HashMap<>();
@@ -435,8 +459,7 @@ public class DatabaseHandler extends AbstractWranglerHandler {
             WorkspaceDataset ws = WorkspaceDataset.get(context);
             NamespacedId workspaceId = ws.createWorkspace(ns, workspaceMeta);
 
-            ObjectSerDe<List<Row>> serDe = new ObjectSerDe<>();
-            byte[] data = serDe.toByteArray(rows);
+            byte[] data = SampleCodec.encode(rows);
             ws.updateWorkspaceData(workspaceId, DataType.RECORDS, data);
             return workspaceId.getId();
           });
@@ -451,6 +474,47 @@ public class DatabaseHandler extends AbstractWranglerHandler {
     });
   }
 
+  /**
+   * Creates a statement fetching at most the given number of rows.
+   */
+  private static Statement createSampleStatement(java.sql.Connection connection, int lines) throws SQLException {
+    Statement statement = connection.createStatement();
+    if (lines > 0) {
+      statement.setMaxRows(lines);
+      statement.setFetchSize(Math.min(lines, MAX_FETCH_SIZE));
+    }
+    return statement;
+  }
+
+  /**
+   * Returns the query reading the first rows of a table, limited on the database side if the dialect of the database
+   * is known.
+   *
+   * @param product the name of the database product
+   * @param table the table to read
+   * @param lines the number of rows to read
+   * @return the query
+   */
+  @VisibleForTesting
+  static String getSampleQuery(String product, String table, int lines) {
+    String name = product.toLowerCase().trim();
+    // Databases may not accept a limit of 0, in which case no row is read from the result anyway
+    int limit = Math.max(lines, 1);
+    if (LIMIT_DATABASES.stream().anyMatch(name::startsWith)) {
+      return String.format("select * from %s limit %d", table, limit);
+    }
+    if (TOP_DATABASES.stream().anyMatch(name::startsWith)) {
+      return String.format("select top %d * from %s", limit, table);
+    }
+    if (name.equals("oracle")) {
+      return String.format("select * from %s where rownum <= %d", table, limit);
+    }
+    if (name.startsWith("db2")) {
+      return String.format("select * from %s fetch first %d rows only", table, limit);
+    }
+    return String.format("select * from %s", table);
+  }
+
   @VisibleForTesting
   static List<Row> getRows(int lines, ResultSet result) throws SQLException {
     List<Row> rows = new ArrayList<>();
@@ -561,6 +625,35 @@ public class DatabaseHandler extends AbstractWranglerHandler {
    */
   private void loadAndExecute(Namespace namespace, ConnectionMeta connection,
                               Executor executor, SystemHttpServiceContext context) throws Exception {
+    Map<String, String> evaluated = evaluateMacros(connection, context, namespace.getName());
+    try (java.sql.Connection conn = createConnectionFactory(namespace, connection, evaluated, context).connect()) {
+      executor.execute(conn);
+    }
+  }
+
+  /**
+   * Executes with a pooled connection to the database of the connection with the given id.
+   *
+   * @param id the id of the connection
+   * @param connection the connection to be connected to.
+   */
+  private void loadAndExecute(Namespace namespace, String id, ConnectionMeta connection,
+                              Executor executor, SystemHttpServiceContext context) throws Exception {
+    Map<String, String> evaluated = evaluateMacros(connection, context, namespace.getName());
+    // Connections are created again if any of the properties used to create them changes
+    List<String> properties = Arrays.asList(connection.getProperties().get("name"),
+                                            connection.getProperties().get("url"),
+                                            evaluated.get("username"), evaluated.get("password"));
+    CONNECTION_POOL.execute(namespace.getName() + ":" + id, properties,
+                            () -> createConnectionFactory(namespace, connection, evaluated, context), executor);
+  }
+
+  /**
+   * Loads the driver of the connection and returns a factory of connections to the database.
+   */
+  private ConnectionPool.ConnectionFactory createConnectionFactory(Namespace namespace, ConnectionMeta connection,
+                                                                   Map<String, String> evaluated,
+                                                                   SystemHttpServiceContext context) throws Exception {
     String jdbcPluginName = connection.getProperties().get("name");
     String url = connection.getProperties().get("url");
 
@@ -572,17 +665,29 @@ public class DatabaseHandler extends AbstractWranglerHandler {
       throw new NotFoundException("Could not find a JDBC driver plugin named " + jdbcPluginName);
     }
 
-    DriverCleanup cleanup = ensureJDBCDriverIsAvailable(driverClass, url);
+    // The driver is used directly, drivers registering themselves when loaded are removed from the driver manager
+    // to not keep the plugin classloader around.
+    Driver driver = driverClass.newInstance();
     try {
-      Map<String, String> evaluated = evaluateMacros(connection, context, namespace.getName());
-      String username = evaluated.get("username");
-      String password = evaluated.get("password");
+      deregisterAllDrivers(driverClass);
+    } catch (NoSuchFieldException | ClassNotFoundException e) {
+      LOG.warn("Unable to deregister JDBC Driver class {}", driverClass);
+    }
 
-      java.sql.Connection conn = DriverManager.getConnection(url, username, password);
-      executor.execute(conn);
-    } finally {
-      cleanup.destroy();
+    Properties info = new Properties();
+    if (evaluated.get("username") != null) {
+      info.put("user", evaluated.get("username"));
+    }
+    if (evaluated.get("password") != null) {
+      info.put("password", evaluated.get("password"));
     }
+    return () -> {
+      java.sql.Connection conn = driver.connect(url, info);
+      if (conn == null) {
+        throw new SQLException("No suitable driver found for " + url);
+      }
+      return conn;
+    };
   }
 
   /**
@@ -599,24 +704,6 @@ public class DatabaseHandler extends AbstractWranglerHandler {
     return context.evaluateMacros(namespaceName, toEvaluate, macroEvaluators.get(namespaceName));
   }
 
-  private static DriverCleanup ensureJDBCDriverIsAvailable(Class<? extends Driver> classz, String url)
-    throws IllegalAccessException, InstantiationException, SQLException {
-    try {
-      DriverManager.getDriver(url);
-      return new DriverCleanup(null);
-    } catch (SQLException e) {
-      Driver driver = classz.newInstance();
-      final JDBCDriverShim shim = new JDBCDriverShim(driver);
-      try {
-        deregisterAllDrivers(classz);
-      } catch (NoSuchFieldException | ClassNotFoundException e1) {
-        LOG.warn("Unable to deregister JDBC Driver class {}", classz);
-      }
-      DriverManager.registerDriver(shim);
-      return new DriverCleanup(shim);
-    }
-  }
-
   /**
    * De-register all SQL drivers that are associated with the class
    */
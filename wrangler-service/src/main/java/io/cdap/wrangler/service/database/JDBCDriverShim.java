@@ -1,72 +0,0 @@
-/*
- * Copyright © 2017-2019 Cask Data, Inc.
- *
- * Licensed under the Apache License, Version 2.0 (the "License"); you may not
- * use this file except in compliance with the License. You may obtain a copy of
- * the License at
- *
- * http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
- * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
- * License for the specific language governing permissions and limitations under
- * the License.
- */
-
-package io.cdap.wrangler.service.database;
-
-import java.sql.Connection;
-import java.sql.Driver;
-import java.sql.DriverPropertyInfo;
-import java.sql.SQLException;
-import java.sql.SQLFeatureNotSupportedException;
-import java.util.Properties;
-import java.util.logging.Logger;
-
-/**
- * JDBC driver shim. Doesn't do anything but delegate.
- */
-public class JDBCDriverShim implements Driver {
-  private final Driver delegate;
-
-  public JDBCDriverShim(Driver delegate) {
-    this.delegate = delegate;
-  }
-
-  @Override
-  public boolean acceptsURL(String url) throws SQLException {
-    return delegate.acceptsURL(url);
-  }
-
-  @Override
-  public Connection connect(String url, Properties info) throws SQLException {
-    return delegate.connect(url, info);
-  }
-
-  @Override
-  public int getMajorVersion() {
-    return delegate.getMajorVersion();
-  }
-
-  @Override
-  public int getMinorVersion() {
-    return delegate.getMinorVersion();
-  }
-
-  @Override
-  public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) throws SQLException {
-    return delegate.getPropertyInfo(url, info);
-  }
-
-  @Override
-  public boolean jdbcCompliant() {
-    return delegate.jdbcCompliant();
-  }
-
-  @Override
-  public Logger getParentLogger() throws SQLFeatureNotSupportedException {
-    return delegate.getParentLogger();
-  }
-}
-
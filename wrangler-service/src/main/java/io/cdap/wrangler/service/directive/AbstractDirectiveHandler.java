@@ -17,35 +17,47 @@
 
 package io.cdap.wrangler.service.directive;
 
+import com.google.common.cache.CacheStats;
+import com.google.common.collect.ImmutableSet;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.cdap.api.metrics.Metrics;
 import io.cdap.cdap.api.service.http.SystemHttpServiceContext;
 import io.cdap.cdap.features.Feature;
 import io.cdap.directives.aggregates.DefaultTransientStore;
+import io.cdap.directives.aggregates.IncrementTransientVariable;
+import io.cdap.directives.aggregates.SetTransientVariable;
+import io.cdap.directives.date.DiffDate;
+import io.cdap.directives.datetime.CurrentDateTime;
+import io.cdap.directives.row.SendToErrorAndContinue;
+import io.cdap.directives.transformation.GenerateUUID;
 import io.cdap.wrangler.api.CompileException;
-import io.cdap.wrangler.api.DirectiveConfig;
 import io.cdap.wrangler.api.DirectiveParseException;
 import io.cdap.wrangler.api.ErrorRecordBase;
 import io.cdap.wrangler.api.ExecutorContext;
-import io.cdap.wrangler.api.GrammarMigrator;
 import io.cdap.wrangler.api.Pair;
 import io.cdap.wrangler.api.RecipeException;
 import io.cdap.wrangler.api.RecipeParser;
 import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.api.TokenGroup;
 import io.cdap.wrangler.api.TransientStore;
+import io.cdap.wrangler.api.TransientVariableScope;
+import io.cdap.wrangler.executor.DirectiveProfile;
 import io.cdap.wrangler.executor.RecipePipelineExecutor;
-import io.cdap.wrangler.parser.ConfigDirectiveContext;
-import io.cdap.wrangler.parser.GrammarBasedParser;
+import io.cdap.wrangler.executor.RecipeProfile;
+import io.cdap.wrangler.expression.EL;
 import io.cdap.wrangler.parser.GrammarWalker;
-import io.cdap.wrangler.parser.MigrateToV2;
-import io.cdap.wrangler.parser.RecipeCompiler;
+import io.cdap.wrangler.parser.PrecompiledRecipeParser;
 import io.cdap.wrangler.proto.BadRequestException;
 import io.cdap.wrangler.proto.ErrorRecordsException;
+import io.cdap.wrangler.proto.workspace.ColumnProfileSummary;
 import io.cdap.wrangler.proto.workspace.ColumnStatistics;
 import io.cdap.wrangler.proto.workspace.ColumnValidationResult;
 import io.cdap.wrangler.proto.workspace.WorkspaceValidationResult;
+import io.cdap.wrangler.proto.workspace.v2.DirectiveExecutionProfile;
 import io.cdap.wrangler.proto.workspace.v2.DirectiveExecutionResponse;
+import io.cdap.wrangler.proto.workspace.v2.ExecutionProfile;
 import io.cdap.wrangler.registry.CompositeDirectiveRegistry;
 import io.cdap.wrangler.registry.DirectiveRegistry;
 import io.cdap.wrangler.registry.SystemDirectiveRegistry;
@@ -53,6 +65,8 @@ import io.cdap.wrangler.registry.UserDirectiveRegistry;
 import io.cdap.wrangler.schema.TransientStoreKeys;
 import io.cdap.wrangler.service.common.AbstractWranglerHandler;
 import io.cdap.wrangler.statistics.BasicStatistics;
+import io.cdap.wrangler.statistics.ColumnProfile;
+import io.cdap.wrangler.statistics.ColumnProfiler;
 import io.cdap.wrangler.statistics.Statistics;
 import io.cdap.wrangler.utils.SchemaConverter;
 import io.cdap.wrangler.validator.ColumnNameValidator;
@@ -69,7 +83,10 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 /**
  * Abstract handler which contains common logic for v1 and v2 endpoints
@@ -82,13 +99,31 @@ public class AbstractDirectiveHandler extends AbstractWranglerHandler {
     new WranglerDisplaySerializer()).create();
 
   private static final String NULL_COLUMN_DISPLAY_TYPE = "NULL";
+  // Number of most frequent values of each column returned in the profiles of the workspace summary.
+  private static final int PROFILE_TOP_VALUES = 10;
+
   protected static final String COLUMN_NAME = "body";
   protected static final String RECORD_DELIMITER_HEADER = "recorddelimiter";
   protected static final String DELIMITER_HEADER = "delimiter";
   protected static final TransientStore TRANSIENT_STORE = new DefaultTransientStore();
+  private static final String EXPRESSION_CACHE_HITS_METRIC = "expression.cache.hits";
+  private static final String EXPRESSION_CACHE_MISSES_METRIC = "expression.cache.misses";
+  private static final String RECIPE_CACHE_HITS_METRIC = "recipe.cache.hits";
+  private static final String RECIPE_CACHE_MISSES_METRIC = "recipe.cache.misses";
+  // Maximum number of compiled directives, across all the recipes, held by the cache.
+  private static final long RECIPE_CACHE_SIZE = 100000;
+  private static final CompiledRecipeCache RECIPE_CACHE = new CompiledRecipeCache(RECIPE_CACHE_SIZE);
+  // Directives that share state between rows through transient variables.
+  private static final Set<String> TRANSIENT_DIRECTIVES = ImmutableSet.of(
+    SetTransientVariable.NAME, IncrementTransientVariable.NAME, SendToErrorAndContinue.NAME);
+  // Directives and expression functions whose result depends on the time or on random values.
+  private static final Set<String> NON_DETERMINISTIC_DIRECTIVES = ImmutableSet.of(
+    CurrentDateTime.NAME, DiffDate.NAME, GenerateUUID.NAME);
+  private static final Pattern NON_DETERMINISTIC_FUNCTIONS = Pattern.compile("\\b(datetime|date):|math:random");
 
   protected DirectiveRegistry composite;
   protected boolean schemaManagementEnabled;
+  private Metrics metrics;
 
   @Override
   public void initialize(SystemHttpServiceContext context) throws Exception {
@@ -100,6 +135,18 @@ public class AbstractDirectiveHandler extends AbstractWranglerHandler {
     schemaManagementEnabled = Feature.WRANGLER_SCHEMA_MANAGEMENT.isEnabled(context);
   }
 
+  /**
+   * Emits the hit and miss counts of the caches of compiled expressions and recipes.
+   */
+  protected void emitExpressionCacheMetrics() {
+    CacheStats stats = EL.getCacheStats();
+    metrics.gauge(EXPRESSION_CACHE_HITS_METRIC, stats.hitCount());
+    metrics.gauge(EXPRESSION_CACHE_MISSES_METRIC, stats.missCount());
+    CacheStats recipeStats = RECIPE_CACHE.getStats();
+    metrics.gauge(RECIPE_CACHE_HITS_METRIC, recipeStats.hitCount());
+    metrics.gauge(RECIPE_CACHE_MISSES_METRIC, recipeStats.missCount());
+  }
+
   /**
    * Closes the resources help by the composite registry.
    */
@@ -119,40 +166,186 @@ public class AbstractDirectiveHandler extends AbstractWranglerHandler {
       List<String> directives,
       List<Row> sample,
       GrammarWalker.Visitor<E> grammarVisitor) throws DirectiveParseException, E, RecipeException {
+    return executeDirectives(namespace, directives, sample, grammarVisitor, null);
+  }
+
+  /**
+   * Executes the directives on the sample.
+   *
+   * @param profileConsumer consumer of the statistics of each directive of the execution, {@code null} to not
+   *                        collect them
+   */
+  protected <E extends Exception> List<Row> executeDirectives(
+      String namespace,
+      List<String> directives,
+      List<Row> sample,
+      GrammarWalker.Visitor<E> grammarVisitor,
+      @Nullable Consumer<RecipeProfile> profileConsumer) throws DirectiveParseException, E, RecipeException {
 
     if (directives.isEmpty()) {
       return sample;
     }
 
-    GrammarMigrator migrator = new MigrateToV2(directives);
-    String recipe = migrator.migrate();
+    try (RecipePipelineExecutor executor = createExecutor(namespace, directives, grammarVisitor)) {
+      return execute(executor, sample, profileConsumer);
+    }
+  }
+
+  /**
+   * Executes the directives on the sample, starting from the rows of the longest prefix of the directives that
+   * was checkpointed, and checkpoints the rows produced by the directives.
+   *
+   * <p>Directives are only checkpointed if they are all system directives that do not use transient variables.
+   * Otherwise a directive could depend on the state left by the directives that follow it on previous rows, which
+   * is lost when the directives are executed in separate steps. Directives that depend on the time or on random
+   * values, directly or through the date and time functions of expressions, are not checkpointed either, since
+   * the rows of a checkpoint would be stale.</p>
+   *
+   * @param checkpoints checkpoints of the workspace the sample belongs to
+   */
+  protected <E extends Exception> List<Row> executeWithCheckpoints(
+      String namespace,
+      List<String> directives,
+      List<Row> sample,
+      GrammarWalker.Visitor<E> grammarVisitor,
+      ExecutionCheckpoints.WorkspaceCheckpoints checkpoints) throws DirectiveParseException, E, RecipeException {
+
+    if (directives.isEmpty()) {
+      return sample;
+    }
+
+    CompiledRecipeCache.CompiledRecipe recipe = compile(directives, grammarVisitor);
+    List<Pair<String, TokenGroup>> symbols = recipe.getSymbols();
+    if (!isCheckpointable(directives, recipe)) {
+      try (RecipePipelineExecutor executor = createExecutor(namespace, symbols)) {
+        return execute(executor, sample, null);
+      }
+    }
+
+    ExecutionCheckpoints.Checkpoint checkpoint = checkpoints.find(directives);
+    if (checkpoint == null || (schemaManagementEnabled && checkpoint.getSchema() == null)) {
+      List<Row> result;
+      try (RecipePipelineExecutor executor = createExecutor(namespace, symbols)) {
+        result = execute(executor, sample, null);
+      }
+      addCheckpoint(checkpoints, directives, result);
+      return result;
+    }
+
+    Schema inputSchema = TRANSIENT_STORE.get(TransientStoreKeys.INPUT_SCHEMA);
+    if (schemaManagementEnabled) {
+      TRANSIENT_STORE.set(TransientVariableScope.GLOBAL, TransientStoreKeys.INPUT_SCHEMA, checkpoint.getSchema());
+    }
+    List<Row> result;
+    int start = recipe.getSymbolCount(checkpoint.getDirectives());
+    try (RecipePipelineExecutor executor = createExecutor(namespace, symbols.subList(start, symbols.size()))) {
+      result = execute(executor, checkpoint.getRows(), null);
+    } catch (RecipeException e) {
+      // Indexes of the row and directive of the error are relative to the checkpoint. Execute all the
+      // directives again to report the same error as without the checkpoint.
+      if (schemaManagementEnabled) {
+        TRANSIENT_STORE.set(TransientVariableScope.GLOBAL, TransientStoreKeys.INPUT_SCHEMA, inputSchema);
+      }
+      try (RecipePipelineExecutor executor = createExecutor(namespace, symbols)) {
+        return execute(executor, sample, null);
+      }
+    }
+    if (schemaManagementEnabled) {
+      TRANSIENT_STORE.set(TransientVariableScope.GLOBAL, TransientStoreKeys.INPUT_SCHEMA, inputSchema);
+    }
+    if (checkpoint.getDirectives() < directives.size()) {
+      addCheckpoint(checkpoints, directives, result);
+    }
+    return result;
+  }
+
+  private boolean isCheckpointable(List<String> directives, CompiledRecipeCache.CompiledRecipe recipe) {
+    if (recipe.getSymbolCount(1) < 0) {
+      return false;
+    }
+    for (Pair<String, TokenGroup> symbol : recipe.getSymbols()) {
+      String command = symbol.getFirst();
+      if (SystemDirectiveRegistry.INSTANCE.get(command) == null || TRANSIENT_DIRECTIVES.contains(command)
+        || NON_DETERMINISTIC_DIRECTIVES.contains(command)) {
+        return false;
+      }
+    }
+    for (String directive : directives) {
+      if (NON_DETERMINISTIC_FUNCTIONS.matcher(directive).find()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void addCheckpoint(ExecutionCheckpoints.WorkspaceCheckpoints checkpoints, List<String> directives,
+                             List<Row> rows) {
+    Schema schema = schemaManagementEnabled ? TRANSIENT_STORE.get(TransientStoreKeys.OUTPUT_SCHEMA) : null;
+    if (!schemaManagementEnabled || schema != null) {
+      checkpoints.add(directives, rows, schema);
+    }
+  }
+
+  /**
+   * Executes the rows with the executor.
+   */
+  private List<Row> execute(RecipePipelineExecutor executor, List<Row> rows,
+                            @Nullable Consumer<RecipeProfile> profileConsumer) throws RecipeException {
+    if (profileConsumer != null) {
+      executor.enableProfiling(RecipePipelineExecutor.DEFAULT_PROFILE_SAMPLE_INTERVAL);
+    }
+    List<Row> result = executor.execute(rows);
+    emitExpressionCacheMetrics();
+    if (profileConsumer != null) {
+      profileConsumer.accept(executor.getProfile());
+    }
 
-    // Parse and call grammar visitor
+    List<ErrorRecordBase> errors = executor.errors()
+      .stream()
+      .filter(ErrorRecordBase::isShownInWrangler)
+      .collect(Collectors.toList());
+
+    if (!errors.isEmpty()) {
+      throw new ErrorRecordsException(errors);
+    }
+    return result;
+  }
+
+  /**
+   * Creates the executor of the directives, calling the grammar visitor on each directive.
+   */
+  protected <E extends Exception> RecipePipelineExecutor createExecutor(
+      String namespace,
+      List<String> directives,
+      GrammarWalker.Visitor<E> grammarVisitor) throws DirectiveParseException, E {
+    return createExecutor(namespace, compile(directives, grammarVisitor).getSymbols());
+  }
+
+  /**
+   * Compiles the directives, calling the grammar visitor on each directive.
+   */
+  private <E extends Exception> CompiledRecipeCache.CompiledRecipe compile(
+      List<String> directives,
+      GrammarWalker.Visitor<E> grammarVisitor) throws DirectiveParseException, E {
+    CompiledRecipeCache.CompiledRecipe recipe;
     try {
-      GrammarWalker walker = new GrammarWalker(new RecipeCompiler(), new ConfigDirectiveContext(DirectiveConfig.EMPTY));
-      walker.walk(recipe, grammarVisitor);
+      recipe = RECIPE_CACHE.compile(directives);
     } catch (CompileException e) {
       throw new BadRequestException(e.getMessage(), e);
     }
 
-    RecipeParser parser = new GrammarBasedParser(namespace, recipe, composite,
-                                                 new ConfigDirectiveContext(DirectiveConfig.EMPTY));
-    try (RecipePipelineExecutor executor = new RecipePipelineExecutor(parser,
-                                                                      new ServicePipelineContext(
-                                                                        namespace, ExecutorContext.Environment.SERVICE,
-                                                                        getContext(), TRANSIENT_STORE))) {
-      List<Row> result = executor.execute(sample);
-
-      List<ErrorRecordBase> errors = executor.errors()
-        .stream()
-        .filter(ErrorRecordBase::isShownInWrangler)
-        .collect(Collectors.toList());
-
-      if (!errors.isEmpty()) {
-        throw new ErrorRecordsException(errors);
-      }
-      return result;
+    // Call grammar visitor on the compiled directives
+    for (Pair<String, TokenGroup> symbol : recipe.getSymbols()) {
+      grammarVisitor.visit(symbol.getFirst(), symbol.getSecond());
     }
+    return recipe;
+  }
+
+  private RecipePipelineExecutor createExecutor(String namespace, List<Pair<String, TokenGroup>> symbols) {
+    RecipeParser parser = new PrecompiledRecipeParser(namespace, symbols, composite);
+    return new RecipePipelineExecutor(parser, new ServicePipelineContext(namespace,
+                                                                         ExecutorContext.Environment.SERVICE,
+                                                                         getContext(), TRANSIENT_STORE));
   }
 
   /**
@@ -160,6 +353,15 @@ public class AbstractDirectiveHandler extends AbstractWranglerHandler {
    */
   protected DirectiveExecutionResponse generateExecutionResponse(
     List<Row> rows, int limit) throws Exception {
+    return generateExecutionResponse(rows, limit, null);
+  }
+
+  /**
+   * Transform the rows to response that is user friendly, along with the statistics of each directive if the
+   * execution was profiled. Also generates the summary from the rows.
+   */
+  protected DirectiveExecutionResponse generateExecutionResponse(
+    List<Row> rows, int limit, @Nullable RecipeProfile profile) throws Exception {
     List<Map<String, Object>> values = new ArrayList<>(rows.size());
     Map<String, String> types = new LinkedHashMap<>();
     SchemaConverter convertor = new SchemaConverter();
@@ -211,13 +413,31 @@ public class AbstractDirectiveHandler extends AbstractWranglerHandler {
       }
       values.add(value);
     }
-    return new DirectiveExecutionResponse(values, types.keySet(), types, getWorkspaceSummary(rows));
+    return new DirectiveExecutionResponse(values, types.keySet(), types, getWorkspaceSummary(rows),
+                                          profile == null ? null : toExecutionProfile(profile));
+  }
+
+  private ExecutionProfile toExecutionProfile(RecipeProfile profile) {
+    List<DirectiveExecutionProfile> directives = new ArrayList<>(profile.getDirectives().size());
+    for (DirectiveProfile directive : profile.getDirectives()) {
+      directives.add(new DirectiveExecutionProfile(directive.getIndex(), directive.getName(), directive.getNanos(),
+                                                   directive.getRowsIn(), directive.getRowsOut(),
+                                                   directive.getErrors()));
+    }
+    return new ExecutionProfile(profile.getSampleInterval(), profile.getRows(), profile.getSampledRows(), directives);
   }
 
   /**
    * Get the summary for the workspace rows
    */
   protected WorkspaceValidationResult getWorkspaceSummary(List<Row> rows) throws Exception {
+    return getWorkspaceSummary(rows, false);
+  }
+
+  /**
+   * Get the summary for the workspace rows, including the profiles of the columns if requested.
+   */
+  protected WorkspaceValidationResult getWorkspaceSummary(List<Row> rows, boolean profile) throws Exception {
     // Validate Column names.
     Validator<String> validator = new ColumnNameValidator();
     validator.initialize();
@@ -271,7 +491,26 @@ public class AbstractDirectiveHandler extends AbstractWranglerHandler {
       statistics.put(field.getFirst(), new ColumnStatistics(generalStats, typeStats));
     }
 
-    return new WorkspaceValidationResult(columnValidationResults, statistics);
+    return new WorkspaceValidationResult(columnValidationResults, statistics, profile ? getProfiles(rows) : null);
+  }
+
+  private static Map<String, ColumnProfileSummary> getProfiles(List<Row> rows) {
+    Map<String, ColumnProfileSummary> profiles = new LinkedHashMap<>();
+    for (Map.Entry<String, ColumnProfile> entry : ColumnProfiler.profile(rows).getProfiles().entrySet()) {
+      ColumnProfile profile = entry.getValue();
+      Map<String, Long> topValues = new LinkedHashMap<>();
+      for (Pair<String, Long> value : profile.getTopValues(PROFILE_TOP_VALUES)) {
+        topValues.put(value.getFirst(), value.getSecond());
+      }
+      boolean numeric = profile.getNumericCount() > 0;
+      double[] quantiles = profile.getQuantiles(0.25, 0.5, 0.75);
+      profiles.put(entry.getKey(), new ColumnProfileSummary(
+        profile.getCount(), profile.getNullCount(), profile.getEmptyCount(), profile.getDistinctCount(),
+        profile.getNumericCount(), numeric ? profile.getMin() : null, numeric ? quantiles[0] : null,
+        numeric ? quantiles[1] : null, numeric ? quantiles[2] : null, numeric ? profile.getMax() : null,
+        profile.getMinLength(), profile.getMaxLength(), profile.getLengthHistogram(), topValues));
+    }
+    return profiles;
   }
 
   private String getColumnDisplayType(Schema schema) {
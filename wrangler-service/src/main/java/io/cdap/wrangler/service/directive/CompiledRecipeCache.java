@@ -0,0 +1,205 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.directive;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import io.cdap.wrangler.api.CompileException;
+import io.cdap.wrangler.api.DirectiveConfig;
+import io.cdap.wrangler.api.DirectiveParseException;
+import io.cdap.wrangler.api.Pair;
+import io.cdap.wrangler.api.SourceInfo;
+import io.cdap.wrangler.api.TokenGroup;
+import io.cdap.wrangler.api.parser.Token;
+import io.cdap.wrangler.parser.ConfigDirectiveContext;
+import io.cdap.wrangler.parser.GrammarWalker;
+import io.cdap.wrangler.parser.MigrateToV2;
+import io.cdap.wrangler.parser.RecipeCompiler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Cache of the compiled form of recipes, keyed by the directives of the recipe.
+ *
+ * <p>Recipes are usually built one directive at a time, so when a recipe is not in the cache, the longest prefix
+ * of it that is cached is reused and only the remaining directives are migrated and compiled. Only the
+ * name and tokens of each directive are cached, they do not depend on the directive registry, hence the
+ * cache does not need to be invalidated when user directives are reloaded. Directives are still instantiated
+ * and initialized for every execution, as they hold state of the execution.</p>
+ */
+final class CompiledRecipeCache {
+
+  private final Cache<List<String>, CompiledRecipe> cache;
+
+  /**
+   * @param maximumDirectives maximum number of compiled directives held by the cache
+   */
+  CompiledRecipeCache(long maximumDirectives) {
+    this.cache = CacheBuilder.newBuilder()
+      .maximumWeight(maximumDirectives)
+      .<List<String>, CompiledRecipe>weigher((directives, recipe) -> recipe.symbols.size() + 1)
+      .recordStats()
+      .build();
+  }
+
+  /**
+   * Compiles the directives, reusing the compiled form of the longest prefix of the directives already in
+   * the cache.
+   *
+   * @param directives the directives of the recipe, in version 1 or 2 of the grammar
+   * @return name and tokens of each directive of the recipe
+   * @throws DirectiveParseException if a directive cannot be migrated or is invalid
+   * @throws CompileException if the recipe cannot be compiled
+   */
+  CompiledRecipe compile(List<String> directives) throws DirectiveParseException, CompileException {
+    List<String> key = Collections.unmodifiableList(new ArrayList<>(directives));
+    CompiledRecipe recipe = cache.getIfPresent(key);
+    if (recipe == null) {
+      recipe = compileFromPrefix(key);
+      cache.put(key, recipe);
+    }
+    return recipe;
+  }
+
+  /**
+   * @return statistics of the lookups in the cache
+   */
+  CacheStats getStats() {
+    return cache.stats();
+  }
+
+  private CompiledRecipe compileFromPrefix(List<String> directives) throws DirectiveParseException, CompileException {
+    CompiledRecipe prefix = null;
+    int start = directives.size() - 1;
+    for (; start > 0; start--) {
+      // Lookups through the map view do not count in the statistics of the cache.
+      prefix = cache.asMap().get(directives.subList(0, start));
+      // Recipes compiled as a whole cannot be extended one directive at a time.
+      if (prefix != null && prefix.ends != null) {
+        break;
+      }
+      prefix = null;
+    }
+
+    List<Pair<String, TokenGroup>> symbols = new ArrayList<>();
+    int[] ends = new int[directives.size()];
+    int lines = 0;
+    if (prefix != null) {
+      symbols.addAll(prefix.symbols);
+      System.arraycopy(prefix.ends, 0, ends, 0, start);
+      lines = prefix.lines;
+    }
+
+    try {
+      for (int i = Math.max(start, 0); i < directives.size(); i++) {
+        String migrated = new MigrateToV2(Collections.singletonList(directives.get(i))).migrate();
+        if (!migrated.isEmpty()) {
+          int offset = lines;
+          walk(migrated, (command, tokenGroup) -> symbols.add(new Pair<>(command, shift(tokenGroup, offset))));
+          lines += countLines(migrated);
+        }
+        ends[i] = symbols.size();
+      }
+    } catch (DirectiveParseException | CompileException e) {
+      // A statement may span multiple directives, compile the whole recipe so that it either succeeds or
+      // fails the same way as without the cache.
+      String migrated = new MigrateToV2(directives).migrate();
+      List<Pair<String, TokenGroup>> recipe = new ArrayList<>();
+      walk(migrated, (command, tokenGroup) -> recipe.add(new Pair<>(command, tokenGroup)));
+      return new CompiledRecipe(recipe, null, countLines(migrated));
+    }
+    return new CompiledRecipe(symbols, ends, lines);
+  }
+
+  private static void walk(String recipe,
+                           GrammarWalker.Visitor<RuntimeException> visitor) throws DirectiveParseException,
+    CompileException {
+    new GrammarWalker(new RecipeCompiler(), new ConfigDirectiveContext(DirectiveConfig.EMPTY)).walk(recipe, visitor);
+  }
+
+  /**
+   * Moves the tokens down by the given number of lines, as if they were compiled after the previous directives.
+   */
+  private static TokenGroup shift(TokenGroup tokenGroup, int lines) {
+    SourceInfo info = tokenGroup.getSourceInfo();
+    if (lines == 0 || info == null) {
+      return tokenGroup;
+    }
+    TokenGroup shifted = new TokenGroup(new SourceInfo(info.getLineNumber() + lines, info.getColumnNumber(),
+                                                       info.getSource()));
+    Iterator<Token> tokens = tokenGroup.iterator();
+    while (tokens.hasNext()) {
+      shifted.add(tokens.next());
+    }
+    return shifted;
+  }
+
+  private static int countLines(String recipe) {
+    if (recipe.isEmpty()) {
+      return 0;
+    }
+    int lines = 1;
+    for (int i = 0; i < recipe.length(); i++) {
+      if (recipe.charAt(i) == '\n') {
+        lines++;
+      }
+    }
+    return lines;
+  }
+
+  /**
+   * Compiled form of a recipe.
+   */
+  static final class CompiledRecipe {
+    private final List<Pair<String, TokenGroup>> symbols;
+    // Number of symbols compiled from the directives up to each directive of the recipe, null if the
+    // directives could only be compiled together.
+    private final int[] ends;
+    // Number of lines of the recipe once migrated to version 2 of the grammar.
+    private final int lines;
+
+    private CompiledRecipe(List<Pair<String, TokenGroup>> symbols, @Nullable int[] ends, int lines) {
+      this.symbols = Collections.unmodifiableList(symbols);
+      this.ends = ends;
+      this.lines = lines;
+    }
+
+    /**
+     * @return name and tokens of each directive of the recipe
+     */
+    List<Pair<String, TokenGroup>> getSymbols() {
+      return symbols;
+    }
+
+    /**
+     * @param directives number of directives from the start of the recipe
+     * @return number of symbols compiled from the given number of directives, -1 if the directives of the recipe
+     *   were compiled together
+     */
+    int getSymbolCount(int directives) {
+      if (directives == 0) {
+        return 0;
+      }
+      return ends == null ? -1 : ends[directives - 1];
+    }
+  }
+}
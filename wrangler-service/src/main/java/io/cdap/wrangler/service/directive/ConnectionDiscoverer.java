@@ -103,7 +103,28 @@ public class ConnectionDiscoverer {
   public SampleResponse retrieveSample(String namespace, String connectionName,
                                        SampleRequest sampleRequest) throws IOException, InterruptedException {
     String url = String.format("v1/contexts/%s/connections/%s/sample", namespace, connectionName);
-    return execute(namespace, connectionName, url, urlConn -> {
+    return execute(namespace, connectionName, url, sampleConfigurer(sampleRequest), SampleResponse.class);
+  }
+
+  /**
+   * Opens a sample of the connection whose records are read from the connection service as they are consumed,
+   * instead of being all loaded in memory. The caller is responsible for closing the reader.
+   */
+  public SampleReader openSample(String namespace, String connectionName,
+                                 SampleRequest sampleRequest) throws IOException, InterruptedException {
+    String url = String.format("v1/contexts/%s/connections/%s/sample", namespace, connectionName);
+    return executeWithReader(namespace, connectionName, url, sampleConfigurer(sampleRequest), urlConn -> {
+      try {
+        return new SampleReader(urlConn);
+      } catch (IOException | RuntimeException e) {
+        urlConn.disconnect();
+        throw e;
+      }
+    });
+  }
+
+  private URLConfigurer sampleConfigurer(SampleRequest sampleRequest) {
+    return urlConn -> {
       urlConn.setRequestMethod("POST");
       urlConn.setDoOutput(true);
       try (OutputStream os = urlConn.getOutputStream();
@@ -111,7 +132,7 @@ public class ConnectionDiscoverer {
         writer.write(GSON.toJson(sampleRequest));
         writer.flush();
       }
-    }, SampleResponse.class);
+    };
   }
 
   /**
@@ -119,6 +140,15 @@ public class ConnectionDiscoverer {
    */
   private <T> T execute(String namespace, String connectionName, String url,
                         URLConfigurer configurer, @Nullable Class<T> type) throws IOException, InterruptedException {
+    return executeWithReader(namespace, connectionName, url, configurer, urlConn -> retrieveResult(urlConn, type));
+  }
+
+  /**
+   * Execute the url provided, and return the response read by the given reader.
+   */
+  private <T> T executeWithReader(String namespace, String connectionName, String url,
+                                  URLConfigurer configurer, ResponseReader<T> responseReader)
+    throws IOException, InterruptedException {
     // Make call with exponential delay on failure retry.
     long delay = RETRY_BASE_DELAY_MILLIS;
     double minMultiplier = RETRY_DELAY_MULTIPLIER - RETRY_DELAY_MULTIPLIER * RETRY_RANDOMIZE_FACTOR;
@@ -131,7 +161,8 @@ public class ConnectionDiscoverer {
       try {
         HttpURLConnection urlConn = retrieveConnectionUrl(url);
         configurer.configure(urlConn);
-        return retrieveResult(urlConn, type);
+        checkResponse(urlConn);
+        return responseReader.read(urlConn);
       } catch (RetryableException e) {
         latest = e;
         TimeUnit.MILLISECONDS.sleep(delay);
@@ -176,6 +207,21 @@ public class ConnectionDiscoverer {
    * @param type the expected return type for this call
    */
   private <T> T retrieveResult(HttpURLConnection urlConn, @Nullable Class<T> type) throws IOException {
+    if (type == null) {
+      urlConn.disconnect();
+      return null;
+    }
+    try (Reader reader = new InputStreamReader(urlConn.getInputStream(), StandardCharsets.UTF_8)) {
+      return GSON.fromJson(CharStreams.toString(reader), type);
+    } finally {
+      urlConn.disconnect();
+    }
+  }
+
+  /**
+   * Checks the response code of the url conn, throwing the exception matching the error if it is not a success.
+   */
+  private void checkResponse(HttpURLConnection urlConn) throws IOException {
     int responseCode = urlConn.getResponseCode();
     if (responseCode != HttpURLConnection.HTTP_OK) {
       switch (responseCode) {
@@ -193,16 +239,6 @@ public class ConnectionDiscoverer {
       throw new IOException("Failed to call connection service with status " + responseCode + ": " +
                               getError(urlConn));
     }
-
-    if (type == null) {
-      urlConn.disconnect();
-      return null;
-    }
-    try (Reader reader = new InputStreamReader(urlConn.getInputStream(), StandardCharsets.UTF_8)) {
-      return GSON.fromJson(CharStreams.toString(reader), type);
-    } finally {
-      urlConn.disconnect();
-    }
   }
 
   /**
@@ -225,4 +261,11 @@ public class ConnectionDiscoverer {
   private interface URLConfigurer {
     void configure(HttpURLConnection urlConn) throws IOException;
   }
+
+  /**
+   * Interface for the methods to read the response of a successful call from the url conn
+   */
+  private interface ResponseReader<T> {
+    T read(HttpURLConnection urlConn) throws IOException;
+  }
 }
@@ -62,6 +62,7 @@ import io.cdap.wrangler.proto.workspace.DirectiveDescriptor;
 import io.cdap.wrangler.proto.workspace.DirectiveExecutionResponse;
 import io.cdap.wrangler.proto.workspace.DirectiveUsage;
 import io.cdap.wrangler.proto.workspace.ModelInfo;
+import io.cdap.wrangler.proto.workspace.SampleCodec;
 import io.cdap.wrangler.proto.workspace.WorkspaceInfo;
 import io.cdap.wrangler.proto.workspace.WorkspaceSummaryResponse;
 import io.cdap.wrangler.registry.CompositeDirectiveRegistry;
@@ -69,7 +70,6 @@ import io.cdap.wrangler.registry.DirectiveInfo;
 import io.cdap.wrangler.registry.DirectiveRegistry;
 import io.cdap.wrangler.registry.SystemDirectiveRegistry;
 import io.cdap.wrangler.registry.UserDirectiveRegistry;
-import io.cdap.wrangler.utils.ObjectSerDe;
 import io.cdap.wrangler.utils.ProjectInfo;
 import io.cdap.wrangler.utils.RowHelper;
 import io.cdap.wrangler.utils.SchemaConverter;
@@ -77,9 +77,7 @@ import org.apache.commons.lang3.StringEscapeUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.net.HttpURLConnection;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
@@ -416,8 +414,7 @@ public class DirectivesHandler extends AbstractDirectiveHandler {
             for (String line : body.split(delimiter)) {
               rows.add(new Row(COLUMN_NAME, line));
             }
-            ObjectSerDe<List<Row>> serDe = new ObjectSerDe<>();
-            byte[] bytes = serDe.toByteArray(rows);
+            byte[] bytes = SampleCodec.encode(rows);
             ws.updateWorkspaceData(id, DataType.RECORDS, bytes);
             break;
 
@@ -499,8 +496,7 @@ public class DirectivesHandler extends AbstractDirectiveHandler {
             for (String line : body.split(delimiter)) {
               rows.add(new Row(id, line));
             }
-            ObjectSerDe<List<Row>> serDe = new ObjectSerDe<>();
-            byte[] bytes = serDe.toByteArray(rows);
+            byte[] bytes = SampleCodec.encode(rows);
             ws.updateWorkspaceData(namespaceId, DataType.RECORDS, bytes);
             break;
 
@@ -615,7 +611,7 @@ public class DirectivesHandler extends AbstractDirectiveHandler {
           return records.subList(0, min);
         });
 
-        return new WorkspaceSummaryResponse(getWorkspaceSummary(rows));
+        return new WorkspaceSummaryResponse(getWorkspaceSummary(rows, true));
       } catch (JsonParseException | DirectiveParseException e) {
         throw new BadRequestException(e.getMessage(), e);
       }
@@ -1053,9 +1049,7 @@ public class DirectivesHandler extends AbstractDirectiveHandler {
 
       case RECORDS: {
         if (workspace.getData() != null) {
-          try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(workspace.getData()))) {
-            rows = (List<Row>) ois.readObject();
-          }
+          rows = SampleCodec.decode(workspace.getData());
         }
         break;
       }
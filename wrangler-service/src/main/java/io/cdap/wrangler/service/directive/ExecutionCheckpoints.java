@@ -0,0 +1,367 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.directive;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.wrangler.api.RemoteDirectiveResponse;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.utils.KryoSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nullable;
+
+/**
+ * Checkpoints of the rows produced by the first directives of the recipes of workspaces, so that executing a
+ * recipe only has to execute the directives that follow the longest prefix of the recipe that was checkpointed.
+ *
+ * <p>Rows are kept serialized, so that they are not modified by the executions that start from them. The least
+ * recently used checkpoints are spilled to disk once the checkpoints held in memory exceed their size limit,
+ * and are dropped once the checkpoints spilled to disk exceed theirs.</p>
+ *
+ * <p>Executions that start from a checkpoint see the rows as they were when the checkpoint was taken, and the
+ * values of the rows as read back by Kryo, which may be of another class than the values originally produced
+ * (for example a mutable list in place of an immutable one). Recipes whose result depends on the time or on
+ * random values must not be checkpointed.</p>
+ */
+final class ExecutionCheckpoints {
+  private static final Logger LOG = LoggerFactory.getLogger(ExecutionCheckpoints.class);
+  private static final KryoSerializer KRYO_SERIALIZER = new KryoSerializer();
+
+  private final long maxMemoryBytes;
+  private final long maxDiskBytes;
+  private final int maxPerWorkspace;
+  // All the checkpoints, from the least to the most recently used.
+  private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, Integer> workspaceCounts = new HashMap<>();
+  private long memoryBytes;
+  private long diskBytes;
+  private File spillDir;
+
+  /**
+   * @param maxMemoryBytes maximum size of the checkpoints held in memory
+   * @param maxDiskBytes maximum size of the checkpoints spilled to disk, 0 to not spill checkpoints
+   * @param maxPerWorkspace maximum number of checkpoints of a workspace
+   */
+  ExecutionCheckpoints(long maxMemoryBytes, long maxDiskBytes, int maxPerWorkspace) {
+    this.maxMemoryBytes = maxMemoryBytes;
+    this.maxDiskBytes = maxDiskBytes;
+    this.maxPerWorkspace = maxPerWorkspace;
+  }
+
+  /**
+   * Returns the checkpoints of a workspace.
+   *
+   * @param workspace unique identifier of the workspace
+   * @param version version of the sample of the workspace, checkpoints taken on other versions of the sample are
+   *                discarded
+   */
+  WorkspaceCheckpoints of(String workspace, String version) {
+    return new WorkspaceCheckpoints(workspace, version);
+  }
+
+  /**
+   * Discards all the checkpoints of a workspace.
+   */
+  synchronized void invalidate(String workspace) {
+    entries.entrySet().removeIf(e -> {
+      if (!e.getKey().workspace.equals(workspace)) {
+        return false;
+      }
+      release(e.getValue());
+      return true;
+    });
+    workspaceCounts.remove(workspace);
+  }
+
+  /**
+   * @return number of checkpoints currently held, in memory or on disk
+   */
+  synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * @return total size of the checkpoints spilled to disk
+   */
+  synchronized long getDiskBytes() {
+    return diskBytes;
+  }
+
+  /**
+   * Finds the checkpoint of the longest prefix of the directives, deserializing it without holding the lock
+   * so that the executions of other workspaces are not held up.
+   */
+  @Nullable
+  private Checkpoint find(String workspace, String version, List<String> directives) throws IOException {
+    for (int count = directives.size(); count > 0; count--) {
+      byte[] bytes;
+      File file;
+      synchronized (this) {
+        Key key = new Key(workspace, directives.subList(0, count));
+        Entry entry = entries.get(key);
+        if (entry == null) {
+          continue;
+        }
+        if (!entry.version.equals(version)) {
+          remove(key);
+          continue;
+        }
+        bytes = entry.bytes;
+        file = entry.file;
+      }
+      if (bytes == null) {
+        try {
+          bytes = Files.readAllBytes(file.toPath());
+        } catch (NoSuchFileException e) {
+          // The checkpoint was dropped since it was looked up.
+          continue;
+        }
+      }
+      RemoteDirectiveResponse response = KRYO_SERIALIZER.toRemoteDirectiveResponse(bytes);
+      return new Checkpoint(count, response.getRows(), response.getOutputSchema());
+    }
+    return null;
+  }
+
+  private synchronized void add(String workspace, String version, List<String> directives, byte[] bytes) {
+    if (bytes.length > maxMemoryBytes) {
+      return;
+    }
+    Key key = new Key(workspace, Collections.unmodifiableList(new ArrayList<>(directives)));
+    Entry previous = entries.put(key, new Entry(version, bytes));
+    memoryBytes += bytes.length;
+    if (previous != null) {
+      release(previous);
+    } else {
+      int count = workspaceCounts.merge(workspace, 1, Integer::sum);
+      if (count > maxPerWorkspace) {
+        removeEldest(workspace);
+      }
+    }
+    while (memoryBytes > maxMemoryBytes) {
+      spillEldest();
+    }
+    while (diskBytes > maxDiskBytes) {
+      removeEldestSpilled();
+    }
+  }
+
+  private void removeEldest(String workspace) {
+    for (Key key : entries.keySet()) {
+      if (key.workspace.equals(workspace)) {
+        remove(key);
+        return;
+      }
+    }
+  }
+
+  private void spillEldest() {
+    Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Key, Entry> next = iterator.next();
+      Entry entry = next.getValue();
+      if (entry.bytes == null) {
+        continue;
+      }
+      memoryBytes -= entry.bytes.length;
+      if (maxDiskBytes >= entry.bytes.length) {
+        try {
+          if (spillDir == null) {
+            spillDir = Files.createTempDirectory("wrangler-checkpoints").toFile();
+            spillDir.deleteOnExit();
+          }
+          File file = File.createTempFile("checkpoint", ".bin", spillDir);
+          file.deleteOnExit();
+          Files.write(file.toPath(), entry.bytes);
+          entry.file = file;
+          diskBytes += entry.bytes.length;
+          entry.bytes = null;
+          return;
+        } catch (IOException e) {
+          LOG.warn("Unable to spill the checkpoint of a workspace execution to disk. It will be discarded.", e);
+        }
+      }
+      entry.bytes = null;
+      iterator.remove();
+      workspaceCounts.computeIfPresent(next.getKey().workspace, (workspace, count) -> count > 1 ? count - 1 : null);
+      return;
+    }
+  }
+
+  private void removeEldestSpilled() {
+    for (Map.Entry<Key, Entry> entry : entries.entrySet()) {
+      if (entry.getValue().file != null) {
+        remove(entry.getKey());
+        return;
+      }
+    }
+  }
+
+  private void remove(Key key) {
+    Entry entry = entries.remove(key);
+    if (entry != null) {
+      release(entry);
+      workspaceCounts.computeIfPresent(key.workspace, (workspace, count) -> count > 1 ? count - 1 : null);
+    }
+  }
+
+  private void release(Entry entry) {
+    if (entry.bytes != null) {
+      memoryBytes -= entry.bytes.length;
+    }
+    if (entry.file != null) {
+      diskBytes -= entry.file.length();
+      if (!entry.file.delete()) {
+        LOG.debug("Unable to delete the spilled checkpoint {}", entry.file);
+      }
+    }
+  }
+
+  /**
+   * Checkpoints of a workspace, for a version of its sample.
+   */
+  final class WorkspaceCheckpoints {
+    private final String workspace;
+    private final String version;
+
+    private WorkspaceCheckpoints(String workspace, String version) {
+      this.workspace = workspace;
+      this.version = version;
+    }
+
+    /**
+     * Finds the checkpoint of the longest prefix of the directives that was checkpointed.
+     *
+     * @return the checkpoint, {@code null} if no prefix of the directives was checkpointed
+     */
+    @Nullable
+    Checkpoint find(List<String> directives) {
+      try {
+        return ExecutionCheckpoints.this.find(workspace, version, directives);
+      } catch (IOException | RuntimeException e) {
+        LOG.warn("Unable to read the checkpoint of a workspace execution, executing the recipe from the start.", e);
+        invalidate(workspace);
+        return null;
+      }
+    }
+
+    /**
+     * Checkpoints the rows produced by the directives.
+     *
+     * @param schema schema of the rows, {@code null} if it is not known
+     */
+    void add(List<String> directives, List<Row> rows, @Nullable Schema schema) {
+      byte[] bytes;
+      try {
+        bytes = KRYO_SERIALIZER.fromRemoteDirectiveResponse(new RemoteDirectiveResponse(rows, schema));
+      } catch (RuntimeException e) {
+        // Rows can hold values that cannot be serialized, they are just not checkpointed.
+        LOG.debug("Unable to serialize the rows of a workspace execution, they are not checkpointed.", e);
+        return;
+      }
+      ExecutionCheckpoints.this.add(workspace, version, directives, bytes);
+    }
+  }
+
+  /**
+   * Rows produced by the first directives of a recipe.
+   */
+  static final class Checkpoint {
+    private final int directives;
+    private final List<Row> rows;
+    private final Schema schema;
+
+    private Checkpoint(int directives, List<Row> rows, @Nullable Schema schema) {
+      this.directives = directives;
+      this.rows = rows;
+      this.schema = schema;
+    }
+
+    /**
+     * @return number of directives from the start of the recipe that produced the rows
+     */
+    int getDirectives() {
+      return directives;
+    }
+
+    List<Row> getRows() {
+      return rows;
+    }
+
+    @Nullable
+    Schema getSchema() {
+      return schema;
+    }
+  }
+
+  /**
+   * Checkpointed directives of a workspace.
+   */
+  private static final class Key {
+    private final String workspace;
+    private final List<String> directives;
+
+    private Key(String workspace, List<String> directives) {
+      this.workspace = workspace;
+      this.directives = directives;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return workspace.equals(key.workspace) && directives.equals(key.directives);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(workspace, directives);
+    }
+  }
+
+  /**
+   * Serialized rows of a checkpoint, either in memory or spilled to a file.
+   */
+  private static final class Entry {
+    private final String version;
+    private byte[] bytes;
+    private File file;
+
+    private Entry(String version, byte[] bytes) {
+      this.version = version;
+      this.bytes = bytes;
+    }
+  }
+}
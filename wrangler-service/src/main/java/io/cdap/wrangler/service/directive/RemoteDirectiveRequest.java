@@ -18,6 +18,7 @@ package io.cdap.wrangler.service.directive;
 import io.cdap.cdap.api.data.schema.Schema;
 import io.cdap.wrangler.parser.DirectiveClass;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -28,14 +29,17 @@ public class RemoteDirectiveRequest {
 
   private final String recipe;
   private final Map<String, DirectiveClass> systemDirectives;
+  private final Map<String, DirectiveClass> userDirectives;
   private final String pluginNameSpace;
   private final byte[] data;
   private final Schema inputSchema;
 
   RemoteDirectiveRequest(String recipe, Map<String, DirectiveClass> systemDirectives,
+                         Map<String, DirectiveClass> userDirectives,
                          String pluginNameSpace, byte[] data, Schema inputSchema) {
     this.recipe = recipe;
     this.systemDirectives = new HashMap<>(systemDirectives);
+    this.userDirectives = new HashMap<>(userDirectives);
     this.pluginNameSpace = pluginNameSpace;
     this.data = data;
     this.inputSchema = inputSchema;
@@ -49,6 +53,14 @@ public class RemoteDirectiveRequest {
     return systemDirectives;
   }
 
+  /**
+   * Returns the user defined directives of the recipe whose artifact is known, keyed by name.
+   */
+  public Map<String, DirectiveClass> getUserDirectives() {
+    // Requests sent by older versions of the service do not have the user directives
+    return userDirectives == null ? Collections.emptyMap() : userDirectives;
+  }
+
   public byte[] getData() {
     return data;
   }
@@ -47,6 +47,8 @@ import io.cdap.wrangler.parser.MapArguments;
 import io.cdap.wrangler.parser.RecipeCompiler;
 import io.cdap.wrangler.proto.BadRequestException;
 import io.cdap.wrangler.proto.ErrorRecordsException;
+import io.cdap.wrangler.proto.workspace.SampleCodec;
+import io.cdap.wrangler.registry.ArtifactClassLoaderCache;
 import io.cdap.wrangler.registry.DirectiveInfo;
 import io.cdap.wrangler.registry.UserDirectiveRegistry;
 import io.cdap.wrangler.utils.KryoSerializer;
@@ -54,8 +56,10 @@ import io.cdap.wrangler.utils.ObjectSerDe;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 import static io.cdap.wrangler.schema.TransientStoreKeys.INPUT_SCHEMA;
 import static io.cdap.wrangler.schema.TransientStoreKeys.OUTPUT_SCHEMA;
@@ -68,6 +72,10 @@ public class RemoteExecutionTask implements RunnableTask {
   private static final Gson GSON = new GsonBuilder()
           .registerTypeAdapter(Schema.class, new SchemaTypeAdapter())
           .create();
+  private static final KryoSerializer KRYO_SERIALIZER = new KryoSerializer();
+  // Classloaders of the artifacts of user defined directives, shared by the tasks run by the worker. Redeployed
+  // artifacts are picked up within a minute.
+  private static final ArtifactClassLoaderCache CLASS_LOADERS = new ArtifactClassLoaderCache(16, 1, TimeUnit.MINUTES);
 
   @Override
   public void run(RunnableTaskContext runnableTaskContext) throws Exception {
@@ -77,18 +85,23 @@ public class RemoteExecutionTask implements RunnableTask {
     SystemAppTaskContext systemAppContext = runnableTaskContext.getRunnableTaskSystemAppContext();
     String namespace = directiveRequest.getPluginNameSpace();
     Map<String, DirectiveClass> systemDirectives = directiveRequest.getSystemDirectives();
-    AtomicBoolean hasUDD = new AtomicBoolean();
+    Map<String, DirectiveClass> userDirectives = directiveRequest.getUserDirectives();
+    // Set if a user defined directive is loaded outside of the classloader cache, in which case the classes loaded
+    // for it cannot be released and the worker is not reused.
+    AtomicBoolean hasUncachedUDD = new AtomicBoolean();
+    // Expressions of the recipes run in a worker that is reused across executions.
+    EL.setSandboxed(true);
 
     // Collect directives.
-    try (UserDirectiveRegistry userDirectiveRegistry = new UserDirectiveRegistry(systemAppContext)) {
+    try (UserDirectiveRegistry userDirectiveRegistry = new UserDirectiveRegistry(systemAppContext, CLASS_LOADERS)) {
       List<Directive> directives = new ArrayList<>();
       GrammarWalker walker = new GrammarWalker(new RecipeCompiler(), new ConfigDirectiveContext(DirectiveConfig.EMPTY));
       walker.walk(directiveRequest.getRecipe(), (command, tokenGroup) -> {
         DirectiveInfo info;
         DirectiveClass directiveClass = systemDirectives.get(command);
         if (directiveClass == null) {
-          info = userDirectiveRegistry.get(namespace, command);
-          hasUDD.set(true);
+          info = getUserDirective(userDirectiveRegistry, namespace, command, userDirectives.get(command),
+                                  hasUncachedUDD);
         } else {
           // For system directives, we can load it directly from the classloader.
           try {
@@ -111,8 +124,7 @@ public class RemoteExecutionTask implements RunnableTask {
         return;
       }
 
-      ObjectSerDe<List<Row>> objectSerDe = new ObjectSerDe<>();
-      List<Row> rows = objectSerDe.toObject(directiveRequest.getData());
+      List<Row> rows = SampleCodec.decode(directiveRequest.getData());
 
       Schema inputSchema = directiveRequest.getInputSchema();
       TransientStore transientStore = new DefaultTransientStore();
@@ -140,17 +152,35 @@ public class RemoteExecutionTask implements RunnableTask {
 
       Schema outputSchema = transientStore.get(OUTPUT_SCHEMA);
       RemoteDirectiveResponse response = new RemoteDirectiveResponse(rows, outputSchema);
-      ObjectSerDe<RemoteDirectiveResponse> responseSerDe = new ObjectSerDe<>();
 
-      runnableTaskContext.setTerminateOnComplete(hasUDD.get() || EL.isUsed());
+      // The worker is not reused either if the classes of the user defined directives can keep static state.
+      runnableTaskContext.setTerminateOnComplete(hasUncachedUDD.get() || userDirectiveRegistry.hasStatefulDirectives());
 
       if (Feature.WRANGLER_KRYO_SERIALIZATION.isEnabled(systemAppContext)) {
-        runnableTaskContext.writeResult(new KryoSerializer().fromRemoteDirectiveResponse(response));
+        runnableTaskContext.writeResult(KRYO_SERIALIZER.fromRemoteDirectiveResponse(response));
       } else {
-        runnableTaskContext.writeResult(responseSerDe.toByteArray(response));
+        runnableTaskContext.writeResult(new ObjectSerDe<RemoteDirectiveResponse>().toByteArray(response));
       }
     } catch (DirectiveParseException | ClassNotFoundException | CompileException e) {
       throw new BadRequestException(e.getMessage(), e);
     }
   }
+
+  /**
+   * Returns the information about a user defined directive, loaded through the classloader cache if its artifact is
+   * known.
+   */
+  private static DirectiveInfo getUserDirective(UserDirectiveRegistry registry, String namespace, String command,
+                                                @Nullable DirectiveClass directiveClass,
+                                                AtomicBoolean hasUncachedUDD) throws DirectiveLoadException {
+    if (directiveClass != null) {
+      try {
+        return registry.get(namespace, directiveClass);
+      } catch (DirectiveLoadException e) {
+        // The artifact may have been deleted or replaced since the request was made, look the directive up instead.
+      }
+    }
+    hasUncachedUDD.set(true);
+    return registry.get(namespace, command);
+  }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.directive;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.cdap.format.StructuredRecordStringConverter;
+import io.cdap.cdap.internal.io.SchemaTypeAdapter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import javax.annotation.Nullable;
+
+/**
+ * Reads the records of the sample response of a connection one at a time from the response stream.
+ *
+ * <p>The connection service writes the schema of the sample before its records, so the records can be
+ * decoded as soon as they are read.</p>
+ */
+public class SampleReader implements Closeable {
+  private static final Gson GSON =
+    new GsonBuilder().registerTypeAdapter(Schema.class, new SchemaTypeAdapter()).create();
+
+  private final HttpURLConnection urlConn;
+  private final JsonReader reader;
+  private Schema schema;
+  private boolean hasRecords;
+
+  SampleReader(HttpURLConnection urlConn) throws IOException {
+    this.urlConn = urlConn;
+    this.reader = new JsonReader(new InputStreamReader(urlConn.getInputStream(), StandardCharsets.UTF_8));
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String name = reader.nextName();
+      if ("schema".equals(name) && reader.peek() != JsonToken.NULL) {
+        schema = GSON.fromJson(reader, Schema.class);
+      } else if ("sample".equals(name) && reader.peek() != JsonToken.NULL) {
+        reader.beginArray();
+        hasRecords = true;
+        break;
+      } else {
+        reader.skipValue();
+      }
+    }
+    if (hasRecords && schema == null) {
+      throw new IOException("Sample of the connection is missing a schema");
+    }
+  }
+
+  /**
+   * @return schema of the records of the sample, {@code null} if the sample is empty.
+   */
+  @Nullable
+  public Schema getSchema() {
+    return schema;
+  }
+
+  /**
+   * @return the next record of the sample, {@code null} if all the records were read.
+   */
+  @Nullable
+  public StructuredRecord next() throws IOException {
+    if (!hasRecords) {
+      return null;
+    }
+    if (!reader.hasNext()) {
+      hasRecords = false;
+      return null;
+    }
+    // Each record is written as a string holding its JSON encoding
+    return StructuredRecordStringConverter.fromJsonString(reader.nextString(), schema);
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      reader.close();
+    } finally {
+      urlConn.disconnect();
+    }
+  }
+}
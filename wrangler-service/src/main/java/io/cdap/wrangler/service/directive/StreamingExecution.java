@@ -0,0 +1,185 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.directive;
+
+import com.google.gson.Gson;
+import io.cdap.cdap.api.Transactional;
+import io.cdap.cdap.api.service.http.HttpContentProducer;
+import io.cdap.wrangler.api.Pair;
+import io.cdap.wrangler.api.RecipeException;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.executor.RecipePipelineExecutor;
+import io.cdap.wrangler.proto.workspace.ColumnStatistics;
+import io.cdap.wrangler.proto.workspace.v2.DirectiveExecutionResponse;
+import io.cdap.wrangler.proto.workspace.v2.ExecutionProgress;
+import io.cdap.wrangler.statistics.ColumnMetric;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Streams the execution of a recipe over the rows of a source as newline delimited JSON.
+ *
+ * <p>Rows are read from the source and executed in chunks, so only a chunk of rows and the first page of the
+ * output are held in memory regardless of the number of rows of the source. The first line of the content is
+ * the {@link DirectiveExecutionResponse} of the first page of the output, it is followed by an
+ * {@link ExecutionProgress} for each chunk with the aggregates over all the rows executed so far.</p>
+ */
+class StreamingExecution extends HttpContentProducer {
+  private static final Logger LOG = LoggerFactory.getLogger(StreamingExecution.class);
+  private static final Gson GSON = new Gson();
+
+  private final RowSource source;
+  private final RecipePipelineExecutor executor;
+  private final PageGenerator pageGenerator;
+  private final int limit;
+  private final int chunkSize;
+  private final List<Row> page = new ArrayList<>();
+  private final ColumnMetric stats = new ColumnMetric();
+  private boolean pageSent;
+  private boolean done;
+  private long rowsIn;
+  private long rowsOut;
+  private long errors;
+
+  StreamingExecution(RowSource source, RecipePipelineExecutor executor, PageGenerator pageGenerator,
+                     int limit, int chunkSize) {
+    this.source = source;
+    this.executor = executor;
+    this.pageGenerator = pageGenerator;
+    this.limit = limit;
+    this.chunkSize = chunkSize;
+  }
+
+  @Override
+  public ByteBuffer nextChunk(Transactional transactional) throws Exception {
+    if (done) {
+      return ByteBuffer.allocate(0);
+    }
+
+    List<Row> chunk = new ArrayList<>(chunkSize);
+    Row row;
+    while (chunk.size() < chunkSize && (row = source.next()) != null) {
+      chunk.add(row);
+    }
+    done = chunk.size() < chunkSize;
+
+    String failure = null;
+    try {
+      List<Row> output = executor.execute(chunk);
+      rowsIn += chunk.size();
+      rowsOut += output.size();
+      errors += executor.errors().size();
+      for (Row result : output) {
+        aggregate(result);
+        if (page.size() < limit) {
+          page.add(result);
+        }
+      }
+    } catch (RecipeException e) {
+      failure = e.getMessage();
+      done = true;
+    }
+
+    StringBuilder content = new StringBuilder();
+    if (!pageSent && (page.size() >= limit || done)) {
+      content.append(GSON.toJson(pageGenerator.generate(page, limit))).append('\n');
+      pageSent = true;
+    }
+    content.append(GSON.toJson(new ExecutionProgress(rowsIn, rowsOut, errors, getStatistics(), done, failure)))
+      .append('\n');
+    return ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Override
+  public void onFinish() throws Exception {
+    close();
+  }
+
+  @Override
+  public void onError(Throwable failure) {
+    LOG.warn("Failed to stream the execution of the directives", failure);
+    try {
+      close();
+    } catch (IOException e) {
+      LOG.warn("Failed to close the source of the execution", e);
+    }
+  }
+
+  private void close() throws IOException {
+    try {
+      executor.close();
+    } finally {
+      source.close();
+    }
+  }
+
+  private void aggregate(Row row) {
+    for (int i = 0; i < row.width(); i++) {
+      String column = row.getColumn(i);
+      Object value = row.getValue(i);
+      if (value == null) {
+        stats.increment(column, "null");
+      } else {
+        stats.increment(column, "non-null");
+        if (value instanceof String && ((String) value).isEmpty()) {
+          stats.increment(column, "empty");
+        }
+      }
+    }
+  }
+
+  private Map<String, ColumnStatistics> getStatistics() {
+    Map<String, ColumnStatistics> statistics = new HashMap<>();
+    for (String column : stats.getColumns()) {
+      Map<String, Float> general = new HashMap<>();
+      for (Pair<String, Double> value : stats.percentage(column, (double) rowsOut)) {
+        general.put(value.getFirst(), value.getSecond().floatValue() * 100);
+      }
+      statistics.put(column, new ColumnStatistics(general, null));
+    }
+    return statistics;
+  }
+
+  /**
+   * Source of the rows of a streaming execution.
+   */
+  interface RowSource extends Closeable {
+
+    /**
+     * @return the next row of the source, {@code null} if all the rows were read.
+     */
+    @Nullable
+    Row next() throws IOException;
+  }
+
+  /**
+   * Generates the response of the first page of the output of the execution.
+   */
+  interface PageGenerator {
+    DirectiveExecutionResponse generate(List<Row> rows, int limit) throws Exception;
+  }
+}
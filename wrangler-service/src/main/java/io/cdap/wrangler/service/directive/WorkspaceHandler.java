@@ -19,6 +19,7 @@ package io.cdap.wrangler.service.directive;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
@@ -52,6 +53,9 @@ import io.cdap.wrangler.api.RecipeException;
 import io.cdap.wrangler.api.RemoteDirectiveResponse;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.TransientVariableScope;
+import io.cdap.wrangler.dataset.workspace.WorkspacePageRequest;
+import io.cdap.wrangler.executor.RecipePipelineExecutor;
+import io.cdap.wrangler.executor.RecipeProfile;
 import io.cdap.wrangler.parser.ConfigDirectiveContext;
 import io.cdap.wrangler.parser.DirectiveClass;
 import io.cdap.wrangler.parser.GrammarWalker;
@@ -68,6 +72,7 @@ import io.cdap.wrangler.proto.workspace.v2.Plugin;
 import io.cdap.wrangler.proto.workspace.v2.SampleSpec;
 import io.cdap.wrangler.proto.workspace.v2.ServiceResponse;
 import io.cdap.wrangler.proto.workspace.v2.StageSpec;
+import io.cdap.wrangler.proto.workspace.v2.StreamingExecutionRequest;
 import io.cdap.wrangler.proto.workspace.v2.Workspace;
 import io.cdap.wrangler.proto.workspace.v2.WorkspaceCreationRequest;
 import io.cdap.wrangler.proto.workspace.v2.WorkspaceDetail;
@@ -75,6 +80,7 @@ import io.cdap.wrangler.proto.workspace.v2.WorkspaceId;
 import io.cdap.wrangler.proto.workspace.v2.WorkspaceSpec;
 import io.cdap.wrangler.proto.workspace.v2.WorkspaceUpdateRequest;
 import io.cdap.wrangler.registry.DirectiveInfo;
+import io.cdap.wrangler.registry.DirectiveScope;
 import io.cdap.wrangler.registry.SystemDirectiveRegistry;
 import io.cdap.wrangler.schema.TransientStoreKeys;
 import io.cdap.wrangler.store.recipe.RecipeStore;
@@ -86,15 +92,19 @@ import io.cdap.wrangler.utils.SchemaConverter;
 import io.cdap.wrangler.utils.StructuredToRowTransformer;
 import org.apache.commons.lang3.StringEscapeUtils;
 
+import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
@@ -103,6 +113,7 @@ import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
 
 import static io.cdap.wrangler.schema.TransientStoreKeys.INPUT_SCHEMA;
 import static io.cdap.wrangler.schema.TransientStoreKeys.OUTPUT_SCHEMA;
@@ -114,9 +125,13 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
 
   private static final Gson GSON =
     new GsonBuilder().registerTypeAdapter(Schema.class, new SchemaTypeAdapter()).create();
+  private static final KryoSerializer KRYO_SERIALIZER = new KryoSerializer();
   private static final Pattern PRAGMA_PATTERN = Pattern.compile("^\\s*#pragma\\s+load-directives\\s+");
   private static final String UPLOAD_COUNT = "upload.file.count";
   private static final String CONNECTION_TYPE = "upload";
+  // Checkpoints of the rows produced by the recipes of the workspaces, at most 64 MB in memory and 512 MB on disk.
+  private static final ExecutionCheckpoints CHECKPOINTS =
+    new ExecutionCheckpoints(64L * 1024 * 1024, 512L * 1024 * 1024, 8);
 
   private WorkspaceStore wsStore;
   private RecipeStore recipeStore;
@@ -185,12 +200,32 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
   @TransactionPolicy(value = TransactionControl.EXPLICIT)
   @Path("v2/contexts/{context}/workspaces")
   public void listWorkspaces(HttpServiceRequest request, HttpServiceResponder responder,
-                             @PathParam("context") String namespace) {
+                             @PathParam("context") String namespace,
+                             @QueryParam("pageSize") Integer pageSize,
+                             @QueryParam("pageToken") String pageToken,
+                             @QueryParam("sortBy") String sortBy,
+                             @QueryParam("sortOrder") String sortOrder) {
     respond(responder, namespace, ns -> {
       if (ns.getName().equalsIgnoreCase(NamespaceId.SYSTEM.getNamespace())) {
         throw new BadRequestException("Listing workspaces in system namespace is currently not supported");
       }
-      responder.sendString(GSON.toJson(new ServiceResponse<>(wsStore.listWorkspaces(ns))));
+      // without any paging parameter, all the workspaces are returned to keep the existing clients working
+      if (pageSize == null && pageToken == null && sortBy == null && sortOrder == null) {
+        responder.sendString(GSON.toJson(new ServiceResponse<>(wsStore.listWorkspaces(ns))));
+        return;
+      }
+      WorkspacePageRequest pageRequest;
+      try {
+        pageRequest = WorkspacePageRequest.builder(ns)
+          .setPageSize(pageSize)
+          .setPageToken(pageToken)
+          .setSortBy(sortBy)
+          .setSortOrder(sortOrder)
+          .build();
+      } catch (IllegalArgumentException e) {
+        throw new BadRequestException(e.getMessage());
+      }
+      responder.sendString(GSON.toJson(wsStore.listWorkspaces(pageRequest)));
     });
   }
 
@@ -280,6 +315,7 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
         .setUpdatedTimeMillis(System.currentTimeMillis())
         .setSampleSpec(newSpec).build();
       wsStore.saveWorkspace(wsId, new WorkspaceDetail(newWorkspace, rows));
+      CHECKPOINTS.invalidate(getCheckpointKey(ns.getName(), workspaceId));
       responder.sendStatus(HttpURLConnection.HTTP_OK);
     });
   }
@@ -295,6 +331,7 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
         throw new BadRequestException("Deleting workspace in system namespace is currently not supported");
       }
       wsStore.deleteWorkspace(new WorkspaceId(ns, workspaceId));
+      CHECKPOINTS.invalidate(getCheckpointKey(ns.getName(), workspaceId));
       responder.sendStatus(HttpURLConnection.HTTP_OK);
     });
   }
@@ -367,6 +404,92 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
     });
   }
 
+  /**
+   * Streams the execution of the directives over the rows of the source of the workspace, instead of its sample.
+   * The rows are read from the connection of the workspace in chunks, the response is made of the first page of
+   * the output followed by the row counts, errors and column statistics over the rows executed so far after each
+   * chunk, as newline delimited JSON.
+   */
+  @POST
+  @TransactionPolicy(value = TransactionControl.EXPLICIT)
+  @Path("v2/contexts/{context}/workspaces/{id}/execute/stream")
+  public void executeStreaming(HttpServiceRequest request, HttpServiceResponder responder,
+                               @PathParam("context") String namespace,
+                               @PathParam("id") String workspaceId) {
+    respond(responder, namespace, ns -> {
+      validateNamespace(ns, "Executing directives in system namespace is currently not supported");
+
+      StreamingExecutionRequest executionRequest =
+        GSON.fromJson(StandardCharsets.UTF_8.decode(request.getContent()).toString(),
+                      StreamingExecutionRequest.class);
+      List<String> directives = new ArrayList<>(executionRequest.getDirectives());
+      directives.removeIf(d -> PRAGMA_PATTERN.matcher(d).find());
+
+      WorkspaceId wsId = new WorkspaceId(ns, workspaceId);
+      Workspace workspace = wsStore.getWorkspace(wsId);
+      setInputSchema(workspace);
+      composite.reload(ns.getName());
+      RecipePipelineExecutor executor = createExecutor(ns.getName(), directives, new UserDirectivesCollector());
+
+      StreamingExecution.RowSource source;
+      try {
+        source = openSource(ns.getName(), wsId, workspace, executionRequest.getRows());
+      } catch (Exception e) {
+        executor.close();
+        throw e;
+      }
+      responder.send(HttpURLConnection.HTTP_OK,
+                     new StreamingExecution(source, executor, this::generateExecutionResponse,
+                                            executionRequest.getLimit(), executionRequest.getChunkSize()),
+                     "application/x-ndjson");
+    });
+  }
+
+  /**
+   * Opens the rows of the connection of the workspace, or of its sample if the workspace has no connection.
+   */
+  private StreamingExecution.RowSource openSource(String namespace, WorkspaceId wsId, Workspace workspace,
+                                                  int rows) throws Exception {
+    SampleSpec spec = workspace.getSampleSpec();
+    if (spec == null || spec.getConnectionName() == null) {
+      Iterator<Row> sample = wsStore.getWorkspaceDetail(wsId).getSample().iterator();
+      return new StreamingExecution.RowSource() {
+        @Nullable
+        @Override
+        public Row next() {
+          return sample.hasNext() ? sample.next() : null;
+        }
+
+        @Override
+        public void close() {
+          // no-op
+        }
+      };
+    }
+
+    SampleRequest current = spec.getSampleRequest();
+    SampleRequest.Builder builder = SampleRequest.builder(rows);
+    if (current != null) {
+      builder.setPath(current.getPath()).setProperties(current.getProperties()).setTimeoutMs(current.getTimeoutMs());
+    } else {
+      builder.setPath(spec.getPath());
+    }
+    SampleReader reader = discoverer.openSample(namespace, spec.getConnectionName(), builder.build());
+    return new StreamingExecution.RowSource() {
+      @Nullable
+      @Override
+      public Row next() throws IOException {
+        StructuredRecord record = reader.next();
+        return record == null ? null : StructuredToRowTransformer.transform(record);
+      }
+
+      @Override
+      public void close() throws IOException {
+        reader.close();
+      }
+    };
+  }
+
   /**
    * Retrieve the directives available in the namespace
    */
@@ -409,7 +532,7 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
       WorkspaceDetail detail = wsStore.getWorkspaceDetail(wsId);
       List<String> directives = new ArrayList<>(detail.getWorkspace().getDirectives());
       UserDirectivesCollector userDirectivesCollector = new UserDirectivesCollector();
-      List<Row> result = executeDirectives(ns.getName(), directives, detail, userDirectivesCollector);
+      List<Row> result = executeDirectives(ns.getName(), directives, detail, userDirectivesCollector, null);
       userDirectivesCollector.addLoadDirectivesPragma(directives);
 
       Schema outputSchema;
@@ -478,10 +601,11 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
 
     WorkspaceDetail detail = wsStore.getWorkspaceDetail(workspaceId);
     UserDirectivesCollector userDirectivesCollector = new UserDirectivesCollector();
+    AtomicReference<RecipeProfile> profile = new AtomicReference<>();
     List<Row> result = executeDirectives(ns.getName(), directives, detail,
-                                         userDirectivesCollector);
+                                         userDirectivesCollector, executionRequest.isProfile() ? profile::set : null);
     DirectiveExecutionResponse response = generateExecutionResponse(result,
-                                                                    executionRequest.getLimit());
+                                                                    executionRequest.getLimit(), profile.get());
     userDirectivesCollector.addLoadDirectivesPragma(directives);
     Workspace newWorkspace = Workspace.builder(detail.getWorkspace())
       .setDirectives(directives)
@@ -546,27 +670,39 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
    *                   {@code #pragma} directives for loading UDDs.
    * @param detail the workspace to operate on
    * @param grammarVisitor visitor to call while parsing directives
+   * @param profileConsumer consumer of the statistics of each directive, {@code null} to not collect them. The
+   *                        statistics are only collected when the directives are executed locally
    * @return the resulting rows after applying the directives
    */
   private <E extends Exception> List<Row> executeDirectives(String namespace,
                                                             List<String> directives,
                                                             WorkspaceDetail detail,
-                                                            GrammarWalker.Visitor<E> grammarVisitor) throws Exception {
+                                                            GrammarWalker.Visitor<E> grammarVisitor,
+                                                            @Nullable Consumer<RecipeProfile> profileConsumer)
+    throws Exception {
     // Remove all the #pragma from the existing directives. New ones will be generated.
     directives.removeIf(d -> PRAGMA_PATTERN.matcher(d).find());
 
+    setInputSchema(detail.getWorkspace());
+
+    return getContext().isRemoteTaskEnabled() ?
+      executeRemotely(namespace, directives, detail, grammarVisitor) :
+      executeLocally(namespace, directives, detail, grammarVisitor, profileConsumer);
+  }
+
+  /**
+   * Sets the schema of the rows of the workspace as the input schema of the execution if schema management is
+   * enabled.
+   */
+  private void setInputSchema(Workspace workspace) {
     if (schemaManagementEnabled) {
-      SampleSpec spec = detail.getWorkspace().getSampleSpec();
+      SampleSpec spec = workspace.getSampleSpec();
       // Workaround for uploaded files that don't have the spec set
       Schema inputSchema = spec != null ? spec.getRelatedPlugins().iterator().next().getSchema() :
         Schema.recordOf("inputSchema", Schema.Field.of("body", Schema.of(Schema.Type.STRING)));
       TRANSIENT_STORE.reset(TransientVariableScope.GLOBAL);
       TRANSIENT_STORE.set(TransientVariableScope.GLOBAL, TransientStoreKeys.INPUT_SCHEMA, inputSchema);
     }
-
-    return getContext().isRemoteTaskEnabled() ?
-      executeRemotely(namespace, directives, detail, grammarVisitor) :
-      executeLocally(namespace, directives, detail, grammarVisitor);
   }
 
   /**
@@ -577,16 +713,33 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
    *                   {@code #pragma} directives for loading UDDs.
    * @param detail the workspace to operate on
    * @param grammarVisitor visitor to call while parsing directives
+   * @param profileConsumer consumer of the statistics of each directive, {@code null} to not collect them
    * @return the resulting rows after applying the directives
    */
   private <E extends Exception> List<Row> executeLocally(String namespace, List<String> directives,
-                                   WorkspaceDetail detail, GrammarWalker.Visitor<E> grammarVisitor)
+                                   WorkspaceDetail detail, GrammarWalker.Visitor<E> grammarVisitor,
+                                   @Nullable Consumer<RecipeProfile> profileConsumer)
     throws DirectiveLoadException, DirectiveParseException, E, RecipeException {
 
     // load the udd
     composite.reload(namespace);
-    return executeDirectives(namespace, directives, new ArrayList<>(detail.getSample()),
-                             grammarVisitor);
+    if (profileConsumer != null) {
+      return executeDirectives(namespace, directives, new ArrayList<>(detail.getSample()),
+                               grammarVisitor, profileConsumer);
+    }
+
+    // The sample is identified by its stored version, as it can be replaced through other instances of the service
+    String sampleVersion = detail.getSampleVersion();
+    if (sampleVersion == null) {
+      sampleVersion = Hashing.murmur3_128().hashBytes(detail.getSampleAsBytes()).toString();
+    }
+    String checkpointKey = getCheckpointKey(namespace, detail.getWorkspace().getWorkspaceId());
+    return executeWithCheckpoints(namespace, directives, new ArrayList<>(detail.getSample()), grammarVisitor,
+                                  CHECKPOINTS.of(checkpointKey, sampleVersion));
+  }
+
+  private static String getCheckpointKey(String namespace, String workspaceId) {
+    return namespace + ":" + workspaceId;
   }
 
   /**
@@ -605,14 +758,18 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
     GrammarMigrator migrator = new MigrateToV2(directives);
     String recipe = migrator.migrate();
     Map<String, DirectiveClass> systemDirectives = new HashMap<>();
+    Map<String, DirectiveClass> userDirectives = new HashMap<>();
+    Map<String, DirectiveClass> knownUserDirectives = getUserDirectiveClasses(namespace);
 
-    // Gather system directives and call additional visitor.
+    // Gather system directives, user directives of known artifacts, and call additional visitor.
     GrammarWalker walker = new GrammarWalker(new RecipeCompiler(), new ConfigDirectiveContext(DirectiveConfig.EMPTY));
     AtomicBoolean hasDirectives = new AtomicBoolean();
     walker.walk(recipe, (command, tokenGroup) -> {
       DirectiveInfo info = SystemDirectiveRegistry.INSTANCE.get(command);
       if (info != null) {
         systemDirectives.put(command, info.getDirectiveClass());
+      } else if (knownUserDirectives.containsKey(command)) {
+        userDirectives.put(command, knownUserDirectives.get(command));
       }
       grammarVisitor.visit(command, tokenGroup);
       hasDirectives.set(true);
@@ -623,7 +780,7 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
       return detail.getSample();
     }
 
-    RemoteDirectiveRequest directiveRequest = new RemoteDirectiveRequest(recipe, systemDirectives,
+    RemoteDirectiveRequest directiveRequest = new RemoteDirectiveRequest(recipe, systemDirectives, userDirectives,
                                                                          namespace, detail.getSampleAsBytes(),
                                                                          TRANSIENT_STORE.get(INPUT_SCHEMA));
     RunnableTaskRequest runnableTaskRequest = RunnableTaskRequest.getBuilder(RemoteExecutionTask.class.getName())
@@ -633,7 +790,7 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
     byte[] bytes = getContext().runTask(runnableTaskRequest);
     RemoteDirectiveResponse response;
     if (Feature.WRANGLER_KRYO_SERIALIZATION.isEnabled(getContext())) {
-      response = new KryoSerializer().toRemoteDirectiveResponse(bytes);
+      response = KRYO_SERIALIZER.toRemoteDirectiveResponse(bytes);
     } else {
       response = new ObjectSerDe<RemoteDirectiveResponse>().toObject(bytes);
     }
@@ -643,6 +800,21 @@ public class WorkspaceHandler extends AbstractDirectiveHandler {
     return response.getRows();
   }
 
+  /**
+   * Returns the classes of the user defined directives already loaded by the registry whose artifact is known, keyed
+   * by directive name. These are loaded by the remote workers through their cache of classloaders.
+   */
+  private Map<String, DirectiveClass> getUserDirectiveClasses(String namespace) {
+    Map<String, DirectiveClass> directives = new HashMap<>();
+    for (DirectiveInfo info : composite.list(namespace)) {
+      DirectiveClass directiveClass = info.getDirectiveClass();
+      if (info.scope() == DirectiveScope.USER && directiveClass.getArtifactId() != null) {
+        directives.put(info.name(), directiveClass);
+      }
+    }
+    return directives;
+  }
+
   private List<Row> getSample(SampleResponse sampleResponse) {
     List<Row> rows = new ArrayList<>();
     if (!sampleResponse.getSample().isEmpty()) {
@@ -17,6 +17,7 @@
 package io.cdap.wrangler.service.explorer;
 
 import com.google.common.base.Charsets;
+import com.google.common.io.ByteStreams;
 import io.cdap.cdap.api.annotation.TransactionControl;
 import io.cdap.cdap.api.annotation.TransactionPolicy;
 import io.cdap.cdap.api.dataset.Dataset;
@@ -39,22 +40,20 @@ import io.cdap.wrangler.proto.ServiceResponse;
 import io.cdap.wrangler.proto.connection.ConnectionType;
 import io.cdap.wrangler.proto.file.FileConnectionSample;
 import io.cdap.wrangler.proto.file.FileSpec;
-import io.cdap.wrangler.sampling.Bernoulli;
-import io.cdap.wrangler.sampling.Poisson;
-import io.cdap.wrangler.sampling.Reservoir;
+import io.cdap.wrangler.proto.workspace.SampleCodec;
+import io.cdap.wrangler.sampling.Sampler;
 import io.cdap.wrangler.service.common.AbstractWranglerHandler;
 import io.cdap.wrangler.service.common.Format;
-import io.cdap.wrangler.utils.ObjectSerDe;
 import io.cdap.wrangler.utils.ReferenceNames;
 import org.apache.twill.filesystem.Location;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 
 import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.security.Security;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import javax.ws.rs.DefaultValue;
@@ -215,8 +214,7 @@ public class FilesystemExplorer extends AbstractWranglerHandler {
       if (type == DataType.RECORDS) {
         List<Row> rows = new ArrayList<>();
         rows.add(new Row(COLUMN_NAME, new String(bytes, Charsets.UTF_8)));
-        ObjectSerDe<List<Row>> serDe = new ObjectSerDe<>();
-        byte[] data = serDe.toByteArray(rows);
+        byte[] data = SampleCodec.encode(rows);
         ws.updateWorkspaceData(workspaceId, DataType.RECORDS, data);
       } else if (type == DataType.BINARY || type == DataType.TEXT) {
         ws.updateWorkspaceData(workspaceId, type, bytes);
@@ -257,29 +255,34 @@ public class FilesystemExplorer extends AbstractWranglerHandler {
       .setProperties(properties)
       .build();
 
+    // Random sampling methods read ranges across the whole file, otherwise the first 'limit' lines are read.
+    // The file is read outside of the transaction as the reads can take long.
+    List<Row> rows = new ArrayList<>();
+    Sampler<String> lineSampler = RangeSampler.createSampler(samplingMethod, lines, fraction);
+    if (lineSampler != null) {
+      List<String> sampled = new RangeSampler().sample((offset, length) -> {
+        InputStream stream = location.getInputStream();
+        ByteStreams.skipFully(stream, offset);
+        return stream;
+      }, location.length(), lineSampler, lines);
+      for (String line : sampled) {
+        rows.add(new Row(COLUMN_NAME, line));
+      }
+    } else {
+      try (BoundedLineInputStream blis = BoundedLineInputStream.iterator(location.getInputStream(),
+                                                                         Charsets.UTF_8, lines)) {
+        while (blis.hasNext()) {
+          rows.add(new Row(COLUMN_NAME, blis.next()));
+        }
+      }
+    }
+
     String sampleId = TransactionRunners.run(getContext(), context -> {
       WorkspaceDataset ws = WorkspaceDataset.get(context);
       NamespacedId workspaceId = ws.createWorkspace(namespace, workspaceMeta);
 
-      // Iterate through lines to extract only 'limit' random lines.
-      // Depending on the type, the sampling of the input is performed.
-      List<Row> rows = new ArrayList<>();
-      BoundedLineInputStream blis = BoundedLineInputStream.iterator(location.getInputStream(), Charsets.UTF_8, lines);
-      Iterator<String> it = blis;
-      if (samplingMethod == SamplingMethod.POISSON) {
-        it = new Poisson<String>(fraction).sample(blis);
-      } else if (samplingMethod == SamplingMethod.BERNOULLI) {
-        it = new Bernoulli<String>(fraction).sample(blis);
-      } else if (samplingMethod == SamplingMethod.RESERVOIR) {
-        it = new Reservoir<String>(lines).sample(blis);
-      }
-      while (it.hasNext()) {
-        rows.add(new Row(COLUMN_NAME, it.next()));
-      }
-
       // Write rows to workspace.
-      ObjectSerDe<List<Row>> serDe = new ObjectSerDe<>();
-      byte[] data = serDe.toByteArray(rows);
+      byte[] data = SampleCodec.encode(rows);
       ws.updateWorkspaceData(workspaceId, DataType.RECORDS, data);
       return workspaceId.getId();
     });
@@ -0,0 +1,322 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.explorer;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.cdap.wrangler.SamplingMethod;
+import io.cdap.wrangler.proto.BadRequestException;
+import io.cdap.wrangler.sampling.Bernoulli;
+import io.cdap.wrangler.sampling.Poisson;
+import io.cdap.wrangler.sampling.Reservoir;
+import io.cdap.wrangler.sampling.Sampler;
+import io.cdap.wrangler.sampling.XORShiftRNG;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.annotation.Nullable;
+
+/**
+ * Samples the lines of a file from byte ranges picked at random across the whole file, instead of from the first
+ * lines only. The file is divided in a grid of ranges of equal size, which are read in parallel in rounds of a fixed
+ * number of ranges. Each range owns the lines that start within it, so that a line is never returned twice, and the
+ * lines of each round are passed through a {@link Sampler} in a random order, so that the lines returned are not
+ * biased towards the beginning of the file when the sampler yields more lines than requested. Rounds are read until
+ * the sampler yields the requested number of lines or the whole file is read, so the amount of data read depends on
+ * the number of lines requested, not on the size of the file.
+ */
+public final class RangeSampler {
+  private static final int DEFAULT_RANGES = 64;
+  private static final int DEFAULT_RANGE_SIZE = 64 * 1024;
+  // Maximum number of bytes read past the end of a range to complete its last line.
+  private static final int MAX_LINE_LENGTH = 1024 * 1024;
+  // Number of bytes first read past the end of a range, doubled every time the last line needs more.
+  private static final int LINE_TAIL = 4096;
+  private static final ExecutorService READERS =
+    Executors.newFixedThreadPool(8, new ThreadFactoryBuilder().setDaemon(true).setNameFormat("range-sampler-%d")
+      .build());
+
+  /**
+   * Opens streams on ranges of the bytes of a file.
+   */
+  public interface RangeReader {
+
+    /**
+     * Opens a stream on the bytes of the file starting at the given offset. The stream must return at least
+     * the given number of bytes, unless the end of the file is reached.
+     *
+     * @param offset offset of the first byte to read.
+     * @param length number of bytes to read.
+     * @return stream on the bytes of the range.
+     */
+    InputStream open(long offset, long length) throws IOException;
+  }
+
+  private final int ranges;
+  private final int rangeSize;
+  private final Random random;
+
+  public RangeSampler() {
+    this(DEFAULT_RANGES, DEFAULT_RANGE_SIZE, new XORShiftRNG());
+  }
+
+  public RangeSampler(int ranges, int rangeSize, long seed) {
+    this(ranges, rangeSize, new XORShiftRNG(seed));
+  }
+
+  private RangeSampler(int ranges, int rangeSize, Random random) {
+    this.ranges = ranges;
+    this.rangeSize = rangeSize;
+    this.random = random;
+  }
+
+  /**
+   * Creates the sampler for a sampling method.
+   *
+   * @param method sampling method.
+   * @param lines maximum number of lines to sample.
+   * @param fraction fraction of the lines to sample, for the Bernoulli and Poisson methods.
+   * @return the sampler, or null if the method reads the first lines of the file.
+   * @throws BadRequestException if the fraction is not valid for the method.
+   */
+  @Nullable
+  public static Sampler<String> createSampler(SamplingMethod method, int lines, double fraction) {
+    switch (method) {
+      case POISSON:
+        if (!(fraction > 0)) {
+          throw new BadRequestException("Query param 'fraction' must be greater than 0 for poisson sampling.");
+        }
+        return new Poisson<>(fraction);
+      case BERNOULLI:
+        if (!(fraction > 0 && fraction <= 1)) {
+          throw new BadRequestException("Query param 'fraction' must be in (0, 1] for bernoulli sampling.");
+        }
+        return new Bernoulli<>(fraction);
+      case RESERVOIR:
+        return new Reservoir<>(lines);
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Samples lines of a file.
+   *
+   * @param reader reader of the ranges of the file.
+   * @param length length of the file in bytes.
+   * @param sampler sampler applied to the lines read from the ranges.
+   * @param lines maximum number of lines to return.
+   * @return the sampled lines.
+   */
+  public List<String> sample(RangeReader reader, long length, Sampler<String> sampler,
+                             int lines) throws IOException {
+    List<String> result = new ArrayList<>();
+    long cells = (length + rangeSize - 1) / rangeSize;
+    if (cells <= ranges) {
+      addSample(readRange(reader, 0, length, length), sampler, lines, result);
+      return result;
+    }
+
+    // Reads rounds of ranges until the sampler yields enough lines, as it can yield fewer lines than read.
+    Set<Long> picked = new HashSet<>();
+    while (result.size() < lines && picked.size() < cells) {
+      SortedSet<Long> round = pickCells(cells, picked);
+      picked.addAll(round);
+      addSample(readRanges(reader, round, length), sampler, lines, result);
+    }
+    return result;
+  }
+
+  /**
+   * Picks the cells of the grid of a round of ranges at random, among the cells not picked by the previous rounds.
+   */
+  private SortedSet<Long> pickCells(long cells, Set<Long> picked) {
+    SortedSet<Long> round = new TreeSet<>();
+    if (cells - picked.size() <= ranges) {
+      for (long cell = 0; cell < cells; cell++) {
+        if (!picked.contains(cell)) {
+          round.add(cell);
+        }
+      }
+      return round;
+    }
+    while (round.size() < ranges) {
+      long cell = (long) (random.nextDouble() * cells);
+      if (!picked.contains(cell)) {
+        round.add(cell);
+      }
+    }
+    return round;
+  }
+
+  /**
+   * Reads the lines of the ranges of the given cells in parallel. Lines are returned in the order of the file, so
+   * that the shuffle of the lines is deterministic for a seed.
+   */
+  private List<String> readRanges(RangeReader reader, SortedSet<Long> cells, long length) throws IOException {
+    List<Future<List<String>>> futures = new ArrayList<>();
+    for (long cell : cells) {
+      long start = cell * rangeSize;
+      long end = Math.min(start + rangeSize, length);
+      futures.add(READERS.submit(() -> readRange(reader, start, end, length)));
+    }
+    List<String> lines = new ArrayList<>();
+    try {
+      for (Future<List<String>> future : futures) {
+        lines.addAll(future.get());
+      }
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), IOException.class);
+      throw new IOException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while sampling ranges");
+    } finally {
+      for (Future<List<String>> future : futures) {
+        future.cancel(true);
+      }
+    }
+    return lines;
+  }
+
+  /**
+   * Adds the lines yielded by the sampler from the given lines to the result, up to the maximum number of lines.
+   */
+  private void addSample(List<String> candidates, Sampler<String> sampler, int lines, List<String> result) {
+    // The sampler may yield more lines than requested, which must not favour the lines at the start of the file.
+    Collections.shuffle(candidates, random);
+    Iterator<String> it = sampler.sample(candidates.iterator());
+    while (it.hasNext() && result.size() < lines) {
+      result.add(it.next());
+    }
+  }
+
+  /**
+   * Reads the lines starting in the range [start, end) of the file. The line that starts before the range is
+   * skipped and the last line of the range is read up to its end, or dropped if it is longer than
+   * {@link #MAX_LINE_LENGTH}. Only a small tail past the end of the range is requested at first, and more is
+   * requested only if the last line does not end within it.
+   */
+  private static List<String> readRange(RangeReader reader, long start, long end, long length) throws IOException {
+    // Reads from the byte before the range, to know if a line starts at the beginning of the range.
+    long offset = start == 0 ? 0 : start - 1;
+    long limit = Math.min(length, end + MAX_LINE_LENGTH);
+    List<String> lines = new ArrayList<>();
+    try (RangeInput input = new RangeInput(reader, offset, Math.min(limit, end + LINE_TAIL), limit)) {
+      int b;
+      if (start > 0) {
+        while ((b = input.read()) != -1) {
+          if (b == '\n') {
+            break;
+          }
+        }
+      }
+
+      ByteArrayOutputStream line = new ByteArrayOutputStream();
+      while (input.position < end) {
+        line.reset();
+        boolean terminated = false;
+        while ((b = input.read()) != -1) {
+          if (b == '\n') {
+            terminated = true;
+            break;
+          }
+          line.write(b);
+        }
+        if (!terminated && input.position < length) {
+          // The line is longer than the maximum or the stream ended early.
+          break;
+        }
+        if (!terminated && line.size() == 0) {
+          break;
+        }
+        byte[] bytes = line.toByteArray();
+        int size = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+        lines.add(new String(bytes, 0, size, Charsets.UTF_8));
+      }
+    }
+    return lines;
+  }
+
+  /**
+   * Reads the bytes of a file up to a limit, opening streams on successively larger ranges as more bytes are read.
+   */
+  private static final class RangeInput implements Closeable {
+    private final RangeReader reader;
+    private final long limit;
+    private long position;
+    // End of the bytes requested from the current stream.
+    private long streamEnd;
+    // Number of bytes requested when the current stream is exhausted.
+    private long extension = 2L * LINE_TAIL;
+    private InputStream stream;
+
+    RangeInput(RangeReader reader, long offset, long streamEnd, long limit) {
+      this.reader = reader;
+      this.limit = limit;
+      this.position = offset;
+      this.streamEnd = streamEnd;
+    }
+
+    /**
+     * Returns the next byte, or -1 if the limit or the end of the file is reached.
+     */
+    int read() throws IOException {
+      if (position >= limit) {
+        return -1;
+      }
+      if (stream == null || position >= streamEnd) {
+        if (stream != null) {
+          stream.close();
+          streamEnd = Math.min(limit, position + extension);
+          extension *= 2;
+        }
+        stream = new BufferedInputStream(reader.open(position, streamEnd - position));
+      }
+      int b = stream.read();
+      if (b != -1) {
+        position++;
+      }
+      return b;
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (stream != null) {
+        stream.close();
+      }
+    }
+  }
+}
@@ -52,11 +52,13 @@ import io.cdap.wrangler.proto.gcs.GCSBucketInfo;
 import io.cdap.wrangler.proto.gcs.GCSConnectionSample;
 import io.cdap.wrangler.proto.gcs.GCSObjectInfo;
 import io.cdap.wrangler.proto.gcs.GCSSpec;
+import io.cdap.wrangler.proto.workspace.SampleCodec;
+import io.cdap.wrangler.sampling.Sampler;
 import io.cdap.wrangler.service.FileTypeDetector;
 import io.cdap.wrangler.service.common.AbstractWranglerHandler;
 import io.cdap.wrangler.service.common.Format;
+import io.cdap.wrangler.service.explorer.RangeSampler;
 import io.cdap.wrangler.service.gcp.GCPUtils;
-import io.cdap.wrangler.utils.ObjectSerDe;
 import io.cdap.wrangler.utils.ReferenceNames;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.slf4j.Logger;
@@ -65,6 +67,7 @@ import org.slf4j.LoggerFactory;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.WritableByteChannel;
@@ -243,6 +246,13 @@ public class GCSHandler extends AbstractWranglerHandler {
     }
   }
 
+  private InputStream openGCSFile(Blob blob, long offset, long length) throws IOException {
+    ReadChannel reader = blob.reader();
+    reader.setChunkSize((int) Math.min(length, FILE_SIZE));
+    reader.seek(offset);
+    return Channels.newInputStream(reader);
+  }
+
   /**
    * Reads GCS object into workspace.
    *
@@ -257,9 +267,17 @@ public class GCSHandler extends AbstractWranglerHandler {
                          @PathParam("connection-id") String connectionId,
                          @PathParam("bucket") String bucket,
                          @QueryParam("blob") String blobPath,
+                         @QueryParam("sampler") String sampler, @QueryParam("fraction") double fraction,
                          @QueryParam("scope") @DefaultValue(WorkspaceDataset.DEFAULT_SCOPE) String scope) {
     respond(request, responder, namespace, ns -> {
       String contentType = request.getHeader(PropertyIds.CONTENT_TYPE);
+      SamplingMethod samplingMethod = SamplingMethod.NONE;
+      Sampler<String> lineSampler = null;
+      if ("text/plain".equalsIgnoreCase(contentType) && sampler != null && SamplingMethod.fromString(sampler) != null) {
+        lineSampler = RangeSampler.createSampler(SamplingMethod.fromString(sampler), maxSampleRows, fraction);
+        samplingMethod = lineSampler == null ? SamplingMethod.NONE : SamplingMethod.fromString(sampler);
+      }
+      Sampler<String> rangeLineSampler = lineSampler;
 
       if (blobPath == null || blobPath.isEmpty()) {
         throw new BadRequestException("Required query param 'path' is missing in the input");
@@ -282,15 +300,39 @@ public class GCSHandler extends AbstractWranglerHandler {
       properties.put(PropertyIds.URI, String.format("gs://%s/%s", bucket, blobPath));
       properties.put(PropertyIds.FILE_PATH, blobPath);
       properties.put(PropertyIds.CONNECTION_TYPE, ConnectionType.GCS.getType());
-      properties.put(PropertyIds.SAMPLER_TYPE, SamplingMethod.NONE.getMethod());
+      properties.put(PropertyIds.SAMPLER_TYPE, samplingMethod.getMethod());
       properties.put(PropertyIds.CONNECTION_ID, connectionId);
       properties.put("bucket", bucket);
       if (blob.isDirectory()) {
         throw new BadRequestException(String.format("Path '%s' is not a file.", blob.getName()));
       }
 
+      // Random sampling methods read ranges across the whole blob instead of its first bytes, outside of the
+      // transaction as the reads can take long.
+      List<Row> sampledRows = null;
+      if (rangeLineSampler != null) {
+        List<String> lines = new RangeSampler().sample((offset, length) -> openGCSFile(blob, offset, length),
+                                                       blob.getSize(), rangeLineSampler, maxSampleRows);
+        sampledRows = new ArrayList<>();
+        for (String line : lines) {
+          sampledRows.add(new Row("body", line));
+        }
+      }
+      List<Row> rangeRows = sampledRows;
+
       String sampleId = TransactionRunners.run(getContext(), context -> {
         WorkspaceDataset ws = WorkspaceDataset.get(context);
+        if (rangeRows != null) {
+          properties.put(PropertyIds.FORMAT, Format.TEXT.name());
+          WorkspaceMeta workspaceMeta = WorkspaceMeta.builder(file.getName())
+                                          .setScope(scope)
+                                          .setProperties(properties)
+                                          .build();
+          NamespacedId workspaceId = ws.createWorkspace(ns, workspaceMeta);
+          ws.updateWorkspaceData(workspaceId, DataType.RECORDS, SampleCodec.encode(rangeRows));
+          return workspaceId.getId();
+        }
+
         boolean shouldTruncate = blob.getSize() > FILE_SIZE;
         byte[] bytes = readGCSFile(blob, (int) (shouldTruncate ? FILE_SIZE : blob.getSize()));
         DataType dataType;
@@ -326,8 +368,7 @@ public class GCSHandler extends AbstractWranglerHandler {
                                             + FILE_SIZE + " bytes, unable to process");
           }
 
-          ObjectSerDe<List<Row>> serDe = new ObjectSerDe<>();
-          result = serDe.toByteArray(rows);
+          result = SampleCodec.encode(rows);
           dataType = DataType.RECORDS;
           properties.put(PropertyIds.FORMAT, Format.TEXT.name());
         } else if (contentType.equalsIgnoreCase("application/json")) {
@@ -352,7 +393,7 @@ public class GCSHandler extends AbstractWranglerHandler {
 
       // Preparing return response to include mandatory fields : id and name.
       GCSConnectionSample connectionSample =
-        new GCSConnectionSample(sampleId, file.getName(), ConnectionType.GCS.getType(), SamplingMethod.NONE.getMethod(),
+        new GCSConnectionSample(sampleId, file.getName(), ConnectionType.GCS.getType(), samplingMethod.getMethod(),
                                 connectionId, String.format("gs://%s/%s", bucket, blobPath), blobPath, blobName,
                                 bucket);
 
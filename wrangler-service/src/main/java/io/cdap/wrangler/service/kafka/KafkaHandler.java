@@ -39,8 +39,8 @@ import io.cdap.wrangler.proto.connection.Connection;
 import io.cdap.wrangler.proto.connection.ConnectionMeta;
 import io.cdap.wrangler.proto.connection.ConnectionType;
 import io.cdap.wrangler.proto.kafka.KafkaSpec;
+import io.cdap.wrangler.proto.workspace.SampleCodec;
 import io.cdap.wrangler.service.common.AbstractWranglerHandler;
-import io.cdap.wrangler.utils.ObjectSerDe;
 import io.cdap.wrangler.utils.ReferenceNames;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
@@ -168,8 +168,7 @@ public final class KafkaHandler extends AbstractWranglerHandler {
           running = false;
         }
 
-        ObjectSerDe<List<Row>> serDe = new ObjectSerDe<>();
-        byte[] data = serDe.toByteArray(recs);
+        byte[] data = SampleCodec.encode(recs);
         ws.updateWorkspaceData(workspaceId, DataType.RECORDS, data);
 
         ConnectionSample sample = new ConnectionSample(workspaceId.getId(), topic, ConnectionType.KAFKA.getType(),
@@ -56,22 +56,20 @@ import io.cdap.wrangler.proto.connection.ConnectionType;
 import io.cdap.wrangler.proto.s3.S3ConnectionSample;
 import io.cdap.wrangler.proto.s3.S3ObjectInfo;
 import io.cdap.wrangler.proto.s3.S3Spec;
-import io.cdap.wrangler.sampling.Bernoulli;
-import io.cdap.wrangler.sampling.Poisson;
-import io.cdap.wrangler.sampling.Reservoir;
+import io.cdap.wrangler.proto.workspace.SampleCodec;
+import io.cdap.wrangler.sampling.Sampler;
 import io.cdap.wrangler.service.FileTypeDetector;
 import io.cdap.wrangler.service.common.AbstractWranglerHandler;
 import io.cdap.wrangler.service.common.Format;
 import io.cdap.wrangler.service.explorer.BoundedLineInputStream;
+import io.cdap.wrangler.service.explorer.RangeSampler;
 import io.cdap.wrangler.service.macro.ServiceMacroEvaluator;
-import io.cdap.wrangler.utils.ObjectSerDe;
 
 import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import javax.ws.rs.DefaultValue;
@@ -230,7 +228,7 @@ public class S3Handler extends AbstractWranglerHandler {
         try (InputStream inputStream = object.getObjectContent()) {
           S3ConnectionSample sample;
           if (header != null && header.equalsIgnoreCase("text/plain")) {
-            sample = loadSamplableFile(namespacedConnId, scope, inputStream, object, lines, fraction, sampler);
+            sample = loadSamplableFile(namespacedConnId, scope, s3, inputStream, object, lines, fraction, sampler);
           } else {
             sample = loadFile(namespacedConnId, scope, inputStream, object);
           }
@@ -297,9 +295,9 @@ public class S3Handler extends AbstractWranglerHandler {
     return String.format(PATH_FORMAT, workspace.getProperties().get(BUCKET_NAME), workspace.getProperties().get(KEY));
   }
 
-  private S3ConnectionSample loadSamplableFile(NamespacedId connectionId, String scope, InputStream inputStream,
-                                               S3Object s3Object, int lines, double fraction,
-                                               String sampler) throws IOException {
+  private S3ConnectionSample loadSamplableFile(NamespacedId connectionId, String scope, AmazonS3 s3,
+                                               InputStream inputStream, S3Object s3Object, int lines,
+                                               double fraction, String sampler) throws IOException {
     SamplingMethod samplingMethod;
     if (sampler == null || sampler.isEmpty() || SamplingMethod.fromString(sampler) == null) {
       samplingMethod = SamplingMethod.FIRST;
@@ -322,28 +320,33 @@ public class S3Handler extends AbstractWranglerHandler {
         .setScope(scope)
         .setProperties(properties)
         .build();
-      String sampleId = TransactionRunners.run(getContext(), context -> {
-        WorkspaceDataset ws = WorkspaceDataset.get(context);
-        NamespacedId workspaceId = ws.createWorkspace(connectionId.getNamespace(), workspaceMeta);
 
-        // Iterate through lines to extract only 'limit' random lines.
-        // Depending on the type, the sampling of the input is performed.
-        List<Row> rows = new ArrayList<>();
-        Iterator<String> it = blis;
-        if (samplingMethod == SamplingMethod.POISSON) {
-          it = new Poisson<String>(fraction).sample(blis);
-        } else if (samplingMethod == SamplingMethod.BERNOULLI) {
-          it = new Bernoulli<String>(fraction).sample(blis);
-        } else if (samplingMethod == SamplingMethod.RESERVOIR) {
-          it = new Reservoir<String>(lines).sample(blis);
+      // Random sampling methods read ranges across the whole object, otherwise the first 'limit' lines are read.
+      // The object is read outside of the transaction as the reads can take long.
+      List<Row> rows = new ArrayList<>();
+      Sampler<String> lineSampler = RangeSampler.createSampler(samplingMethod, lines, fraction);
+      if (lineSampler != null) {
+        // The content of the object is not needed, abort the request instead of draining it.
+        s3Object.getObjectContent().abort();
+        List<String> sampled = new RangeSampler().sample(
+          (offset, length) -> s3.getObject(new GetObjectRequest(s3Object.getBucketName(), s3Object.getKey())
+                                             .withRange(offset, offset + length - 1)).getObjectContent(),
+          s3Object.getObjectMetadata().getContentLength(), lineSampler, lines);
+        for (String line : sampled) {
+          rows.add(new Row(COLUMN_NAME, line));
         }
-        while (it.hasNext()) {
-          rows.add(new Row(COLUMN_NAME, it.next()));
+      } else {
+        while (blis.hasNext()) {
+          rows.add(new Row(COLUMN_NAME, blis.next()));
         }
+      }
+
+      String sampleId = TransactionRunners.run(getContext(), context -> {
+        WorkspaceDataset ws = WorkspaceDataset.get(context);
+        NamespacedId workspaceId = ws.createWorkspace(connectionId.getNamespace(), workspaceMeta);
 
         // Write rows to workspace.
-        ObjectSerDe<List<Row>> serDe = new ObjectSerDe<>();
-        byte[] data = serDe.toByteArray(rows);
+        byte[] data = SampleCodec.encode(rows);
         ws.updateWorkspaceData(workspaceId, DataType.RECORDS, data);
         return workspaceId.getId();
       });
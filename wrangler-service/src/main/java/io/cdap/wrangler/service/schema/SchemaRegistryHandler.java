@@ -33,6 +33,8 @@ import io.cdap.wrangler.proto.schema.SchemaEntryVersion;
 import io.cdap.wrangler.service.common.AbstractWranglerHandler;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
@@ -236,15 +238,30 @@ public class SchemaRegistryHandler extends AbstractWranglerHandler {
    * @param request HTTP request handler.
    * @param responder HTTP response handler.
    * @param id of the schema.
+   * @param after only versions greater than this one are returned, if specified.
+   * @param limit maximum number of versions returned, if specified.
    */
   @GET
   @Path("contexts/{context}/schemas/{id}/versions")
   @TransactionPolicy(value = TransactionControl.EXPLICIT)
   public void versions(HttpServiceRequest request, HttpServiceResponder responder,
-                       @PathParam("context") String namespace, @PathParam("id") String id) {
-    respond(request, responder, namespace, ns -> TransactionRunners.run(getContext(), context -> {
-      SchemaRegistry registry = SchemaRegistry.get(context);
-      return new ServiceResponse<>(registry.getVersions(new NamespacedId(ns, id)));
-    }));
+                       @PathParam("context") String namespace, @PathParam("id") String id,
+                       @QueryParam("after") Long after, @QueryParam("limit") Integer limit) {
+    respond(request, responder, namespace, ns -> {
+      if (limit != null && limit <= 0) {
+        throw new BadRequestException("limit must be a positive number.");
+      }
+      return TransactionRunners.run(getContext(), context -> {
+        SchemaRegistry registry = SchemaRegistry.get(context);
+        NamespacedId schemaId = new NamespacedId(ns, id);
+        if (limit == null) {
+          return new ServiceResponse<>(registry.getVersions(schemaId, after, Integer.MAX_VALUE));
+        }
+        // one more version is read to tell whether the response is truncated
+        List<Long> versions = new ArrayList<>(registry.getVersions(schemaId, after, limit + 1));
+        boolean truncated = versions.size() > limit;
+        return new ServiceResponse<>(truncated ? versions.subList(0, limit) : versions, truncated);
+      });
+    });
   }
 }
@@ -0,0 +1,158 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.database;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests {@link ConnectionPool}.
+ */
+public class ConnectionPoolTest {
+
+  @Test
+  public void testConnectionsAreReused() throws Exception {
+    TestConnections connections = new TestConnections();
+    ConnectionPool pool = new ConnectionPool(2, 60000);
+    List<Connection> used = new ArrayList<>();
+
+    pool.execute("ns:id", "props", connections::factory, used::add);
+    pool.execute("ns:id", "props", connections::factory, used::add);
+    Assert.assertSame(used.get(0), used.get(1));
+    Assert.assertEquals(1, connections.loads.get());
+    Assert.assertEquals(1, pool.getIdleCount("ns:id"));
+
+    // Connections are created again once the properties change
+    pool.execute("ns:id", "other", connections::factory, used::add);
+    Assert.assertNotSame(used.get(0), used.get(2));
+    Assert.assertEquals(2, connections.loads.get());
+    Assert.assertTrue(connections.closed.contains(used.get(0)));
+  }
+
+  @Test
+  public void testFailedConnectionsAreClosed() throws Exception {
+    TestConnections connections = new TestConnections();
+    ConnectionPool pool = new ConnectionPool(2, 60000);
+    List<Connection> used = new ArrayList<>();
+
+    try {
+      pool.execute("ns:id", "props", connections::factory, connection -> {
+        used.add(connection);
+        throw new SQLException("failure");
+      });
+      Assert.fail("Expected the execution to fail");
+    } catch (SQLException e) {
+      // expected
+    }
+    Assert.assertTrue(connections.closed.contains(used.get(0)));
+    Assert.assertEquals(0, pool.getIdleCount("ns:id"));
+  }
+
+  @Test
+  public void testIdleConnectionsAreClosed() throws Exception {
+    TestConnections connections = new TestConnections();
+    ConnectionPool pool = new ConnectionPool(2, 1);
+    List<Connection> used = new ArrayList<>();
+
+    pool.execute("ns:first", "props", connections::factory, used::add);
+    Thread.sleep(10);
+    pool.execute("ns:second", "props", connections::factory, used::add);
+    Assert.assertTrue(connections.closed.contains(used.get(0)));
+    Assert.assertEquals(0, pool.getIdleCount("ns:first"));
+    pool.close();
+  }
+
+  @Test
+  public void testIdleConnectionsAreEvicted() throws Exception {
+    TestConnections connections = new TestConnections();
+    List<Connection> used = new ArrayList<>();
+
+    try (ConnectionPool pool = new ConnectionPool(2, 10)) {
+      pool.execute("ns:id", "props", connections::factory, used::add);
+      // Idle connections are closed without the pool being used again
+      long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+      while (!connections.closed.contains(used.get(0)) && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      Assert.assertTrue(connections.closed.contains(used.get(0)));
+      Assert.assertEquals(0, pool.getIdleCount("ns:id"));
+    }
+  }
+
+  @Test
+  public void testClose() throws Exception {
+    TestConnections connections = new TestConnections();
+    ConnectionPool pool = new ConnectionPool(2, 60000);
+    List<Connection> used = new ArrayList<>();
+
+    pool.execute("ns:id", "props", connections::factory, used::add);
+    pool.close();
+    Assert.assertTrue(connections.closed.contains(used.get(0)));
+    Assert.assertEquals(0, pool.getIdleCount("ns:id"));
+
+    // The pool can still be used once closed
+    pool.execute("ns:id", "props", connections::factory, used::add);
+    Assert.assertNotSame(used.get(0), used.get(1));
+    Assert.assertEquals(1, pool.getIdleCount("ns:id"));
+    pool.close();
+  }
+
+  /**
+   * Creates connections that record when they are closed.
+   */
+  private static final class TestConnections {
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Set<Connection> closed = Collections.synchronizedSet(new HashSet<>());
+
+    ConnectionPool.ConnectionFactory factory() {
+      loads.incrementAndGet();
+      return this::connect;
+    }
+
+    private Connection connect() {
+      Connection[] connection = new Connection[1];
+      connection[0] = (Connection) Proxy.newProxyInstance(
+        getClass().getClassLoader(), new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "close":
+              closed.add(connection[0]);
+              return null;
+            case "isValid":
+              return !closed.contains(connection[0]);
+            case "hashCode":
+              return System.identityHashCode(proxy);
+            case "equals":
+              return proxy == args[0];
+            default:
+              throw new UnsupportedOperationException(method.getName());
+          }
+        });
+      return connection[0];
+    }
+  }
+}
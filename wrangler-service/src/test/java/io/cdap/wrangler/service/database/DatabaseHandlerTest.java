@@ -140,6 +140,31 @@ public class DatabaseHandlerTest {
     }
   }
 
+  @Test
+  public void testSampleQuery() {
+    Assert.assertEquals("select * from t limit 10", DatabaseHandler.getSampleQuery("MySQL", "t", 10));
+    Assert.assertEquals("select * from t limit 10", DatabaseHandler.getSampleQuery("PostgreSQL", "t", 10));
+    Assert.assertEquals("select top 10 * from t", DatabaseHandler.getSampleQuery("Microsoft SQL Server", "t", 10));
+    Assert.assertEquals("select * from t where rownum <= 10", DatabaseHandler.getSampleQuery("Oracle", "t", 10));
+    Assert.assertEquals("select * from t fetch first 10 rows only",
+                        DatabaseHandler.getSampleQuery("DB2/LINUXX8664", "t", 10));
+    Assert.assertEquals("select * from t", DatabaseHandler.getSampleQuery("Unknown", "t", 10));
+    Assert.assertEquals("select * from t limit 1", DatabaseHandler.getSampleQuery("MySQL", "t", 0));
+  }
+
+  @Test
+  public void testSampleQueryIsLimited() throws Exception {
+    try (Connection conn = getConnection();
+         Statement stmt = conn.createStatement()) {
+      String product = conn.getMetaData().getDatabaseProductName();
+      try (ResultSet resultSet = stmt.executeQuery(DatabaseHandler.getSampleQuery(product, "\"my_table\"", 1))) {
+        List<Row> rows = DatabaseHandler.getRows(10, resultSet);
+        Assert.assertEquals(1, rows.size());
+        Assert.assertEquals(1, rows.get(0).getValue("ID"));
+      }
+    }
+  }
+
   private static void createTestUser(Connection conn) throws SQLException {
     try (Statement stmt = conn.createStatement()) {
       stmt.execute("CREATE USER \"emptyPwdUser\" PASSWORD '' ADMIN");
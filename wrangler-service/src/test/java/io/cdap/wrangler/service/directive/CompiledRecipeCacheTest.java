@@ -0,0 +1,109 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.directive;
+
+import io.cdap.wrangler.api.DirectiveConfig;
+import io.cdap.wrangler.api.DirectiveParseException;
+import io.cdap.wrangler.api.Pair;
+import io.cdap.wrangler.api.TokenGroup;
+import io.cdap.wrangler.parser.ConfigDirectiveContext;
+import io.cdap.wrangler.parser.GrammarWalker;
+import io.cdap.wrangler.parser.MigrateToV2;
+import io.cdap.wrangler.parser.RecipeCompiler;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests for {@link CompiledRecipeCache}.
+ */
+public class CompiledRecipeCacheTest {
+
+  @Test
+  public void testIncrementalCompile() throws Exception {
+    CompiledRecipeCache cache = new CompiledRecipeCache(100);
+    List<String> directives = new ArrayList<>();
+    directives.add("parse-as-csv :body ',' true");
+    directives.add("// comment");
+    directives.add("set column total a + b");
+
+    List<Pair<String, TokenGroup>> prefix = cache.compile(directives).getSymbols();
+    assertSameSymbols(compile(directives), prefix);
+
+    directives.add("drop :body;");
+    directives.add("rename :a :b");
+    CompiledRecipeCache.CompiledRecipe recipe = cache.compile(directives);
+    List<Pair<String, TokenGroup>> symbols = recipe.getSymbols();
+    assertSameSymbols(compile(directives), symbols);
+    // The directives of the prefix are reused
+    for (int i = 0; i < prefix.size(); i++) {
+      Assert.assertSame(prefix.get(i).getSecond(), symbols.get(i).getSecond());
+    }
+
+    Assert.assertEquals(1, recipe.getSymbolCount(1));
+    Assert.assertEquals(1, recipe.getSymbolCount(2));
+    Assert.assertEquals(3, recipe.getSymbolCount(4));
+    Assert.assertSame(recipe, cache.compile(directives));
+    Assert.assertEquals(1, cache.getStats().hitCount());
+    Assert.assertEquals(2, cache.getStats().missCount());
+  }
+
+  @Test
+  public void testInvalidDirective() throws Exception {
+    CompiledRecipeCache cache = new CompiledRecipeCache(100);
+    List<String> directives = Arrays.asList("drop :body;", "rename :a");
+    try {
+      cache.compile(directives);
+      Assert.fail("Expected the invalid directive to fail the compilation");
+    } catch (DirectiveParseException e) {
+      try {
+        compile(directives);
+        Assert.fail("Expected the invalid directive to fail the compilation");
+      } catch (DirectiveParseException expected) {
+        Assert.assertEquals(expected.getMessage(), e.getMessage());
+      }
+    }
+    Assert.assertEquals(0, cache.getStats().hitCount());
+  }
+
+  private static List<Pair<String, TokenGroup>> compile(List<String> directives) throws Exception {
+    List<Pair<String, TokenGroup>> symbols = new ArrayList<>();
+    new GrammarWalker(new RecipeCompiler(), new ConfigDirectiveContext(DirectiveConfig.EMPTY))
+      .walk(new MigrateToV2(directives).migrate(),
+            (command, tokenGroup) -> symbols.add(new Pair<>(command, tokenGroup)));
+    return symbols;
+  }
+
+  private static void assertSameSymbols(List<Pair<String, TokenGroup>> expected,
+                                        List<Pair<String, TokenGroup>> actual) {
+    Assert.assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      Assert.assertEquals(expected.get(i).getFirst(), actual.get(i).getFirst());
+      TokenGroup expectedGroup = expected.get(i).getSecond();
+      TokenGroup actualGroup = actual.get(i).getSecond();
+      Assert.assertEquals(expectedGroup.getSourceInfo().getLineNumber(),
+                          actualGroup.getSourceInfo().getLineNumber());
+      Assert.assertEquals(expectedGroup.size(), actualGroup.size());
+      for (int j = 0; j < expectedGroup.size(); j++) {
+        Assert.assertEquals(expectedGroup.get(j).value(), actualGroup.get(j).value());
+      }
+    }
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.directive;
+
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.wrangler.api.RemoteDirectiveResponse;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.utils.KryoSerializer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tests for {@link ExecutionCheckpoints}.
+ */
+public class ExecutionCheckpointsTest {
+
+  private static final List<String> DIRECTIVES = Arrays.asList("drop :a", "rename :b :c", "uppercase :c");
+
+  @Test
+  public void testLongestPrefix() {
+    ExecutionCheckpoints checkpoints = new ExecutionCheckpoints(1024 * 1024, 0, 8);
+    ExecutionCheckpoints.WorkspaceCheckpoints workspace = checkpoints.of("ns:ws", "v1");
+    Assert.assertNull(workspace.find(DIRECTIVES));
+
+    Schema schema = Schema.recordOf("output", Schema.Field.of("c", Schema.of(Schema.Type.STRING)));
+    workspace.add(DIRECTIVES.subList(0, 1), rows("first"), null);
+    workspace.add(DIRECTIVES.subList(0, 2), rows("second"), schema);
+
+    ExecutionCheckpoints.Checkpoint checkpoint = workspace.find(DIRECTIVES);
+    Assert.assertNotNull(checkpoint);
+    Assert.assertEquals(2, checkpoint.getDirectives());
+    Assert.assertEquals(rows("second"), checkpoint.getRows());
+    Assert.assertEquals(schema, checkpoint.getSchema());
+
+    // Rows of a checkpoint are not shared between executions
+    checkpoint.getRows().get(0).setValue(0, "modified");
+    Assert.assertEquals(rows("second"), workspace.find(DIRECTIVES).getRows());
+
+    // Editing the second directive restarts from the first one
+    List<String> edited = new ArrayList<>(DIRECTIVES);
+    edited.set(1, "rename :b :d");
+    checkpoint = workspace.find(edited);
+    Assert.assertNotNull(checkpoint);
+    Assert.assertEquals(1, checkpoint.getDirectives());
+    Assert.assertEquals(rows("first"), checkpoint.getRows());
+    Assert.assertNull(checkpoint.getSchema());
+
+    // Checkpoints are not shared between workspaces, nor with other samples of the workspace
+    Assert.assertNull(checkpoints.of("ns:other", "v1").find(DIRECTIVES));
+    Assert.assertNull(checkpoints.of("ns:ws", "v2").find(DIRECTIVES));
+    Assert.assertEquals(0, checkpoints.size());
+  }
+
+  @Test
+  public void testInvalidate() {
+    ExecutionCheckpoints checkpoints = new ExecutionCheckpoints(1024 * 1024, 0, 8);
+    checkpoints.of("ns:ws", "v1").add(DIRECTIVES, rows("value"), null);
+    checkpoints.of("ns:other", "v1").add(DIRECTIVES, rows("value"), null);
+
+    checkpoints.invalidate("ns:ws");
+    Assert.assertNull(checkpoints.of("ns:ws", "v1").find(DIRECTIVES));
+    Assert.assertNotNull(checkpoints.of("ns:other", "v1").find(DIRECTIVES));
+  }
+
+  @Test
+  public void testLimits() {
+    ExecutionCheckpoints checkpoints = new ExecutionCheckpoints(1024 * 1024, 0, 2);
+    ExecutionCheckpoints.WorkspaceCheckpoints workspace = checkpoints.of("ns:ws", "v1");
+    for (int i = 1; i <= DIRECTIVES.size(); i++) {
+      workspace.add(DIRECTIVES.subList(0, i), rows("value" + i), null);
+    }
+    Assert.assertEquals(2, checkpoints.size());
+    Assert.assertNull(workspace.find(DIRECTIVES.subList(0, 1)));
+    Assert.assertEquals(2, workspace.find(DIRECTIVES.subList(0, 2)).getDirectives());
+  }
+
+  @Test
+  public void testSpillToDisk() {
+    int size = new KryoSerializer().fromRemoteDirectiveResponse(new RemoteDirectiveResponse(rows("value1"), null))
+      .length;
+    // Only one checkpoint fits in memory, and two on disk
+    ExecutionCheckpoints checkpoints = new ExecutionCheckpoints(size, 2L * size, 8);
+    ExecutionCheckpoints.WorkspaceCheckpoints workspace = checkpoints.of("ns:ws", "v1");
+    for (int i = 1; i <= DIRECTIVES.size(); i++) {
+      workspace.add(DIRECTIVES.subList(0, i), rows("value" + i), null);
+    }
+    Assert.assertEquals(3, checkpoints.size());
+    Assert.assertEquals(2L * size, checkpoints.getDiskBytes());
+    for (int i = 1; i <= DIRECTIVES.size(); i++) {
+      ExecutionCheckpoints.Checkpoint checkpoint = workspace.find(DIRECTIVES.subList(0, i));
+      Assert.assertNotNull(checkpoint);
+      Assert.assertEquals(rows("value" + i), checkpoint.getRows());
+    }
+
+    // Checkpoints that no longer fit on disk are dropped
+    workspace.add(Collections.singletonList("drop :b"), rows("value4"), null);
+    Assert.assertEquals(3, checkpoints.size());
+    Assert.assertEquals(2L * size, checkpoints.getDiskBytes());
+
+    checkpoints.invalidate("ns:ws");
+    Assert.assertEquals(0, checkpoints.size());
+    Assert.assertEquals(0L, checkpoints.getDiskBytes());
+  }
+
+  private static List<Row> rows(String value) {
+    List<Row> rows = new ArrayList<>();
+    rows.add(new Row("c", value));
+    rows.add(new Row("c", null));
+    return rows;
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.directive;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.cdap.etl.proto.connection.SampleResponse;
+import io.cdap.cdap.etl.proto.connection.SampleResponseCodec;
+import io.cdap.cdap.internal.io.SchemaTypeAdapter;
+import io.cdap.wrangler.api.Row;
+import io.cdap.wrangler.executor.RecipePipelineExecutor;
+import io.cdap.wrangler.parser.GrammarBasedParser;
+import io.cdap.wrangler.parser.MigrateToV2;
+import io.cdap.wrangler.proto.Contexts;
+import io.cdap.wrangler.proto.workspace.v2.DirectiveExecutionResponse;
+import io.cdap.wrangler.proto.workspace.v2.ExecutionProgress;
+import io.cdap.wrangler.registry.CompositeDirectiveRegistry;
+import io.cdap.wrangler.registry.SystemDirectiveRegistry;
+import io.cdap.wrangler.utils.StructuredToRowTransformer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Tests {@link StreamingExecution} and {@link SampleReader}.
+ */
+public class StreamingExecutionTest {
+  private static final Gson GSON = new Gson();
+
+  @Test
+  public void testStreamingExecution() throws Exception {
+    List<Row> rows = new ArrayList<>();
+    for (int i = 0; i < 25; i++) {
+      rows.add(new Row("body", i % 5 == 0 ? "" : "value" + i));
+    }
+    Iterator<Row> iterator = rows.iterator();
+    StreamingExecution.RowSource source = new StreamingExecution.RowSource() {
+      @Override
+      public Row next() {
+        return iterator.hasNext() ? iterator.next() : null;
+      }
+
+      @Override
+      public void close() {
+        // no-op
+      }
+    };
+
+    List<Integer> pageSizes = new ArrayList<>();
+    StreamingExecution execution = new StreamingExecution(
+      source, createExecutor("send-to-error exp:{ body == 'value7' }", "uppercase body"),
+      (page, limit) -> {
+        pageSizes.add(page.size());
+        return new DirectiveExecutionResponse(Collections.emptyList(), Collections.emptySet(),
+                                              Collections.emptyMap(), null);
+      }, 8, 10);
+
+    List<String> lines = readAll(execution);
+    // Page and progress of the first chunk, progress of the two other chunks
+    Assert.assertEquals(4, lines.size());
+    Assert.assertEquals(Collections.singletonList(8), pageSizes);
+
+    ExecutionProgress first = GSON.fromJson(lines.get(1), ExecutionProgress.class);
+    Assert.assertEquals(10, first.getRowsIn());
+    Assert.assertEquals(9, first.getRowsOut());
+    Assert.assertEquals(1, first.getErrors());
+    Assert.assertFalse(first.isDone());
+
+    ExecutionProgress last = GSON.fromJson(lines.get(3), ExecutionProgress.class);
+    Assert.assertEquals(25, last.getRowsIn());
+    Assert.assertEquals(24, last.getRowsOut());
+    Assert.assertEquals(1, last.getErrors());
+    Assert.assertTrue(last.isDone());
+    Assert.assertNull(last.getFailure());
+    Assert.assertEquals(100f, last.getStatistics().get("body").getGeneral().get("non-null"), 0.001f);
+    Assert.assertEquals(500f / 24, last.getStatistics().get("body").getGeneral().get("empty"), 0.001f);
+  }
+
+  @Test
+  public void testSampleReader() throws Exception {
+    Schema schema = Schema.recordOf("record",
+                                    Schema.Field.of("id", Schema.of(Schema.Type.INT)),
+                                    Schema.Field.of("name", Schema.nullableOf(Schema.of(Schema.Type.STRING))));
+    List<StructuredRecord> records = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      records.add(StructuredRecord.builder(schema).set("id", i).set("name", i == 1 ? null : "name" + i).build());
+    }
+    Gson gson = new GsonBuilder()
+      .registerTypeAdapter(Schema.class, new SchemaTypeAdapter())
+      .registerTypeAdapter(SampleResponse.class, new SampleResponseCodec()).create();
+    byte[] content = gson.toJson(new SampleResponse(null, schema, records)).getBytes(StandardCharsets.UTF_8);
+
+    try (SampleReader reader = new SampleReader(new FixedResponseConnection(content))) {
+      Assert.assertEquals(schema, reader.getSchema());
+      for (StructuredRecord expected : records) {
+        StructuredRecord record = reader.next();
+        Assert.assertEquals(expected, record);
+        Assert.assertEquals(StructuredToRowTransformer.transform(expected),
+                            StructuredToRowTransformer.transform(record));
+      }
+      Assert.assertNull(reader.next());
+    }
+  }
+
+  private static RecipePipelineExecutor createExecutor(String... directives) throws Exception {
+    String recipe = new MigrateToV2(directives).migrate();
+    return new RecipePipelineExecutor(new GrammarBasedParser(
+      Contexts.SYSTEM, recipe, new CompositeDirectiveRegistry(SystemDirectiveRegistry.INSTANCE)), null);
+  }
+
+  private static List<String> readAll(StreamingExecution execution) throws Exception {
+    StringBuilder content = new StringBuilder();
+    ByteBuffer chunk;
+    while ((chunk = execution.nextChunk(null)).hasRemaining()) {
+      content.append(StandardCharsets.UTF_8.decode(chunk));
+    }
+    execution.onFinish();
+    List<String> lines = new ArrayList<>();
+    for (String line : content.toString().split("\n")) {
+      lines.add(line);
+    }
+    return lines;
+  }
+
+  /**
+   * Connection that returns a fixed content.
+   */
+  private static final class FixedResponseConnection extends HttpURLConnection {
+    private final byte[] content;
+
+    FixedResponseConnection(byte[] content) throws IOException {
+      super(new URL("http://localhost"));
+      this.content = content;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+      return new ByteArrayInputStream(content);
+    }
+
+    @Override
+    public void disconnect() {
+      // no-op
+    }
+
+    @Override
+    public boolean usingProxy() {
+      return false;
+    }
+
+    @Override
+    public void connect() {
+      // no-op
+    }
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.service.filesystem;
+
+import com.google.common.base.Charsets;
+import io.cdap.wrangler.SamplingMethod;
+import io.cdap.wrangler.proto.BadRequestException;
+import io.cdap.wrangler.sampling.Bernoulli;
+import io.cdap.wrangler.sampling.Reservoir;
+import io.cdap.wrangler.service.explorer.RangeSampler;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tests {@link RangeSampler}
+ */
+public class RangeSamplerTest {
+
+  private static byte[] createFile(int lines, String separator) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < lines; i++) {
+      builder.append("line-").append(i).append(separator);
+    }
+    return builder.toString().getBytes(Charsets.UTF_8);
+  }
+
+  @Test
+  public void testSmallFileIsReadWhole() throws Exception {
+    byte[] file = createFile(100, "\r\n");
+    List<String> lines = new RangeSampler(4, 1024, 7L).sample(
+      (offset, length) -> new ByteArrayInputStream(file, (int) offset, (int) length), file.length,
+      new Reservoir<>(1000, 7L), 1000);
+
+    Assert.assertEquals(100, lines.size());
+    Assert.assertEquals(100, new HashSet<>(lines).size());
+    for (String line : lines) {
+      Assert.assertTrue(line, line.matches("line-\\d+"));
+    }
+  }
+
+  @Test
+  public void testSampleSpansWholeFile() throws Exception {
+    int count = 100000;
+    byte[] file = createFile(count, "\n");
+    AtomicLong read = new AtomicLong();
+    List<String> lines = new RangeSampler(16, 256, 42L).sample((offset, length) -> {
+      // Readers are not required to stop at the end of the range.
+      read.addAndGet(length);
+      return new ByteArrayInputStream(file, (int) offset, file.length - (int) offset);
+    }, file.length, new Reservoir<>(200, 42L), 200);
+
+    Assert.assertEquals(200, lines.size());
+    Set<String> distinct = new HashSet<>(lines);
+    Assert.assertEquals(lines.size(), distinct.size());
+    int last = 0;
+    for (String line : lines) {
+      Assert.assertTrue(line, line.matches("line-\\d+"));
+      last = Math.max(last, Integer.parseInt(line.substring("line-".length())));
+    }
+    // The sample is not limited to the beginning of the file.
+    Assert.assertTrue(last > count / 2);
+    // Only the requested ranges are read, each with a small tail for the last line.
+    Assert.assertTrue(read.get() <= 16 * (1 + 256 + 4096));
+  }
+
+  @Test
+  public void testLongLinesAreReadLazily() throws Exception {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 20000; i++) {
+      builder.append('x');
+    }
+    String longLine = builder.toString();
+    byte[] file = (longLine + "\n").getBytes(Charsets.UTF_8);
+    AtomicLong maxLength = new AtomicLong();
+    // Only the first range owns a line, which is read by one of the rounds.
+    List<String> lines = new RangeSampler(1, 1024, 7L).sample((offset, length) -> {
+      maxLength.accumulateAndGet(length, Math::max);
+      return new ByteArrayInputStream(file, (int) offset, (int) length);
+    }, file.length, new Reservoir<>(10, 7L), 10);
+
+    Assert.assertEquals(Collections.singletonList(longLine), lines);
+    // The line is completed by requesting more bytes past the range as needed, not the rest of the file at once.
+    Assert.assertTrue(maxLength.get() < file.length);
+  }
+
+  @Test
+  public void testRoundsAreReadUntilEnoughLines() throws Exception {
+    int count = 100000;
+    byte[] file = createFile(count, "\n");
+    AtomicLong read = new AtomicLong();
+    // A round of 16 ranges of 256 bytes holds about 350 lines, fewer than requested.
+    RangeSampler.RangeReader reader = (offset, length) -> {
+      read.addAndGet(length);
+      return new ByteArrayInputStream(file, (int) offset, (int) length);
+    };
+    List<String> lines = new RangeSampler(16, 256, 42L).sample(reader, file.length, new Reservoir<>(2000, 42L), 2000);
+    Assert.assertEquals(2000, lines.size());
+    Assert.assertEquals(lines.size(), new HashSet<>(lines).size());
+    // The rounds stop once enough lines are sampled.
+    Assert.assertTrue(read.get() < file.length / 2);
+
+    lines = new RangeSampler(16, 256, 42L).sample(reader, file.length, new Bernoulli<>(0.5d, 42L), 1000);
+    Assert.assertEquals(1000, lines.size());
+    Assert.assertEquals(lines.size(), new HashSet<>(lines).size());
+  }
+
+  @Test
+  public void testSampleIsNotBiasedToFileStart() throws Exception {
+    int count = 100000;
+    byte[] file = createFile(count, "\n");
+    // The sampler yields many more lines than requested, which must not all come from the first ranges.
+    List<String> lines = new RangeSampler(16, 256, 42L).sample(
+      (offset, length) -> new ByteArrayInputStream(file, (int) offset, (int) length), file.length,
+      new Bernoulli<>(1.0d, 42L), 50);
+
+    Assert.assertEquals(50, lines.size());
+    int last = 0;
+    for (String line : lines) {
+      last = Math.max(last, Integer.parseInt(line.substring("line-".length())));
+    }
+    Assert.assertTrue(last > count / 2);
+  }
+
+  @Test(expected = BadRequestException.class)
+  public void testInvalidFraction() {
+    RangeSampler.createSampler(SamplingMethod.BERNOULLI, 10, 0.0d);
+  }
+
+  @Test
+  public void testLinesAreNotSplitAcrossRanges() throws Exception {
+    byte[] file = createFile(5000, "\n");
+    // All the ranges of the grid but one are read by the first round, and the last one by a second round.
+    int ranges = (file.length + 6) / 7 - 1;
+    List<String> lines = new RangeSampler(ranges, 7, 7L).sample(
+      (offset, length) -> new ByteArrayInputStream(file, (int) offset, (int) length), file.length,
+      new Reservoir<>(10000, 7L), 10000);
+    Assert.assertEquals(5000, lines.size());
+    Assert.assertEquals(lines.size(), new HashSet<>(lines).size());
+    for (String line : lines) {
+      Assert.assertTrue(line, line.matches("line-\\d+"));
+    }
+  }
+}
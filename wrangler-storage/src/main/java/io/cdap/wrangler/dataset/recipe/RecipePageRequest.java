@@ -17,54 +17,35 @@
 package io.cdap.wrangler.dataset.recipe;
 
 import io.cdap.cdap.api.NamespaceSummary;
-import io.cdap.cdap.spi.data.SortOrder;
-import io.cdap.cdap.spi.data.table.field.Field;
-import io.cdap.cdap.spi.data.table.field.Fields;
-import io.cdap.cdap.spi.data.table.field.Range;
-import io.cdap.wrangler.dataset.utils.PageRequest;
+import io.cdap.wrangler.dataset.utils.NamespacedPageRequest;
 import io.cdap.wrangler.proto.recipe.v2.Recipe;
 
-import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Objects;
 
-import static io.cdap.cdap.spi.data.table.field.Range.Bound.INCLUSIVE;
 import static io.cdap.wrangler.store.recipe.RecipeStore.GENERATION_COL;
 import static io.cdap.wrangler.store.recipe.RecipeStore.NAMESPACE_FIELD;
 import static io.cdap.wrangler.store.recipe.RecipeStore.RECIPE_NAME_FIELD;
 import static io.cdap.wrangler.store.recipe.RecipeStore.UPDATE_TIME_COL;
-import static io.cdap.wrangler.store.utils.Stores.getNamespaceKeys;
 
 /**
  * Represents a request to fetch a page of Recipes.
  */
-public class RecipePageRequest extends PageRequest<Recipe> {
+public class RecipePageRequest extends NamespacedPageRequest<Recipe> {
   public static final String SORT_BY_NAME = "name";
   public static final String SORT_BY_UPDATE_TIME = "updated";
 
   private static final Map<String, String> sortByMap = createSortByMap();
 
-  private final NamespaceSummary namespace;
-
   protected RecipePageRequest(Integer pageSize, String pageToken, String sortBy,
-                            String sortOrder, NamespaceSummary namespace) {
-    super(pageSize, pageToken, sortBy, sortOrder);
-    this.namespace = namespace;
-    validatePageTokenDataType(this.getPageToken(), this.getSortBy());
-  }
-
-  public NamespaceSummary getNamespace() {
-    return namespace;
+                             String sortOrder, NamespaceSummary namespace) {
+    super(pageSize, pageToken, sortBy, sortOrder, namespace, NAMESPACE_FIELD, GENERATION_COL);
   }
 
   @Override
-  public void validateSortBy(String sortBy) {
-    if (sortBy != null && !sortByMap.containsKey(sortBy)) {
-      throw new IllegalArgumentException(
-        String.format("Invalid sortBy '%s' specified. sortBy must be one of: '%s' or '%s'",
-                      sortBy, SORT_BY_NAME, SORT_BY_UPDATE_TIME));
-    }
+  protected Map<String, String> getSortByColumns() {
+    return sortByMap;
   }
 
   @Override
@@ -73,80 +54,25 @@ public class RecipePageRequest extends PageRequest<Recipe> {
   }
 
   @Override
-  protected String getSortByColumnName(String sortBy) {
-    return sortByMap.get(sortBy);
+  protected String getUniqueValue(Recipe recipe) {
+    return recipe.getRecipeName();
   }
 
   @Override
-  public Range getScanRange() {
-    Collection<Field<?>> begin = getNamespaceKeys(NAMESPACE_FIELD, GENERATION_COL, namespace);
-    Collection<Field<?>> end = getNamespaceKeys(NAMESPACE_FIELD, GENERATION_COL, namespace);
-
-    // If pageToken has a value, add the respective field (column, value) to the range to filter results
-    if (getPageToken() != null) {
-      Field<?> sortByField = getSortByField();
-
-      if (getSortOrder().equals(SortOrder.ASC)) {
-        begin.add(sortByField);
-      } else {
-        end.add(sortByField);
-      }
-    }
-
-    return Range.create(begin, INCLUSIVE, end, INCLUSIVE);
+  protected long getLongValue(Recipe recipe) {
+    return recipe.getUpdatedTimeMillis();
   }
 
   @Override
-  public String getNextPageToken(Recipe recipe) {
-    String nextPageToken;
-    switch (getSortBy()) {
-      case RECIPE_NAME_FIELD:
-        nextPageToken = recipe.getRecipeName();
-        break;
-      case UPDATE_TIME_COL:
-        nextPageToken = String.valueOf(recipe.getUpdatedTimeMillis());
-        break;
-      default:
-        throw new IllegalArgumentException(
-          String.format("Invalid sortBy field '%s' is not mapped to any field in Recipe to return as a pageToken.",
-                        getSortBy()));
-    }
-    return nextPageToken;
+  protected String getId(Recipe recipe) {
+    return recipe.getRecipeId().getRecipeId();
   }
 
   private static Map<String, String> createSortByMap() {
-    Map<String, String> sortByMap = new HashMap<>();
+    Map<String, String> sortByMap = new LinkedHashMap<>();
     sortByMap.put(SORT_BY_NAME, RECIPE_NAME_FIELD);
     sortByMap.put(SORT_BY_UPDATE_TIME, UPDATE_TIME_COL);
-    return sortByMap;
-  }
-
-  private void validatePageTokenDataType(String pageToken, String sortBy) {
-    if (pageToken != null && sortBy.equals(UPDATE_TIME_COL)) {
-      try {
-        Long.parseLong(pageToken);
-      } catch (NumberFormatException e) {
-        throw new IllegalArgumentException(
-          "pageToken value is of invalid data type: expected 'long' value for sortBy 'updated'");
-      }
-    }
-  }
-
-  private Field<?> getSortByField() {
-    Field<?> sortByField;
-    switch (getSortBy()) {
-      case RECIPE_NAME_FIELD:
-        sortByField = Fields.stringField(RECIPE_NAME_FIELD, getPageToken());
-        break;
-      case UPDATE_TIME_COL:
-        sortByField = Fields.longField(UPDATE_TIME_COL, Long.parseLong(Objects.requireNonNull(getPageToken())));
-        break;
-      default:
-        throw new IllegalArgumentException(
-          String.format("Invalid sortBy field '%s' is not mapped to any Recipe store column name.",
-                        getSortBy()));
-    }
-    return sortByField;
+    return Collections.unmodifiableMap(sortByMap);
   }
 
   public static Builder builder(NamespaceSummary namespace) {
@@ -170,16 +170,7 @@ public final class SchemaRegistry  {
    */
   public void delete(NamespacedId id) throws IOException {
     metaTable.delete(getMetaKey(id));
-    Range range = Range.singleton(getMetaKey(id));
-    try (CloseableIterator<StructuredRow> rowIter = entryTable.scan(range, Integer.MAX_VALUE)) {
-      while (rowIter.hasNext()) {
-        StructuredRow row = rowIter.next();
-        Namespace namespace = new Namespace(row.getString(NAMESPACE_COL), row.getLong(GENERATION_COL));
-        NamespacedId entryId = new NamespacedId(namespace, row.getString(ID_COL));
-        long entryVersion = row.getLong(EntryColumn.VERSION);
-        entryTable.delete(getEntryKey(entryId, entryVersion));
-      }
-    }
+    entryTable.deleteAll(Range.singleton(getMetaKey(id)));
   }
 
   /**
@@ -268,11 +259,26 @@ public final class SchemaRegistry  {
    * @throws IOException if there was an error reading from or writing to the storage system
    */
   public Set<Long> getVersions(NamespacedId id) throws IOException {
+    return getVersions(id, null, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Return a page of the versions of the specified schema, in increasing order.
+   *
+   * @param id the schema id
+   * @param after only versions greater than this one are returned, or null to start from the first version
+   * @param limit maximum number of versions to return
+   * @return list of schema versions
+   * @throws SchemaNotFoundException if the schema does not exist
+   * @throws IOException if there was an error reading from or writing to the storage system
+   */
+  public Set<Long> getVersions(NamespacedId id, @Nullable Long after, int limit) throws IOException {
     if (getSchemaRow(id) == null) {
       throw new SchemaNotFoundException(String.format("Schema '%s' does not exist.", id.getId()));
     }
-    Range range = Range.singleton(getMetaKey(id));
-    try (CloseableIterator<StructuredRow> rowIter = entryTable.scan(range, Integer.MAX_VALUE)) {
+    Range range = after == null ? Range.singleton(getMetaKey(id)) :
+      Range.create(getEntryKey(id, after), Range.Bound.EXCLUSIVE, getMetaKey(id), Range.Bound.INCLUSIVE);
+    try (CloseableIterator<StructuredRow> rowIter = entryTable.scan(range, limit)) {
       Set<Long> versionSet = new LinkedHashSet<>();
       while (rowIter.hasNext()) {
         StructuredRow row = rowIter.next();
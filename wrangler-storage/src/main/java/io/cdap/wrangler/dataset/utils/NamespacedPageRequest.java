@@ -0,0 +1,210 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.dataset.utils;
+
+import io.cdap.cdap.api.NamespaceSummary;
+import io.cdap.cdap.spi.data.SortOrder;
+import io.cdap.cdap.spi.data.StructuredRow;
+import io.cdap.cdap.spi.data.table.field.Field;
+import io.cdap.cdap.spi.data.table.field.Fields;
+import io.cdap.cdap.spi.data.table.field.Range;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+import static io.cdap.cdap.spi.data.table.field.Range.Bound.INCLUSIVE;
+import static io.cdap.wrangler.store.utils.Stores.getNamespaceKeys;
+
+/**
+ * A request to fetch a page of the resources of a namespace, stored in a table keyed by namespace, generation and
+ * id. The resources are sorted either by the default sort column, a string whose values are unique in a namespace,
+ * or by a column of long values.
+ *
+ * <p>The page token is the sort value of the first resource of the next page. As long values are not unique, the
+ * token of a long column also holds the id of that resource, as {@code <value>:<id>}, and resources with equal
+ * values are ordered by id, so that a page never repeats or skips the resources sharing the value at its end.</p>
+ *
+ * @param <T> Type of resource that the page request is for.
+ */
+public abstract class NamespacedPageRequest<T> extends PageRequest<T> {
+  private static final char TOKEN_SEPARATOR = ':';
+
+  private final NamespaceSummary namespace;
+  private final String namespaceField;
+  private final String generationField;
+  @Nullable
+  private final Long tokenValue;
+  @Nullable
+  private final String tokenId;
+
+  protected NamespacedPageRequest(Integer pageSize, @Nullable String pageToken, String sortBy, String sortOrder,
+                                  NamespaceSummary namespace, String namespaceField, String generationField) {
+    super(pageSize, pageToken, sortBy, sortOrder);
+    this.namespace = namespace;
+    this.namespaceField = namespaceField;
+    this.generationField = generationField;
+
+    if (pageToken == null || isUniqueSort()) {
+      tokenValue = null;
+      tokenId = null;
+    } else {
+      int index = pageToken.indexOf(TOKEN_SEPARATOR);
+      String value = index < 0 ? pageToken : pageToken.substring(0, index);
+      try {
+        tokenValue = Long.parseLong(value);
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException(
+          String.format("pageToken value is of invalid data type: expected 'long' value for sortBy '%s'",
+                        getSortByName()));
+      }
+      // Tokens without an id are accepted, in which case the page starts with all the resources of the value.
+      tokenId = index < 0 ? null : pageToken.substring(index + 1);
+    }
+  }
+
+  public NamespaceSummary getNamespace() {
+    return namespace;
+  }
+
+  /**
+   * Returns the sort column names, keyed by the sortBy values accepted by the request. The map is used by the
+   * constructor of {@link PageRequest}, so it must not depend on the state of the instance.
+   */
+  protected abstract Map<String, String> getSortByColumns();
+
+  /**
+   * Returns the value of the default sort column of a resource, unique in its namespace.
+   */
+  protected abstract String getUniqueValue(T object);
+
+  /**
+   * Returns the value of the long sort column of a resource.
+   */
+  protected abstract long getLongValue(T object);
+
+  /**
+   * Returns the id of a resource, which orders the resources with equal long sort values.
+   */
+  protected abstract String getId(T object);
+
+  @Override
+  protected void validateSortBy(String sortBy) {
+    if (sortBy != null && !getSortByColumns().containsKey(sortBy)) {
+      throw new IllegalArgumentException(
+        String.format("Invalid sortBy '%s' specified. sortBy must be one of: %s", sortBy,
+                      getSortByColumns().keySet().stream().map(name -> "'" + name + "'")
+                        .collect(Collectors.joining(" or "))));
+    }
+  }
+
+  @Override
+  protected String getSortByColumnName(String sortBy) {
+    return getSortByColumns().get(sortBy);
+  }
+
+  @Override
+  public Range getScanRange() {
+    Collection<Field<?>> begin = getNamespaceKeys(namespaceField, generationField, namespace);
+    Collection<Field<?>> end = getNamespaceKeys(namespaceField, generationField, namespace);
+
+    // If pageToken has a value, add the respective field (column, value) to the range to filter results
+    if (getPageToken() != null) {
+      Field<?> sortByField = isUniqueSort() ? Fields.stringField(getSortBy(), getPageToken())
+        : Fields.longField(getSortBy(), tokenValue);
+
+      if (getSortOrder().equals(SortOrder.ASC)) {
+        begin.add(sortByField);
+      } else {
+        end.add(sortByField);
+      }
+    }
+
+    return Range.create(begin, INCLUSIVE, end, INCLUSIVE);
+  }
+
+  /**
+   * Returns the maximum number of rows to scan from the {@link #getScanRange() range} of the page. Scans on a long
+   * column are not limited, as all the resources sharing the last value of the page must be read to order them.
+   */
+  public int getScanLimit() {
+    return isUniqueSort() ? getPageSize() + 1 : Integer.MAX_VALUE;
+  }
+
+  /**
+   * Collects the resources of the page from the rows scanned in the order of the sort column, stopping the scan as
+   * soon as possible.
+   *
+   * @param rows rows scanned from the {@link #getScanRange() range} of the page
+   * @param decoder decodes the resource of a row
+   * @return the resources of the page, followed by the first resource of the next page if there is one
+   */
+  public List<T> collect(Iterator<StructuredRow> rows, Function<StructuredRow, T> decoder) {
+    List<T> page = new ArrayList<>();
+    if (isUniqueSort()) {
+      while (rows.hasNext() && page.size() <= getPageSize()) {
+        page.add(decoder.apply(rows.next()));
+      }
+      return page;
+    }
+
+    int sign = getSortOrder().equals(SortOrder.ASC) ? 1 : -1;
+    while (rows.hasNext()) {
+      T object = decoder.apply(rows.next());
+      long value = getLongValue(object);
+      if (tokenId != null && tokenValue == value && sign * getId(object).compareTo(tokenId) < 0) {
+        // Returned by the previous page
+        continue;
+      }
+      if (page.size() > getPageSize() && value != getLongValue(page.get(page.size() - 1))) {
+        break;
+      }
+      page.add(object);
+    }
+    Comparator<T> comparator = Comparator.<T>comparingLong(this::getLongValue)
+      .thenComparing(this::getId);
+    page.sort(sign > 0 ? comparator : comparator.reversed());
+    return page.size() > getPageSize() + 1 ? new ArrayList<>(page.subList(0, getPageSize() + 1)) : page;
+  }
+
+  @Override
+  public String getNextPageToken(T object) {
+    if (isUniqueSort()) {
+      return getUniqueValue(object);
+    }
+    return String.valueOf(getLongValue(object)) + TOKEN_SEPARATOR + getId(object);
+  }
+
+  private boolean isUniqueSort() {
+    return getSortBy().equals(getDefaultSortBy());
+  }
+
+  private String getSortByName() {
+    for (Map.Entry<String, String> entry : getSortByColumns().entrySet()) {
+      if (entry.getValue().equals(getSortBy())) {
+        return entry.getKey();
+      }
+    }
+    return getSortBy();
+  }
+}
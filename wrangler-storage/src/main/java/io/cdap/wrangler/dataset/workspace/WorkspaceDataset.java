@@ -95,6 +95,7 @@ public class WorkspaceDataset {
                 new FieldType(DATA_COL, FieldType.Type.BYTES),
                 new FieldType(REQUEST_COL, FieldType.Type.STRING))
     .withPrimaryKeys(NAMESPACE_COL, GENERATION_COL, ID_COL)
+    .withIndexes(SCOPE_COL)
     .build();
   public static final String DEFAULT_SCOPE = "default";
   private final StructuredTable table;
@@ -192,17 +193,11 @@ public class WorkspaceDataset {
    */
   public List<WorkspaceIdentifier> listWorkspaces(Namespace namespace, String scope) throws IOException {
     List<WorkspaceIdentifier> values = new ArrayList<>();
-    List<Field<?>> namespaceKey = new ArrayList<>(2);
-    namespaceKey.add(Fields.stringField(NAMESPACE_COL, namespace.getName()));
-    namespaceKey.add(Fields.longField(GENERATION_COL, namespace.getGeneration()));
-    Range range = Range.singleton(namespaceKey);
-    try (CloseableIterator<StructuredRow> rowIter = table.scan(range, Integer.MAX_VALUE)) {
+    // only the id and name are needed, so the rows are not turned into workspaces
+    try (CloseableIterator<StructuredRow> rowIter = scanScope(namespace, scope)) {
       while (rowIter.hasNext()) {
         StructuredRow row = rowIter.next();
-        Workspace workspace = readWorkspace(row);
-        if (scope.equals(workspace.getScope())) {
-          values.add(new WorkspaceIdentifier(workspace.getNamespacedId().getId(), workspace.getName()));
-        }
+        values.add(new WorkspaceIdentifier(row.getString(ID_COL), row.getString(NAME_COL)));
       }
     }
     return values;
@@ -294,28 +289,29 @@ public class WorkspaceDataset {
   /**
    * Deletes a workspaces that have the specified scope.
    *
-   * TODO: (CDAP-14692) make sure scope is indexed so this doesn't require a full table scan
-   *
    * @param scope to be deleted
    * @return number of workspaces deleted
    */
   public int deleteScope(Namespace namespace, String scope) throws IOException {
-    List<Field<?>> key = new ArrayList<>(2);
-    key.add(Fields.stringField(NAMESPACE_COL, namespace.getName()));
-    key.add(Fields.longField(GENERATION_COL, namespace.getGeneration()));
-    Range range = Range.singleton(key);
-    try (CloseableIterator<StructuredRow> rowIter = table.scan(range, Integer.MAX_VALUE)) {
-      int count = 0;
+    List<NamespacedId> ids = new ArrayList<>();
+    try (CloseableIterator<StructuredRow> rowIter = scanScope(namespace, scope)) {
       while (rowIter.hasNext()) {
-        StructuredRow row = rowIter.next();
-        Workspace workspace = readWorkspace(row);
-        if (scope.equals(workspace.getScope())) {
-          deleteWorkspace(workspace.getNamespacedId());
-          count++;
-        }
+        ids.add(new NamespacedId(namespace, rowIter.next().getString(ID_COL)));
       }
-      return count;
     }
+    for (NamespacedId id : ids) {
+      deleteWorkspace(id);
+    }
+    return ids.size();
+  }
+
+  // scans the workspaces of a scope in a namespace through the scope index
+  private CloseableIterator<StructuredRow> scanScope(Namespace namespace, String scope) throws IOException {
+    List<Field<?>> namespaceKey = new ArrayList<>(2);
+    namespaceKey.add(Fields.stringField(NAMESPACE_COL, namespace.getName()));
+    namespaceKey.add(Fields.longField(GENERATION_COL, namespace.getGeneration()));
+    return table.scan(Range.singleton(namespaceKey), Integer.MAX_VALUE,
+                      Collections.singleton(Fields.stringField(SCOPE_COL, scope)));
   }
 
   private List<Field<?>> toFields(Workspace workspace) {
@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler.dataset.workspace;
+
+import io.cdap.cdap.api.NamespaceSummary;
+import io.cdap.wrangler.dataset.utils.NamespacedPageRequest;
+import io.cdap.wrangler.proto.workspace.v2.Workspace;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static io.cdap.wrangler.store.workspace.WorkspaceStore.GENERATION_COL;
+import static io.cdap.wrangler.store.workspace.WorkspaceStore.NAMESPACE_FIELD;
+import static io.cdap.wrangler.store.workspace.WorkspaceStore.UPDATED_COL;
+import static io.cdap.wrangler.store.workspace.WorkspaceStore.WORKSPACE_ID_FIELD;
+
+/**
+ * Represents a request to fetch a page of Workspaces.
+ */
+public class WorkspacePageRequest extends NamespacedPageRequest<Workspace> {
+  public static final String SORT_BY_ID = "id";
+  public static final String SORT_BY_UPDATE_TIME = "updated";
+
+  private static final Map<String, String> sortByMap = createSortByMap();
+
+  protected WorkspacePageRequest(Integer pageSize, String pageToken, String sortBy,
+                                String sortOrder, NamespaceSummary namespace) {
+    super(pageSize, pageToken, sortBy, sortOrder, namespace, NAMESPACE_FIELD, GENERATION_COL);
+  }
+
+  @Override
+  protected Map<String, String> getSortByColumns() {
+    return sortByMap;
+  }
+
+  @Override
+  protected String getDefaultSortBy() {
+    return WORKSPACE_ID_FIELD;
+  }
+
+  @Override
+  protected String getUniqueValue(Workspace workspace) {
+    return workspace.getWorkspaceId();
+  }
+
+  @Override
+  protected long getLongValue(Workspace workspace) {
+    return workspace.getUpdatedTimeMillis();
+  }
+
+  @Override
+  protected String getId(Workspace workspace) {
+    return workspace.getWorkspaceId();
+  }
+
+  private static Map<String, String> createSortByMap() {
+    Map<String, String> sortByMap = new LinkedHashMap<>();
+    sortByMap.put(SORT_BY_ID, WORKSPACE_ID_FIELD);
+    sortByMap.put(SORT_BY_UPDATE_TIME, UPDATED_COL);
+    return Collections.unmodifiableMap(sortByMap);
+  }
+
+  public static Builder builder(NamespaceSummary namespace) {
+    return new Builder(namespace);
+  }
+
+  /**
+   * Creates a {@link WorkspacePageRequest} object
+   */
+  public static class Builder {
+    private final NamespaceSummary namespace;
+    private Integer pageSize;
+    private String pageToken;
+    private String sortBy;
+    private String sortOrder;
+
+    Builder(NamespaceSummary namespace) {
+      this.namespace = namespace;
+    }
+
+    public Builder setPageSize(Integer pageSize) {
+      this.pageSize = pageSize;
+      return this;
+    }
+
+    public Builder setPageToken(String pageToken) {
+      this.pageToken = pageToken;
+      return this;
+    }
+
+    public Builder setSortBy(String sortBy) {
+      this.sortBy = sortBy;
+      return this;
+    }
+
+    public Builder setSortOrder(String sortOrder) {
+      this.sortOrder = sortOrder;
+      return this;
+    }
+
+    public WorkspacePageRequest build() {
+      return new WorkspacePageRequest(pageSize, pageToken, sortBy, sortOrder, namespace);
+    }
+  }
+}
@@ -182,16 +182,15 @@ public class RecipeStore {
    */
   public RecipeListResponse listRecipes(RecipePageRequest request) {
     return TransactionRunners.run(transactionRunner, context -> {
-      List<Recipe> recipes = new ArrayList<>();
+      List<Recipe> recipes;
       StructuredTable table = context.getTable(TABLE_ID);
 
       Range range = request.getScanRange();
-      try (CloseableIterator<StructuredRow> iterator = table.scan(range, request.getPageSize() + 1,
+      try (CloseableIterator<StructuredRow> iterator = table.scan(range, request.getScanLimit(),
                                                                   request.getSortBy(), request.getSortOrder())) {
-        iterator.forEachRemaining(
-          structuredRow ->
-            recipes.add(GSON.fromJson(structuredRow.getString(RECIPE_INFO_COL), RecipeRow.class).getRecipe())
-        );
+        recipes = request.collect(
+          iterator,
+          structuredRow -> GSON.fromJson(structuredRow.getString(RECIPE_INFO_COL), RecipeRow.class).getRecipe());
       }
       String nextPageToken = recipes.size() > request.getPageSize() ?
         request.getNextPageToken(recipes.remove(recipes.size() - 1)) : "";
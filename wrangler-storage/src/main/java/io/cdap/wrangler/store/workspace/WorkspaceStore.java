@@ -34,17 +34,19 @@ import io.cdap.cdap.spi.data.transaction.TransactionRunner;
 import io.cdap.cdap.spi.data.transaction.TransactionRunners;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.dataset.workspace.WorkspaceNotFoundException;
+import io.cdap.wrangler.dataset.workspace.WorkspacePageRequest;
+import io.cdap.wrangler.proto.workspace.SampleCodec;
 import io.cdap.wrangler.proto.workspace.v2.Workspace;
 import io.cdap.wrangler.proto.workspace.v2.WorkspaceDetail;
 import io.cdap.wrangler.proto.workspace.v2.WorkspaceId;
+import io.cdap.wrangler.proto.workspace.v2.WorkspaceListResponse;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import javax.annotation.Nullable;
 
 /**
@@ -52,13 +54,14 @@ import javax.annotation.Nullable;
  */
 public class WorkspaceStore {
   private static final StructuredTableId TABLE_ID = new StructuredTableId("workspaces_store");
-  private static final String NAMESPACE_FIELD = "namespace";
-  private static final String WORKSPACE_ID_FIELD = "workspace_id";
+  public static final String NAMESPACE_FIELD = "namespace";
+  public static final String WORKSPACE_ID_FIELD = "workspace_id";
   // this field is to ensure the workspace information is correctly fetched if a namespace is recreated
-  private static final String GENERATION_COL = "generation";
+  public static final String GENERATION_COL = "generation";
   private static final String CREATED_COL = "createdtimemillis";
-  private static final String UPDATED_COL = "updatedtimemillis";
+  public static final String UPDATED_COL = "updatedtimemillis";
   private static final String SAMPLE_COL = "sample";
+  private static final String SAMPLE_VERSION_COL = "sampleversion";
   private static final String WORKSPACE_INFO_COL = "workspace_info";
 
   public static final StructuredTableSpecification WORKSPACE_TABLE_SPEC =
@@ -70,8 +73,10 @@ public class WorkspaceStore {
                   Fields.longType(CREATED_COL),
                   Fields.longType(UPDATED_COL),
                   Fields.bytesType(SAMPLE_COL),
+                  Fields.stringType(SAMPLE_VERSION_COL),
                   Fields.stringType(WORKSPACE_INFO_COL))
       .withPrimaryKeys(NAMESPACE_FIELD, GENERATION_COL, WORKSPACE_ID_FIELD)
+      .withIndexes(UPDATED_COL)
       .build();
 
   private static final Gson GSON = new GsonBuilder()
@@ -113,15 +118,18 @@ public class WorkspaceStore {
       }
 
       Workspace workspace = GSON.fromJson(row.get().getString(WORKSPACE_INFO_COL), Workspace.class);
-      List<Row> rows = new ArrayList<>();
       byte[] sample = row.get().getBytes(SAMPLE_COL);
-      if (sample != null) {
-        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(sample))) {
-          rows = (List<Row>) ois.readObject();
-        }
+      if (sample == null) {
+        return new WorkspaceDetail(workspace, new ArrayList<>());
       }
-
-      return new WorkspaceDetail(workspace, rows);
+      // Samples saved before their version was stored get the version they would be saved with
+      String sampleVersion = row.get().getString(SAMPLE_VERSION_COL);
+      if (sampleVersion == null) {
+        sampleVersion = getSampleVersion(sample);
+      }
+      // Samples stored with Java serialization are encoded again when the workspace is saved
+      List<Row> rows = SampleCodec.decode(sample);
+      return new WorkspaceDetail(workspace, rows, SampleCodec.isLegacy(sample) ? null : sample, sampleVersion);
     }, WorkspaceNotFoundException.class);
   }
 
@@ -145,6 +153,30 @@ public class WorkspaceStore {
     });
   }
 
+  /**
+   * Get a page of the workspaces in a namespace. Only the workspace metadata is read, the samples are never decoded.
+   *
+   * @param request the page to fetch
+   * @return the workspaces in the page and the token of the next page, empty if this is the last page
+   */
+  public WorkspaceListResponse listWorkspaces(WorkspacePageRequest request) {
+    return TransactionRunners.run(transactionRunner, context -> {
+      List<Workspace> workspaces;
+      StructuredTable table = context.getTable(TABLE_ID);
+
+      Range range = request.getScanRange();
+      try (CloseableIterator<StructuredRow> iterator = table.scan(range, request.getScanLimit(),
+                                                                  request.getSortBy(), request.getSortOrder())) {
+        workspaces = request.collect(
+          iterator, structuredRow -> GSON.fromJson(structuredRow.getString(WORKSPACE_INFO_COL), Workspace.class));
+      }
+      String nextPageToken = workspaces.size() > request.getPageSize() ?
+        request.getNextPageToken(workspaces.remove(workspaces.size() - 1)) : "";
+
+      return new WorkspaceListResponse(workspaces, nextPageToken);
+    });
+  }
+
   /**
    * Create/update the workspace from given workspace.
    *
@@ -211,10 +243,19 @@ public class WorkspaceStore {
       }
 
       fields.add(Fields.bytesField(SAMPLE_COL, sample));
+      fields.add(Fields.stringField(SAMPLE_VERSION_COL, getSampleVersion(sample)));
       table.upsert(fields);
     });
   }
 
+  /**
+   * Returns the version of a stored sample. It is computed from the content of the sample when the sample is saved,
+   * so that the sample can be identified across the instances of the service without reading it.
+   */
+  private static String getSampleVersion(byte[] sample) {
+    return UUID.nameUUIDFromBytes(sample).toString();
+  }
+
   // internal get method so the save, delete and get operation can all happen in single transaction
   @Nullable
   private Workspace getWorkspaceInternal(
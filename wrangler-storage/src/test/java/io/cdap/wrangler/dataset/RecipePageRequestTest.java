@@ -18,6 +18,7 @@ package io.cdap.wrangler.dataset;
 
 import io.cdap.cdap.api.NamespaceSummary;
 import io.cdap.cdap.spi.data.table.field.Field;
+import io.cdap.cdap.spi.data.table.field.Fields;
 import io.cdap.cdap.spi.data.table.field.Range;
 import io.cdap.wrangler.dataset.recipe.RecipePageRequest;
 import org.junit.Assert;
@@ -29,6 +30,7 @@ import static io.cdap.cdap.spi.data.table.field.Range.Bound.INCLUSIVE;
 import static io.cdap.wrangler.dataset.recipe.RecipePageRequest.SORT_BY_UPDATE_TIME;
 import static io.cdap.wrangler.store.recipe.RecipeStore.GENERATION_COL;
 import static io.cdap.wrangler.store.recipe.RecipeStore.NAMESPACE_FIELD;
+import static io.cdap.wrangler.store.recipe.RecipeStore.UPDATE_TIME_COL;
 import static io.cdap.wrangler.store.utils.Stores.getNamespaceKeys;
 
 public class RecipePageRequestTest {
@@ -56,6 +58,28 @@ public class RecipePageRequestTest {
     RecipePageRequest.builder(namespace).setSortBy(SORT_BY_UPDATE_TIME).setPageToken("abc123").build();
   }
 
+  @Test(expected = IllegalArgumentException.class)
+  public void testPageRequestWithInvalidPageTokenValue() {
+    NamespaceSummary namespace = new NamespaceSummary("n1", "", 10L);
+    RecipePageRequest.builder(namespace).setSortBy(SORT_BY_UPDATE_TIME).setPageToken("abc:123").build();
+  }
+
+  @Test
+  public void testGetRangeForUpdateTimePage() {
+    NamespaceSummary namespace = new NamespaceSummary("n1", "", 10L);
+    Collection<Field<?>> begin = getNamespaceKeys(NAMESPACE_FIELD, GENERATION_COL, namespace);
+    Collection<Field<?>> end = getNamespaceKeys(NAMESPACE_FIELD, GENERATION_COL, namespace);
+    begin.add(Fields.longField(UPDATE_TIME_COL, 123L));
+    Range expected = Range.create(begin, INCLUSIVE, end, INCLUSIVE);
+
+    // tokens without the id of the first recipe of the page are still accepted
+    for (String token : new String[] {"123:recipe-id", "123"}) {
+      RecipePageRequest pageRequest = RecipePageRequest.builder(namespace)
+        .setSortBy(SORT_BY_UPDATE_TIME).setPageToken(token).build();
+      Assert.assertEquals(expected, pageRequest.getScanRange());
+    }
+  }
+
   @Test
   public void testGetRangeForFirstPage() {
     NamespaceSummary namespace = new NamespaceSummary("n1", "", 10L);
@@ -30,8 +30,10 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -147,6 +149,32 @@ public class SchemaRegistryTest extends SystemAppTestBase {
     Assert.assertFalse(call(registry -> registry.hasSchema(id)));
   }
 
+  @Test
+  public void testVersionPages() {
+    NamespacedId id = new NamespacedId(new Namespace("c0", 10L), "paged");
+    run(registry -> registry.write(new SchemaDescriptor(id, "paged", "desc", SchemaDescriptorType.AVRO)));
+    List<Long> versions = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      byte[] spec = new byte[]{(byte) i};
+      versions.add(call(registry -> registry.add(id, spec)));
+    }
+
+    List<Long> paged = new ArrayList<>();
+    Set<Long> page = call(registry -> registry.getVersions(id, null, 2));
+    while (!page.isEmpty()) {
+      Assert.assertTrue(page.size() <= 2);
+      paged.addAll(page);
+      long last = paged.get(paged.size() - 1);
+      page = call(registry -> registry.getVersions(id, last, 2));
+    }
+    Assert.assertEquals(versions, paged);
+
+    // deleting the schema removes all of its entries
+    run(registry -> registry.delete(id));
+    run(registry -> registry.write(new SchemaDescriptor(id, "paged", "desc", SchemaDescriptorType.AVRO)));
+    Assert.assertTrue(call(registry -> registry.getVersions(id)).isEmpty());
+  }
+
   @Test
   public void testNamespaceIsolation() {
     Namespace ns1 = new Namespace("c1", 10L);
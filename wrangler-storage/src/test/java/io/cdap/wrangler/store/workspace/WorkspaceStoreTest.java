@@ -19,22 +19,27 @@ package io.cdap.wrangler.store.workspace;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import io.cdap.cdap.api.NamespaceSummary;
 import io.cdap.cdap.test.SystemAppTestBase;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.dataset.workspace.WorkspaceNotFoundException;
+import io.cdap.wrangler.dataset.workspace.WorkspacePageRequest;
 import io.cdap.wrangler.proto.workspace.v2.SampleSpec;
 import io.cdap.wrangler.proto.workspace.v2.Workspace;
 import io.cdap.wrangler.proto.workspace.v2.WorkspaceDetail;
 import io.cdap.wrangler.proto.workspace.v2.WorkspaceId;
+import io.cdap.wrangler.proto.workspace.v2.WorkspaceListResponse;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 
 public class WorkspaceStoreTest extends SystemAppTestBase {
   private static WorkspaceStore store;
@@ -161,6 +166,101 @@ public class WorkspaceStoreTest extends SystemAppTestBase {
     Assert.assertEquals(meta3, store.getWorkspace(id3));
   }
 
+  @Test
+  public void testListPages() {
+    NamespaceSummary ns = new NamespaceSummary("paged", "", 10L);
+    NamespaceSummary other = new NamespaceSummary("other", "", 10L);
+    List<Workspace> workspaces = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      WorkspaceId id = new WorkspaceId(ns, "ws" + i);
+      // update times are in the reverse order of the ids
+      Workspace workspace = Workspace.builder("name" + i, id.getWorkspaceId())
+                              .setCreatedTimeMillis(0L)
+                              .setUpdatedTimeMillis(1000L - i)
+                              .build();
+      store.saveWorkspace(id, new WorkspaceDetail(workspace, Collections.singletonList(new Row("k", i))));
+      workspaces.add(workspace);
+    }
+    WorkspaceId otherId = new WorkspaceId(other, "ws");
+    store.saveWorkspace(otherId, new WorkspaceDetail(Workspace.builder("other", otherId.getWorkspaceId()).build(),
+                                                     Collections.emptyList()));
+
+    Assert.assertEquals(workspaces, listAll(WorkspacePageRequest.builder(ns).setPageSize(2)));
+    Assert.assertEquals(Lists.reverse(workspaces),
+                        listAll(WorkspacePageRequest.builder(ns).setPageSize(2)
+                                  .setSortBy(WorkspacePageRequest.SORT_BY_UPDATE_TIME)));
+    Assert.assertEquals(workspaces,
+                        listAll(WorkspacePageRequest.builder(ns).setPageSize(3)
+                                  .setSortBy(WorkspacePageRequest.SORT_BY_UPDATE_TIME)
+                                  .setSortOrder(WorkspacePageRequest.SORT_ORDER_DESC)));
+
+    WorkspaceListResponse response = store.listWorkspaces(WorkspacePageRequest.builder(ns).setPageSize(5).build());
+    Assert.assertEquals(workspaces, response.getValues());
+    Assert.assertEquals("", response.getNextPageToken());
+  }
+
+  @Test
+  public void testListPagesWithEqualUpdateTimes() {
+    NamespaceSummary ns = new NamespaceSummary("ties", "", 10L);
+    List<Workspace> workspaces = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      WorkspaceId id = new WorkspaceId(ns, "ws" + i);
+      // pages of 2 workspaces end in the middle of the runs of equal update times
+      Workspace workspace = Workspace.builder("name" + i, id.getWorkspaceId())
+                              .setCreatedTimeMillis(0L)
+                              .setUpdatedTimeMillis(100L * (1 + i / 3))
+                              .build();
+      store.saveWorkspace(id, new WorkspaceDetail(workspace, Collections.emptyList()));
+      workspaces.add(workspace);
+    }
+
+    for (int pageSize = 1; pageSize <= 4; pageSize++) {
+      Assert.assertEquals(workspaces,
+                          listAll(WorkspacePageRequest.builder(ns).setPageSize(pageSize)
+                                    .setSortBy(WorkspacePageRequest.SORT_BY_UPDATE_TIME)));
+      Assert.assertEquals(Lists.reverse(workspaces),
+                          listAll(WorkspacePageRequest.builder(ns).setPageSize(pageSize)
+                                    .setSortBy(WorkspacePageRequest.SORT_BY_UPDATE_TIME)
+                                    .setSortOrder(WorkspacePageRequest.SORT_ORDER_DESC)));
+    }
+
+    WorkspaceListResponse response = store.listWorkspaces(
+      WorkspacePageRequest.builder(ns).setPageSize(2).setSortBy(WorkspacePageRequest.SORT_BY_UPDATE_TIME).build());
+    Assert.assertEquals(workspaces.subList(0, 2), response.getValues());
+    Assert.assertEquals("100:ws2", response.getNextPageToken());
+  }
+
+  private List<Workspace> listAll(WorkspacePageRequest.Builder builder) {
+    List<Workspace> result = new ArrayList<>();
+    WorkspaceListResponse response = store.listWorkspaces(builder.build());
+    result.addAll(response.getValues());
+    while (!response.getNextPageToken().isEmpty()) {
+      response = store.listWorkspaces(builder.setPageToken(response.getNextPageToken()).build());
+      result.addAll(response.getValues());
+    }
+    return result;
+  }
+
+  @Test
+  public void testSampleVersion() throws Exception {
+    WorkspaceId id = new WorkspaceId(new NamespaceSummary("default", "", 10L));
+    Workspace workspace = Workspace.builder("name", id.getWorkspaceId())
+                            .setCreatedTimeMillis(0L)
+                            .setUpdatedTimeMillis(0L)
+                            .build();
+    store.saveWorkspace(id, new WorkspaceDetail(workspace, Collections.singletonList(new Row("k", 1))));
+    String version = store.getWorkspaceDetail(id).getSampleVersion();
+    Assert.assertNotNull(version);
+
+    // updating the workspace metadata keeps the sample version
+    store.updateWorkspace(id, Workspace.builder(workspace).setUpdatedTimeMillis(1L).build());
+    Assert.assertEquals(version, store.getWorkspaceDetail(id).getSampleVersion());
+
+    // replacing the sample changes it
+    store.saveWorkspace(id, new WorkspaceDetail(workspace, Collections.singletonList(new Row("k", 2))));
+    Assert.assertNotEquals(version, store.getWorkspaceDetail(id).getSampleVersion());
+  }
+
   @Test
   public void testNamespaceGenerations() {
     NamespaceSummary nsGen1 = new NamespaceSummary("ns1", "", 1L);
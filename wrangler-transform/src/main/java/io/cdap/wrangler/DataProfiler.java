@@ -0,0 +1,224 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler;
+
+import io.cdap.cdap.api.annotation.Description;
+import io.cdap.cdap.api.annotation.Macro;
+import io.cdap.cdap.api.annotation.Name;
+import io.cdap.cdap.api.annotation.Plugin;
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.cdap.api.plugin.PluginConfig;
+import io.cdap.cdap.etl.api.Emitter;
+import io.cdap.cdap.etl.api.FailureCollector;
+import io.cdap.cdap.etl.api.PipelineConfigurer;
+import io.cdap.cdap.etl.api.StageConfigurer;
+import io.cdap.cdap.etl.api.batch.BatchAggregator;
+import io.cdap.cdap.etl.api.batch.BatchReducibleAggregator;
+import io.cdap.cdap.etl.api.batch.BatchRuntimeContext;
+import io.cdap.wrangler.api.Pair;
+import io.cdap.wrangler.statistics.ColumnProfile;
+import io.cdap.wrangler.statistics.ColumnProfiler;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+
+/**
+ * DataProfiler - Profiles the fields of the input records.
+ *
+ * Each partition of the input is profiled into a {@link ColumnProfiler} in one pass, and the profilers of the
+ * partitions are merged. The sketches of the profiles have a bounded size, so the memory used does not depend
+ * on the number of records. One record is emitted for each profiled field.
+ */
+@Plugin(type = BatchAggregator.PLUGIN_TYPE)
+@Name("DataProfiler")
+@Description("Profiles the fields of the input records with distinct counts, quantiles, top values and lengths.")
+public class DataProfiler extends BatchReducibleAggregator<String, StructuredRecord, ColumnProfiler, StructuredRecord> {
+  private static final String GROUP_KEY = "profile";
+  private static final double[] QUANTILES = new double[] { 0.25, 0.5, 0.75 };
+  private static final Schema TOP_VALUE_SCHEMA = Schema.recordOf(
+    "topValue",
+    Schema.Field.of("value", Schema.of(Schema.Type.STRING)),
+    Schema.Field.of("count", Schema.of(Schema.Type.LONG)));
+  static final Schema OUTPUT_SCHEMA = Schema.recordOf(
+    "profile",
+    Schema.Field.of("field", Schema.of(Schema.Type.STRING)),
+    Schema.Field.of("count", Schema.of(Schema.Type.LONG)),
+    Schema.Field.of("nulls", Schema.of(Schema.Type.LONG)),
+    Schema.Field.of("empties", Schema.of(Schema.Type.LONG)),
+    Schema.Field.of("distinct", Schema.of(Schema.Type.LONG)),
+    Schema.Field.of("numerics", Schema.of(Schema.Type.LONG)),
+    Schema.Field.of("min", Schema.nullableOf(Schema.of(Schema.Type.DOUBLE))),
+    Schema.Field.of("p25", Schema.nullableOf(Schema.of(Schema.Type.DOUBLE))),
+    Schema.Field.of("median", Schema.nullableOf(Schema.of(Schema.Type.DOUBLE))),
+    Schema.Field.of("p75", Schema.nullableOf(Schema.of(Schema.Type.DOUBLE))),
+    Schema.Field.of("max", Schema.nullableOf(Schema.of(Schema.Type.DOUBLE))),
+    Schema.Field.of("minLength", Schema.of(Schema.Type.INT)),
+    Schema.Field.of("maxLength", Schema.of(Schema.Type.INT)),
+    Schema.Field.of("lengthHistogram", Schema.arrayOf(Schema.of(Schema.Type.LONG))),
+    Schema.Field.of("topValues", Schema.arrayOf(TOP_VALUE_SCHEMA)));
+
+  private final Config config;
+  private Set<String> fields;
+
+  public DataProfiler(Config config) {
+    this.config = config;
+  }
+
+  @Override
+  public void configurePipeline(PipelineConfigurer configurer) {
+    StageConfigurer stageConfigurer = configurer.getStageConfigurer();
+    FailureCollector collector = stageConfigurer.getFailureCollector();
+    Schema inputSchema = stageConfigurer.getInputSchema();
+    if (inputSchema != null && !config.containsMacro(Config.NAME_FIELDS) && config.getFields() != null) {
+      for (String field : config.getFields()) {
+        if (inputSchema.getField(field) == null) {
+          collector.addFailure(String.format("Field '%s' does not exist in the input schema.", field), null)
+            .withConfigElement(Config.NAME_FIELDS, field);
+        }
+      }
+    }
+    if (!config.containsMacro(Config.NAME_TOP_VALUES) && config.getTopValues() < 0) {
+      collector.addFailure("Number of top values must not be negative.", null)
+        .withConfigProperty(Config.NAME_TOP_VALUES);
+    }
+    stageConfigurer.setOutputSchema(OUTPUT_SCHEMA);
+  }
+
+  @Override
+  public void initialize(BatchRuntimeContext context) throws Exception {
+    super.initialize(context);
+    List<String> names = config.getFields();
+    fields = names == null ? null : new HashSet<>(names);
+  }
+
+  @Override
+  public void groupBy(StructuredRecord record, Emitter<String> emitter) {
+    // All the records are profiled together, the partial profiles of the partitions being merged.
+    emitter.emit(GROUP_KEY);
+  }
+
+  @Override
+  public ColumnProfiler initializeAggregateValue(StructuredRecord record) {
+    return mergeValues(new ColumnProfiler(), record);
+  }
+
+  @Override
+  public ColumnProfiler mergeValues(ColumnProfiler profiler, StructuredRecord record) {
+    for (Schema.Field field : record.getSchema().getFields()) {
+      if (fields == null || fields.contains(field.getName())) {
+        profiler.update(field.getName(), record.get(field.getName()));
+      }
+    }
+    return profiler;
+  }
+
+  @Override
+  public ColumnProfiler mergePartitions(ColumnProfiler first, ColumnProfiler second) {
+    return first.merge(second);
+  }
+
+  @Override
+  public void finalize(String key, ColumnProfiler profiler, Emitter<StructuredRecord> emitter) {
+    for (Map.Entry<String, ColumnProfile> entry : profiler.getProfiles().entrySet()) {
+      emitter.emit(toRecord(entry.getKey(), entry.getValue(), config.getTopValues()));
+    }
+  }
+
+  static StructuredRecord toRecord(String field, ColumnProfile profile, int topValues) {
+    List<Long> lengthHistogram = new ArrayList<>();
+    for (long count : profile.getLengthHistogram()) {
+      lengthHistogram.add(count);
+    }
+    List<StructuredRecord> top = new ArrayList<>();
+    for (Pair<String, Long> value : profile.getTopValues(topValues)) {
+      top.add(StructuredRecord.builder(TOP_VALUE_SCHEMA)
+                .set("value", value.getFirst())
+                .set("count", value.getSecond())
+                .build());
+    }
+
+    StructuredRecord.Builder builder = StructuredRecord.builder(OUTPUT_SCHEMA)
+      .set("field", field)
+      .set("count", profile.getCount())
+      .set("nulls", profile.getNullCount())
+      .set("empties", profile.getEmptyCount())
+      .set("distinct", profile.getDistinctCount())
+      .set("numerics", profile.getNumericCount())
+      .set("minLength", profile.getMinLength())
+      .set("maxLength", profile.getMaxLength())
+      .set("lengthHistogram", lengthHistogram)
+      .set("topValues", top);
+    if (profile.getNumericCount() > 0) {
+      double[] quantiles = profile.getQuantiles(QUANTILES);
+      builder.set("min", profile.getMin())
+        .set("p25", quantiles[0])
+        .set("median", quantiles[1])
+        .set("p75", quantiles[2])
+        .set("max", profile.getMax());
+    }
+    return builder.build();
+  }
+
+  /**
+   * Config for the plugin.
+   */
+  public static class Config extends PluginConfig {
+    static final String NAME_FIELDS = "fields";
+    static final String NAME_TOP_VALUES = "topValues";
+    private static final int DEFAULT_TOP_VALUES = 10;
+
+    @Name(NAME_FIELDS)
+    @Description("Comma separated list of the fields to profile. All the fields are profiled if not specified.")
+    @Macro
+    @Nullable
+    private String fields;
+
+    @Name(NAME_TOP_VALUES)
+    @Description("Number of most frequent values reported for each field, at most 64. Defaults to 10.")
+    @Macro
+    @Nullable
+    private Integer topValues;
+
+    public Config(@Nullable String fields, @Nullable Integer topValues) {
+      this.fields = fields;
+      this.topValues = topValues;
+    }
+
+    @Nullable
+    List<String> getFields() {
+      if (fields == null || fields.trim().isEmpty()) {
+        return null;
+      }
+      List<String> names = new ArrayList<>();
+      for (String name : fields.split(",")) {
+        if (!name.trim().isEmpty()) {
+          names.add(name.trim());
+        }
+      }
+      return names;
+    }
+
+    int getTopValues() {
+      return topValues == null ? DEFAULT_TOP_VALUES : topValues;
+    }
+  }
+}
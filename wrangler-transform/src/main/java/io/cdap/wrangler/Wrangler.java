@@ -58,7 +58,6 @@ import io.cdap.wrangler.api.ErrorRecord;
 import io.cdap.wrangler.api.ExecutorContext;
 import io.cdap.wrangler.api.RecipeException;
 import io.cdap.wrangler.api.RecipeParser;
-import io.cdap.wrangler.api.RecipePipeline;
 import io.cdap.wrangler.api.RecipeSymbol;
 import io.cdap.wrangler.api.Row;
 import io.cdap.wrangler.api.TokenGroup;
@@ -132,7 +131,7 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> impl
   private final Config config;
 
   // Wrangle Execution RecipePipeline
-  private RecipePipeline pipeline;
+  private RecipePipelineExecutor pipeline;
 
   // Output Schema associated with readable output.
   private Schema oSchema = null;
@@ -180,6 +179,12 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> impl
         validateInputSchema(iSchema, collector);
       }
 
+      if (!config.containsMacro(Config.NAME_DIRECTIVE_METRICS_SAMPLE_INTERVAL)
+        && config.getDirectiveMetricsSampleInterval() != null && config.getDirectiveMetricsSampleInterval() < 1) {
+        collector.addFailure("Directive metrics sample interval must be at least 1.", null)
+          .withConfigProperty(Config.NAME_DIRECTIVE_METRICS_SAMPLE_INTERVAL);
+      }
+
       String directives = config.getDirectives();
       if (config.getUDDs() != null && !config.getUDDs().trim().isEmpty()) {
         if (config.containsMacro("directives")) {
@@ -392,6 +397,9 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> impl
     try {
       // Create the pipeline executor with context being set.
       pipeline = new RecipePipelineExecutor(recipe, ctx);
+      if (config.getDirectiveMetricsSampleInterval() != null) {
+        pipeline.enableProfiling(config.getDirectiveMetricsSampleInterval());
+      }
     } catch (Exception e) {
       String errorReason = "Unable to compile the recipe and execute directives.";
       String errorMessage = String.format(
@@ -431,15 +439,7 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> impl
     List<StructuredRecord> records;
 
     try {
-      // Creates a row as starting point for input to the pipeline.
-      Row row = new Row();
-      if ("*".equalsIgnoreCase(config.getField())) {
-        row = StructuredToRowTransformer.transform(input);
-      } else if ("#".equalsIgnoreCase(config.getField())) {
-        row.add(input.getSchema().getRecordName(), input);
-      } else {
-        row.add(config.getField(), StructuredToRowTransformer.getValue(input, config.getField()));
-      }
+      Row row = toRow(input);
 
       // If pre-condition is set, then evaluate the precondition
       if (PRECONDITION_LANGUAGE_JEXL.equalsIgnoreCase(config.getPreconditionLanguage())
@@ -458,52 +458,81 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> impl
       start = System.nanoTime();
       records = pipeline.execute(Collections.singletonList(row), oSchema);
       // We now extract errors from the execution and pass it on to the error emitter.
-      List<ErrorRecord> errors = pipeline.errors();
-      if (errors.size() > 0) {
-        StringJoiner errorMessages = new StringJoiner(",");
-        getContext().getMetrics().count("errors", errors.size());
-        for (ErrorRecord error : errors) {
-          emitter.emitError(new InvalidEntry<>(error.getCode(), error.getMessage(), input));
-          errorMessages.add(error.getMessage());
-        }
-        if (WRANGLER_FAIL_PIPELINE_FOR_ERROR.isEnabled(getContext())
-            && onErrorStrategy.equalsIgnoreCase(ON_ERROR_FAIL_PIPELINE)) {
-          String errorReason = String.format("Errors in Wrangler Transformation - %s",
-              errorMessages);
-          throw ErrorUtils.getProgramFailureException(
-              new ErrorCategory(ErrorCategory.ErrorCategoryEnum.PLUGIN), errorReason, errorReason,
-              ErrorType.UNKNOWN, false, null);
-        }
-      }
+      emitErrors(input, pipeline.errors(), emitter);
     } catch (Exception e) {
-      getContext().getMetrics().count("failure", 1);
-      if (onErrorStrategy.equalsIgnoreCase(ON_ERROR_PROCEED)) {
-        // Emit error record, if the Error flattener or error handlers are not connected, then
-        // the record is automatically omitted.
-        emitter.emitError(new InvalidEntry<>(0, e.getMessage(), input));
-        return;
-      }
-      if (onErrorStrategy.equalsIgnoreCase(ON_ERROR_FAIL_PIPELINE)) {
-        emitter.emitAlert(ImmutableMap.of(
-          "stage", getContext().getStageName(),
-          "code", String.valueOf(1),
-          "message", String.format("Stopping pipeline stage %s on error %s",
-                                   getContext().getStageName(), e.getMessage()),
-          "value", String.valueOf(errorCounter)
-        ));
-        String errorReason = "Error occurred while processing input data, possibly due to invalid "
-            + "transformation or schema mismatch.";
-        String errorMessage = String.format("Pipeline failed at stage:%s, %s: %s",
-            getContext().getStageName(), e.getClass().getName(), e.getMessage());
-        throw WranglerErrorUtil.getProgramFailureExceptionDetailsFromChain(e, errorReason,
-            errorMessage, ErrorType.UNKNOWN);
-      }
-      // If it's 'skip-on-error' we continue processing and don't emit any error records.
+      handleFailure(input, e, emitter);
       return;
     } finally {
       getContext().getMetrics().gauge("process.time", System.nanoTime() - start);
     }
 
+    emitRecords(records, emitter);
+  }
+
+  /**
+   * Creates a row as starting point for input to the pipeline.
+   */
+  private Row toRow(StructuredRecord input) {
+    Row row = new Row();
+    if ("*".equalsIgnoreCase(config.getField())) {
+      row = StructuredToRowTransformer.transform(input);
+    } else if ("#".equalsIgnoreCase(config.getField())) {
+      row.add(input.getSchema().getRecordName(), input);
+    } else {
+      row.add(config.getField(), StructuredToRowTransformer.getValue(input, config.getField()));
+    }
+    return row;
+  }
+
+  private void emitErrors(StructuredRecord input, List<ErrorRecord> errors, Emitter<StructuredRecord> emitter) {
+    if (errors.size() > 0) {
+      StringJoiner errorMessages = new StringJoiner(",");
+      getContext().getMetrics().count("errors", errors.size());
+      for (ErrorRecord error : errors) {
+        emitter.emitError(new InvalidEntry<>(error.getCode(), error.getMessage(), input));
+        errorMessages.add(error.getMessage());
+      }
+      if (WRANGLER_FAIL_PIPELINE_FOR_ERROR.isEnabled(getContext())
+          && onErrorStrategy.equalsIgnoreCase(ON_ERROR_FAIL_PIPELINE)) {
+        String errorReason = String.format("Errors in Wrangler Transformation - %s",
+            errorMessages);
+        throw ErrorUtils.getProgramFailureException(
+            new ErrorCategory(ErrorCategory.ErrorCategoryEnum.PLUGIN), errorReason, errorReason,
+            ErrorType.UNKNOWN, false, null);
+      }
+    }
+  }
+
+  /**
+   * Handles the failure to transform a input record based on the on-error strategy configured.
+   */
+  private void handleFailure(StructuredRecord input, Exception e, Emitter<StructuredRecord> emitter) {
+    getContext().getMetrics().count("failure", 1);
+    if (onErrorStrategy.equalsIgnoreCase(ON_ERROR_PROCEED)) {
+      // Emit error record, if the Error flattener or error handlers are not connected, then
+      // the record is automatically omitted.
+      emitter.emitError(new InvalidEntry<>(0, e.getMessage(), input));
+      return;
+    }
+    if (onErrorStrategy.equalsIgnoreCase(ON_ERROR_FAIL_PIPELINE)) {
+      emitter.emitAlert(ImmutableMap.of(
+        "stage", getContext().getStageName(),
+        "code", String.valueOf(1),
+        "message", String.format("Stopping pipeline stage %s on error %s",
+                                 getContext().getStageName(), e.getMessage()),
+        "value", String.valueOf(errorCounter)
+      ));
+      String errorReason = "Error occurred while processing input data, possibly due to invalid "
+          + "transformation or schema mismatch.";
+      String errorMessage = String.format("Pipeline failed at stage:%s, %s: %s",
+          getContext().getStageName(), e.getClass().getName(), e.getMessage());
+      throw WranglerErrorUtil.getProgramFailureExceptionDetailsFromChain(e, errorReason,
+          errorMessage, ErrorType.UNKNOWN);
+    }
+    // If it's 'skip-on-error' we continue processing and don't emit any error records.
+  }
+
+  private void emitRecords(List<StructuredRecord> records, Emitter<StructuredRecord> emitter) {
     for (StructuredRecord record : records) {
       StructuredRecord.Builder builder = StructuredRecord.builder(oSchema);
       // Iterate through output schema, if the 'record' doesn't have it, then
@@ -704,6 +733,7 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> impl
     static final String NAME_UDD = "udd";
     static final String NAME_SCHEMA = "schema";
     static final String NAME_ON_ERROR = "on-error";
+    static final String NAME_DIRECTIVE_METRICS_SAMPLE_INTERVAL = "directiveMetricsSampleInterval";
 
     @Name(NAME_PRECONDITION_LANGUAGE)
     @Description("Toggle to configure precondition language between JEXL and SQL")
@@ -752,6 +782,13 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> impl
     @Nullable
     private final String onError;
 
+    @Name(NAME_DIRECTIVE_METRICS_SAMPLE_INTERVAL)
+    @Description("Emits the time, rows and errors of each directive as metrics, timing one in every N records. " +
+      "Directive metrics are not emitted if not specified.")
+    @Macro
+    @Nullable
+    private Integer directiveMetricsSampleInterval;
+
     public Config(String preconditionLanguage, String precondition, String directives, String udds,
                   String field, String schema, String onError) {
       this.preconditionLanguage = preconditionLanguage;
@@ -798,6 +835,11 @@ public class Wrangler extends Transform<StructuredRecord, StructuredRecord> impl
     public String getUDDs() {
       return udds;
     }
+
+    @Nullable
+    public Integer getDirectiveMetricsSampleInterval() {
+      return directiveMetricsSampleInterval;
+    }
   }
 }
 
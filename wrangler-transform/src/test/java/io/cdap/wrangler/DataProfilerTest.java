@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2024 Cask Data, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package io.cdap.wrangler;
+
+import io.cdap.cdap.api.data.format.StructuredRecord;
+import io.cdap.cdap.api.data.schema.Schema;
+import io.cdap.cdap.etl.api.validation.ValidationException;
+import io.cdap.cdap.etl.mock.common.MockEmitter;
+import io.cdap.cdap.etl.mock.common.MockPipelineConfigurer;
+import io.cdap.wrangler.statistics.ColumnProfiler;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Tests {@link DataProfiler}
+ */
+public class DataProfilerTest {
+  private static final Schema INPUT = Schema.recordOf(
+    "input",
+    Schema.Field.of("name", Schema.nullableOf(Schema.of(Schema.Type.STRING))),
+    Schema.Field.of("amount", Schema.of(Schema.Type.INT)));
+
+  @Test
+  public void testConfigure() {
+    MockPipelineConfigurer configurer = new MockPipelineConfigurer(INPUT);
+    new DataProfiler(new DataProfiler.Config("name, amount", 5)).configurePipeline(configurer);
+    Assert.assertEquals(DataProfiler.OUTPUT_SCHEMA, configurer.getOutputSchema());
+
+    configurer = new MockPipelineConfigurer(INPUT);
+    new DataProfiler(new DataProfiler.Config("missing", null)).configurePipeline(configurer);
+    try {
+      configurer.getStageConfigurer().getFailureCollector().getOrThrowException();
+      Assert.fail("Expected the missing field to be reported");
+    } catch (ValidationException e) {
+      Assert.assertEquals(1, e.getFailures().size());
+    }
+  }
+
+  @Test
+  public void testPartitionsAreMerged() {
+    DataProfiler profiler = new DataProfiler(new DataProfiler.Config(null, 2));
+    ColumnProfiler first = profiler.initializeAggregateValue(record("a", 1));
+    profiler.mergeValues(first, record("b", 2));
+    ColumnProfiler second = profiler.initializeAggregateValue(record(null, 3));
+    profiler.mergeValues(second, record("a", 4));
+
+    MockEmitter<StructuredRecord> emitter = new MockEmitter<>();
+    profiler.finalize("profile", profiler.mergePartitions(first, second), emitter);
+    List<StructuredRecord> emitted = emitter.getEmitted();
+    Assert.assertEquals(2, emitted.size());
+
+    StructuredRecord name = emitted.get(0);
+    Assert.assertEquals("name", name.get("field"));
+    Assert.assertEquals(4L, (long) name.get("count"));
+    Assert.assertEquals(1L, (long) name.get("nulls"));
+    Assert.assertEquals(2L, (long) name.get("distinct"));
+    Assert.assertNull(name.get("median"));
+    List<StructuredRecord> top = name.get("topValues");
+    Assert.assertEquals("a", top.get(0).get("value"));
+    Assert.assertEquals(2L, (long) top.get(0).get("count"));
+
+    StructuredRecord amount = emitted.get(1);
+    Assert.assertEquals("amount", amount.get("field"));
+    Assert.assertEquals(4L, (long) amount.get("numerics"));
+    Assert.assertEquals(1.0, amount.get("min"), 0.0);
+    Assert.assertEquals(4.0, amount.get("max"), 0.0);
+  }
+
+  private static StructuredRecord record(String name, int amount) {
+    return StructuredRecord.builder(INPUT).set("name", name).set("amount", amount).build();
+  }
+}
@@ -34,6 +34,30 @@ public class PreconditionTest {
     Assert.assertEquals(false, new Precondition("false").apply(row));
   }
 
+  @Test
+  public void testConditionReusedAcrossRows() throws Exception {
+    Precondition precondition = new Precondition("a > 1 && math:abs(b) < 10");
+    Row row = new Row();
+    for (int i = 0; i < 200; i++) {
+      row.add("col" + i, i);
+    }
+    Assert.assertFalse(precondition.apply(new Row(row).add("a", 1).add("b", 2)));
+    Assert.assertTrue(precondition.apply(new Row(row).add("a", 2).add("b", -2)));
+    Assert.assertFalse(precondition.apply(new Row(row).add("a", 2).add("b", 20)));
+  }
+
+  @Test
+  public void testMissingColumnIsNull() throws Exception {
+    Row row = new Row("a", 1);
+    Assert.assertEquals(true, new Precondition("b == null").apply(row));
+    Assert.assertEquals(false, new Precondition("a == 1 && b != null").apply(row));
+  }
+
+  @Test(expected = PreconditionException.class)
+  public void testInvalidCondition() throws Exception {
+    new Precondition("a +* 1");
+  }
+
   @Test(expected = PreconditionException.class)
   public void testBadCondition() throws Exception {
     Row row = new Row("a", 1).add("b", "x").add("c", 2.06);